@@ -0,0 +1,57 @@
+package com.sofka.banking.system.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.enums.TipoTransaccion;
+
+/**
+ * Serialización de historiales de transacciones con la misma configuración de Jackson que usa
+ * Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int tamano;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<TransaccionDTO> transacciones;
+
+    @Setup
+    public void preparar() {
+        LocalDateTime fecha = LocalDateTime.now();
+        transacciones = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            // Mezcla depósitos (sin cuenta destino) y transferencias
+            boolean transferencia = i % 2 == 0;
+            transacciones.add(TransaccionDTO.builder().id((long) i)
+                    .monto(new BigDecimal("25.50"))
+                    .tipo(transferencia ? TipoTransaccion.TRANSFERENCIA : TipoTransaccion.DEPOSITO)
+                    .fecha(fecha).cuentaBancariaId(1L).cuentaDestinoId(transferencia ? 2L : null)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] serializarTransacciones() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transacciones);
+    }
+}
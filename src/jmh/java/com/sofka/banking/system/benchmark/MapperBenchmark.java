@@ -0,0 +1,76 @@
+package com.sofka.banking.system.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.dto.response.UsuarioDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Transaccion;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.mapper.TransaccionMapper;
+import com.sofka.banking.system.mapper.UsuarioMapper;
+
+/**
+ * Mapeo entidad → DTO con los mappers generados por MapStruct, sin contexto de Spring.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int tamano;
+
+    private final TransaccionMapper transaccionMapper = Mappers.getMapper(TransaccionMapper.class);
+    private final UsuarioMapper usuarioMapper = Mappers.getMapper(UsuarioMapper.class);
+
+    private List<Transaccion> transacciones;
+    private Usuario usuario;
+
+    @Setup
+    public void preparar() {
+        usuario = Usuario.builder().id(1L).cedula("12345678").nombre("Juan").apellido("Pérez")
+                .email("juan@email.com").telefono("3001234567").password("sin-uso").build();
+
+        List<CuentaBancaria> cuentas = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            cuentas.add(CuentaBancaria.builder().id((long) i)
+                    .numeroCuenta(String.format("%010d", i))
+                    .saldoActual(new BigDecimal("1000.00")).usuario(usuario).build());
+        }
+        usuario.setCuentasBancarias(cuentas);
+
+        CuentaBancaria origen = cuentas.get(0);
+        CuentaBancaria destino = cuentas.get(cuentas.size() - 1);
+        LocalDateTime fecha = LocalDateTime.now();
+        transacciones = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            transacciones.add(Transaccion.builder().id((long) i).monto(new BigDecimal("25.50"))
+                    .tipo(TipoTransaccion.TRANSFERENCIA).fecha(fecha).cuentaBancaria(origen)
+                    .cuentaDestino(destino).build());
+        }
+    }
+
+    @Benchmark
+    public List<TransaccionDTO> transaccionToDTOList() {
+        return transaccionMapper.toDTOList(transacciones);
+    }
+
+    @Benchmark
+    public UsuarioDTO usuarioToDTOConCuentas() {
+        return usuarioMapper.toDTO(usuario);
+    }
+}
@@ -0,0 +1,99 @@
+package com.sofka.banking.system.benchmark;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import com.sofka.banking.system.Application;
+import com.sofka.banking.system.dto.request.CreateTransaccionDTO;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+import com.sofka.banking.system.service.TransaccionService;
+
+/**
+ * Depósitos concurrentes con los motores JPA, de diario y fragmentado, todos sobre H2 en archivo
+ * para que cada commit llegue a disco.
+ *
+ * Con el motor JPA cada depósito paga su propio commit; con el diario, un flush confirma todos
+ * los depósitos que llegaron durante la ventana de agrupación. El fragmentado no espera a disco:
+ * mide el techo de aplicar en memoria con un escritor por fragmento.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class MotorTransaccionesBenchmark {
+
+    private static final int NUMERO_CUENTAS = 64;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000000.00");
+    private static final BigDecimal MONTO = new BigDecimal("1.00");
+
+    @Param({"jpa", "diario", "fragmentado"})
+    private String motor;
+
+    private ConfigurableApplicationContext contexto;
+    private TransaccionService transaccionService;
+    private List<Long> cuentaIds;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        Path directorio = Files.createTempDirectory("benchmark-motor");
+        contexto = new SpringApplicationBuilder(Application.class)
+                .properties("spring.datasource.url=jdbc:h2:file:" + directorio.resolve("banco"),
+                        "spring.datasource.hikari.maximum-pool-size=32",
+                        "spring.jpa.show-sql=false", "server.port=0", "logging.level.root=WARN",
+                        "banking.transacciones.motor=" + motor,
+                        "banking.diario.ruta=" + directorio.resolve("diario.log"))
+                .run();
+        transaccionService = contexto.getBean(TransaccionService.class);
+
+        UsuarioRepository usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        CuentaBancariaRepository cuentaBancariaRepository =
+                contexto.getBean(CuentaBancariaRepository.class);
+
+        Usuario usuario = usuarioRepository.save(Usuario.builder().cedula("10000000")
+                .nombre("Benchmark").apellido("JMH").email("jmh@email.com")
+                .telefono("3000000000").password("sin-uso").build());
+
+        cuentaIds = new ArrayList<>();
+        for (int i = 0; i < NUMERO_CUENTAS; i++) {
+            cuentaIds.add(cuentaBancariaRepository.save(CuentaBancaria.builder()
+                    .numeroCuenta(String.format("%010d", i)).saldoActual(SALDO_INICIAL)
+                    .usuario(usuario).build()).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public TransaccionDTO registrarTransaccion() {
+        return transaccionService.registrarTransaccion(CreateTransaccionDTO.builder()
+                .cuentaBancariaId(cuentaIds.get(ThreadLocalRandom.current()
+                        .nextInt(NUMERO_CUENTAS)))
+                .monto(MONTO).tipo(TipoTransaccion.DEPOSITO).build());
+    }
+}
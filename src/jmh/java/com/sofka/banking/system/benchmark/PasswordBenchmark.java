@@ -0,0 +1,57 @@
+package com.sofka.banking.system.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import com.sofka.banking.system.config.SecurityConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Verificación de contraseñas tal como la hace {@code AuthController.login}, usando el mismo
+ * {@link PasswordEncoder} que declara {@link SecurityConfig} (BCrypt sobre el pool acotado, con
+ * un hilo). La fuerza se fija por parámetro para comparar el coste de cada punto adicional.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PasswordBenchmark {
+
+    private static final String PASSWORD = "Password123!";
+
+    @Param({"10", "12"})
+    public int fuerza;
+
+    private PasswordEncoder passwordEncoder;
+    private String hash;
+
+    @Setup
+    public void preparar() {
+        passwordEncoder = new SecurityConfig().passwordEncoder(new SimpleMeterRegistry(), 1, 64,
+                Duration.ofSeconds(30), Duration.ZERO, fuerza);
+        hash = passwordEncoder.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void detener() throws Exception {
+        ((AutoCloseable) passwordEncoder).close();
+    }
+
+    @Benchmark
+    public boolean matchesCorrecta() {
+        return passwordEncoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    public boolean matchesIncorrecta() {
+        return passwordEncoder.matches("Incorrecta123!", hash);
+    }
+}
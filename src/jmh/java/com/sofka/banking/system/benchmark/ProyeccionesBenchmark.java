@@ -0,0 +1,162 @@
+package com.sofka.banking.system.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.Session;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.sofka.banking.system.Application;
+import com.sofka.banking.system.dto.response.CuentaBancariaDTO;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Transaccion;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.mapper.CuentaBancariaMapper;
+import com.sofka.banking.system.mapper.TransaccionMapper;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.TransaccionRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+import com.sofka.banking.system.service.CuentaBancariaService;
+import com.sofka.banking.system.service.TransaccionService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Consultas de lectura servidas con proyecciones a DTO frente a cargar entidades y mapearlas
+ * después, como se hacía antes (transacción de escritura, contexto de persistencia y MapStruct).
+ *
+ * Con el perfilador gc de la configuración de jmh, gc.alloc.rate.norm compara los bytes asignados
+ * por operación de cada variante.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProyeccionesBenchmark {
+
+    private static final int NUMERO_CUENTAS = 20;
+    private static final int NUMERO_TRANSACCIONES = 2_000;
+    private static final int MAX_TRANSACCIONES_HISTORIAL = 1000;
+    private static final String NUMERO_CUENTA = String.format("%010d", 0);
+    // La misma consulta UNION ALL de TransaccionHistorialRepositoryImpl: las dos variantes del
+    // historial sólo difieren en cómo se materializan las filas
+    private static final String COLUMNAS =
+            "id, monto, tipo, fecha, cuenta_bancaria_id, cuenta_destino_id";
+    private static final String ORDEN = " ORDER BY fecha DESC, id DESC LIMIT :limite";
+    private static final String SQL_HISTORIAL = "(SELECT " + COLUMNAS + " FROM transacciones "
+            + "WHERE cuenta_bancaria_id = :cuentaId" + ORDEN + ") UNION ALL "
+            + "(SELECT " + COLUMNAS + " FROM transacciones "
+            + "WHERE cuenta_destino_id = :cuentaId" + ORDEN + ")" + ORDEN;
+
+    private ConfigurableApplicationContext contexto;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private CuentaBancariaRepository cuentaBancariaRepository;
+    private CuentaBancariaMapper cuentaBancariaMapper;
+    private TransaccionMapper transaccionMapper;
+    private CuentaBancariaService cuentaBancariaService;
+    private TransaccionService transaccionService;
+    private Long usuarioId;
+    private Long cuentaId;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(Application.class)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false", "server.port=0",
+                        "logging.level.root=WARN")
+                .run();
+        entityManager = SharedEntityManagerCreator
+                .createSharedEntityManager(contexto.getBean(EntityManagerFactory.class));
+        transactionTemplate = contexto.getBean(TransactionTemplate.class);
+        cuentaBancariaRepository = contexto.getBean(CuentaBancariaRepository.class);
+        cuentaBancariaMapper = contexto.getBean(CuentaBancariaMapper.class);
+        transaccionMapper = contexto.getBean(TransaccionMapper.class);
+        cuentaBancariaService = contexto.getBean(CuentaBancariaService.class);
+        transaccionService = contexto.getBean(TransaccionService.class);
+
+        Usuario usuario = contexto.getBean(UsuarioRepository.class).save(Usuario.builder()
+                .cedula("10000000").nombre("Benchmark").apellido("JMH").email("jmh@email.com")
+                .telefono("3000000000").password("sin-uso").build());
+        usuarioId = usuario.getId();
+
+        List<CuentaBancaria> cuentas = new ArrayList<>();
+        for (int i = 0; i < NUMERO_CUENTAS; i++) {
+            cuentas.add(cuentaBancariaRepository.save(CuentaBancaria.builder()
+                    .numeroCuenta(String.format("%010d", i))
+                    .saldoActual(new BigDecimal("1000.00")).usuario(usuario).build()));
+        }
+        CuentaBancaria cuenta = cuentas.get(0);
+        cuentaId = cuenta.getId();
+
+        // Historial en ambos sentidos: depósitos propios y transferencias recibidas
+        LocalDateTime fecha = LocalDateTime.now();
+        List<Transaccion> transacciones = new ArrayList<>(NUMERO_TRANSACCIONES);
+        for (int i = 0; i < NUMERO_TRANSACCIONES; i++) {
+            boolean recibida = i % 4 == 0;
+            transacciones.add(Transaccion.builder()
+                    .cuentaBancaria(recibida ? cuentas.get(1 + i % (NUMERO_CUENTAS - 1)) : cuenta)
+                    .cuentaDestino(recibida ? cuenta : null).monto(BigDecimal.ONE)
+                    .tipo(recibida ? TipoTransaccion.TRANSFERENCIA : TipoTransaccion.DEPOSITO)
+                    .fecha(fecha.minusSeconds(i)).build());
+        }
+        contexto.getBean(TransaccionRepository.class).saveAll(transacciones);
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<TransaccionDTO> historialConEntidades() {
+        return transactionTemplate.execute(status -> transaccionMapper.toDTOList(entityManager
+                .unwrap(Session.class).createNativeQuery(SQL_HISTORIAL, Transaccion.class)
+                .setParameter("cuentaId", cuentaId)
+                .setParameter("limite", MAX_TRANSACCIONES_HISTORIAL).getResultList()));
+    }
+
+    @Benchmark
+    public List<TransaccionDTO> historialConProyeccion() {
+        return transaccionService.obtenerTransaccionesPorCuenta(cuentaId);
+    }
+
+    @Benchmark
+    public List<CuentaBancariaDTO> cuentasConEntidades() {
+        return transactionTemplate.execute(status -> cuentaBancariaMapper.toDTOList(entityManager
+                .createQuery("SELECT c FROM CuentaBancaria c WHERE c.usuario.id = :usuarioId",
+                        CuentaBancaria.class)
+                .setParameter("usuarioId", usuarioId).getResultList()));
+    }
+
+    @Benchmark
+    public List<CuentaBancariaDTO> cuentasConProyeccion() {
+        return cuentaBancariaService.obtenerCuentasPorUsuario(usuarioId);
+    }
+
+    @Benchmark
+    public CuentaBancariaDTO numeroCuentaConEntidad() {
+        CuentaBancaria cuenta =
+                cuentaBancariaRepository.findByNumeroCuenta(NUMERO_CUENTA).orElseThrow();
+        return cuentaBancariaService.consultarSaldo(cuenta.getId());
+    }
+
+    @Benchmark
+    public CuentaBancariaDTO numeroCuentaConId() {
+        return cuentaBancariaService.buscarPorNumeroCuenta(NUMERO_CUENTA);
+    }
+}
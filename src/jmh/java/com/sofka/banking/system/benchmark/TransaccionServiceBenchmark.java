@@ -0,0 +1,99 @@
+package com.sofka.banking.system.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import com.sofka.banking.system.Application;
+import com.sofka.banking.system.dto.request.CreateTransaccionDTO;
+import com.sofka.banking.system.dto.request.CreateTransferenciaDTO;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+import com.sofka.banking.system.service.TransaccionService;
+
+/**
+ * Depósitos y transferencias de extremo a extremo (servicio, bloqueos, JPA y H2 en memoria).
+ *
+ * Los saldos iniciales son lo bastante altos para que ninguna operación sea rechazada durante la
+ * medición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransaccionServiceBenchmark {
+
+    private static final int NUMERO_CUENTAS = 64;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000000.00");
+    private static final BigDecimal MONTO = new BigDecimal("1.00");
+
+    private ConfigurableApplicationContext contexto;
+    private TransaccionService transaccionService;
+    private List<Long> cuentaIds;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(Application.class)
+                .properties("spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false", "server.port=0",
+                        "logging.level.root=WARN")
+                .run();
+        transaccionService = contexto.getBean(TransaccionService.class);
+
+        UsuarioRepository usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        CuentaBancariaRepository cuentaBancariaRepository =
+                contexto.getBean(CuentaBancariaRepository.class);
+
+        Usuario usuario = usuarioRepository.save(Usuario.builder().cedula("10000000")
+                .nombre("Benchmark").apellido("JMH").email("jmh@email.com")
+                .telefono("3000000000").password("sin-uso").build());
+
+        cuentaIds = new ArrayList<>();
+        for (int i = 0; i < NUMERO_CUENTAS; i++) {
+            cuentaIds.add(cuentaBancariaRepository.save(CuentaBancaria.builder()
+                    .numeroCuenta(String.format("%010d", i)).saldoActual(SALDO_INICIAL)
+                    .usuario(usuario).build()).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public TransaccionDTO registrarTransaccion() {
+        return transaccionService.registrarTransaccion(CreateTransaccionDTO.builder()
+                .cuentaBancariaId(cuentaAleatoria()).monto(MONTO)
+                .tipo(TipoTransaccion.DEPOSITO).build());
+    }
+
+    @Benchmark
+    public TransaccionDTO realizarTransferencia() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int origen = random.nextInt(NUMERO_CUENTAS);
+        int destino = (origen + 1 + random.nextInt(NUMERO_CUENTAS - 1)) % NUMERO_CUENTAS;
+        return transaccionService.realizarTransferencia(CreateTransferenciaDTO.builder()
+                .cuentaOrigenId(cuentaIds.get(origen)).cuentaDestinoId(cuentaIds.get(destino))
+                .monto(MONTO).build());
+    }
+
+    private Long cuentaAleatoria() {
+        return cuentaIds.get(ThreadLocalRandom.current().nextInt(NUMERO_CUENTAS));
+    }
+}
@@ -0,0 +1,94 @@
+package com.sofka.banking.system.carga;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Parámetros del escenario, leídos de propiedades de sistema {@code carga.*} (la tarea
+ * {@code loadTest} reenvía las {@code -Pcarga.*} de Gradle). Las {@code carga.app.*} se pasan a
+ * la aplicación sin el prefijo, p. ej. {@code -Pcarga.app.banking.transacciones.motor=diario}.
+ *
+ * @param tasa peticiones por segundo, constante e independiente de las respuestas
+ * @param duracion tiempo medido, después del calentamiento
+ * @param calentamiento tiempo inicial a la misma tasa que no entra en los resultados
+ * @param mezcla peso de cada operación en el tráfico
+ * @param usuarios usuarios sembrados
+ * @param cuentasPorUsuario cuentas sembradas por usuario
+ * @param historialPorCuenta transacciones previas por cuenta
+ * @param maxEnVuelo peticiones simultáneas antes de descartar las siguientes
+ * @param timeout tiempo máximo de respuesta de una petición
+ * @param perfil perfil de Spring de la aplicación (vacío = ninguno)
+ * @param salida directorio de los informes
+ * @param propiedadesApp propiedades adicionales de la aplicación
+ */
+record ConfiguracionCarga(int tasa, Duration duracion, Duration calentamiento,
+        Map<Operacion, Integer> mezcla, int usuarios, int cuentasPorUsuario,
+        int historialPorCuenta, int maxEnVuelo, Duration timeout, String perfil, Path salida,
+        Map<String, String> propiedadesApp) {
+
+    private static final String PREFIJO = "carga.";
+    private static final String PREFIJO_APP = "carga.app.";
+    private static final String MEZCLA_POR_DEFECTO =
+            "login:5,saldo:40,deposito:20,transferencia:15,historial:20";
+
+    ConfiguracionCarga {
+        if (tasa <= 0) {
+            throw new IllegalArgumentException("carga.tasa debe ser positiva");
+        }
+        if (usuarios * cuentasPorUsuario < 2) {
+            throw new IllegalArgumentException("Las transferencias necesitan al menos 2 cuentas");
+        }
+        if (mezcla.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("carga.mezcla no tiene ninguna operación");
+        }
+    }
+
+    static ConfiguracionCarga desdePropiedades(Properties propiedades) {
+        Map<String, String> propiedadesApp = new TreeMap<>();
+        for (String nombre : propiedades.stringPropertyNames()) {
+            if (nombre.startsWith(PREFIJO_APP)) {
+                propiedadesApp.put(nombre.substring(PREFIJO_APP.length()),
+                        propiedades.getProperty(nombre));
+            }
+        }
+
+        return new ConfiguracionCarga(
+                Integer.parseInt(valor(propiedades, "tasa", "200")),
+                DurationStyle.detectAndParse(valor(propiedades, "duracion", "60s")),
+                DurationStyle.detectAndParse(valor(propiedades, "calentamiento", "10s")),
+                mezcla(valor(propiedades, "mezcla", MEZCLA_POR_DEFECTO)),
+                Integer.parseInt(valor(propiedades, "usuarios", "100")),
+                Integer.parseInt(valor(propiedades, "cuentas-por-usuario", "2")),
+                Integer.parseInt(valor(propiedades, "historial-por-cuenta", "200")),
+                Integer.parseInt(valor(propiedades, "max-en-vuelo", "10000")),
+                DurationStyle.detectAndParse(valor(propiedades, "timeout", "30s")),
+                valor(propiedades, "perfil", ""),
+                Path.of(valor(propiedades, "salida", "build/reports/carga")),
+                propiedadesApp);
+    }
+
+    // "login:5,saldo:40,..." (operaciones sin peso no se generan)
+    private static Map<Operacion, Integer> mezcla(String texto) {
+        Map<Operacion, Integer> pesos = new EnumMap<>(Operacion.class);
+        for (String parte : texto.split(",")) {
+            String[] nombreYPeso = parte.trim().split(":");
+            if (nombreYPeso.length != 2) {
+                throw new IllegalArgumentException("Entrada de carga.mezcla inválida: " + parte);
+            }
+            Operacion operacion = Operacion.valueOf(nombreYPeso[0].trim().toUpperCase(Locale.ROOT));
+            pesos.put(operacion, Integer.parseInt(nombreYPeso[1].trim()));
+        }
+        return pesos;
+    }
+
+    private static String valor(Properties propiedades, String nombre, String porDefecto) {
+        String valor = propiedades.getProperty(PREFIJO + nombre);
+        return valor == null || valor.isBlank() ? porDefecto : valor.trim();
+    }
+}
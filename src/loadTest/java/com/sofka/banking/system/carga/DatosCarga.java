@@ -0,0 +1,108 @@
+package com.sofka.banking.system.carga;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Transaccion;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.TransaccionRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+
+/**
+ * Usuarios, cuentas e historial sembrados antes de la medición, directamente con los
+ * repositorios (por lotes) en lugar de por la API.
+ *
+ * Todos los usuarios comparten contraseña y se guarda un único hash: sembrar miles de usuarios no
+ * cuesta miles de BCrypt, pero cada login sí verifica con la fuerza configurada. Los saldos son
+ * lo bastante altos para que ninguna operación se rechace por saldo insuficiente.
+ */
+final class DatosCarga {
+
+    static final String PASSWORD = "CargaPassword123!";
+
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("1000000000.00");
+    private static final int TAMANO_LOTE = 1_000;
+
+    private final String[] cedulas;
+    private final long[] cuentaIds;
+
+    private DatosCarga(String[] cedulas, long[] cuentaIds) {
+        this.cedulas = cedulas;
+        this.cuentaIds = cuentaIds;
+    }
+
+    static DatosCarga sembrar(ConfigurableApplicationContext contexto,
+            ConfiguracionCarga configuracion) {
+        UsuarioRepository usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        CuentaBancariaRepository cuentaBancariaRepository =
+                contexto.getBean(CuentaBancariaRepository.class);
+        TransaccionRepository transaccionRepository =
+                contexto.getBean(TransaccionRepository.class);
+        String hash = contexto.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        List<Usuario> usuarios = new ArrayList<>(configuracion.usuarios());
+        for (int i = 0; i < configuracion.usuarios(); i++) {
+            usuarios.add(Usuario.builder().cedula(String.format("%08d", 30_000_000 + i))
+                    .nombre("Carga").apellido("Usuario " + i).email("carga" + i + "@email.com")
+                    .telefono("3000000000").password(hash).build());
+        }
+        usuarios = usuarioRepository.saveAll(usuarios);
+
+        List<CuentaBancaria> cuentas = new ArrayList<>();
+        for (Usuario usuario : usuarios) {
+            for (int c = 0; c < configuracion.cuentasPorUsuario(); c++) {
+                cuentas.add(CuentaBancaria.builder()
+                        .numeroCuenta(String.format("%010d", cuentas.size()))
+                        .saldoActual(SALDO_INICIAL).usuario(usuario).build());
+            }
+        }
+        cuentas = cuentaBancariaRepository.saveAll(cuentas);
+
+        // Historial previo para que las consultas paginadas recorran índices con datos
+        LocalDateTime ahora = LocalDateTime.now();
+        List<Transaccion> lote = new ArrayList<>(TAMANO_LOTE);
+        for (CuentaBancaria cuenta : cuentas) {
+            for (int t = 0; t < configuracion.historialPorCuenta(); t++) {
+                lote.add(Transaccion.builder().cuentaBancaria(cuenta).monto(BigDecimal.ONE)
+                        .tipo(TipoTransaccion.DEPOSITO).fecha(ahora.minusMinutes(t)).build());
+                if (lote.size() == TAMANO_LOTE) {
+                    transaccionRepository.saveAll(lote);
+                    lote.clear();
+                }
+            }
+        }
+        transaccionRepository.saveAll(lote);
+
+        return new DatosCarga(usuarios.stream().map(Usuario::getCedula).toArray(String[]::new),
+                cuentas.stream().mapToLong(CuentaBancaria::getId).toArray());
+    }
+
+    int cuentas() {
+        return cuentaIds.length;
+    }
+
+    int usuarios() {
+        return cedulas.length;
+    }
+
+    String cedulaAleatoria(ThreadLocalRandom random) {
+        return cedulas[random.nextInt(cedulas.length)];
+    }
+
+    long cuentaAleatoria(ThreadLocalRandom random) {
+        return cuentaIds[random.nextInt(cuentaIds.length)];
+    }
+
+    long[] parDeCuentasAleatorio(ThreadLocalRandom random) {
+        int origen = random.nextInt(cuentaIds.length);
+        int destino = (origen + 1 + random.nextInt(cuentaIds.length - 1)) % cuentaIds.length;
+        return new long[] {cuentaIds[origen], cuentaIds[destino]};
+    }
+}
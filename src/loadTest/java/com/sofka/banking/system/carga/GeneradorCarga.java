@@ -0,0 +1,191 @@
+package com.sofka.banking.system.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import com.sofka.banking.system.Application;
+
+/**
+ * Generador de carga de modelo abierto: levanta la aplicación en un puerto aleatorio sobre una H2
+ * en memoria, siembra datos y lanza peticiones a tasa constante con la mezcla configurada.
+ *
+ * La petición n está programada en {@code inicio + n / tasa} y sale en su propio hilo virtual sin
+ * esperar a las anteriores, como llegan los clientes reales: si el servidor se satura, las
+ * peticiones se acumulan en vuelo en lugar de frenar la tasa. Ver {@link MedicionesCarga} para
+ * los tiempos registrados y {@link ConfiguracionCarga} para los parámetros.
+ *
+ * Se ejecuta con {@code ./gradlew loadTest [-Pcarga.tasa=500 -Pcarga.duracion=2m ...]}.
+ */
+public final class GeneradorCarga {
+
+    private final ConfiguracionCarga configuracion;
+    private final URI base;
+    private final DatosCarga datos;
+    private final Operacion[] operaciones;
+    private final int[] pesosAcumulados;
+    private final MedicionesCarga mediciones = new MedicionesCarga();
+    private final AtomicInteger enVuelo = new AtomicInteger();
+
+    GeneradorCarga(ConfiguracionCarga configuracion, URI base, DatosCarga datos) {
+        this.configuracion = configuracion;
+        this.base = base;
+        this.datos = datos;
+
+        List<Operacion> elegibles = new ArrayList<>();
+        List<Integer> acumulados = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<Operacion, Integer> entrada : configuracion.mezcla().entrySet()) {
+            if (entrada.getValue() > 0) {
+                total += entrada.getValue();
+                elegibles.add(entrada.getKey());
+                acumulados.add(total);
+            }
+        }
+        this.operaciones = elegibles.toArray(Operacion[]::new);
+        this.pesosAcumulados = acumulados.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public static void main(String[] args) throws Exception {
+        ConfiguracionCarga configuracion =
+                ConfiguracionCarga.desdePropiedades(System.getProperties());
+
+        try (ConfigurableApplicationContext contexto = iniciarAplicacion(configuracion)) {
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            DatosCarga datos = DatosCarga.sembrar(contexto, configuracion);
+            System.out.printf("[carga] %d usuarios, %d cuentas; %d pet/s durante %s (+%s de "
+                    + "calentamiento), mezcla %s%n", datos.usuarios(), datos.cuentas(),
+                    configuracion.tasa(), configuracion.duracion(),
+                    configuracion.calentamiento(), configuracion.mezcla());
+
+            GeneradorCarga generador = new GeneradorCarga(configuracion,
+                    URI.create("http://localhost:" + puerto), datos);
+            MedicionesCarga mediciones = generador.ejecutar();
+
+            mediciones.imprimir(System.out);
+            Path informe = mediciones.escribir(configuracion.salida());
+            System.out.println("[carga] Informes en " + informe.toAbsolutePath());
+        }
+    }
+
+    private static ConfigurableApplicationContext iniciarAplicacion(
+            ConfiguracionCarga configuracion) {
+        List<String> propiedades = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:carga;DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false", "server.port=0", "logging.level.root=WARN",
+                "banking.diario.ruta="
+                        + configuracion.salida().resolve("diario-transacciones.log")));
+        configuracion.propiedadesApp()
+                .forEach((nombre, valor) -> propiedades.add(nombre + "=" + valor));
+
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Application.class)
+                .properties(propiedades.toArray(String[]::new));
+        if (!configuracion.perfil().isBlank()) {
+            builder.profiles(configuracion.perfil());
+        }
+        return builder.run();
+    }
+
+    MedicionesCarga ejecutar() throws InterruptedException {
+        double nanosPorPeticion = TimeUnit.SECONDS.toNanos(1) / (double) configuracion.tasa();
+        long inicio = System.nanoTime();
+        long finCalentamiento = inicio + configuracion.calentamiento().toNanos();
+        long fin = finCalentamiento + configuracion.duracion().toNanos();
+        boolean midiendo = false;
+
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor();
+                HttpClient http = HttpClient.newBuilder().executor(hilos)
+                        .connectTimeout(Duration.ofSeconds(10)).build()) {
+            for (long n = 0;; n++) {
+                long programada = inicio + (long) (n * nanosPorPeticion);
+                if (programada >= fin) {
+                    break;
+                }
+                long espera = programada - System.nanoTime();
+                if (espera > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+
+                boolean medir = programada >= finCalentamiento;
+                if (medir && !midiendo) {
+                    midiendo = true;
+                    mediciones.iniciar();
+                }
+                Operacion operacion = elegir(ThreadLocalRandom.current());
+                // Tope de seguridad: un servidor detenido no debe agotar la memoria del generador
+                if (enVuelo.incrementAndGet() > configuracion.maxEnVuelo()) {
+                    enVuelo.decrementAndGet();
+                    if (medir) {
+                        mediciones.registrarDescarte(operacion);
+                    }
+                    continue;
+                }
+                hilos.execute(() -> enviar(http, operacion, programada, medir));
+            }
+            mediciones.terminar();
+
+            hilos.shutdown();
+            long margen = configuracion.timeout().toSeconds() + 10;
+            if (!hilos.awaitTermination(margen, TimeUnit.SECONDS)) {
+                System.out.printf("[carga] %d peticiones sin responder al terminar%n",
+                        enVuelo.get());
+            }
+        }
+        return mediciones;
+    }
+
+    private void enviar(HttpClient http, Operacion operacion, long programada, boolean medir) {
+        try {
+            long salida = System.nanoTime();
+            String error = null;
+            try {
+                HttpResponse<String> respuesta = http.send(
+                        operacion.crear(base, datos, configuracion.timeout()),
+                        HttpResponse.BodyHandlers.ofString());
+                if (respuesta.statusCode() >= 400) {
+                    error = "HTTP " + respuesta.statusCode() + ": " + respuesta.body();
+                }
+            } catch (IOException e) {
+                // Un timeout también cuenta su espera: descartarlo recortaría la cola
+                error = e.toString();
+            }
+            long llegada = System.nanoTime();
+
+            if (medir) {
+                mediciones.registrar(operacion, (llegada - salida) / 1_000,
+                        (llegada - programada) / 1_000);
+                if (error != null) {
+                    mediciones.registrarError(operacion, error);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            enVuelo.decrementAndGet();
+        }
+    }
+
+    private Operacion elegir(ThreadLocalRandom random) {
+        int valor = random.nextInt(pesosAcumulados[pesosAcumulados.length - 1]);
+        for (int i = 0; i < pesosAcumulados.length; i++) {
+            if (valor < pesosAcumulados[i]) {
+                return operaciones[i];
+            }
+        }
+        return operaciones[operaciones.length - 1];
+    }
+}
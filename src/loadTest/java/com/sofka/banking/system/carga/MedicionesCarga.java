@@ -0,0 +1,215 @@
+package com.sofka.banking.system.carga;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+/**
+ * Latencias por operación en histogramas HDR (microsegundos, 3 dígitos significativos).
+ *
+ * Cada respuesta se registra dos veces: como tiempo de servicio, desde que la petición salió, y
+ * como tiempo corregido, desde el instante en que estaba programada. Con tasa constante, si el
+ * servidor (o el propio generador) se atrasa, las peticiones siguientes salen tarde y sólo el
+ * tiempo corregido refleja esa espera: es la corrección de la omisión coordinada.
+ */
+final class MedicionesCarga {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final double MICROS_POR_MS = 1_000.0;
+    private static final DateTimeFormatter CARPETA =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Map<Operacion, Medicion> porOperacion = new EnumMap<>(Operacion.class);
+    private volatile long inicioMs;
+    private volatile long finMs;
+
+    MedicionesCarga() {
+        for (Operacion operacion : Operacion.values()) {
+            porOperacion.put(operacion, new Medicion());
+        }
+    }
+
+    void iniciar() {
+        inicioMs = System.currentTimeMillis();
+    }
+
+    void terminar() {
+        finMs = System.currentTimeMillis();
+    }
+
+    void registrar(Operacion operacion, long servicioMicros, long corregidaMicros) {
+        Medicion medicion = porOperacion.get(operacion);
+        medicion.servicio.recordValue(servicioMicros);
+        medicion.corregida.recordValue(corregidaMicros);
+    }
+
+    void registrarError(Operacion operacion, String descripcion) {
+        Medicion medicion = porOperacion.get(operacion);
+        medicion.errores.increment();
+        medicion.primerError.compareAndSet(null, descripcion);
+    }
+
+    void registrarDescarte(Operacion operacion) {
+        porOperacion.get(operacion).descartadas.increment();
+    }
+
+    /**
+     * Escribe en una carpeta nueva bajo {@code salida}:
+     * <ul>
+     * <li>{@code resumen.csv}: peticiones, errores y percentiles en ms por operación y en total,
+     * de servicio y corregidos;</li>
+     * <li>{@code <operacion>-servicio.hgrm} y {@code <operacion>-corregida.hgrm}: distribución
+     * completa de percentiles en ms (formato de HdrHistogram, para graficar);</li>
+     * <li>{@code latencias.hlog}: los histogramas etiquetados en el formato de log de
+     * HdrHistogram, para combinarlos o compararlos con otras ejecuciones.</li>
+     * </ul>
+     *
+     * @return carpeta del informe
+     */
+    Path escribir(Path salida) throws IOException {
+        Path carpeta = Files.createDirectories(salida.resolve(LocalDateTime.now().format(CARPETA)));
+        double segundos = Math.max(finMs - inicioMs, 1) / 1_000.0;
+
+        Histogram servicioTotal = new Histogram(3);
+        Histogram corregidaTotal = new Histogram(3);
+        try (PrintStream resumen = imprimirEn(carpeta.resolve("resumen.csv"));
+                PrintStream log = imprimirEn(carpeta.resolve("latencias.hlog"))) {
+            resumen.println(cabecera());
+            HistogramLogWriter escritor = new HistogramLogWriter(log);
+            escritor.outputLogFormatVersion();
+            escritor.outputStartTime(inicioMs);
+            escritor.setBaseTime(inicioMs);
+            escritor.outputLegend();
+
+            long errores = 0;
+            long descartadas = 0;
+            for (Map.Entry<Operacion, Medicion> entrada : porOperacion.entrySet()) {
+                String nombre = entrada.getKey().nombre();
+                Medicion medicion = entrada.getValue();
+                Histogram servicio = medicion.servicio.copy();
+                Histogram corregida = medicion.corregida.copy();
+                if (servicio.getTotalCount() == 0 && medicion.errores.sum() == 0
+                        && medicion.descartadas.sum() == 0) {
+                    continue;
+                }
+                servicioTotal.add(servicio);
+                corregidaTotal.add(corregida);
+                errores += medicion.errores.sum();
+                descartadas += medicion.descartadas.sum();
+
+                resumen.println(fila(nombre, servicio, corregida, medicion.errores.sum(),
+                        medicion.descartadas.sum(), segundos));
+                distribucion(carpeta.resolve(nombre + "-servicio.hgrm"), servicio);
+                distribucion(carpeta.resolve(nombre + "-corregida.hgrm"), corregida);
+                intervalo(escritor, nombre + "-servicio", servicio);
+                intervalo(escritor, nombre + "-corregida", corregida);
+            }
+            resumen.println(fila("total", servicioTotal, corregidaTotal, errores, descartadas,
+                    segundos));
+            distribucion(carpeta.resolve("total-servicio.hgrm"), servicioTotal);
+            distribucion(carpeta.resolve("total-corregida.hgrm"), corregidaTotal);
+        }
+        return carpeta;
+    }
+
+    /**
+     * Tabla legible con los mismos datos que {@code resumen.csv}.
+     */
+    void imprimir(PrintStream salida) {
+        double segundos = Math.max(finMs - inicioMs, 1) / 1_000.0;
+        salida.printf("%-14s %9s %9s %8s %10s %10s %10s %10s%n", "operacion", "peticiones",
+                "pet/s", "errores", "p50 ms", "p99 ms", "p99 corr", "max corr");
+        porOperacion.forEach((operacion, medicion) -> {
+            Histogram servicio = medicion.servicio.copy();
+            Histogram corregida = medicion.corregida.copy();
+            if (servicio.getTotalCount() == 0 && medicion.errores.sum() == 0) {
+                return;
+            }
+            salida.printf(Locale.ROOT, "%-14s %9d %9.1f %8d %10.2f %10.2f %10.2f %10.2f%n",
+                    operacion.nombre(), servicio.getTotalCount(),
+                    servicio.getTotalCount() / segundos, medicion.errores.sum(),
+                    ms(servicio.getValueAtPercentile(50)), ms(servicio.getValueAtPercentile(99)),
+                    ms(corregida.getValueAtPercentile(99)), ms(corregida.getMaxValue()));
+            if (medicion.primerError.get() != null) {
+                salida.printf("    primer error: %s%n", medicion.primerError.get());
+            }
+        });
+    }
+
+    private static String cabecera() {
+        StringBuilder cabecera = new StringBuilder(
+                "operacion,peticiones,peticiones_por_segundo,errores,descartadas");
+        for (String tipo : new String[] {"servicio", "corregida"}) {
+            for (double percentil : PERCENTILES) {
+                cabecera.append(',').append(tipo).append("_p").append(etiqueta(percentil))
+                        .append("_ms");
+            }
+            cabecera.append(',').append(tipo).append("_max_ms");
+        }
+        return cabecera.toString();
+    }
+
+    private static String fila(String nombre, Histogram servicio, Histogram corregida,
+            long errores, long descartadas, double segundos) {
+        StringBuilder fila = new StringBuilder(nombre).append(',')
+                .append(servicio.getTotalCount()).append(',')
+                .append(String.format(Locale.ROOT, "%.1f", servicio.getTotalCount() / segundos))
+                .append(',').append(errores).append(',').append(descartadas);
+        for (Histogram histograma : new Histogram[] {servicio, corregida}) {
+            for (double percentil : PERCENTILES) {
+                fila.append(',').append(String.format(Locale.ROOT, "%.3f",
+                        ms(histograma.getValueAtPercentile(percentil))));
+            }
+            fila.append(',')
+                    .append(String.format(Locale.ROOT, "%.3f", ms(histograma.getMaxValue())));
+        }
+        return fila.toString();
+    }
+
+    private static void distribucion(Path archivo, Histogram histograma) throws IOException {
+        try (PrintStream salida = imprimirEn(archivo)) {
+            histograma.outputPercentileDistribution(salida, MICROS_POR_MS);
+        }
+    }
+
+    private static PrintStream imprimirEn(Path archivo) throws IOException {
+        return new PrintStream(Files.newOutputStream(archivo), false, StandardCharsets.UTF_8);
+    }
+
+    private void intervalo(HistogramLogWriter escritor, String etiqueta, Histogram histograma) {
+        histograma.setTag(etiqueta);
+        histograma.setStartTimeStamp(inicioMs);
+        histograma.setEndTimeStamp(finMs);
+        escritor.outputIntervalHistogram(histograma);
+    }
+
+    private static String etiqueta(double percentil) {
+        return percentil == Math.rint(percentil) ? Long.toString((long) percentil)
+                : Double.toString(percentil).replace(".", "");
+    }
+
+    private static double ms(long micros) {
+        return micros / MICROS_POR_MS;
+    }
+
+    private static final class Medicion {
+        // Se redimensionan solos: una latencia fuera de rango no se pierde
+        private final ConcurrentHistogram servicio = new ConcurrentHistogram(3);
+        private final ConcurrentHistogram corregida = new ConcurrentHistogram(3);
+        private final LongAdder errores = new LongAdder();
+        private final LongAdder descartadas = new LongAdder();
+        private final AtomicReference<String> primerError = new AtomicReference<>();
+    }
+}
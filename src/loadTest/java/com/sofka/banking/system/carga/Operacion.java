@@ -0,0 +1,72 @@
+package com.sofka.banking.system.carga;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Peticiones de la mezcla de tráfico. Cada una elige al azar el usuario o las cuentas sobre las
+ * que actúa entre los datos sembrados.
+ */
+public enum Operacion {
+
+    LOGIN {
+        @Override
+        HttpRequest.Builder peticion(URI base, DatosCarga datos, ThreadLocalRandom random) {
+            return json(base.resolve("/auth/login"), String.format(
+                    "{\"cedula\":\"%s\",\"password\":\"%s\"}",
+                    datos.cedulaAleatoria(random), DatosCarga.PASSWORD));
+        }
+    },
+    SALDO {
+        @Override
+        HttpRequest.Builder peticion(URI base, DatosCarga datos, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(
+                    base.resolve("/cuentas/" + datos.cuentaAleatoria(random) + "/saldo")).GET();
+        }
+    },
+    DEPOSITO {
+        @Override
+        HttpRequest.Builder peticion(URI base, DatosCarga datos, ThreadLocalRandom random) {
+            return json(base.resolve("/transacciones"), String.format(
+                    "{\"cuentaBancariaId\":%d,\"monto\":1.00,\"tipo\":\"DEPOSITO\"}",
+                    datos.cuentaAleatoria(random)));
+        }
+    },
+    TRANSFERENCIA {
+        @Override
+        HttpRequest.Builder peticion(URI base, DatosCarga datos, ThreadLocalRandom random) {
+            long[] cuentas = datos.parDeCuentasAleatorio(random);
+            return json(base.resolve("/transacciones/transferencia"), String.format(
+                    "{\"cuentaOrigenId\":%d,\"cuentaDestinoId\":%d,\"monto\":1.00}",
+                    cuentas[0], cuentas[1]));
+        }
+    },
+    HISTORIAL {
+        @Override
+        HttpRequest.Builder peticion(URI base, DatosCarga datos, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(base.resolve("/transacciones/cuenta/"
+                    + datos.cuentaAleatoria(random) + "/pagina?limit=50")).GET();
+        }
+    };
+
+    abstract HttpRequest.Builder peticion(URI base, DatosCarga datos, ThreadLocalRandom random);
+
+    HttpRequest crear(URI base, DatosCarga datos, Duration timeout) {
+        return peticion(base, datos, ThreadLocalRandom.current()).timeout(timeout).build();
+    }
+
+    /**
+     * Nombre en la mezcla ({@code carga.mezcla}) y en los informes.
+     */
+    String nombre() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    private static HttpRequest.Builder json(URI uri, String cuerpo) {
+        return HttpRequest.newBuilder(uri).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(cuerpo));
+    }
+}
@@ -0,0 +1,43 @@
+package com.sofka.banking.system.cache;
+
+import java.util.stream.Stream;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import com.sofka.banking.system.datasource.LecturaTrasEscritura;
+import com.sofka.banking.system.enums.CampoUnico;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+import lombok.AllArgsConstructor;
+
+/**
+ * Carga los filtros de unicidad con un recorrido por lotes de cada columna al terminar el
+ * arranque; mientras tanto las comprobaciones van a la base de datos.
+ */
+@Component
+@AllArgsConstructor
+public class CargaFiltrosUnicidad {
+
+    private final UsuarioRepository usuarioRepository;
+    private final CuentaBancariaRepository cuentaBancariaRepository;
+    private final FiltrosUnicidad filtrosUnicidad;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void cargar() {
+        // Desde la primaria: un valor que aún no llegó a la réplica faltaría en el filtro y su
+        // duplicado no se detectaría antes del INSERT
+        LecturaTrasEscritura.enPrimaria(() -> {
+            try (Stream<String> cedulas = usuarioRepository.streamCedulas()) {
+                filtrosUnicidad.cargar(CampoUnico.CEDULA, cedulas);
+            }
+            try (Stream<String> emails = usuarioRepository.streamEmails()) {
+                filtrosUnicidad.cargar(CampoUnico.EMAIL, emails);
+            }
+            try (Stream<String> numeros = cuentaBancariaRepository.streamNumerosCuenta()) {
+                filtrosUnicidad.cargar(CampoUnico.NUMERO_CUENTA, numeros);
+            }
+        });
+    }
+}
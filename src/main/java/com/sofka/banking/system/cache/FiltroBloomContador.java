@@ -0,0 +1,167 @@
+package com.sofka.banking.system.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom con contadores de 4 bits en lugar de bits, para poder quitar valores.
+ *
+ * Nunca da un falso negativo mientras cada valor eliminado se haya agregado antes: un contador que
+ * llega al máximo queda fijo (no se vuelve a decrementar), así un desbordamiento sólo puede dejar
+ * falsos positivos. Seguro entre hilos: cada contador se actualiza con CAS sobre su palabra.
+ */
+final class FiltroBloomContador {
+
+    private static final int BITS_CONTADOR = 4;
+    private static final int CONTADORES_POR_PALABRA = Long.SIZE / BITS_CONTADOR;
+    private static final long MAXIMO = (1L << BITS_CONTADOR) - 1;
+
+    private final AtomicLongArray palabras;
+    private final long contadores;
+    private final int funcionesHash;
+
+    FiltroBloomContador(long contadores, int funcionesHash) {
+        long longitud = (contadores + CONTADORES_POR_PALABRA - 1) / CONTADORES_POR_PALABRA;
+        this.palabras = new AtomicLongArray(Math.toIntExact(longitud));
+        this.contadores = contadores;
+        this.funcionesHash = funcionesHash;
+    }
+
+    /**
+     * Dimensiona el filtro para la tasa de falsos positivos pedida con esa cantidad de elementos;
+     * si no cabe en la memoria máxima usa toda la memoria disponible y la tasa resultante es mayor
+     * (ver {@link #tasaFalsosPositivosDiseno(long)}).
+     */
+    static FiltroBloomContador dimensionar(long elementosEsperados, double tasaFalsosPositivos,
+            long memoriaMaximaBytes) {
+        long elementos = Math.max(1, elementosEsperados);
+        double ln2 = Math.log(2);
+        long optimos = (long) Math.ceil(-elementos * Math.log(tasaFalsosPositivos) / (ln2 * ln2));
+        long contadores = Math.max(CONTADORES_POR_PALABRA,
+                Math.min(optimos, memoriaMaximaBytes * Byte.SIZE / BITS_CONTADOR));
+        int funcionesHash = (int) Math.max(1, Math.round((double) contadores / elementos * ln2));
+        return new FiltroBloomContador(contadores, funcionesHash);
+    }
+
+    void agregar(String valor) {
+        long h1 = hash(valor);
+        long h2 = segundoHash(h1);
+        for (int i = 0; i < funcionesHash; i++) {
+            incrementar(indice(h1, h2, i));
+        }
+    }
+
+    void eliminar(String valor) {
+        long h1 = hash(valor);
+        long h2 = segundoHash(h1);
+        for (int i = 0; i < funcionesHash; i++) {
+            decrementar(indice(h1, h2, i));
+        }
+    }
+
+    /**
+     * @return false si el valor seguro no está; true si puede estar
+     */
+    boolean puedeContener(String valor) {
+        long h1 = hash(valor);
+        long h2 = segundoHash(h1);
+        for (int i = 0; i < funcionesHash; i++) {
+            if (leer(indice(h1, h2, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tasa de falsos positivos según la ocupación actual (recorre todos los contadores).
+     */
+    double tasaFalsosPositivosEstimada() {
+        long ocupados = 0;
+        for (long i = 0; i < contadores; i++) {
+            if (leer(i) != 0) {
+                ocupados++;
+            }
+        }
+        return Math.pow((double) ocupados / contadores, funcionesHash);
+    }
+
+    /**
+     * Tasa de falsos positivos esperada con esa cantidad de elementos y el tamaño del filtro.
+     */
+    double tasaFalsosPositivosDiseno(long elementos) {
+        return Math.pow(1 - Math.exp(-(double) funcionesHash * elementos / contadores),
+                funcionesHash);
+    }
+
+    long contadores() {
+        return contadores;
+    }
+
+    int funcionesHash() {
+        return funcionesHash;
+    }
+
+    long memoriaBytes() {
+        return (long) palabras.length() * Long.BYTES;
+    }
+
+    private void incrementar(long indice) {
+        int palabra = (int) (indice / CONTADORES_POR_PALABRA);
+        int desplazamiento = (int) (indice % CONTADORES_POR_PALABRA) * BITS_CONTADOR;
+        long actual;
+        do {
+            actual = palabras.get(palabra);
+            if ((actual >>> desplazamiento & MAXIMO) == MAXIMO) {
+                return;
+            }
+        } while (!palabras.compareAndSet(palabra, actual, actual + (1L << desplazamiento)));
+    }
+
+    private void decrementar(long indice) {
+        int palabra = (int) (indice / CONTADORES_POR_PALABRA);
+        int desplazamiento = (int) (indice % CONTADORES_POR_PALABRA) * BITS_CONTADOR;
+        long actual;
+        do {
+            actual = palabras.get(palabra);
+            long contador = actual >>> desplazamiento & MAXIMO;
+            // Saturado: ya no se sabe cuántos valores lo comparten
+            if (contador == 0 || contador == MAXIMO) {
+                return;
+            }
+        } while (!palabras.compareAndSet(palabra, actual, actual - (1L << desplazamiento)));
+    }
+
+    private long leer(long indice) {
+        int desplazamiento = (int) (indice % CONTADORES_POR_PALABRA) * BITS_CONTADOR;
+        return palabras.get((int) (indice / CONTADORES_POR_PALABRA)) >>> desplazamiento & MAXIMO;
+    }
+
+    // Doble hash (Kirsch-Mitzenmacher): k índices a partir de dos hashes de 64 bits
+    private long indice(long h1, long h2, int i) {
+        return Math.floorMod(h1 + i * h2, contadores);
+    }
+
+    // FNV-1a sobre los caracteres, con la mezcla final de MurmurHash3 para repartir los bits
+    private static long hash(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mezclar(h);
+    }
+
+    // Impar, para que los k índices recorran posiciones distintas
+    private static long segundoHash(long h1) {
+        return mezclar(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+    }
+
+    private static long mezclar(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
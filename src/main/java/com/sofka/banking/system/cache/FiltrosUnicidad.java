@@ -0,0 +1,164 @@
+package com.sofka.banking.system.cache;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import com.sofka.banking.system.enums.CampoUnico;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Un filtro de Bloom por campo único (cédula, email y número de cuenta) delante de las consultas
+ * de existencia: si el filtro descarta el valor no se consulta la base de datos.
+ *
+ * Cada filtro empieza sin cargar y deja pasar todas las consultas hasta que
+ * {@link CargaFiltrosUnicidad} termina de recorrer la tabla. Los valores se agregan antes de
+ * insertarlos y se quitan al confirmarse su eliminación ({@link FiltrosUnicidadListener} lo hace
+ * para todo lo que pasa por JPA), así el filtro nunca descarta un valor que está en la base de
+ * datos; las eliminaciones que ocurren durante la carga se ignoran (sólo dejan falsos positivos).
+ * Las restricciones UNIQUE de la base de datos siguen siendo la garantía final frente a otros
+ * nodos.
+ *
+ * Publica por campo consultas descartadas, existentes y falsos positivos
+ * ({@code banking.unicidad.consultas}), memoria y tasas de falsos positivos de diseño y estimada.
+ */
+@Component
+public class FiltrosUnicidad {
+
+    private final Map<CampoUnico, Espacio> espacios = new EnumMap<>(CampoUnico.class);
+
+    public FiltrosUnicidad(
+            @Value("${banking.unicidad.filtro.elementos-esperados:100000}") long elementosEsperados,
+            @Value("${banking.unicidad.filtro.tasa-falsos-positivos:0.01}") double tasa,
+            @Value("${banking.unicidad.filtro.memoria-maxima:1MB}") DataSize memoriaMaxima,
+            MeterRegistry meterRegistry) {
+        for (CampoUnico campo : CampoUnico.values()) {
+            Espacio espacio = new Espacio(FiltroBloomContador.dimensionar(elementosEsperados, tasa,
+                    memoriaMaxima.toBytes()), campo, meterRegistry);
+            espacios.put(campo, espacio);
+        }
+    }
+
+    /**
+     * Resuelve si el valor existe: sin consultar la base de datos cuando el filtro lo descarta.
+     *
+     * @param consulta comprobación en la base de datos, para los valores que pueden existir
+     */
+    public boolean existe(CampoUnico campo, String valor, Predicate<String> consulta) {
+        Espacio espacio = espacios.get(campo);
+        boolean cargado = espacio.cargado;
+        if (cargado && !espacio.filtro.puedeContener(valor)) {
+            espacio.descartadas.increment();
+            return false;
+        }
+        boolean existe = consulta.test(valor);
+        if (cargado) {
+            (existe ? espacio.existentes : espacio.falsosPositivos).increment();
+        }
+        return existe;
+    }
+
+    /**
+     * @return false si el filtro descarta el valor; true si hay que comprobarlo en la base de datos
+     */
+    public boolean puedeExistir(CampoUnico campo, String valor) {
+        Espacio espacio = espacios.get(campo);
+        if (espacio.cargado && !espacio.filtro.puedeContener(valor)) {
+            espacio.descartadas.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Agrega un valor que se va a insertar. Se llama antes de guardarlo: si la transacción no se
+     * confirma sólo queda un falso positivo.
+     */
+    public void registrar(CampoUnico campo, String valor) {
+        Espacio espacio = espacios.get(campo);
+        espacio.filtro.agregar(valor);
+        espacio.elementos.increment();
+    }
+
+    /**
+     * Quita el valor cuando la transacción actual se confirma (de inmediato si no hay una).
+     */
+    public void eliminarTrasCommit(CampoUnico campo, String valor) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eliminar(campo, valor);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eliminar(campo, valor);
+            }
+        });
+    }
+
+    /**
+     * Agrega todos los valores existentes y, al terminar, habilita el filtro.
+     */
+    public void cargar(CampoUnico campo, Stream<String> valores) {
+        Espacio espacio = espacios.get(campo);
+        valores.forEach(valor -> registrar(campo, valor));
+        espacio.cargado = true;
+    }
+
+    public boolean cargado(CampoUnico campo) {
+        return espacios.get(campo).cargado;
+    }
+
+    private void eliminar(CampoUnico campo, String valor) {
+        Espacio espacio = espacios.get(campo);
+        // Antes de cargar, el valor puede no estar contado todavía
+        if (espacio.cargado) {
+            espacio.filtro.eliminar(valor);
+            espacio.elementos.decrement();
+        }
+    }
+
+    private static final class Espacio {
+        private final FiltroBloomContador filtro;
+        private final LongAdder elementos = new LongAdder();
+        private final Counter descartadas;
+        private final Counter existentes;
+        private final Counter falsosPositivos;
+        private volatile boolean cargado;
+
+        private Espacio(FiltroBloomContador filtro, CampoUnico campo, MeterRegistry registry) {
+            this.filtro = filtro;
+            String etiqueta = campo.name().toLowerCase();
+            this.descartadas = consultas("descartada", etiqueta, registry);
+            this.existentes = consultas("existente", etiqueta, registry);
+            this.falsosPositivos = consultas("falso_positivo", etiqueta, registry);
+            Gauge.builder("banking.unicidad.filtro.memoria", filtro,
+                    FiltroBloomContador::memoriaBytes).tag("campo", etiqueta).baseUnit("bytes")
+                    .description("Memoria del filtro de Bloom").register(registry);
+            Gauge.builder("banking.unicidad.filtro.falsos.positivos.diseno", this,
+                    espacio -> filtro.tasaFalsosPositivosDiseno(espacio.elementos.sum()))
+                    .tag("campo", etiqueta)
+                    .description("Tasa de falsos positivos esperada con los elementos actuales")
+                    .register(registry);
+            Gauge.builder("banking.unicidad.filtro.falsos.positivos.estimados", filtro,
+                    FiltroBloomContador::tasaFalsosPositivosEstimada).tag("campo", etiqueta)
+                    .description("Tasa de falsos positivos según la ocupación del filtro")
+                    .register(registry);
+        }
+
+        private static Counter consultas(String resultado, String campo, MeterRegistry registry) {
+            return Counter.builder("banking.unicidad.consultas").tag("campo", campo)
+                    .tag("resultado", resultado)
+                    .description("Comprobaciones de unicidad según el filtro de Bloom")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.sofka.banking.system.cache;
+
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.CampoUnico;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PrePersist;
+import lombok.AllArgsConstructor;
+
+/**
+ * Mantiene {@link FiltrosUnicidad} con cada alta y baja que pasa por JPA, incluidas las bajas en
+ * cascada. Hibernate lo crea a través de Spring, por eso admite inyección.
+ */
+@AllArgsConstructor
+public class FiltrosUnicidadListener {
+
+    private final FiltrosUnicidad filtrosUnicidad;
+
+    @PrePersist
+    void registrar(Object entidad) {
+        if (entidad instanceof Usuario usuario) {
+            filtrosUnicidad.registrar(CampoUnico.CEDULA, usuario.getCedula());
+            filtrosUnicidad.registrar(CampoUnico.EMAIL, usuario.getEmail());
+        } else if (entidad instanceof CuentaBancaria cuenta) {
+            filtrosUnicidad.registrar(CampoUnico.NUMERO_CUENTA, cuenta.getNumeroCuenta());
+        }
+    }
+
+    @PostRemove
+    void eliminar(Object entidad) {
+        if (entidad instanceof Usuario usuario) {
+            filtrosUnicidad.eliminarTrasCommit(CampoUnico.CEDULA, usuario.getCedula());
+            filtrosUnicidad.eliminarTrasCommit(CampoUnico.EMAIL, usuario.getEmail());
+        } else if (entidad instanceof CuentaBancaria cuenta) {
+            filtrosUnicidad.eliminarTrasCommit(CampoUnico.NUMERO_CUENTA, cuenta.getNumeroCuenta());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.sofka.banking.system.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sofka.banking.system.datasource.LecturaTrasEscritura;
+import com.sofka.banking.system.dto.response.CuentaBancariaDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Caché en memoria de {@link CuentaBancariaDTO} por ID de cuenta, acotada por tamaño y TTL.
+ *
+ * Las escrituras de saldo se registran con {@link #actualizarTrasCommit(Long...)}: antes del
+ * commit la cuenta se marca como pendiente y su entrada se invalida; mientras está pendiente las
+ * lecturas van directo a la base de datos, y tras el commit se publica el nuevo valor. Así una
+ * lectura nunca devuelve un saldo anterior al último commit realizado en este nodo.
+ *
+ * Al terminar la transacción también desaloja esas cuentas de la caché de segundo nivel de
+ * Hibernate: las escrituras de saldo no pasan por la entidad y no la actualizan.
+ *
+ * Las escrituras sobre una misma cuenta deben estar serializadas con
+ * {@link com.sofka.banking.system.concurrency.CuentaLockManager}, que libera sus bloqueos después
+ * de que esta clase publica el valor.
+ */
+@Component
+public class SaldoCache {
+
+    private final CuentaBancariaRepository cuentaBancariaRepository;
+    private final jakarta.persistence.Cache segundoNivel;
+    private final Cache<Long, CuentaBancariaDTO> cache;
+    private final Map<Long, Integer> pendientes = new ConcurrentHashMap<>();
+
+    public SaldoCache(CuentaBancariaRepository cuentaBancariaRepository,
+            EntityManagerFactory entityManagerFactory,
+            @Value("${banking.cache.saldos.tamano-maximo:10000}") long tamanoMaximo,
+            @Value("${banking.cache.saldos.ttl:30s}") Duration ttl) {
+        this.cuentaBancariaRepository = cuentaBancariaRepository;
+        this.segundoNivel = entityManagerFactory.getCache();
+        this.cache = Caffeine.newBuilder().maximumSize(tamanoMaximo).expireAfterWrite(ttl)
+                .recordStats().build();
+    }
+
+    /**
+     * Devuelve la cuenta desde la caché o, si no está o tiene una escritura en curso, desde la
+     * base de datos.
+     *
+     * @throws CuentaBancariaNotFoundException si la cuenta no existe
+     */
+    public CuentaBancariaDTO obtener(Long cuentaId) {
+        // La comprobación va dentro de la carga: una invalidación concurrente espera a que ésta
+        // termine, por lo que ningún valor cargado antes de marcar la cuenta sobrevive al commit
+        CuentaBancariaDTO cuenta =
+                cache.get(cuentaId, id -> pendientes.containsKey(id) ? null : cargar(id));
+        return cuenta != null ? cuenta : cargar(cuentaId);
+    }
+
+    /**
+     * Registra que la transacción actual modificó las cuentas indicadas. Las cuentas que están en
+     * caché se releen antes del commit y se actualizan al confirmarse; el resto sólo se invalida.
+     */
+    public void actualizarTrasCommit(Long... cuentaIds) {
+        registrar(true, cuentaIds);
+    }
+
+    /**
+     * Registra que la transacción actual eliminó la cuenta: se invalida al terminar.
+     */
+    public void invalidarTrasCommit(Long cuentaId) {
+        registrar(false, cuentaId);
+    }
+
+    public CacheStats estadisticas() {
+        return cache.stats();
+    }
+
+    public long tamano() {
+        return cache.estimatedSize();
+    }
+
+    private void registrar(boolean releer, Long... cuentaIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            for (Long cuentaId : cuentaIds) {
+                cache.invalidate(cuentaId);
+                segundoNivel.evict(CuentaBancaria.class, cuentaId);
+            }
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private final Map<Long, CuentaBancariaDTO> nuevosValores = new HashMap<>();
+            private boolean marcadas;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                List<Long> aReleer = new ArrayList<>();
+                for (Long cuentaId : cuentaIds) {
+                    pendientes.merge(cuentaId, 1, Integer::sum);
+                    if (cache.asMap().remove(cuentaId) != null && releer) {
+                        aReleer.add(cuentaId);
+                    }
+                }
+                marcadas = true;
+
+                for (Long cuentaId : aReleer) {
+                    cuentaBancariaRepository.findResumenById(cuentaId)
+                            .ifPresent(cuenta -> nuevosValores.put(cuentaId, cuenta));
+                }
+            }
+
+            @Override
+            public void afterCommit() {
+                cache.putAll(nuevosValores);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                for (Long cuentaId : cuentaIds) {
+                    segundoNivel.evict(CuentaBancaria.class, cuentaId);
+                }
+                if (!marcadas) {
+                    return;
+                }
+                for (Long cuentaId : cuentaIds) {
+                    if (status != STATUS_COMMITTED) {
+                        cache.invalidate(cuentaId);
+                    }
+                    pendientes.computeIfPresent(cuentaId, (id, n) -> n == 1 ? null : n - 1);
+                }
+            }
+        });
+    }
+
+    // Desde la primaria: un saldo atrasado de la réplica quedaría en caché hasta el TTL
+    private CuentaBancariaDTO cargar(Long cuentaId) {
+        return LecturaTrasEscritura
+                .enPrimaria(() -> cuentaBancariaRepository.findResumenById(cuentaId))
+                .orElseThrow(() -> new CuentaBancariaNotFoundException(cuentaId));
+    }
+}
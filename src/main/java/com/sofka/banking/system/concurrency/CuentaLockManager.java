@@ -0,0 +1,101 @@
+package com.sofka.banking.system.concurrency;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bloqueos en memoria por cuenta bancaria, repartidos en franjas (striped locks).
+ *
+ * Cada cuenta se asigna a una franja según su ID. Las operaciones que modifican saldos adquieren
+ * las franjas de todas las cuentas involucradas siempre en orden ascendente de índice, por lo que
+ * dos transferencias cruzadas (A→B y B→A) nunca pueden bloquearse mutuamente.
+ *
+ * Si hay una transacción activa, los bloqueos se liberan cuando ésta termina (commit o rollback),
+ * de forma que ningún otro hilo del nodo lee un saldo antes de que el cambio sea visible. Entre
+ * nodos la exclusión la garantiza la base de datos.
+ */
+@Component
+public class CuentaLockManager {
+
+    private final ReentrantLock[] franjas;
+    private final int mascara;
+
+    public CuentaLockManager(
+            @Value("${banking.concurrencia.franjas-bloqueo:256}") int numeroFranjas) {
+        int tamano = 1;
+        while (tamano < numeroFranjas) {
+            tamano <<= 1;
+        }
+        this.franjas = new ReentrantLock[tamano];
+        for (int i = 0; i < tamano; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+        this.mascara = tamano - 1;
+    }
+
+    /**
+     * Ejecuta la acción con las cuentas indicadas bloqueadas.
+     *
+     * @param accion operación que modifica los saldos
+     * @param cuentaIds IDs de las cuentas involucradas (se admiten repetidos)
+     * @return el resultado de la acción
+     */
+    public <T> T ejecutarConBloqueo(Supplier<T> accion, Long... cuentaIds) {
+        int[] indices = indicesOrdenados(cuentaIds);
+        bloquear(indices);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                return accion.get();
+            } finally {
+                liberar(indices);
+            }
+        }
+
+        try {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            liberar(indices);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            liberar(indices);
+            throw e;
+        }
+        return accion.get();
+    }
+
+    public int getNumeroFranjas() {
+        return franjas.length;
+    }
+
+    int indiceFranja(Long cuentaId) {
+        long h = cuentaId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+
+    private int[] indicesOrdenados(Long... cuentaIds) {
+        return Arrays.stream(cuentaIds).filter(Objects::nonNull).mapToInt(this::indiceFranja)
+                .distinct().sorted().toArray();
+    }
+
+    private void bloquear(int[] indices) {
+        for (int i = 0; i < indices.length; i++) {
+            franjas[indices[i]].lock();
+        }
+    }
+
+    private void liberar(int[] indices) {
+        for (int i = indices.length - 1; i >= 0; i--) {
+            franjas[indices[i]].unlock();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.sofka.banking.system.concurrency;
+
+import java.math.BigDecimal;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.enums.TipoTransaccion;
+
+/**
+ * Motor de transacciones que responde antes de escribir en la base de datos, elegido con
+ * {@code banking.transacciones.motor} ({@code diario} o {@code fragmentado}). Las escrituras van
+ * al motor y las lecturas esperan con {@link #esperarAplicados(Long...)} a que lo ya respondido
+ * esté en la base de datos.
+ */
+public interface MotorTransacciones extends SaldosPendientes {
+
+    /**
+     * Valida la transacción contra los saldos confirmados del motor y la registra. Al volver ya
+     * es definitiva: no participa en la transacción del llamante ni se revierte con ella, por
+     * lo que las claves de idempotencia se rechazan mientras haya un motor activo.
+     *
+     * @param cuentaDestinoId cuenta que recibe una transferencia; nula en depósitos y retiros
+     * @throws com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException
+     *         si alguna cuenta no existe
+     * @throws com.sofka.banking.system.exception.transaccion.SaldoInsuficienteException si un
+     *         retiro o transferencia supera el saldo
+     * @throws IllegalStateException si el motor está cerrado o falló
+     */
+    TransaccionDTO registrar(TipoTransaccion tipo, Long cuentaId, Long cuentaDestinoId,
+            BigDecimal monto);
+}
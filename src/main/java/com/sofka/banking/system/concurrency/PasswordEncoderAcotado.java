@@ -0,0 +1,131 @@
+package com.sofka.banking.system.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import com.sofka.banking.system.exception.autenticacion.AutenticacionSaturadaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link PasswordEncoder} que ejecuta el hash y la verificación de contraseñas en un pool propio,
+ * acotado en hilos y en cola.
+ *
+ * Cada operación BCrypt cuesta del orden de 100 ms de CPU. Aquí como mucho {@code hilos}
+ * operaciones corren a la vez; si la cola está llena, o una operación espera más de
+ * {@code esperaMaxima}, se rechaza con {@link AutenticacionSaturadaException} (503 con
+ * Retry-After) en lugar de acumular trabajo. Así una avalancha de logins no deja sin CPU al resto
+ * del nodo.
+ */
+public class PasswordEncoderAcotado implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegado;
+    private final ThreadPoolExecutor executor;
+    private final Duration esperaMaxima;
+    private final Timer tiempoEnCola;
+    private final Counter rechazos;
+
+    public PasswordEncoderAcotado(PasswordEncoder delegado, int hilos, int capacidadCola,
+            Duration esperaMaxima, MeterRegistry meterRegistry) {
+        this.delegado = delegado;
+        this.esperaMaxima = esperaMaxima;
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), fabricaDeHilos(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.tiempoEnCola = Timer.builder("banking.password.espera")
+                .description("Tiempo en cola antes de calcular el hash")
+                .publishPercentileHistogram().register(meterRegistry);
+        this.rechazos = Counter.builder("banking.password.rechazos")
+                .description("Operaciones rechazadas por saturación").register(meterRegistry);
+        Gauge.builder("banking.password.cola", executor, e -> e.getQueue().size())
+                .description("Operaciones esperando un hilo").register(meterRegistry);
+        Gauge.builder("banking.password.activas", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Operaciones en ejecución").register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return ejecutar(() -> delegado.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return ejecutar(() -> delegado.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Sólo inspecciona el prefijo del hash: no requiere el pool
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Encoder sin el pool acotado, para trabajos por lotes que reparten el hash en su propio pool
+     * (ver {@code ImportacionUsuariosServiceImpl}).
+     */
+    public PasswordEncoder delegado() {
+        return delegado;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T ejecutar(Supplier<T> operacion) {
+        long encolada = System.nanoTime();
+        Future<T> futuro;
+        try {
+            futuro = executor.submit(() -> {
+                tiempoEnCola.record(System.nanoTime() - encolada, TimeUnit.NANOSECONDS);
+                return operacion.get();
+            });
+        } catch (RejectedExecutionException e) {
+            throw rechazar();
+        }
+
+        try {
+            return futuro.get(esperaMaxima.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Si aún estaba en cola, libera su lugar
+            futuro.cancel(false);
+            executor.purge();
+            throw rechazar();
+        } catch (InterruptedException e) {
+            futuro.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Operación de contraseña interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private AutenticacionSaturadaException rechazar() {
+        rechazos.increment();
+        return new AutenticacionSaturadaException(Math.max(1, esperaMaxima.toSeconds()));
+    }
+
+    private static ThreadFactory fabricaDeHilos() {
+        AtomicInteger contador = new AtomicInteger();
+        return tarea -> {
+            Thread hilo = new Thread(tarea, "password-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+}
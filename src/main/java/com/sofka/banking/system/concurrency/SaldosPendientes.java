@@ -0,0 +1,23 @@
+package com.sofka.banking.system.concurrency;
+
+/**
+ * Motor de transacciones que confirma cambios de saldo antes de escribirlos en la base de datos.
+ *
+ * Quien modifica saldos directamente en la base de datos llama a
+ * {@link #esperarAplicados(Long...)} con las cuentas ya bloqueadas en {@link CuentaLockManager}:
+ * así parte de los saldos confirmados y el motor no puede confirmar otros cambios para esas
+ * cuentas mientras tanto. Lo llama dentro de su transacción: un motor que guarda los saldos en
+ * memoria retiene esas cuentas hasta que la transacción termina. Una lectura lo llama sin bloqueo,
+ * fuera de una transacción o dentro de una de sólo lectura, para ver sus propias escrituras.
+ */
+public interface SaldosPendientes {
+
+    /**
+     * Bloquea hasta que todos los cambios confirmados sobre esas cuentas están en la base de
+     * datos.
+     *
+     * @throws IllegalStateException si el motor dejó de escribir en la base de datos o no lo
+     *         consigue dentro del tiempo máximo de espera
+     */
+    void esperarAplicados(Long... cuentaIds);
+}
@@ -0,0 +1,96 @@
+package com.sofka.banking.system.config;
+
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import com.sofka.banking.system.datasource.DataSourceEnrutado;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Dos pools de conexiones con tamaño propio: escritura, sobre {@code spring.datasource.url}, y
+ * lectura, sobre la réplica de {@code banking.datasource.lectura.url}. Sin réplica configurada el
+ * pool de lectura apunta a la misma base: los recorridos de historial siguen sin competir por
+ * conexiones con las transferencias.
+ *
+ * Cada pool publica sus métricas de Hikari con su nombre ({@code pool="escritura"} o
+ * {@code pool="lectura"}) y {@code banking.datasource.conexiones} cuenta las conexiones
+ * entregadas por ruta.
+ *
+ * El resto de la configuración de Hikari se toma de {@code spring.datasource.hikari.*} para la
+ * escritura y de {@code banking.datasource.lectura.hikari.*} para la lectura; un
+ * {@code maximum-pool-size} ahí tiene prioridad sobre {@code tamano-pool}.
+ *
+ * Las lecturas que alimentan cachés compartidas (saldos, segundo nivel de Hibernate) pueden
+ * guardar un valor atrasado de la réplica hasta que expire; por eso {@code SaldoCache} carga
+ * siempre desde la primaria.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    /**
+     * Pool de escritura (base primaria).
+     *
+     * @param properties propiedades {@code spring.datasource.*}
+     * @param tamanoPool conexiones máximas
+     * @return pool de escritura
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource escrituraDataSource(DataSourceProperties properties,
+            @Value("${banking.datasource.escritura.tamano-pool:10}") int tamanoPool) {
+        return crearPool(properties, "escritura", tamanoPool);
+    }
+
+    /**
+     * Pool de lectura, con las credenciales de la primaria.
+     *
+     * @param properties propiedades {@code spring.datasource.*}
+     * @param url URL de la réplica (vacía = la misma base que la escritura)
+     * @param tamanoPool conexiones máximas
+     * @return pool de lectura
+     */
+    @Bean
+    @ConfigurationProperties("banking.datasource.lectura.hikari")
+    public HikariDataSource lecturaDataSource(DataSourceProperties properties,
+            @Value("${banking.datasource.lectura.url:}") String url,
+            @Value("${banking.datasource.lectura.tamano-pool:10}") int tamanoPool) {
+        HikariDataSource dataSource = crearPool(properties, "lectura", tamanoPool);
+        if (!url.isBlank()) {
+            dataSource.setJdbcUrl(url);
+        }
+        // En una réplica real una escritura enviada por error falla en lugar de perderse
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * DataSource que usan JPA, JdbcTemplate y Flyway: enruta por transacción y retrasa la
+     * conexión real hasta la primera sentencia (ver {@link DataSourceEnrutado}).
+     *
+     * @return DataSource enrutado
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("escrituraDataSource") DataSource escritura,
+            @Qualifier("lecturaDataSource") DataSource lectura, MeterRegistry meterRegistry) {
+        DataSourceEnrutado enrutado = new DataSourceEnrutado(escritura, lectura, meterRegistry);
+        enrutado.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(enrutado);
+    }
+
+    private static HikariDataSource crearPool(DataSourceProperties properties, String nombre,
+            int tamanoPool) {
+        HikariDataSource dataSource =
+                properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(nombre);
+        dataSource.setMaximumPoolSize(tamanoPool);
+        return dataSource;
+    }
+}
@@ -0,0 +1,13 @@
+package com.sofka.banking.system.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas {@code @Scheduled}: el barrido de claves de idempotencia y el recuento de
+ * hashes obsoletos.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,12 +1,20 @@
 package com.sofka.banking.system.config;
 
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import com.sofka.banking.system.concurrency.PasswordEncoderAcotado;
+import com.sofka.banking.system.security.CalibradorBCrypt;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * Configuración de Spring Security para la aplicación bancaria.
@@ -19,15 +27,60 @@ import org.springframework.security.web.SecurityFilterChain;
 @EnableWebSecurity
 public class SecurityConfig {
 
+    private static final String ID_BCRYPT = "bcrypt";
+
     /**
      * Bean de PasswordEncoder usando BCrypt. BCrypt es un algoritmo de hash adaptativo que incluye
      * un salt aleatorio y es resistente a ataques de fuerza bruta.
      *
-     * @return BCryptPasswordEncoder configurado
+     * La fuerza se calibra al arrancar para que una verificación tarde como mucho
+     * {@code latenciaObjetivo} en este hardware (ver {@link CalibradorBCrypt}), salvo que se fije
+     * con {@code banking.password.bcrypt.fuerza}. Los hashes nuevos llevan el prefijo del algoritmo
+     * ({@code {bcrypt}}); los legados sin prefijo se siguen verificando con BCrypt y se reportan
+     * como obsoletos para rehashearlos en el siguiente login.
+     *
+     * Las operaciones se ejecutan en un pool acotado (por defecto la mitad de los núcleos) para
+     * que la carga de autenticación no agote la CPU del nodo; ver {@link PasswordEncoderAcotado}.
+     *
+     * @param meterRegistry registro para las métricas de cola y espera
+     * @param hilos hilos dedicados al hash (0 = mitad de los núcleos disponibles)
+     * @param capacidadCola operaciones que pueden esperar un hilo antes de rechazar
+     * @param esperaMaxima tiempo máximo de espera de una operación
+     * @param latenciaObjetivo tiempo deseado para una verificación al calibrar
+     * @param fuerza fuerza fija de BCrypt (0 = calibrar al arrancar)
+     * @return PasswordEncoder acotado sobre BCrypt
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+            @Value("${banking.password.hilos:0}") int hilos,
+            @Value("${banking.password.capacidad-cola:64}") int capacidadCola,
+            @Value("${banking.password.espera-maxima:2s}") Duration esperaMaxima,
+            @Value("${banking.password.latencia-objetivo:250ms}") Duration latenciaObjetivo,
+            @Value("${banking.password.bcrypt.fuerza:0}") int fuerza) {
+        int hilosEfectivos =
+                hilos > 0 ? hilos : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        int fuerzaEfectiva = fuerza > 0 ? fuerza : CalibradorBCrypt.calibrar(latenciaObjetivo);
+        Gauge.builder("banking.password.bcrypt.fuerza", () -> fuerzaEfectiva)
+                .description("Fuerza de BCrypt para los hashes nuevos").register(meterRegistry);
+
+        return new PasswordEncoderAcotado(encoderDelegante(fuerzaEfectiva), hilosEfectivos,
+                capacidadCola, esperaMaxima, meterRegistry);
+    }
+
+    /**
+     * Encoder que guarda el algoritmo en cada hash. {@code upgradeEncoding} es verdadero para los
+     * hashes sin prefijo y para los BCrypt de menor fuerza; uno de mayor fuerza (calibrado en un
+     * nodo más rápido) no se degrada.
+     *
+     * @param fuerza fuerza de BCrypt para los hashes nuevos
+     * @return PasswordEncoder delegante con BCrypt como algoritmo actual
+     */
+    public static PasswordEncoder encoderDelegante(int fuerza) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(fuerza);
+        DelegatingPasswordEncoder delegante =
+                new DelegatingPasswordEncoder(ID_BCRYPT, Map.of(ID_BCRYPT, bcrypt));
+        delegante.setDefaultPasswordEncoderForMatches(bcrypt); // hashes legados de V5, sin prefijo
+        return delegante;
     }
 
     /**
@@ -10,11 +10,17 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import com.sofka.banking.system.cache.FiltrosUnicidad;
 import com.sofka.banking.system.dto.request.CreateUsuarioDTO;
 import com.sofka.banking.system.dto.request.LoginRequestDTO;
 import com.sofka.banking.system.dto.response.LoginResponseDTO;
 import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.CampoUnico;
+import com.sofka.banking.system.exception.autenticacion.AutenticacionSaturadaException;
 import com.sofka.banking.system.repository.UsuarioRepository;
+import com.sofka.banking.system.security.MonitorHashesObsoletos;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -31,6 +37,9 @@ public class AuthController {
 
     private final UsuarioRepository usuarioRepository;
     private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+    private final MonitorHashesObsoletos monitorHashesObsoletos;
+    private final FiltrosUnicidad filtrosUnicidad;
 
     @Operation(summary = "Login de usuario",
             description = "Valida las credenciales del usuario (cédula y contraseña). "
@@ -45,8 +54,8 @@ public class AuthController {
         Optional<Usuario> usuarioOpt = usuarioRepository.findByCedula(loginRequest.getCedula());
 
         // Si el usuario no existe o la contraseña no coincide
-        if (usuarioOpt.isEmpty() || !passwordEncoder.matches(loginRequest.getPassword(),
-                usuarioOpt.get().getPassword())) {
+        if (usuarioOpt.isEmpty()
+                || !verificarPassword(loginRequest.getPassword(), usuarioOpt.get())) {
 
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("message", "Credenciales inválidas"));
@@ -54,6 +63,7 @@ public class AuthController {
 
         // Credenciales correctas - construir respuesta
         Usuario usuario = usuarioOpt.get();
+        actualizarHashSiObsoleto(loginRequest.getPassword(), usuario);
 
         LoginResponseDTO response =
                 LoginResponseDTO.builder().id(usuario.getId()).cedula(usuario.getCedula())
@@ -63,6 +73,33 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    // BCrypt domina la latencia del login: se mide aparte, etiquetado por resultado
+    private boolean verificarPassword(String password, Usuario usuario) {
+        Timer.Sample muestra = Timer.start(meterRegistry);
+        boolean valida = passwordEncoder.matches(password, usuario.getPassword());
+        muestra.stop(Timer.builder("banking.auth.verificacion.password")
+                .tag("resultado", valida ? "valida" : "invalida").publishPercentileHistogram()
+                .register(meterRegistry));
+        return valida;
+    }
+
+    // Único momento en que se conoce la contraseña en claro: si el hash usa parámetros antiguos
+    // (legado sin prefijo o fuerza menor a la calibrada) se recalcula con los actuales
+    private void actualizarHashSiObsoleto(String password, Usuario usuario) {
+        String hashActual = usuario.getPassword();
+        if (!passwordEncoder.upgradeEncoding(hashActual)) {
+            return;
+        }
+        try {
+            String hashNuevo = passwordEncoder.encode(password);
+            if (usuarioRepository.actualizarHash(usuario.getId(), hashActual, hashNuevo) == 1) {
+                monitorHashesObsoletos.registrarRehash();
+            }
+        } catch (AutenticacionSaturadaException ex) {
+            // Sin capacidad para otro hash: el login sigue siendo válido, se reintenta en el próximo
+        }
+    }
+
     @Operation(summary = "Registrar nuevo usuario",
             description = "Crea un nuevo usuario en el sistema con las credenciales proporcionadas. "
                     + "El password se hashea automáticamente con BCrypt antes de guardarse.")
@@ -74,13 +111,15 @@ public class AuthController {
     public ResponseEntity<?> register(@Valid @RequestBody CreateUsuarioDTO registerRequest) {
 
         // Validar que el email no exista
-        if (usuarioRepository.existsByEmail(registerRequest.getEmail())) {
+        if (filtrosUnicidad.existe(CampoUnico.EMAIL, registerRequest.getEmail(),
+                usuarioRepository::existsByEmail)) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("message", "El email ya está registrado"));
         }
 
         // Validar que la cédula no exista
-        if (usuarioRepository.existsByCedula(registerRequest.getCedula())) {
+        if (filtrosUnicidad.existe(CampoUnico.CEDULA, registerRequest.getCedula(),
+                usuarioRepository::existsByCedula)) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(Map.of("message", "La cédula ya está registrada"));
         }
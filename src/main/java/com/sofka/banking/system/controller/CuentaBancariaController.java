@@ -1,7 +1,9 @@
 package com.sofka.banking.system.controller;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -11,10 +13,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import com.sofka.banking.system.dto.request.CreateCuentaBancariaDTO;
 import com.sofka.banking.system.dto.response.CuentaBancariaDTO;
+import com.sofka.banking.system.dto.response.EstadisticasCacheDTO;
+import com.sofka.banking.system.dto.response.EstadoCuentaDTO;
 import com.sofka.banking.system.service.CuentaBancariaService;
+import com.sofka.banking.system.service.EstadoCuentaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -28,6 +34,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class CuentaBancariaController {
     private final CuentaBancariaService cuentaBancariaService;
+    private final EstadoCuentaService estadoCuentaService;
 
     @Operation(summary = "Crear cuenta bancaria",
             description = "Crea una nueva cuenta bancaria asociada a un usuario.")
@@ -57,6 +64,30 @@ public class CuentaBancariaController {
         return ResponseEntity.ok(cuenta);
     }
 
+    @Operation(summary = "Estado de cuenta",
+            description = "Devuelve el saldo inicial y final del periodo y los totales de depósitos, retiros y transferencias enviadas y recibidas por día o por mes. Por defecto, el mes en curso por día.")
+    @GetMapping("/{cuentaId}/estado")
+    public ResponseEntity<EstadoCuentaDTO> obtenerEstado(
+            @Parameter(description = "ID de la cuenta bancaria",
+                    required = true) @PathVariable Long cuentaId,
+            @Parameter(description = "Primer día del periodo (ISO, por defecto el primero del mes de hasta)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Último día del periodo, incluido (ISO, por defecto hoy)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @Parameter(description = "Tamaño de cada periodo (dia o mes)")
+            @RequestParam(defaultValue = "dia") String granularidad) {
+        EstadoCuentaDTO estado =
+                estadoCuentaService.obtenerEstado(cuentaId, desde, hasta, granularidad);
+        return ResponseEntity.ok(estado);
+    }
+
+    @Operation(summary = "Estadísticas de la caché de saldos",
+            description = "Devuelve entradas, aciertos, fallos y desalojos de la caché de saldos de este nodo.")
+    @GetMapping("/cache/saldos")
+    public ResponseEntity<EstadisticasCacheDTO> obtenerEstadisticasCacheSaldos() {
+        return ResponseEntity.ok(cuentaBancariaService.obtenerEstadisticasCacheSaldos());
+    }
+
     @Operation(summary = "Eliminar cuenta bancaria",
             description = "Elimina una cuenta bancaria por su ID.")
     @DeleteMapping("/{cuentaId}")
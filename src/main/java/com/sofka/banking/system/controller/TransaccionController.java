@@ -1,19 +1,35 @@
 package com.sofka.banking.system.controller;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.sofka.banking.system.dto.request.CreateTransaccionDTO;
 import com.sofka.banking.system.dto.request.CreateTransferenciaDTO;
+import com.sofka.banking.system.dto.request.CreateTransferenciaLoteDTO;
+import com.sofka.banking.system.dto.response.PaginaTransaccionesDTO;
+import com.sofka.banking.system.dto.response.ResultadoLoteTransferenciasDTO;
 import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.enums.FormatoExportacion;
+import com.sofka.banking.system.service.ExportacionTransaccionesService;
+import com.sofka.banking.system.service.IdempotenciaService;
+import com.sofka.banking.system.service.IdempotenciaService.ResultadoIdempotente;
 import com.sofka.banking.system.service.TransaccionService;
+import com.sofka.banking.system.service.TransferenciaLoteService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -23,28 +39,63 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("/transacciones")
 @RequiredArgsConstructor
 public class TransaccionController {
+        static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+        static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
         private final TransaccionService transaccionService;
+        private final TransferenciaLoteService transferenciaLoteService;
+        private final ExportacionTransaccionesService exportacionTransaccionesService;
+        private final IdempotenciaService idempotenciaService;
 
         @Operation(summary = "Registrar transacción",
-                        description = "Registra un depósito o retiro en una cuenta bancaria y actualiza el saldo.")
+                        description = "Registra un depósito o retiro en una cuenta bancaria y actualiza el saldo. Con Idempotency-Key, un reintento devuelve la transacción original sin aplicarla de nuevo.")
         @PostMapping
         public ResponseEntity<TransaccionDTO> registrarTransaccion(
-                        @Valid @RequestBody CreateTransaccionDTO dto) {
-                TransaccionDTO transaccion = transaccionService.registrarTransaccion(dto);
-                return new ResponseEntity<>(transaccion, HttpStatus.CREATED);
+                        @Valid @RequestBody CreateTransaccionDTO dto,
+                        @Parameter(description = "Clave única por operación para reintentar sin duplicarla")
+                        @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String clave) {
+                if (clave == null) {
+                        TransaccionDTO transaccion = transaccionService.registrarTransaccion(dto);
+                        return new ResponseEntity<>(transaccion, HttpStatus.CREATED);
+                }
+                return responder(idempotenciaService.ejecutar(clave, "transaccion", dto,
+                                () -> transaccionService.registrarTransaccion(dto)));
         }
 
         @Operation(summary = "Realizar transferencia",
-                        description = "Realiza una transferencia entre dos cuentas bancarias de diferentes usuarios.")
+                        description = "Realiza una transferencia entre dos cuentas bancarias de diferentes usuarios. Con Idempotency-Key, un reintento devuelve la transferencia original sin aplicarla de nuevo.")
         @PostMapping("/transferencia")
         public ResponseEntity<TransaccionDTO> realizarTransferencia(
-                        @Valid @RequestBody CreateTransferenciaDTO dto) {
-                TransaccionDTO transferencia = transaccionService.realizarTransferencia(dto);
-                return new ResponseEntity<>(transferencia, HttpStatus.CREATED);
+                        @Valid @RequestBody CreateTransferenciaDTO dto,
+                        @Parameter(description = "Clave única por operación para reintentar sin duplicarla")
+                        @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String clave) {
+                if (clave == null) {
+                        TransaccionDTO transferencia = transaccionService.realizarTransferencia(dto);
+                        return new ResponseEntity<>(transferencia, HttpStatus.CREATED);
+                }
+                return responder(idempotenciaService.ejecutar(clave, "transferencia", dto,
+                                () -> transaccionService.realizarTransferencia(dto)));
+        }
+
+        // Una repetición responde igual que la ejecución original, marcada con un encabezado
+        private ResponseEntity<TransaccionDTO> responder(ResultadoIdempotente resultado) {
+                return ResponseEntity.status(HttpStatus.CREATED)
+                                .header(IDEMPOTENT_REPLAYED, String.valueOf(resultado.repetida()))
+                                .body(resultado.transaccion());
+        }
+
+        @Operation(summary = "Realizar transferencias en lote",
+                        description = "Aplica una lista de transferencias en bloques transaccionales y devuelve el resultado de cada una. Una transferencia rechazada no impide aplicar las demás.")
+        @PostMapping("/transferencias/lote")
+        public ResponseEntity<ResultadoLoteTransferenciasDTO> realizarTransferenciasEnLote(
+                        @Valid @RequestBody CreateTransferenciaLoteDTO dto) {
+                ResultadoLoteTransferenciasDTO resultado = transferenciaLoteService
+                                .realizarTransferencias(dto.getTransferencias());
+                return ResponseEntity.ok(resultado);
         }
 
         @Operation(summary = "Obtener transacciones por cuenta",
-                        description = "Devuelve todas las transacciones realizadas en una cuenta bancaria.")
+                        description = "Devuelve las transacciones más recientes de una cuenta bancaria, enviadas y recibidas, con su dirección (máximo 1000). Para recorrer el historial completo usar el endpoint paginado.")
         @GetMapping("/cuenta/{cuentaBancariaId}")
         public ResponseEntity<List<TransaccionDTO>> obtenerTransaccionesPorCuenta(
                         @PathVariable Long cuentaBancariaId) {
@@ -52,4 +103,43 @@ public class TransaccionController {
                                 transaccionService.obtenerTransaccionesPorCuenta(cuentaBancariaId);
                 return ResponseEntity.ok(transacciones);
         }
+
+        @Operation(summary = "Obtener transacciones por cuenta paginadas",
+                        description = "Devuelve una página del historial, con las transacciones enviadas y recibidas, de la más reciente a la más antigua. Para obtener la siguiente página enviar el nextCursor recibido.")
+        @GetMapping("/cuenta/{cuentaBancariaId}/pagina")
+        public ResponseEntity<PaginaTransaccionesDTO> obtenerPaginaTransacciones(
+                        @PathVariable Long cuentaBancariaId,
+                        @Parameter(description = "Cursor opaco devuelto por la página anterior")
+                        @RequestParam(required = false) String cursor,
+                        @Parameter(description = "Tamaño de página (1-500)")
+                        @RequestParam(defaultValue = "50") int limit) {
+                PaginaTransaccionesDTO pagina = transaccionService
+                                .obtenerPaginaTransacciones(cuentaBancariaId, cursor, limit);
+                return ResponseEntity.ok(pagina);
+        }
+
+        @Operation(summary = "Exportar transacciones por cuenta",
+                        description = "Descarga el historial completo de una cuenta en NDJSON o CSV. Las filas se escriben a medida que se leen de la base de datos, sin cargar el historial en memoria.")
+        @GetMapping("/cuenta/{cuentaBancariaId}/exportar")
+        public ResponseEntity<StreamingResponseBody> exportarTransacciones(
+                        @PathVariable Long cuentaBancariaId,
+                        @Parameter(description = "Formato de salida (NDJSON o CSV)")
+                        @RequestParam(defaultValue = "NDJSON") FormatoExportacion formato) {
+                // Se valida antes de empezar a escribir para poder responder 404
+                exportacionTransaccionesService.validarCuenta(cuentaBancariaId);
+
+                boolean csv = formato == FormatoExportacion.CSV;
+                MediaType tipoContenido = csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                                : MediaType.APPLICATION_NDJSON;
+                String nombreArchivo = "transacciones-" + cuentaBancariaId + (csv ? ".csv" : ".ndjson");
+
+                StreamingResponseBody cuerpo = salida -> exportacionTransaccionesService
+                                .exportar(cuentaBancariaId, formato, salida);
+
+                return ResponseEntity.ok().contentType(tipoContenido)
+                                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition
+                                                .attachment().filename(nombreArchivo).build()
+                                                .toString())
+                                .body(cuerpo);
+        }
 }
@@ -1,8 +1,13 @@
 package com.sofka.banking.system.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
+import com.sofka.banking.system.service.EliminacionCascadaService;
+import com.sofka.banking.system.service.ImportacionUsuariosService;
 import com.sofka.banking.system.service.UsuarioService;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
@@ -16,10 +21,15 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import com.sofka.banking.system.dto.request.CreateUsuarioDTO;
 import com.sofka.banking.system.dto.request.UpdateUsuarioDTO;
+import com.sofka.banking.system.dto.response.PaginaUsuariosDTO;
+import com.sofka.banking.system.dto.response.ResultadoImportacionDTO;
+import com.sofka.banking.system.dto.response.TareaEliminacionDTO;
 import com.sofka.banking.system.dto.response.UsuarioDTO;
+import com.sofka.banking.system.enums.FormatoImportacion;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -32,6 +42,8 @@ import lombok.RequiredArgsConstructor;
 public class UsuarioController {
 
     private final UsuarioService usuarioService; // Usa la interfaz, no la implementación
+    private final ImportacionUsuariosService importacionUsuariosService;
+    private final EliminacionCascadaService eliminacionCascadaService;
 
     @Operation(summary = "Obtener todos los usuarios",
             description = "Devuelve una lista de todos los usuarios registrados.")
@@ -41,6 +53,17 @@ public class UsuarioController {
         return ResponseEntity.ok(usuarios);
     }
 
+    @Operation(summary = "Obtener usuarios paginados",
+            description = "Devuelve una página de usuarios con sus cuentas. El orden se indica como campo[,asc|desc] sobre id, cedula, nombre, apellido o email.")
+    @GetMapping("/pagina")
+    public ResponseEntity<PaginaUsuariosDTO> obtenerPaginaUsuarios(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "id") String sort) {
+        PaginaUsuariosDTO pagina = usuarioService.obtenerPaginaUsuarios(page, size, sort);
+        return ResponseEntity.ok(pagina);
+    }
+
     @Operation(summary = "Obtener usuario por ID",
             description = "Devuelve la información de un usuario específico por su ID.")
     @GetMapping("/{id}")
@@ -57,6 +80,16 @@ public class UsuarioController {
         return ResponseEntity.status(HttpStatus.CREATED).body(nuevoUsuario);
     }
 
+    @Operation(summary = "Importar usuarios",
+            description = "Crea usuarios desde el cuerpo de la petición en NDJSON (un CreateUsuarioDTO por línea) o CSV (con cabecera cedula,nombre,apellido,email,telefono,password). El archivo se procesa por bloques sin cargarlo completo; devuelve los importados y un error por fila rechazada.")
+    @PostMapping("/importacion")
+    public ResponseEntity<ResultadoImportacionDTO> importarUsuarios(
+            @RequestParam(defaultValue = "NDJSON") FormatoImportacion formato,
+            InputStream entrada) throws IOException {
+        ResultadoImportacionDTO resultado = importacionUsuariosService.importar(entrada, formato);
+        return ResponseEntity.ok(resultado);
+    }
+
     @Operation(summary = "Actualizar usuario",
             description = "Actualiza los datos de un usuario existente por su ID.")
     @PutMapping("/{id}")
@@ -74,4 +107,22 @@ public class UsuarioController {
         String mensaje = usuarioService.eliminarUsuario(id);
         return ResponseEntity.ok(Map.of("message", mensaje));
     }
+
+    @Operation(summary = "Eliminar usuario en segundo plano",
+            description = "Inicia la eliminación del usuario con sus cuentas y transacciones, por bloques, y devuelve la tarea para consultar su avance. Si ya hay una eliminación en curso para el usuario devuelve esa.")
+    @PostMapping("/{id}/eliminacion")
+    public ResponseEntity<TareaEliminacionDTO> iniciarEliminacionUsuario(@PathVariable Long id) {
+        TareaEliminacionDTO tarea = eliminacionCascadaService.iniciarEliminacionUsuario(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/usuarios/eliminaciones/" + tarea.getId())).body(tarea);
+    }
+
+    @Operation(summary = "Consultar eliminación de usuario",
+            description = "Devuelve el estado y el avance de una eliminación en segundo plano.")
+    @GetMapping("/eliminaciones/{tareaId}")
+    public ResponseEntity<TareaEliminacionDTO> consultarEliminacionUsuario(
+            @PathVariable String tareaId) {
+        TareaEliminacionDTO tarea = eliminacionCascadaService.consultarTarea(tareaId);
+        return ResponseEntity.ok(tarea);
+    }
 }
@@ -0,0 +1,68 @@
+package com.sofka.banking.system.datasource;
+
+import java.util.EnumMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.sofka.banking.system.enums.RutaDatos;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Envía las transacciones {@code @Transactional(readOnly = true)} al pool de lectura y todo lo
+ * demás (escrituras, Flyway, accesos sin transacción) al de escritura.
+ *
+ * La ruta se decide al pedir la conexión, por lo que debe envolverse en un
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: el gestor de
+ * transacciones abre la conexión antes de publicar si la transacción es de sólo lectura, y el
+ * proxy la retrasa hasta la primera sentencia. Por lo mismo requiere
+ * {@code spring.jpa.open-in-view=false}: con la sesión de Hibernate abierta durante toda la
+ * petición, su primera conexión se conserva y todas las transacciones usarían ese pool.
+ *
+ * Tras el commit de una transacción de escritura, la sesión lee de la primaria (ver
+ * {@link LecturaTrasEscritura}).
+ */
+public class DataSourceEnrutado extends AbstractRoutingDataSource {
+
+    private final Map<RutaDatos, Counter> conexiones = new EnumMap<>(RutaDatos.class);
+
+    public DataSourceEnrutado(DataSource escritura, DataSource lectura,
+            MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(RutaDatos.ESCRITURA, escritura, RutaDatos.LECTURA, lectura));
+        setDefaultTargetDataSource(escritura);
+        for (RutaDatos ruta : RutaDatos.values()) {
+            conexiones.put(ruta, Counter.builder("banking.datasource.conexiones")
+                    .description("Conexiones entregadas por ruta (escritura o lectura)")
+                    .tag("ruta", ruta.name().toLowerCase()).register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        RutaDatos ruta = ruta();
+        conexiones.get(ruta).increment();
+        return ruta;
+    }
+
+    private RutaDatos ruta() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return RutaDatos.ESCRITURA;
+        }
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return LecturaTrasEscritura.requierePrimaria() ? RutaDatos.ESCRITURA
+                    : RutaDatos.LECTURA;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            LecturaTrasEscritura.registrarEscritura();
+                        }
+                    });
+        }
+        return RutaDatos.ESCRITURA;
+    }
+}
@@ -0,0 +1,83 @@
+package com.sofka.banking.system.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Decide cuándo una transacción de sólo lectura debe ir a la base primaria en lugar de a la
+ * réplica, que puede ir por detrás de ella.
+ *
+ * Una sesión que acaba de escribir lee de la primaria durante un tiempo: dentro de la misma
+ * petición desde el commit de su escritura, y en las peticiones siguientes mientras la cookie que
+ * deja {@link LecturaTrasEscrituraFilter} siga vigente. Fuera de una petición (tareas en segundo
+ * plano) sólo cuenta {@link #enPrimaria(Supplier)}.
+ */
+public final class LecturaTrasEscritura {
+
+    private static final ThreadLocal<Sesion> SESION = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> FORZADA = new ThreadLocal<>();
+
+    private LecturaTrasEscritura() {
+    }
+
+    /**
+     * Indica si las lecturas del hilo actual deben ir a la primaria.
+     */
+    public static boolean requierePrimaria() {
+        Sesion sesion = SESION.get();
+        return FORZADA.get() != null
+                || (sesion != null && (sesion.escrituraReciente || sesion.escribio));
+    }
+
+    /**
+     * Ejecuta la operación leyendo siempre de la primaria, para lecturas que no admiten un valor
+     * atrasado (p. ej. las que alimentan una caché).
+     */
+    public static <T> T enPrimaria(Supplier<T> operacion) {
+        if (FORZADA.get() != null) {
+            return operacion.get();
+        }
+        FORZADA.set(Boolean.TRUE);
+        try {
+            return operacion.get();
+        } finally {
+            FORZADA.remove();
+        }
+    }
+
+    public static void enPrimaria(Runnable operacion) {
+        enPrimaria(() -> {
+            operacion.run();
+            return null;
+        });
+    }
+
+    /**
+     * Registra que la sesión actual confirmó una escritura.
+     */
+    static void registrarEscritura() {
+        Sesion sesion = SESION.get();
+        if (sesion != null && !sesion.escribio) {
+            sesion.escribio = true;
+            sesion.alEscribir.run();
+        }
+    }
+
+    static void iniciar(boolean escrituraReciente, Runnable alEscribir) {
+        SESION.set(new Sesion(escrituraReciente, alEscribir));
+    }
+
+    static void terminar() {
+        SESION.remove();
+    }
+
+    private static final class Sesion {
+        private final boolean escrituraReciente;
+        private final Runnable alEscribir;
+        private boolean escribio;
+
+        private Sesion(boolean escrituraReciente, Runnable alEscribir) {
+            this.escrituraReciente = escrituraReciente;
+            this.alEscribir = alEscribir;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.sofka.banking.system.datasource;
+
+import java.io.IOException;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Delimita la sesión de {@link LecturaTrasEscritura} a cada petición. Cuando la petición confirma
+ * una escritura deja una cookie con el instante del commit; mientras tenga menos de
+ * {@code ventana} de antigüedad, las lecturas de ese cliente van a la primaria. La ventana debe
+ * cubrir el retraso máximo esperado de la réplica.
+ */
+@Component
+public class LecturaTrasEscrituraFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "banking-escritura";
+
+    private final Duration ventana;
+
+    public LecturaTrasEscrituraFilter(
+            @Value("${banking.datasource.lectura.ventana-tras-escritura:5s}") Duration ventana) {
+        this.ventana = ventana;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        LecturaTrasEscritura.iniciar(escrituraReciente(request), () -> marcar(response));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            LecturaTrasEscritura.terminar();
+        }
+    }
+
+    private boolean escrituraReciente(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie == null) {
+            return false;
+        }
+        try {
+            long antiguedad = System.currentTimeMillis() - Long.parseLong(cookie.getValue());
+            return antiguedad >= 0 && antiguedad < ventana.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void marcar(HttpServletResponse response) {
+        // Con la respuesta ya enviada (descargas en streaming) no se puede añadir la cookie
+        if (ventana.isZero() || response.isCommitted()) {
+            return;
+        }
+        Cookie cookie = new Cookie(COOKIE, Long.toString(System.currentTimeMillis()));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, ventana.toSeconds()));
+        response.addCookie(cookie);
+    }
+}
@@ -0,0 +1,310 @@
+package com.sofka.banking.system.diario;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Diario (write-ahead log) de transacciones sobre un archivo mapeado en memoria, con confirmación
+ * agrupada (group commit).
+ *
+ * Agregar un registro sólo copia sus bytes al mapeo. Un único hilo fuerza a disco todo lo escrito
+ * desde el último flush y despierta de una vez a todas las solicitudes que esperaban: con muchas
+ * solicitudes concurrentes, un fsync confirma decenas de transacciones en lugar de una. El
+ * intervalo de flush alarga la ventana en la que se acumulan registros.
+ *
+ * Los registros confirmados se entregan en orden a {@code alConfirmar}. Cuando el archivo se
+ * llena, la escritura vuelve al principio en cuanto todo lo escrito está aplicado (ver
+ * {@link #marcarAplicado(long)}); las secuencias consecutivas permiten distinguir al recuperar
+ * los registros nuevos de los restos de una vuelta anterior.
+ */
+public class DiarioTransacciones implements AutoCloseable {
+
+    private final FileChannel canal;
+    private final MappedByteBuffer buffer;
+    private final long intervaloFlushNanos;
+    private final Consumer<List<RegistroDiario>> alConfirmar;
+    private final Timer tiempoFlush;
+    private final DistributionSummary registrosPorFlush;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hayPorConfirmar = lock.newCondition();
+    private final Condition confirmados = lock.newCondition();
+    private final Condition espacioLibre = lock.newCondition();
+
+    private List<RegistroDiario> porConfirmar = new ArrayList<>();
+    private long siguienteSecuencia = 1;
+    private long confirmadoHasta;
+    private long aplicadoHasta;
+    private int inicioSinForzar;
+    private RuntimeException fallo;
+    private boolean activo;
+    private Thread hiloFlush;
+
+    public DiarioTransacciones(Path ruta, int capacidadRegistros, Duration intervaloFlush,
+            Consumer<List<RegistroDiario>> alConfirmar, MeterRegistry meterRegistry)
+            throws IOException {
+        Path directorio = ruta.toAbsolutePath().getParent();
+        if (directorio != null) {
+            Files.createDirectories(directorio);
+        }
+        this.canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.buffer = canal.map(FileChannel.MapMode.READ_WRITE, 0,
+                (long) capacidadRegistros * RegistroDiario.TAMANO);
+        this.intervaloFlushNanos = intervaloFlush.toNanos();
+        this.alConfirmar = alConfirmar;
+
+        this.tiempoFlush = Timer.builder("banking.diario.flush")
+                .description("Tiempo de cada flush del diario a disco")
+                .publishPercentileHistogram().register(meterRegistry);
+        this.registrosPorFlush = DistributionSummary.builder("banking.diario.registros.flush")
+                .description("Transacciones confirmadas por cada flush").register(meterRegistry);
+    }
+
+    /**
+     * Lee el diario desde el principio y devuelve los registros posteriores a la última secuencia
+     * aplicada en la base de datos. Se llama una vez, antes de {@link #iniciar()}.
+     *
+     * @param ultimaAplicada secuencia registrada en {@code diario_aplicado}
+     * @return registros confirmados en disco que aún no se aplicaron, en orden
+     */
+    public List<RegistroDiario> recuperar(long ultimaAplicada) {
+        List<RegistroDiario> sinAplicar = new ArrayList<>();
+        long ultimaLeida = 0;
+        buffer.position(0);
+        while (buffer.remaining() >= RegistroDiario.TAMANO) {
+            RegistroDiario registro = RegistroDiario.leer(buffer);
+            // Fin del diario: registro nunca escrito, incompleto o de una vuelta anterior
+            if (registro == null
+                    || (ultimaLeida != 0 && registro.secuencia() != ultimaLeida + 1)) {
+                break;
+            }
+            ultimaLeida = registro.secuencia();
+            if (ultimaLeida > ultimaAplicada) {
+                sinAplicar.add(registro);
+            }
+        }
+
+        // Tras una caída pueden quedar en el archivo registros escritos pero nunca confirmados,
+        // con secuencias de hasta una vuelta completa por delante. Saltar esa vuelta garantiza
+        // que ningún resto continúe la cadena que se escriba desde el principio
+        int capacidadRegistros = buffer.capacity() / RegistroDiario.TAMANO;
+        siguienteSecuencia = Math.max(ultimaLeida, ultimaAplicada) + capacidadRegistros + 1;
+        confirmadoHasta = siguienteSecuencia - 1;
+        return sinAplicar;
+    }
+
+    /**
+     * Empieza a aceptar registros. Los recuperados deben estar ya aplicados: la escritura
+     * continúa desde el principio del archivo.
+     */
+    public void iniciar() {
+        lock.lock();
+        try {
+            aplicadoHasta = siguienteSecuencia - 1;
+            buffer.position(0);
+            inicioSinForzar = 0;
+            activo = true;
+        } finally {
+            lock.unlock();
+        }
+        hiloFlush = Thread.ofPlatform().name("diario-flush").daemon().start(this::bucleFlush);
+    }
+
+    /**
+     * Escribe el registro con la siguiente secuencia. No espera al disco: para eso está
+     * {@link #esperarConfirmacion(long)}.
+     *
+     * @param registro registro a escribir (su secuencia se ignora)
+     * @param alAgregar se ejecuta con el registro ya numerado, antes de que pueda confirmarse
+     * @return el registro con su secuencia
+     */
+    public RegistroDiario agregar(RegistroDiario registro, Consumer<RegistroDiario> alAgregar) {
+        lock.lock();
+        try {
+            verificarDisponible();
+            while (buffer.remaining() < RegistroDiario.TAMANO) {
+                // Archivo lleno: se vuelve al principio cuando todo lo escrito está aplicado
+                if (aplicadoHasta == siguienteSecuencia - 1) {
+                    buffer.position(0);
+                    inicioSinForzar = 0;
+                    break;
+                }
+                espacioLibre.await(100, TimeUnit.MILLISECONDS);
+                verificarDisponible();
+            }
+
+            RegistroDiario numerado = registro.conSecuencia(siguienteSecuencia++);
+            numerado.escribir(buffer);
+            alAgregar.accept(numerado);
+            porConfirmar.add(numerado);
+            hayPorConfirmar.signal();
+            return numerado;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando espacio en el diario", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bloquea hasta que el registro con esa secuencia está en disco.
+     */
+    public void esperarConfirmacion(long secuencia) {
+        lock.lock();
+        try {
+            while (confirmadoHasta < secuencia) {
+                verificarSinFallo();
+                confirmados.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando el flush del diario", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Informa que los registros hasta esa secuencia ya están en la base de datos, lo que libera
+     * su espacio en el archivo.
+     */
+    public void marcarAplicado(long secuencia) {
+        lock.lock();
+        try {
+            aplicadoHasta = Math.max(aplicadoHasta, secuencia);
+            espacioLibre.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isDisponible() {
+        lock.lock();
+        try {
+            return fallo == null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deja de aceptar registros, confirma los pendientes y cierra el archivo.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            activo = false;
+            hayPorConfirmar.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (hiloFlush != null) {
+            try {
+                hiloFlush.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        canal.close();
+    }
+
+    private void bucleFlush() {
+        while (true) {
+            List<RegistroDiario> lote;
+            int desde;
+            int hasta;
+            lock.lock();
+            try {
+                while (porConfirmar.isEmpty()) {
+                    if (!activo) {
+                        return;
+                    }
+                    hayPorConfirmar.await();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            // Ventana de agrupación: los registros que llegan mientras tanto van en este flush
+            if (intervaloFlushNanos > 0) {
+                LockSupport.parkNanos(intervaloFlushNanos);
+            }
+
+            lock.lock();
+            try {
+                lote = porConfirmar;
+                porConfirmar = new ArrayList<>();
+                desde = inicioSinForzar;
+                hasta = buffer.position();
+                inicioSinForzar = hasta;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                long inicio = System.nanoTime();
+                buffer.force(desde, hasta - desde);
+                tiempoFlush.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+                registrosPorFlush.record(lote.size());
+            } catch (UncheckedIOException e) {
+                fallar(e);
+                return;
+            }
+
+            lock.lock();
+            try {
+                confirmadoHasta = lote.get(lote.size() - 1).secuencia();
+                confirmados.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            alConfirmar.accept(lote);
+        }
+    }
+
+    private void fallar(RuntimeException causa) {
+        lock.lock();
+        try {
+            fallo = causa;
+            confirmados.signalAll();
+            espacioLibre.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void verificarSinFallo() {
+        if (fallo != null) {
+            throw new IllegalStateException("El diario de transacciones no está disponible",
+                    fallo);
+        }
+    }
+
+    private void verificarDisponible() {
+        verificarSinFallo();
+        if (!activo) {
+            throw new IllegalStateException("El diario de transacciones está cerrado");
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package com.sofka.banking.system.diario;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.sofka.banking.system.cache.SaldoCache;
+import com.sofka.banking.system.concurrency.CuentaLockManager;
+import com.sofka.banking.system.concurrency.MotorTransacciones;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
+import com.sofka.banking.system.exception.transaccion.SaldoInsuficienteException;
+import com.sofka.banking.system.repository.SecuenciaIds;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Motor de transacciones con diario y confirmación agrupada ({@code banking.transacciones.motor=
+ * diario}).
+ *
+ * Una transacción se valida contra el saldo confirmado de sus cuentas, se escribe en el
+ * {@link DiarioTransacciones} y se responde en cuanto el diario está en disco. Un hilo aparte
+ * aplica los registros confirmados a {@code cuentas_bancarias} y {@code transacciones} en lotes,
+ * y guarda en {@code diario_aplicado} hasta qué secuencia llegó, en la misma transacción. Al
+ * arrancar se aplican los registros del diario posteriores a esa secuencia.
+ *
+ * El saldo confirmado de una cuenta es el de la base de datos más los cambios del diario aún no
+ * aplicados. Ambos se leen de forma consistente: la consulta trae el saldo junto con la secuencia
+ * aplicada, y sólo se suman los cambios posteriores a ella.
+ *
+ * Un lote que no se aplica tras {@code banking.diario.max-reintentos} reintentos deja el motor
+ * fallido: no aplica más registros, rechaza nuevas transacciones y las lecturas que esperan a la
+ * base de datos fallan en lugar de esperar. Lo confirmado sigue en el diario y se aplica al
+ * arrancar de nuevo, una vez corregida la causa.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.transacciones.motor", havingValue = "diario")
+public class MotorDiario implements MotorTransacciones, AutoCloseable {
+
+    private static final String SQL_SALDO = "SELECT c.saldo_actual, d.secuencia "
+            + "FROM cuentas_bancarias c CROSS JOIN diario_aplicado d WHERE c.id = ? AND d.id = 1";
+    private static final String SQL_SECUENCIA_APLICADA =
+            "SELECT secuencia FROM diario_aplicado WHERE id = 1";
+    private static final String SQL_ACTUALIZAR_SALDO =
+            "UPDATE cuentas_bancarias SET saldo_actual = saldo_actual + ? WHERE id = ?";
+    private static final String SQL_INSERTAR_TRANSACCION = "INSERT INTO transacciones "
+            + "(id, monto, tipo, fecha, cuenta_bancaria_id, cuenta_destino_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SQL_MARCAR_APLICADO =
+            "UPDATE diario_aplicado SET secuencia = ? WHERE id = 1";
+    private static final long ESPERA_REINTENTO_MS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CuentaLockManager cuentaLockManager;
+    private final SaldoCache saldoCache;
+    private final SecuenciaIds secuenciaTransacciones;
+    private final int tamanoLote;
+    private final int maxReintentos;
+    private final long esperaAplicadosNanos;
+    private final DiarioTransacciones diario;
+
+    private final Map<Long, Pendientes> pendientes = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<RegistroDiario> porAplicar = new LinkedBlockingQueue<>();
+    // Lectura: saldo + pendientes de una cuenta. Escritura: descartar pendientes ya aplicados
+    private final ReentrantReadWriteLock poda = new ReentrantReadWriteLock();
+    private final ReentrantLock lockAplicado = new ReentrantLock();
+    private final Condition aplicados = lockAplicado.newCondition();
+    private final Counter reintentos;
+    private final Counter descartados;
+    private final Thread hiloAplicador;
+
+    private volatile long aplicadoHasta;
+    private volatile boolean activo = true;
+    private volatile RuntimeException fallo;
+    private long siguienteId;
+    private long finBloqueIds;
+
+    public MotorDiario(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            CuentaLockManager cuentaLockManager, SaldoCache saldoCache, DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${banking.diario.ruta:./data/diario-transacciones.log}") String ruta,
+            @Value("${banking.diario.capacidad-registros:1000000}") int capacidadRegistros,
+            @Value("${banking.diario.intervalo-flush:2ms}") Duration intervaloFlush,
+            @Value("${banking.diario.tamano-lote:500}") int tamanoLote,
+            @Value("${banking.diario.max-reintentos:10}") int maxReintentos,
+            @Value("${banking.diario.espera-aplicados:30s}") Duration esperaAplicados)
+            throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.cuentaLockManager = cuentaLockManager;
+        this.saldoCache = saldoCache;
+        // Mismos bloques que reserva Hibernate (pooled-lo): los IDs no chocan con los de JPA
+        this.secuenciaTransacciones = new SecuenciaIds(dataSource, "transacciones_seq");
+        this.tamanoLote = tamanoLote;
+        this.maxReintentos = maxReintentos;
+        this.esperaAplicadosNanos = esperaAplicados.toNanos();
+
+        this.reintentos = Counter.builder("banking.diario.reintentos")
+                .description("Lotes del diario que fallaron al aplicarse y se reintentaron")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("banking.diario.descartados")
+                .description("Transacciones del diario sobre cuentas ya eliminadas")
+                .register(meterRegistry);
+        Gauge.builder("banking.diario.por.aplicar", porAplicar, LinkedBlockingQueue::size)
+                .description("Transacciones confirmadas aún no aplicadas a la base de datos")
+                .register(meterRegistry);
+        Gauge.builder("banking.diario.fallido", this, motor -> motor.fallo != null ? 1 : 0)
+                .description("1 si el motor dejó de aplicar el diario tras agotar los reintentos")
+                .register(meterRegistry);
+
+        this.diario = new DiarioTransacciones(Path.of(ruta), capacidadRegistros, intervaloFlush,
+                porAplicar::addAll, meterRegistry);
+
+        // Lo confirmado antes de una caída se aplica antes de aceptar nuevas transacciones
+        List<RegistroDiario> recuperados =
+                diario.recuperar(jdbcTemplate.queryForObject(SQL_SECUENCIA_APLICADA, Long.class));
+        for (int inicio = 0; inicio < recuperados.size(); inicio += tamanoLote) {
+            aplicar(recuperados.subList(inicio,
+                    Math.min(recuperados.size(), inicio + tamanoLote)));
+        }
+        diario.iniciar();
+
+        this.hiloAplicador = Thread.ofPlatform().name("diario-aplicador").daemon()
+                .start(this::bucleAplicador);
+    }
+
+    /**
+     * Valida la transacción contra los saldos confirmados, la escribe en el diario y espera a que
+     * esté en disco.
+     *
+     * @param cuentaDestinoId cuenta que recibe una transferencia; nula en depósitos y retiros
+     * @throws CuentaBancariaNotFoundException si alguna cuenta no existe
+     * @throws SaldoInsuficienteException si un retiro o transferencia supera el saldo
+     * @throws IllegalStateException si el motor falló al aplicar el diario
+     */
+    @Override
+    public TransaccionDTO registrar(TipoTransaccion tipo, Long cuentaId, Long cuentaDestinoId,
+            BigDecimal monto) {
+        verificarSinFallo();
+        RegistroDiario registro = cuentaLockManager.ejecutarConBloqueo(
+                () -> validarYAgregar(tipo, cuentaId, cuentaDestinoId, monto), cuentaId,
+                cuentaDestinoId);
+
+        // La espera al disco ocurre sin bloqueos, así un flush confirma solicitudes de cualquier
+        // cuenta
+        diario.esperarConfirmacion(registro.secuencia());
+
+        return TransaccionDTO.builder().id(registro.transaccionId()).monto(registro.monto())
+                .tipo(registro.tipo()).fecha(registro.fecha())
+                .cuentaBancariaId(registro.cuentaId())
+                .cuentaDestinoId(registro.cuentaDestinoId()).build();
+    }
+
+    @Override
+    public void esperarAplicados(Long... cuentaIds) {
+        long objetivo = 0;
+        for (Long cuentaId : cuentaIds) {
+            Pendientes cambios = cuentaId != null ? pendientes.get(cuentaId) : null;
+            if (cambios != null) {
+                objetivo = Math.max(objetivo, cambios.ultimaSecuencia());
+            }
+        }
+
+        long limite = System.nanoTime() + esperaAplicadosNanos;
+        lockAplicado.lock();
+        try {
+            while (aplicadoHasta < objetivo) {
+                verificarSinFallo();
+                if (!diario.isDisponible()) {
+                    throw new IllegalStateException(
+                            "El diario de transacciones no está disponible");
+                }
+                long restante = limite - System.nanoTime();
+                if (restante <= 0) {
+                    throw new IllegalStateException(
+                            "Tiempo agotado esperando a que se aplique el diario");
+                }
+                aplicados.await(Math.min(restante, TimeUnit.MILLISECONDS.toNanos(100)),
+                        TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando el diario", e);
+        } finally {
+            lockAplicado.unlock();
+        }
+    }
+
+    /**
+     * Deja de aceptar transacciones, confirma las que estaban en curso y termina de aplicarlas.
+     */
+    @Override
+    public void close() throws IOException, InterruptedException {
+        diario.close();
+        activo = false;
+        hiloAplicador.join();
+    }
+
+    private void verificarSinFallo() {
+        RuntimeException causa = fallo;
+        if (causa != null) {
+            throw new IllegalStateException(
+                    "El motor de transacciones dejó de aplicar el diario", causa);
+        }
+    }
+
+    private RegistroDiario validarYAgregar(TipoTransaccion tipo, Long cuentaId,
+            Long cuentaDestinoId, BigDecimal monto) {
+        BigDecimal saldo = saldoConfirmado(cuentaId);
+        if (cuentaDestinoId != null) {
+            saldoConfirmado(cuentaDestinoId);
+        }
+        if (tipo != TipoTransaccion.DEPOSITO && saldo.compareTo(monto) < 0) {
+            throw new SaldoInsuficienteException(saldo, monto);
+        }
+
+        RegistroDiario registro = new RegistroDiario(0, asignarId(), tipo, cuentaId,
+                cuentaDestinoId, monto, LocalDateTime.now());
+        // Los cambios quedan pendientes antes de que el registro pueda confirmarse y aplicarse
+        return diario.agregar(registro, numerado -> numerado.cambiosDeSaldo(
+                (cuenta, cambio) -> registrarPendiente(cuenta, numerado.secuencia(), cambio)));
+    }
+
+    private void registrarPendiente(Long cuentaId, long secuencia, BigDecimal cambio) {
+        // Dentro de compute: la poda no puede quitar del mapa la entrada mientras se agrega
+        pendientes.compute(cuentaId, (id, cambios) -> {
+            Pendientes actualizados = cambios != null ? cambios : new Pendientes();
+            actualizados.agregar(secuencia, cambio);
+            return actualizados;
+        });
+    }
+
+    private BigDecimal saldoConfirmado(Long cuentaId) {
+        poda.readLock().lock();
+        try {
+            BigDecimal saldo = jdbcTemplate.query(SQL_SALDO, resultado -> {
+                if (!resultado.next()) {
+                    return null;
+                }
+                Pendientes cambios = pendientes.get(cuentaId);
+                BigDecimal enBaseDeDatos = resultado.getBigDecimal(1);
+                return cambios == null ? enBaseDeDatos
+                        : enBaseDeDatos.add(cambios.sumaPosteriorA(resultado.getLong(2)));
+            }, cuentaId);
+            if (saldo == null) {
+                throw new CuentaBancariaNotFoundException(cuentaId);
+            }
+            return saldo;
+        } finally {
+            poda.readLock().unlock();
+        }
+    }
+
+    private synchronized long asignarId() {
+        if (siguienteId == finBloqueIds) {
+            siguienteId = secuenciaTransacciones.reservarBloque();
+            finBloqueIds = siguienteId + secuenciaTransacciones.tamanoBloque();
+        }
+        return siguienteId++;
+    }
+
+    private void bucleAplicador() {
+        List<RegistroDiario> lote = new ArrayList<>(tamanoLote);
+        while (activo || !porAplicar.isEmpty()) {
+            try {
+                RegistroDiario primero = porAplicar.poll(100, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                porAplicar.drainTo(lote, tamanoLote - 1);
+                // Los registros se aplican en orden: tras un lote sin aplicar no sigue ninguno
+                if (!aplicarConReintentos(lote)) {
+                    return;
+                }
+                lote.clear();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // El lote sigue en el diario: si no se aplica aquí, se aplica al arrancar
+    private boolean aplicarConReintentos(List<RegistroDiario> lote) throws InterruptedException {
+        for (int intento = 0;; intento++) {
+            try {
+                aplicar(lote);
+                return true;
+            } catch (RuntimeException e) {
+                if (!activo) {
+                    return false;
+                }
+                if (intento >= maxReintentos) {
+                    fallar(e);
+                    return false;
+                }
+                reintentos.increment();
+                Thread.sleep(ESPERA_REINTENTO_MS);
+            }
+        }
+    }
+
+    private void fallar(RuntimeException causa) {
+        lockAplicado.lock();
+        try {
+            fallo = causa;
+            aplicados.signalAll();
+        } finally {
+            lockAplicado.unlock();
+        }
+    }
+
+    private void aplicar(List<RegistroDiario> lote) {
+        // Un UPDATE por cuenta con el cambio neto del lote, en orden de ID como el resto de
+        // escrituras de saldo
+        Map<Long, BigDecimal> cambios = new TreeMap<>();
+        for (RegistroDiario registro : lote) {
+            registro.cambiosDeSaldo((cuenta, cambio) -> cambios.merge(cuenta, cambio,
+                    BigDecimal::add));
+        }
+        long ultima = lote.get(lote.size() - 1).secuencia();
+
+        Integer sinCuenta = transactionTemplate.execute(estado -> {
+            List<Long> cuentas = new ArrayList<>(cambios.keySet());
+            int[][] filas = jdbcTemplate.batchUpdate(SQL_ACTUALIZAR_SALDO, cuentas,
+                    cuentas.size(), (ps, cuenta) -> {
+                        ps.setBigDecimal(1, cambios.get(cuenta));
+                        ps.setLong(2, cuenta);
+                    });
+
+            // Una cuenta eliminada mientras tenía cambios pendientes: su historial ya no existe
+            Set<Long> eliminadas = new HashSet<>();
+            for (int i = 0; i < cuentas.size(); i++) {
+                if (filas[0][i] == 0) {
+                    eliminadas.add(cuentas.get(i));
+                }
+            }
+            List<RegistroDiario> insertables = lote.stream()
+                    .filter(r -> !eliminadas.contains(r.cuentaId())
+                            && !eliminadas.contains(r.cuentaDestinoId()))
+                    .toList();
+
+            if (!insertables.isEmpty()) {
+                jdbcTemplate.batchUpdate(SQL_INSERTAR_TRANSACCION, insertables,
+                        insertables.size(), (ps, registro) -> {
+                            ps.setLong(1, registro.transaccionId());
+                            ps.setBigDecimal(2, registro.monto());
+                            ps.setString(3, registro.tipo().name());
+                            ps.setObject(4, registro.fecha());
+                            ps.setLong(5, registro.cuentaId());
+                            ps.setObject(6, registro.cuentaDestinoId(), Types.BIGINT);
+                        });
+            }
+            jdbcTemplate.update(SQL_MARCAR_APLICADO, ultima);
+
+            cuentas.removeAll(eliminadas);
+            if (!cuentas.isEmpty()) {
+                saldoCache.actualizarTrasCommit(cuentas.toArray(Long[]::new));
+            }
+            return lote.size() - insertables.size();
+        });
+        descartados.increment(sinCuenta);
+
+        poda.writeLock().lock();
+        try {
+            for (Long cuenta : cambios.keySet()) {
+                pendientes.computeIfPresent(cuenta,
+                        (c, pendientesCuenta) -> pendientesCuenta.descartarHasta(ultima) ? null
+                                : pendientesCuenta);
+            }
+        } finally {
+            poda.writeLock().unlock();
+        }
+
+        lockAplicado.lock();
+        try {
+            aplicadoHasta = ultima;
+            aplicados.signalAll();
+        } finally {
+            lockAplicado.unlock();
+        }
+        diario.marcarAplicado(ultima);
+    }
+
+    /**
+     * Cambios de saldo de una cuenta escritos en el diario y aún no aplicados, en orden de
+     * secuencia.
+     */
+    private static final class Pendientes {
+        private final ArrayDeque<CambioPendiente> cambios = new ArrayDeque<>();
+
+        synchronized void agregar(long secuencia, BigDecimal cambio) {
+            cambios.addLast(new CambioPendiente(secuencia, cambio));
+        }
+
+        synchronized BigDecimal sumaPosteriorA(long secuenciaAplicada) {
+            BigDecimal suma = BigDecimal.ZERO;
+            for (CambioPendiente cambio : cambios) {
+                if (cambio.secuencia() > secuenciaAplicada) {
+                    suma = suma.add(cambio.monto());
+                }
+            }
+            return suma;
+        }
+
+        synchronized long ultimaSecuencia() {
+            return cambios.isEmpty() ? 0 : cambios.peekLast().secuencia();
+        }
+
+        // Devuelve true si ya no quedan cambios pendientes
+        synchronized boolean descartarHasta(long secuenciaAplicada) {
+            while (!cambios.isEmpty() && cambios.peekFirst().secuencia() <= secuenciaAplicada) {
+                cambios.pollFirst();
+            }
+            return cambios.isEmpty();
+        }
+    }
+
+    private record CambioPendiente(long secuencia, BigDecimal monto) {
+    }
+}
@@ -0,0 +1,108 @@
+package com.sofka.banking.system.diario;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+import com.sofka.banking.system.enums.TipoTransaccion;
+
+/**
+ * Una transacción confirmada en el diario, con el formato binario de tamaño fijo en que se
+ * escribe en el archivo.
+ *
+ * Formato (big-endian): secuencia, ID de la transacción, tipo, cuenta, cuenta destino (0 si no
+ * hay), monto sin escala, escala, segundos y nanos de la fecha, y un CRC32 de todo lo anterior.
+ * Un registro incompleto o corrupto falla el CRC y marca el final del diario.
+ *
+ * @param secuencia posición del registro en el diario, consecutiva desde 1
+ * @param transaccionId ID con el que se insertará la fila en {@code transacciones}
+ * @param cuentaDestinoId cuenta destino de una transferencia; nula en depósitos y retiros
+ */
+public record RegistroDiario(long secuencia, long transaccionId, TipoTransaccion tipo,
+        long cuentaId, Long cuentaDestinoId, BigDecimal monto, LocalDateTime fecha) {
+
+    static final int TAMANO = 8 + 8 + 1 + 8 + 8 + 8 + 4 + 8 + 4 + 4;
+    private static final int TAMANO_SIN_CRC = TAMANO - 4;
+
+    /**
+     * Entrega el cambio de saldo que produce el registro en cada cuenta involucrada.
+     */
+    void cambiosDeSaldo(BiConsumer<Long, BigDecimal> cambio) {
+        switch (tipo) {
+            case DEPOSITO -> cambio.accept(cuentaId, monto);
+            case RETIRO -> cambio.accept(cuentaId, monto.negate());
+            case TRANSFERENCIA -> {
+                cambio.accept(cuentaId, monto.negate());
+                // Como en el motor JPA, una transferencia sin destino sólo debita el origen
+                if (cuentaDestinoId != null) {
+                    cambio.accept(cuentaDestinoId, monto);
+                }
+            }
+        }
+    }
+
+    RegistroDiario conSecuencia(long nuevaSecuencia) {
+        return new RegistroDiario(nuevaSecuencia, transaccionId, tipo, cuentaId, cuentaDestinoId,
+                monto, fecha);
+    }
+
+    void escribir(ByteBuffer destino) {
+        ByteBuffer registro = destino.slice(destino.position(), TAMANO);
+        registro.putLong(secuencia).putLong(transaccionId).put(codigo(tipo)).putLong(cuentaId)
+                .putLong(cuentaDestinoId != null ? cuentaDestinoId : 0L)
+                .putLong(monto.unscaledValue().longValueExact()).putInt(monto.scale())
+                .putLong(fecha.toEpochSecond(ZoneOffset.UTC)).putInt(fecha.getNano());
+        registro.putInt(crc(registro));
+        destino.position(destino.position() + TAMANO);
+    }
+
+    /**
+     * Lee el registro en la posición actual y avanza el buffer.
+     *
+     * @return el registro, o null si el CRC no coincide (registro incompleto o nunca escrito)
+     */
+    static RegistroDiario leer(ByteBuffer origen) {
+        ByteBuffer registro = origen.slice(origen.position(), TAMANO);
+        origen.position(origen.position() + TAMANO);
+        if (registro.getInt(TAMANO_SIN_CRC) != crc(registro)) {
+            return null;
+        }
+
+        long secuencia = registro.getLong();
+        long transaccionId = registro.getLong();
+        TipoTransaccion tipo = tipo(registro.get());
+        long cuentaId = registro.getLong();
+        long cuentaDestinoId = registro.getLong();
+        BigDecimal monto = BigDecimal.valueOf(registro.getLong(), registro.getInt());
+        LocalDateTime fecha = LocalDateTime.ofEpochSecond(registro.getLong(), registro.getInt(),
+                ZoneOffset.UTC);
+        return new RegistroDiario(secuencia, transaccionId, tipo, cuentaId,
+                cuentaDestinoId != 0L ? cuentaDestinoId : null, monto, fecha);
+    }
+
+    private static int crc(ByteBuffer registro) {
+        CRC32 crc = new CRC32();
+        crc.update(registro.duplicate().position(0).limit(TAMANO_SIN_CRC));
+        return (int) crc.getValue();
+    }
+
+    // Códigos fijos: el ordinal de TipoTransaccion no forma parte del formato del archivo
+    private static byte codigo(TipoTransaccion tipo) {
+        return switch (tipo) {
+            case DEPOSITO -> 1;
+            case RETIRO -> 2;
+            case TRANSFERENCIA -> 3;
+        };
+    }
+
+    private static TipoTransaccion tipo(byte codigo) {
+        return switch (codigo) {
+            case 1 -> TipoTransaccion.DEPOSITO;
+            case 2 -> TipoTransaccion.RETIRO;
+            case 3 -> TipoTransaccion.TRANSFERENCIA;
+            default -> throw new IllegalStateException("Tipo desconocido en el diario: " + codigo);
+        };
+    }
+}
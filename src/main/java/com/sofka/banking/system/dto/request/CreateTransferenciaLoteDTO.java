@@ -0,0 +1,24 @@
+package com.sofka.banking.system.dto.request;
+
+import java.util.List;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreateTransferenciaLoteDTO {
+
+    @Schema(description = "Transferencias a realizar, en el orden en que deben aplicarse",
+            requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotEmpty(message = "El lote debe contener al menos una transferencia")
+    @Size(max = 10000, message = "El lote no puede superar las 10000 transferencias")
+    private List<@Valid CreateTransferenciaDTO> transferencias;
+}
@@ -0,0 +1,18 @@
+package com.sofka.banking.system.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ErrorImportacionDTO {
+    private long fila; // Número de registro en el archivo (sin contar la cabecera CSV)
+    private String cedula;
+    private String mensaje;
+}
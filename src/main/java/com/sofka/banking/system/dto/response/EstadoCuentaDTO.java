@@ -0,0 +1,25 @@
+package com.sofka.banking.system.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import com.sofka.banking.system.enums.GranularidadEstado;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadoCuentaDTO {
+    private Long cuentaId;
+    private LocalDate desde;
+    private LocalDate hasta;
+    private GranularidadEstado granularidad;
+    private BigDecimal saldoInicial;
+    private BigDecimal saldoFinal;
+    // Sólo los periodos con movimientos, del más antiguo al más reciente
+    private List<PeriodoEstadoDTO> periodos;
+}
@@ -0,0 +1,19 @@
+package com.sofka.banking.system.dto.response;
+
+import java.util.List;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaTransaccionesDTO {
+    private List<TransaccionDTO> transacciones;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor; // Nulo cuando no hay más páginas
+}
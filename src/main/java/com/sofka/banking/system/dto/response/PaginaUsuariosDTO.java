@@ -0,0 +1,19 @@
+package com.sofka.banking.system.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PaginaUsuariosDTO {
+    private List<UsuarioDTO> usuarios;
+    private int pagina;
+    private int tamano;
+    private long totalElementos;
+    private int totalPaginas;
+}
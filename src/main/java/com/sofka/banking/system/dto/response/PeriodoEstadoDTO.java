@@ -0,0 +1,21 @@
+package com.sofka.banking.system.dto.response;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PeriodoEstadoDTO {
+    private LocalDate inicio;
+    private BigDecimal depositos;
+    private BigDecimal retiros;
+    private BigDecimal transferenciasEnviadas;
+    private BigDecimal transferenciasRecibidas;
+    private long cantidadTransacciones;
+}
@@ -0,0 +1,19 @@
+package com.sofka.banking.system.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoImportacionDTO {
+    private long total;
+    private long importados;
+    private long rechazados;
+    private List<ErrorImportacionDTO> errores;
+    private long erroresOmitidos; // Rechazos que no caben en el reporte
+}
@@ -0,0 +1,18 @@
+package com.sofka.banking.system.dto.response;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResultadoLoteTransferenciasDTO {
+    private int total;
+    private int exitosas;
+    private int rechazadas;
+    private List<ResultadoTransferenciaDTO> resultados;
+}
@@ -0,0 +1,20 @@
+package com.sofka.banking.system.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sofka.banking.system.enums.EstadoTransferencia;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResultadoTransferenciaDTO {
+    private int indice; // Posición de la transferencia en el lote recibido
+    private EstadoTransferencia estado;
+    private String mensaje; // Motivo del rechazo
+    private TransaccionDTO transaccion; // Transacción registrada si fue exitosa
+}
@@ -0,0 +1,26 @@
+package com.sofka.banking.system.dto.response;
+
+import java.time.LocalDateTime;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sofka.banking.system.enums.EstadoTareaEliminacion;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TareaEliminacionDTO {
+    private String id;
+    private Long usuarioId;
+    private EstadoTareaEliminacion estado;
+    private long cuentasTotales; // Cuentas del usuario al iniciar la tarea
+    private long cuentasEliminadas;
+    private long transaccionesEliminadas;
+    private LocalDateTime inicio;
+    private LocalDateTime fin;
+    private String error;
+}
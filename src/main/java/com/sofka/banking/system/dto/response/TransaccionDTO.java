@@ -3,6 +3,7 @@ package com.sofka.banking.system.dto.response;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sofka.banking.system.enums.DireccionTransaccion;
 import com.sofka.banking.system.enums.TipoTransaccion;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,4 +23,7 @@ public class TransaccionDTO {
 
     @JsonInclude(JsonInclude.Include.NON_NULL)
     private Long cuentaDestinoId; // Para transferencias
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private DireccionTransaccion direccion; // Sólo en el historial de una cuenta
 }
@@ -0,0 +1,38 @@
+package com.sofka.banking.system.entity;
+
+import java.time.LocalDateTime;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "claves_idempotencia")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClaveIdempotencia {
+    @Id
+    private String clave;
+
+    @Column(nullable = false)
+    private String operacion;
+
+    // SHA-256 de la operación y el cuerpo: detecta una clave reutilizada con otra solicitud
+    @Column(nullable = false)
+    private String huella;
+
+    // TransaccionDTO en JSON; nula sólo mientras la transacción que la reservó no termina
+    private String respuesta;
+
+    @Column(name = "creada_en", nullable = false)
+    private LocalDateTime creadaEn;
+
+    @Column(name = "expira_en", nullable = false)
+    private LocalDateTime expiraEn;
+}
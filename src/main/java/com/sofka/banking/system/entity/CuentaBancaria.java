@@ -2,15 +2,23 @@ package com.sofka.banking.system.entity;
 
 import java.math.BigDecimal;
 import java.util.List;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import com.sofka.banking.system.cache.FiltrosUnicidadListener;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,11 +31,20 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(FiltrosUnicidadListener.class)
+// Caché de segundo nivel (región "cuentas") y resolución número de cuenta -> ID ("cuentas-numero").
+// El saldo se consulta por SaldoCache; esta copia se desaloja tras cada escritura de saldo.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cuentas")
+@NaturalIdCache(region = "cuentas-numero")
 public class CuentaBancaria {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cuentas_bancarias_seq")
+    @SequenceGenerator(name = "cuentas_bancarias_seq", sequenceName = "cuentas_bancarias_seq",
+            allocationSize = 50)
     private Long id;
 
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String numeroCuenta;
 
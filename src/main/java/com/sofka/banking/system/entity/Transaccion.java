@@ -13,6 +13,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -27,7 +28,9 @@ import lombok.NoArgsConstructor;
 @Builder
 public class Transaccion {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transacciones_seq")
+    @SequenceGenerator(name = "transacciones_seq", sequenceName = "transacciones_seq",
+            allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
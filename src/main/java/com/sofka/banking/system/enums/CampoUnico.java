@@ -0,0 +1,5 @@
+package com.sofka.banking.system.enums;
+
+public enum CampoUnico {
+    CEDULA, EMAIL, NUMERO_CUENTA
+}
@@ -0,0 +1,20 @@
+package com.sofka.banking.system.enums;
+
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+
+/**
+ * Sentido del dinero respecto a la cuenta consultada: un depósito o una transferencia recibida
+ * entran; un retiro o una transferencia enviada salen.
+ */
+public enum DireccionTransaccion {
+    ENTRADA, SALIDA;
+
+    /**
+     * Sentido de la transacción para la cuenta consultada, que es su origen o su destino.
+     */
+    public static DireccionTransaccion respectoA(Long cuentaId, TransaccionDTO transaccion) {
+        boolean entra = transaccion.getTipo() == TipoTransaccion.DEPOSITO
+                || cuentaId.equals(transaccion.getCuentaDestinoId());
+        return entra ? ENTRADA : SALIDA;
+    }
+}
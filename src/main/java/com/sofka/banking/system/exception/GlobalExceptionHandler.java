@@ -1,12 +1,24 @@
 package com.sofka.banking.system.exception;
 
+import com.sofka.banking.system.exception.autenticacion.AutenticacionSaturadaException;
 import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
 import com.sofka.banking.system.exception.cuentaBancaria.NumeroCuentaAlreadyExistsException;
+import com.sofka.banking.system.exception.cuentaBancaria.PeriodoInvalidoException;
+import com.sofka.banking.system.exception.transaccion.ClaveIdempotenciaEnUsoException;
+import com.sofka.banking.system.exception.transaccion.ClaveIdempotenciaInvalidaException;
+import com.sofka.banking.system.exception.transaccion.CursorInvalidoException;
+import com.sofka.banking.system.exception.transaccion.IdempotenciaNoDisponibleException;
 import com.sofka.banking.system.exception.transaccion.MontoInvalidoException;
 import com.sofka.banking.system.exception.transaccion.SaldoInsuficienteException;
+import com.sofka.banking.system.exception.usuario.ArchivoImportacionInvalidoException;
 import com.sofka.banking.system.exception.usuario.CedulaAlreadyExistsException;
 import com.sofka.banking.system.exception.usuario.EmailAlreadyExistsException;
+import com.sofka.banking.system.exception.usuario.OrdenamientoInvalidoException;
+import com.sofka.banking.system.exception.usuario.TareaEliminacionNotFoundException;
 import com.sofka.banking.system.exception.usuario.UsuarioNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -22,6 +34,14 @@ import java.util.Map;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private final Counter rechazosSaldoInsuficiente;
+    private final Counter rechazosMontoInvalido;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.rechazosSaldoInsuficiente = contadorRechazos(meterRegistry, "saldo_insuficiente");
+        this.rechazosMontoInvalido = contadorRechazos(meterRegistry, "monto_invalido");
+    }
+
     // Excepciones de Usuario
     @ExceptionHandler(UsuarioNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
@@ -41,6 +61,37 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(OrdenamientoInvalidoException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Map<String, Object>> handleOrdenamientoInvalido(OrdenamientoInvalidoException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ArchivoImportacionInvalidoException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Map<String, Object>> handleArchivoImportacionInvalido(
+            ArchivoImportacionInvalidoException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(TareaEliminacionNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ResponseEntity<Map<String, Object>> handleTareaEliminacionNotFound(
+            TareaEliminacionNotFoundException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.NOT_FOUND);
+    }
+
+    // Excepciones de Autenticación
+    @ExceptionHandler(AutenticacionSaturadaException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<Map<String, Object>> handleAutenticacionSaturada(AutenticacionSaturadaException ex) {
+        ResponseEntity<Map<String, Object>> respuesta =
+                buildErrorResponse(ex.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+        return ResponseEntity.status(respuesta.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getReintentarEnSegundos()))
+                .body(respuesta.getBody());
+    }
+
     // Excepciones de Cuenta Bancaria
     @ExceptionHandler(CuentaBancariaNotFoundException.class)
     @ResponseStatus(HttpStatus.NOT_FOUND)
@@ -54,19 +105,51 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(ex.getMessage(), HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(PeriodoInvalidoException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Map<String, Object>> handlePeriodoInvalido(PeriodoInvalidoException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
     // Excepciones de Transacción
     @ExceptionHandler(SaldoInsuficienteException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<Map<String, Object>> handleSaldoInsuficiente(SaldoInsuficienteException ex) {
+        rechazosSaldoInsuficiente.increment();
         return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(MontoInvalidoException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<Map<String, Object>> handleMontoInvalido(MontoInvalidoException ex) {
+        rechazosMontoInvalido.increment();
+        return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(CursorInvalidoException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Map<String, Object>> handleCursorInvalido(CursorInvalidoException ex) {
         return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(ClaveIdempotenciaInvalidaException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Map<String, Object>> handleClaveIdempotenciaInvalida(ClaveIdempotenciaInvalidaException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(IdempotenciaNoDisponibleException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<Map<String, Object>> handleIdempotenciaNoDisponible(IdempotenciaNoDisponibleException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ClaveIdempotenciaEnUsoException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<Map<String, Object>> handleClaveIdempotenciaEnUso(ClaveIdempotenciaEnUsoException ex) {
+        return buildErrorResponse(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
     // manejo de errores de validación
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
@@ -95,6 +178,12 @@ public class GlobalExceptionHandler {
         return buildErrorResponse("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    private static Counter contadorRechazos(MeterRegistry meterRegistry, String motivo) {
+        return Counter.builder("banking.transacciones.rechazadas").tag("motivo", motivo)
+                .description("Transacciones rechazadas por reglas de negocio")
+                .register(meterRegistry);
+    }
+
     private ResponseEntity<Map<String, Object>> buildErrorResponse(String message, HttpStatus status) {
         Map<String, Object> errorResponse = new HashMap<>();
         errorResponse.put("timestamp", LocalDateTime.now());
@@ -0,0 +1,15 @@
+package com.sofka.banking.system.exception.autenticacion;
+
+public class AutenticacionSaturadaException extends RuntimeException {
+    private final long reintentarEnSegundos;
+
+    public AutenticacionSaturadaException(long reintentarEnSegundos) {
+        super("Demasiadas solicitudes de autenticación en curso. Intente de nuevo en "
+                + reintentarEnSegundos + " segundos");
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
@@ -0,0 +1,7 @@
+package com.sofka.banking.system.exception.cuentaBancaria;
+
+public class PeriodoInvalidoException extends RuntimeException {
+    public PeriodoInvalidoException(String message) {
+        super(message);
+    }
+}
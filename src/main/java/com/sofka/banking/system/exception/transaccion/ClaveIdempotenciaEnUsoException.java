@@ -0,0 +1,8 @@
+package com.sofka.banking.system.exception.transaccion;
+
+public class ClaveIdempotenciaEnUsoException extends RuntimeException {
+    public ClaveIdempotenciaEnUsoException(String clave) {
+        super("La clave de idempotencia " + clave
+                + " ya se usó con una solicitud diferente o aún está en proceso");
+    }
+}
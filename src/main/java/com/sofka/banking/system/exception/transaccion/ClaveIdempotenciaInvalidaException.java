@@ -0,0 +1,8 @@
+package com.sofka.banking.system.exception.transaccion;
+
+public class ClaveIdempotenciaInvalidaException extends RuntimeException {
+    public ClaveIdempotenciaInvalidaException(int longitudMaxima) {
+        super("El encabezado Idempotency-Key debe tener entre 1 y " + longitudMaxima
+                + " caracteres");
+    }
+}
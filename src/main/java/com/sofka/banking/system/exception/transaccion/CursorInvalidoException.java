@@ -0,0 +1,7 @@
+package com.sofka.banking.system.exception.transaccion;
+
+public class CursorInvalidoException extends RuntimeException {
+    public CursorInvalidoException(String cursor) {
+        super("Cursor de paginación inválido: " + cursor);
+    }
+}
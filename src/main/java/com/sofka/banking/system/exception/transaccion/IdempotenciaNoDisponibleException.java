@@ -0,0 +1,8 @@
+package com.sofka.banking.system.exception.transaccion;
+
+public class IdempotenciaNoDisponibleException extends RuntimeException {
+    public IdempotenciaNoDisponibleException() {
+        super("El encabezado Idempotency-Key no está disponible con el motor de transacciones "
+                + "configurado");
+    }
+}
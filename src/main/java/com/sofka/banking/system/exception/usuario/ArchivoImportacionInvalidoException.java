@@ -0,0 +1,7 @@
+package com.sofka.banking.system.exception.usuario;
+
+public class ArchivoImportacionInvalidoException extends RuntimeException {
+    public ArchivoImportacionInvalidoException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.sofka.banking.system.exception.usuario;
+
+public class OrdenamientoInvalidoException extends RuntimeException {
+    public OrdenamientoInvalidoException(String orden) {
+        super("Criterio de ordenamiento inválido: " + orden);
+    }
+}
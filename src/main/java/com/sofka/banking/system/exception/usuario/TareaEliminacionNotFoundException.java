@@ -0,0 +1,7 @@
+package com.sofka.banking.system.exception.usuario;
+
+public class TareaEliminacionNotFoundException extends RuntimeException {
+    public TareaEliminacionNotFoundException(String tareaId) {
+        super("Tarea de eliminación " + tareaId + " no encontrada");
+    }
+}
@@ -0,0 +1,86 @@
+package com.sofka.banking.system.fragmentado;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Cola circular acotada sin bloqueos, de varios productores y un único consumidor.
+ *
+ * Cada casilla lleva su propia secuencia: un productor reserva una posición con un CAS sobre la
+ * cola y publica el elemento adelantando la secuencia de la casilla; el consumidor sólo lee las
+ * casillas ya publicadas. Ningún hilo espera a otro, y el consumidor no usa operaciones atómicas
+ * de escritura compartidas con los productores.
+ */
+final class AnilloComandos<T> {
+
+    private final AtomicReferenceArray<T> elementos;
+    private final AtomicLongArray secuencias;
+    private final int mascara;
+    private final AtomicLong cola = new AtomicLong();
+    // Sólo la usa el consumidor
+    private long cabeza;
+
+    AnilloComandos(int capacidadMinima) {
+        int capacidad = 2;
+        while (capacidad < capacidadMinima) {
+            capacidad <<= 1;
+        }
+        this.elementos = new AtomicReferenceArray<>(capacidad);
+        this.secuencias = new AtomicLongArray(capacidad);
+        for (int i = 0; i < capacidad; i++) {
+            secuencias.set(i, i);
+        }
+        this.mascara = capacidad - 1;
+    }
+
+    /**
+     * Agrega el elemento si hay espacio. Puede llamarse desde cualquier hilo.
+     *
+     * @return false si el anillo está lleno
+     */
+    boolean ofrecer(T elemento) {
+        long posicion = cola.get();
+        while (true) {
+            int casilla = (int) posicion & mascara;
+            long diferencia = secuencias.get(casilla) - posicion;
+            if (diferencia == 0) {
+                if (cola.compareAndSet(posicion, posicion + 1)) {
+                    elementos.set(casilla, elemento);
+                    secuencias.set(casilla, posicion + 1);
+                    return true;
+                }
+                posicion = cola.get();
+            } else if (diferencia < 0) {
+                // La casilla aún guarda un elemento de la vuelta anterior
+                return false;
+            } else {
+                posicion = cola.get();
+            }
+        }
+    }
+
+    /**
+     * Saca el siguiente elemento publicado. Sólo puede llamarlo el hilo consumidor.
+     *
+     * @return el elemento, o null si no hay ninguno
+     */
+    T tomar() {
+        int casilla = (int) cabeza & mascara;
+        if (secuencias.get(casilla) != cabeza + 1) {
+            return null;
+        }
+        T elemento = elementos.get(casilla);
+        elementos.set(casilla, null);
+        secuencias.set(casilla, cabeza + mascara + 1);
+        cabeza++;
+        return elemento;
+    }
+
+    /**
+     * Indica si no hay elementos publicados. Sólo puede llamarlo el hilo consumidor.
+     */
+    boolean estaVacio() {
+        return secuencias.get((int) cabeza & mascara) != cabeza + 1;
+    }
+}
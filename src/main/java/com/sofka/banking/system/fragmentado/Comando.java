@@ -0,0 +1,49 @@
+package com.sofka.banking.system.fragmentado;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.enums.TipoTransaccion;
+
+/**
+ * Mensajes que procesa el hilo de un {@link Fragmento}.
+ */
+sealed interface Comando {
+
+    /**
+     * Depósito, retiro o transferencia solicitado por un cliente. Se procesa en el fragmento de
+     * la cuenta origen.
+     *
+     * @param cuentaDestinoId cuenta destino de una transferencia; 0 si no hay
+     * @param centavos monto en centavos, con el que se opera en memoria
+     * @param monto monto tal como llegó, para la respuesta y la fila en {@code transacciones}
+     */
+    record Operacion(TipoTransaccion tipo, long cuentaId, long cuentaDestinoId, long centavos,
+            BigDecimal monto, CompletableFuture<TransaccionDTO> resultado) implements Comando {
+    }
+
+    /**
+     * Segunda fase de una transferencia entre fragmentos: el origen ya está debitado y el
+     * fragmento del destino acredita.
+     */
+    record Acreditar(Operacion operacion) implements Comando {
+    }
+
+    /**
+     * Respuesta del fragmento destino al de origen. Si no se acreditó, el origen devuelve el
+     * débito; con error la transferencia termina, sin él queda aplazada en el destino.
+     */
+    record ResultadoCredito(Operacion operacion, boolean acreditada, RuntimeException error)
+            implements Comando {
+    }
+
+    /**
+     * Saca las cuentas de memoria y aplaza sus operaciones hasta {@link Liberar}, para que otro
+     * componente las modifique en la base de datos.
+     */
+    record Retener(long[] cuentaIds, CompletableFuture<Void> listo) implements Comando {
+    }
+
+    record Liberar(long[] cuentaIds) implements Comando {
+    }
+}
@@ -0,0 +1,344 @@
+package com.sofka.banking.system.fragmentado;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.jdbc.core.JdbcTemplate;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
+import com.sofka.banking.system.exception.transaccion.SaldoInsuficienteException;
+import com.sofka.banking.system.repository.SecuenciaIds;
+
+/**
+ * Una partición de las cuentas, con un único hilo que es el dueño de sus saldos.
+ *
+ * Los saldos viven en memoria, en centavos, y sólo este hilo los lee y modifica: no hay bloqueos
+ * por cuenta. Las operaciones de clientes llegan por un {@link AnilloComandos}; los mensajes entre
+ * fragmentos y las retenciones, por un buzón sin límite, para que dos fragmentos con el anillo
+ * lleno nunca se esperen mutuamente. Una cuenta se carga de la base de datos la primera vez que
+ * se usa.
+ *
+ * Una transferencia entre fragmentos se hace en dos fases: el fragmento de origen valida y debita,
+ * y el de destino acredita y responde. Si el destino no puede acreditar, el origen devuelve el
+ * débito. Mientras la respuesta no llega, la cuenta origen no puede retenerse.
+ */
+final class Fragmento {
+
+    private static final int ESPERAS_ACTIVAS = 100;
+    private static final long PAUSA_NANOS = 50_000;
+    private static final String SQL_SALDO =
+            "SELECT saldo_actual FROM cuentas_bancarias WHERE id = ?";
+
+    private final MotorFragmentado motor;
+    private final JdbcTemplate jdbcTemplate;
+    private final SecuenciaIds secuenciaTransacciones;
+    private final AnilloComandos<Comando> anillo;
+    private final Queue<Comando> buzon = new ConcurrentLinkedQueue<>();
+    private final Thread hilo;
+    private volatile boolean activo = true;
+
+    // Estado del hilo del fragmento
+    private final MapaLong saldos = new MapaLong(1024);
+    private final MapaLong transferenciasEnVuelo = new MapaLong(64);
+    private final MapaLong retenciones = new MapaLong(64);
+    private final Map<Long, ArrayDeque<Comando.Operacion>> aplazadas = new HashMap<>();
+    private final List<Comando.Retener> retencionesPendientes = new ArrayList<>();
+    private final ArrayDeque<Comando.Operacion> reanudadas = new ArrayDeque<>();
+    private long siguienteId;
+    private long finBloqueIds;
+
+    Fragmento(int indice, MotorFragmentado motor, JdbcTemplate jdbcTemplate,
+            SecuenciaIds secuenciaTransacciones, int capacidadAnillo) {
+        this.motor = motor;
+        this.jdbcTemplate = jdbcTemplate;
+        this.secuenciaTransacciones = secuenciaTransacciones;
+        this.anillo = new AnilloComandos<>(capacidadAnillo);
+        this.hilo = Thread.ofPlatform().name("fragmento-" + indice).daemon().unstarted(this::bucle);
+    }
+
+    void iniciar() {
+        hilo.start();
+    }
+
+    /**
+     * Encola una operación de un cliente; si el anillo está lleno, espera a que haya espacio.
+     */
+    void encolar(Comando.Operacion operacion) {
+        while (!anillo.ofrecer(operacion)) {
+            Thread.onSpinWait();
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Entrega un mensaje de otro fragmento o una retención.
+     */
+    void enviar(Comando comando) {
+        buzon.add(comando);
+    }
+
+    /**
+     * Termina el hilo en cuanto no quedan mensajes por procesar.
+     */
+    void detener() throws InterruptedException {
+        activo = false;
+        hilo.join();
+    }
+
+    private void bucle() {
+        int inactivo = 0;
+        while (activo || hayMensajes()) {
+            Comando comando = siguiente();
+            if (comando == null) {
+                // Espera activa breve y luego pausas cortas: latencia baja sin ocupar un núcleo
+                if (++inactivo < ESPERAS_ACTIVAS) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(PAUSA_NANOS);
+                }
+                continue;
+            }
+            inactivo = 0;
+            try {
+                procesar(comando);
+            } catch (RuntimeException e) {
+                rechazar(comando, e);
+            }
+        }
+
+        IllegalStateException cerrado =
+                new IllegalStateException("El motor de transacciones está cerrado");
+        aplazadas.values().forEach(cola -> cola.forEach(
+                operacion -> operacion.resultado().completeExceptionally(cerrado)));
+        retencionesPendientes.forEach(retener -> retener.listo().completeExceptionally(cerrado));
+    }
+
+    private boolean hayMensajes() {
+        return !reanudadas.isEmpty() || !buzon.isEmpty() || !anillo.estaVacio();
+    }
+
+    private Comando siguiente() {
+        Comando comando = reanudadas.poll();
+        if (comando == null) {
+            comando = buzon.poll();
+        }
+        return comando != null ? comando : anillo.tomar();
+    }
+
+    private void procesar(Comando comando) {
+        switch (comando) {
+            case Comando.Operacion operacion -> ejecutar(operacion);
+            case Comando.Acreditar acreditar -> acreditar(acreditar.operacion());
+            case Comando.ResultadoCredito resultado -> cerrarTransferencia(resultado);
+            case Comando.Retener retener -> retener(retener);
+            case Comando.Liberar liberar -> liberar(liberar.cuentaIds());
+        }
+    }
+
+    private void rechazar(Comando comando, RuntimeException error) {
+        switch (comando) {
+            case Comando.Operacion operacion -> operacion.resultado().completeExceptionally(error);
+            case Comando.Acreditar acreditar -> motor.fragmentoDe(acreditar.operacion().cuentaId())
+                    .enviar(new Comando.ResultadoCredito(acreditar.operacion(), false, error));
+            case Comando.Retener retener -> retener.listo().completeExceptionally(error);
+            case Comando.ResultadoCredito resultado ->
+                    resultado.operacion().resultado().completeExceptionally(error);
+            case Comando.Liberar liberar -> {
+                // Sólo opera en memoria: no tiene cómo fallar
+            }
+        }
+    }
+
+    private void ejecutar(Comando.Operacion operacion) {
+        long origen = operacion.cuentaId();
+        long destino = operacion.cuentaDestinoId();
+        boolean destinoLocal = destino == 0 || motor.fragmentoDe(destino) == this;
+        if (aplazarSiRetenida(origen, operacion)
+                || (destino != 0 && destinoLocal && aplazarSiRetenida(destino, operacion))) {
+            return;
+        }
+
+        long saldo = cargar(origen);
+        if (saldo == MapaLong.AUSENTE) {
+            throw new CuentaBancariaNotFoundException(origen);
+        }
+        long centavos = operacion.centavos();
+        if (operacion.tipo() == TipoTransaccion.DEPOSITO) {
+            long transaccionId = asignarId();
+            saldos.poner(origen, saldo + centavos);
+            completar(operacion, transaccionId);
+            return;
+        }
+        if (saldo < centavos) {
+            throw new SaldoInsuficienteException(BigDecimal.valueOf(saldo, 2),
+                    operacion.monto());
+        }
+
+        if (destinoLocal) {
+            long saldoDestino = destino != 0 ? cargar(destino) : 0;
+            if (saldoDestino == MapaLong.AUSENTE) {
+                throw new CuentaBancariaNotFoundException(destino);
+            }
+            long transaccionId = asignarId();
+            saldos.poner(origen, saldo - centavos);
+            if (destino != 0) {
+                saldos.poner(destino, saldoDestino + centavos);
+            }
+            completar(operacion, transaccionId);
+            return;
+        }
+
+        // Primera fase: el débito queda reservado hasta que el destino responda
+        saldos.poner(origen, saldo - centavos);
+        transferenciasEnVuelo.poner(origen, contador(transferenciasEnVuelo, origen) + 1);
+        motor.fragmentoDe(destino).enviar(new Comando.Acreditar(operacion));
+    }
+
+    private void acreditar(Comando.Operacion operacion) {
+        long destino = operacion.cuentaDestinoId();
+        Fragmento fragmentoOrigen = motor.fragmentoDe(operacion.cuentaId());
+        if (aplazarSiRetenida(destino, operacion)) {
+            // El origen devuelve el débito; la operación se repite completa al liberar la cuenta
+            fragmentoOrigen.enviar(new Comando.ResultadoCredito(operacion, false, null));
+            return;
+        }
+
+        long saldo = cargar(destino);
+        if (saldo == MapaLong.AUSENTE) {
+            fragmentoOrigen.enviar(new Comando.ResultadoCredito(operacion, false,
+                    new CuentaBancariaNotFoundException(destino)));
+            return;
+        }
+        long transaccionId = asignarId();
+        saldos.poner(destino, saldo + operacion.centavos());
+        completar(operacion, transaccionId);
+        fragmentoOrigen.enviar(new Comando.ResultadoCredito(operacion, true, null));
+    }
+
+    private void cerrarTransferencia(Comando.ResultadoCredito resultado) {
+        Comando.Operacion operacion = resultado.operacion();
+        long origen = operacion.cuentaId();
+        if (!resultado.acreditada()) {
+            // La cuenta sigue en memoria: no se retiene mientras tenga transferencias en vuelo
+            saldos.poner(origen, saldos.obtener(origen) + operacion.centavos());
+        }
+        if (resultado.error() != null) {
+            operacion.resultado().completeExceptionally(resultado.error());
+        }
+
+        long enVuelo = contador(transferenciasEnVuelo, origen) - 1;
+        if (enVuelo > 0) {
+            transferenciasEnVuelo.poner(origen, enVuelo);
+        } else {
+            transferenciasEnVuelo.quitar(origen);
+            completarRetenciones();
+        }
+    }
+
+    private void retener(Comando.Retener retener) {
+        for (long cuentaId : retener.cuentaIds()) {
+            retenciones.poner(cuentaId, contador(retenciones, cuentaId) + 1);
+        }
+        retencionesPendientes.add(retener);
+        completarRetenciones();
+    }
+
+    private void completarRetenciones() {
+        Iterator<Comando.Retener> pendientes = retencionesPendientes.iterator();
+        while (pendientes.hasNext()) {
+            Comando.Retener retener = pendientes.next();
+            boolean sinTransferenciasEnVuelo = true;
+            for (long cuentaId : retener.cuentaIds()) {
+                sinTransferenciasEnVuelo &= !transferenciasEnVuelo.contiene(cuentaId);
+            }
+            if (sinTransferenciasEnVuelo) {
+                // Al liberarse se vuelven a cargar con lo que haya escrito quien las retuvo
+                for (long cuentaId : retener.cuentaIds()) {
+                    saldos.quitar(cuentaId);
+                }
+                pendientes.remove();
+                retener.listo().complete(null);
+            }
+        }
+    }
+
+    private void liberar(long[] cuentaIds) {
+        for (long cuentaId : cuentaIds) {
+            long restantes = contador(retenciones, cuentaId) - 1;
+            if (restantes > 0) {
+                retenciones.poner(cuentaId, restantes);
+                continue;
+            }
+            retenciones.quitar(cuentaId);
+            ArrayDeque<Comando.Operacion> operaciones = aplazadas.remove(cuentaId);
+            if (operaciones != null) {
+                // Cada operación vuelve a empezar en el fragmento de su cuenta origen
+                for (Comando.Operacion operacion : operaciones) {
+                    Fragmento fragmentoOrigen = motor.fragmentoDe(operacion.cuentaId());
+                    if (fragmentoOrigen == this) {
+                        reanudadas.add(operacion);
+                    } else {
+                        fragmentoOrigen.enviar(operacion);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean aplazarSiRetenida(long cuentaId, Comando.Operacion operacion) {
+        if (!retenciones.contiene(cuentaId)) {
+            return false;
+        }
+        aplazadas.computeIfAbsent(cuentaId, id -> new ArrayDeque<>()).add(operacion);
+        return true;
+    }
+
+    private long cargar(long cuentaId) {
+        long saldo = saldos.obtener(cuentaId);
+        if (saldo != MapaLong.AUSENTE) {
+            return saldo;
+        }
+        List<BigDecimal> encontrado = jdbcTemplate.queryForList(SQL_SALDO, BigDecimal.class,
+                cuentaId);
+        if (encontrado.isEmpty()) {
+            return MapaLong.AUSENTE;
+        }
+        saldo = encontrado.get(0).movePointRight(2).longValueExact();
+        saldos.poner(cuentaId, saldo);
+        return saldo;
+    }
+
+    private void completar(Comando.Operacion operacion, long transaccionId) {
+        Movimiento movimiento = motor.persistir(transaccionId, operacion.tipo(),
+                operacion.cuentaId(), operacion.cuentaDestinoId(),
+                BigDecimal.valueOf(operacion.centavos(), 2));
+        operacion.resultado().complete(TransaccionDTO.builder().id(transaccionId)
+                .monto(operacion.monto()).tipo(operacion.tipo()).fecha(movimiento.fecha())
+                .cuentaBancariaId(operacion.cuentaId())
+                .cuentaDestinoId(operacion.cuentaDestinoId() != 0 ? operacion.cuentaDestinoId()
+                        : null)
+                .build());
+    }
+
+    private long asignarId() {
+        // Bloques de la misma secuencia que usa Hibernate (pooled-lo), uno por fragmento
+        if (siguienteId == finBloqueIds) {
+            siguienteId = secuenciaTransacciones.reservarBloque();
+            finBloqueIds = siguienteId + secuenciaTransacciones.tamanoBloque();
+        }
+        return siguienteId++;
+    }
+
+    private static long contador(MapaLong mapa, long cuentaId) {
+        long valor = mapa.obtener(cuentaId);
+        return valor == MapaLong.AUSENTE ? 0 : valor;
+    }
+}
@@ -0,0 +1,113 @@
+package com.sofka.banking.system.fragmentado;
+
+/**
+ * Mapa de {@code long} a {@code long} con direccionamiento abierto, sin objetos por entrada.
+ *
+ * Las claves son IDs de cuenta (positivos): 0 marca una casilla libre. Al borrar, las entradas
+ * siguientes del mismo grupo se desplazan hacia atrás, así las búsquedas nunca necesitan
+ * marcas de borrado. Sin sincronización: lo usa sólo el hilo de su fragmento.
+ */
+final class MapaLong {
+
+    static final long AUSENTE = Long.MIN_VALUE;
+
+    private long[] claves;
+    private long[] valores;
+    private int mascara;
+    private int tamano;
+
+    MapaLong(int capacidadInicial) {
+        int capacidad = 8;
+        while (capacidad < capacidadInicial * 2) {
+            capacidad <<= 1;
+        }
+        this.claves = new long[capacidad];
+        this.valores = new long[capacidad];
+        this.mascara = capacidad - 1;
+    }
+
+    /**
+     * @return el valor asociado, o {@link #AUSENTE} si la clave no está
+     */
+    long obtener(long clave) {
+        for (int i = indice(clave); claves[i] != 0; i = (i + 1) & mascara) {
+            if (claves[i] == clave) {
+                return valores[i];
+            }
+        }
+        return AUSENTE;
+    }
+
+    boolean contiene(long clave) {
+        return obtener(clave) != AUSENTE;
+    }
+
+    void poner(long clave, long valor) {
+        if (clave <= 0) {
+            throw new IllegalArgumentException("Clave inválida: " + clave);
+        }
+        int i = indice(clave);
+        while (claves[i] != 0) {
+            if (claves[i] == clave) {
+                valores[i] = valor;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        claves[i] = clave;
+        valores[i] = valor;
+        // Factor de carga máximo 0.5: los grupos de casillas ocupadas se mantienen cortos
+        if (++tamano * 2 > claves.length) {
+            crecer();
+        }
+    }
+
+    void quitar(long clave) {
+        int hueco = indice(clave);
+        while (claves[hueco] != clave) {
+            if (claves[hueco] == 0) {
+                return;
+            }
+            hueco = (hueco + 1) & mascara;
+        }
+
+        // Cada entrada siguiente del grupo ocupa el hueco si su posición ideal no queda entre el
+        // hueco y ella
+        for (int j = (hueco + 1) & mascara; claves[j] != 0; j = (j + 1) & mascara) {
+            int ideal = indice(claves[j]);
+            boolean puedeMoverse = j > hueco ? ideal <= hueco || ideal > j
+                    : ideal <= hueco && ideal > j;
+            if (puedeMoverse) {
+                claves[hueco] = claves[j];
+                valores[hueco] = valores[j];
+                hueco = j;
+            }
+        }
+        claves[hueco] = 0;
+        valores[hueco] = 0;
+        tamano--;
+    }
+
+    int tamano() {
+        return tamano;
+    }
+
+    private void crecer() {
+        long[] clavesAnteriores = claves;
+        long[] valoresAnteriores = valores;
+        claves = new long[clavesAnteriores.length * 2];
+        valores = new long[valoresAnteriores.length * 2];
+        mascara = claves.length - 1;
+        tamano = 0;
+        for (int i = 0; i < clavesAnteriores.length; i++) {
+            if (clavesAnteriores[i] != 0) {
+                poner(clavesAnteriores[i], valoresAnteriores[i]);
+            }
+        }
+    }
+
+    private int indice(long clave) {
+        long h = clave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mascara;
+    }
+}
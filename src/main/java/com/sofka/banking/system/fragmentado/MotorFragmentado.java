@@ -0,0 +1,422 @@
+package com.sofka.banking.system.fragmentado;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.sofka.banking.system.cache.SaldoCache;
+import com.sofka.banking.system.concurrency.MotorTransacciones;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.repository.SecuenciaIds;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Motor de transacciones en memoria, repartido en fragmentos con un único escritor cada uno
+ * ({@code banking.transacciones.motor=fragmentado}).
+ *
+ * Cada cuenta pertenece a un {@link Fragmento} según su ID, y sólo el hilo de ese fragmento
+ * modifica su saldo: las operaciones no compiten por bloqueos ni por filas de la base de datos.
+ * Las transacciones se responden en cuanto están aplicadas en memoria; un hilo aparte las escribe
+ * en {@code cuentas_bancarias} y {@code transacciones} en lotes. Lo aún no escrito se pierde si el
+ * proceso cae.
+ *
+ * Quien modifica saldos directamente en la base de datos llama a
+ * {@link #esperarAplicados(Long...)} dentro de su transacción: las cuentas se retienen (salen de
+ * memoria y sus operaciones se aplazan) hasta que esa transacción termina.
+ *
+ * La cola de lo aún no escrito tiene un límite ({@code banking.fragmentado.capacidad-cola}):
+ * si la base de datos no da abasto, los fragmentos esperan a que haya sitio y con ellos los
+ * clientes, en lugar de acumular en memoria transacciones que se perderían. Un lote que no se
+ * escribe tras {@code banking.fragmentado.max-reintentos} reintentos deja el motor fallido: deja
+ * de escribir, rechaza nuevas transacciones y las lecturas que esperan a la base de datos fallan.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.transacciones.motor", havingValue = "fragmentado")
+public class MotorFragmentado implements MotorTransacciones, AutoCloseable {
+
+    private static final String SQL_ACTUALIZAR_SALDO =
+            "UPDATE cuentas_bancarias SET saldo_actual = saldo_actual + ? WHERE id = ?";
+    private static final String SQL_INSERTAR_TRANSACCION = "INSERT INTO transacciones "
+            + "(id, monto, tipo, fecha, cuenta_bancaria_id, cuenta_destino_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final long ESPERA_REINTENTO_MS = 1000;
+    private static final long ESPERA_CIERRE_MS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SaldoCache saldoCache;
+    private final int tamanoLote;
+    private final int maxReintentos;
+    private final long esperaAplicadosNanos;
+    private final Fragmento[] fragmentos;
+
+    private final LinkedBlockingQueue<Movimiento> porPersistir;
+    private final Map<Long, Long> ultimoTicketPorCuenta = new ConcurrentHashMap<>();
+    private final AtomicLong operacionesEnCurso = new AtomicLong();
+    private final ReentrantLock lockPersistido = new ReentrantLock();
+    private final Condition persistidos = lockPersistido.newCondition();
+    private final Counter reintentos;
+    private final Counter descartados;
+    private final Thread hiloPersistidor;
+
+    private long ultimoTicket;
+    private volatile long persistidoHasta;
+    private volatile boolean aceptando = true;
+    private volatile boolean activo = true;
+    private volatile RuntimeException fallo;
+
+    public MotorFragmentado(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            SaldoCache saldoCache, DataSource dataSource, MeterRegistry meterRegistry,
+            @Value("${banking.fragmentado.fragmentos:4}") int numeroFragmentos,
+            @Value("${banking.fragmentado.capacidad-anillo:8192}") int capacidadAnillo,
+            @Value("${banking.fragmentado.tamano-lote:500}") int tamanoLote,
+            @Value("${banking.fragmentado.capacidad-cola:100000}") int capacidadCola,
+            @Value("${banking.fragmentado.max-reintentos:10}") int maxReintentos,
+            @Value("${banking.fragmentado.espera-aplicados:30s}") Duration esperaAplicados) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.saldoCache = saldoCache;
+        this.tamanoLote = tamanoLote;
+        this.maxReintentos = maxReintentos;
+        this.esperaAplicadosNanos = esperaAplicados.toNanos();
+        this.porPersistir = new LinkedBlockingQueue<>(capacidadCola);
+
+        this.reintentos = Counter.builder("banking.fragmentado.reintentos")
+                .description("Lotes de movimientos que fallaron al escribirse y se reintentaron")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("banking.fragmentado.descartados")
+                .description("Movimientos sobre cuentas ya eliminadas")
+                .register(meterRegistry);
+        Gauge.builder("banking.fragmentado.por.persistir", porPersistir,
+                LinkedBlockingQueue::size)
+                .description("Transacciones aplicadas en memoria aún no escritas en la base")
+                .register(meterRegistry);
+        Gauge.builder("banking.fragmentado.fallido", this, motor -> motor.fallo != null ? 1 : 0)
+                .description("1 si el motor dejó de escribir tras agotar los reintentos")
+                .register(meterRegistry);
+
+        SecuenciaIds secuenciaTransacciones = new SecuenciaIds(dataSource, "transacciones_seq");
+        this.fragmentos = new Fragmento[Math.max(1, numeroFragmentos)];
+        for (int i = 0; i < fragmentos.length; i++) {
+            fragmentos[i] = new Fragmento(i, this, jdbcTemplate, secuenciaTransacciones,
+                    capacidadAnillo);
+        }
+        Arrays.stream(fragmentos).forEach(Fragmento::iniciar);
+
+        this.hiloPersistidor = Thread.ofPlatform().name("fragmentado-persistidor").daemon()
+                .start(this::buclePersistidor);
+    }
+
+    /**
+     * Envía la transacción al fragmento de la cuenta origen y espera a que se aplique en memoria.
+     *
+     * @param cuentaDestinoId cuenta que recibe una transferencia; nula en depósitos y retiros
+     * @throws com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException
+     *         si alguna cuenta no existe
+     * @throws com.sofka.banking.system.exception.transaccion.SaldoInsuficienteException si un
+     *         retiro o transferencia supera el saldo
+     * @throws IllegalStateException si el motor está cerrado o falló al escribir
+     */
+    @Override
+    public TransaccionDTO registrar(TipoTransaccion tipo, Long cuentaId, Long cuentaDestinoId,
+            BigDecimal monto) {
+        operacionesEnCurso.incrementAndGet();
+        try {
+            if (!aceptando) {
+                throw new IllegalStateException("El motor de transacciones está cerrado");
+            }
+            verificarSinFallo();
+            CompletableFuture<TransaccionDTO> resultado = new CompletableFuture<>();
+            fragmentoDe(cuentaId).encolar(new Comando.Operacion(tipo, cuentaId,
+                    cuentaDestinoId != null ? cuentaDestinoId : 0,
+                    monto.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact(),
+                    monto, resultado));
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        } finally {
+            operacionesEnCurso.decrementAndGet();
+        }
+    }
+
+    /**
+     * Bloquea hasta que las transacciones ya respondidas sobre esas cuentas están en la base de
+     * datos. Dentro de una transacción de escritura, además retiene las cuentas hasta que ésta
+     * termina; una de sólo lectura no cambia saldos y no las retiene.
+     */
+    @Override
+    public void esperarAplicados(Long... cuentaIds) {
+        long[] cuentas = Arrays.stream(cuentaIds).filter(Objects::nonNull)
+                .mapToLong(Long::longValue).distinct().toArray();
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            retenerHastaFinDeTransaccion(cuentas);
+        }
+
+        long objetivo = 0;
+        for (long cuentaId : cuentas) {
+            objetivo = Math.max(objetivo, ultimoTicketPorCuenta.getOrDefault(cuentaId, 0L));
+        }
+        long limite = System.nanoTime() + esperaAplicadosNanos;
+        lockPersistido.lock();
+        try {
+            while (persistidoHasta < objetivo) {
+                verificarSinFallo();
+                if (!activo) {
+                    throw new IllegalStateException("El motor de transacciones está cerrado");
+                }
+                long restante = limite - System.nanoTime();
+                if (restante <= 0) {
+                    throw new IllegalStateException(
+                            "Tiempo agotado esperando a que se escriban las transacciones");
+                }
+                persistidos.await(Math.min(restante, TimeUnit.MILLISECONDS.toNanos(100)),
+                        TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando la persistencia", e);
+        } finally {
+            lockPersistido.unlock();
+        }
+    }
+
+    /**
+     * Deja de aceptar transacciones, termina las que están en curso y escribe lo pendiente.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        aceptando = false;
+        long limite = System.currentTimeMillis() + ESPERA_CIERRE_MS;
+        while (operacionesEnCurso.get() > 0 && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        for (Fragmento fragmento : fragmentos) {
+            fragmento.detener();
+        }
+        activo = false;
+        hiloPersistidor.join();
+    }
+
+    Fragmento fragmentoDe(long cuentaId) {
+        long h = cuentaId * 0x9E3779B97F4A7C15L;
+        return fragmentos[(int) ((h ^ (h >>> 32)) & Integer.MAX_VALUE) % fragmentos.length];
+    }
+
+    /**
+     * Encola para escribir en la base de datos una transacción ya aplicada en memoria. Lo llama
+     * el hilo de un fragmento antes de responder al cliente; con la cola llena espera a que haya
+     * sitio.
+     *
+     * @throws IllegalStateException si el motor falló al escribir
+     */
+    Movimiento persistir(long transaccionId, TipoTransaccion tipo, long cuentaId,
+            long cuentaDestinoId, BigDecimal monto) {
+        // El ticket y el orden en la cola coinciden: persistidoHasta avanza sin huecos
+        synchronized (porPersistir) {
+            verificarSinFallo();
+            Movimiento movimiento = new Movimiento(++ultimoTicket, transaccionId, tipo, cuentaId,
+                    cuentaDestinoId, monto, LocalDateTime.now());
+            ultimoTicketPorCuenta.merge(cuentaId, movimiento.ticket(), Math::max);
+            if (cuentaDestinoId != 0) {
+                ultimoTicketPorCuenta.merge(cuentaDestinoId, movimiento.ticket(), Math::max);
+            }
+            try {
+                while (!porPersistir.offer(movimiento, 100, TimeUnit.MILLISECONDS)) {
+                    verificarSinFallo();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrumpido esperando la persistencia", e);
+            }
+            return movimiento;
+        }
+    }
+
+    private void verificarSinFallo() {
+        RuntimeException causa = fallo;
+        if (causa != null) {
+            throw new IllegalStateException(
+                    "El motor de transacciones dejó de escribir en la base de datos", causa);
+        }
+    }
+
+    private void retenerHastaFinDeTransaccion(long[] cuentas) {
+        Map<Fragmento, List<Long>> porFragmento = new LinkedHashMap<>();
+        for (long cuentaId : cuentas) {
+            porFragmento.computeIfAbsent(fragmentoDe(cuentaId), f -> new ArrayList<>())
+                    .add(cuentaId);
+        }
+
+        // La liberación se registra antes de retener: también ocurre si la espera falla
+        List<Runnable> liberaciones = new ArrayList<>();
+        List<CompletableFuture<Void>> retenidas = new ArrayList<>();
+        porFragmento.forEach((fragmento, ids) -> {
+            long[] idsFragmento = ids.stream().mapToLong(Long::longValue).toArray();
+            liberaciones.add(() -> fragmento.enviar(new Comando.Liberar(idsFragmento)));
+            CompletableFuture<Void> listo = new CompletableFuture<>();
+            retenidas.add(listo);
+            fragmento.enviar(new Comando.Retener(idsFragmento, listo));
+        });
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        liberaciones.forEach(Runnable::run);
+                    }
+                });
+
+        try {
+            CompletableFuture.allOf(retenidas.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private void buclePersistidor() {
+        List<Movimiento> lote = new ArrayList<>(tamanoLote);
+        while (activo || !porPersistir.isEmpty()) {
+            try {
+                Movimiento primero = porPersistir.poll(100, TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                porPersistir.drainTo(lote, tamanoLote - 1);
+                if (!persistirConReintentos(lote)) {
+                    return;
+                }
+                lote.clear();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private boolean persistirConReintentos(List<Movimiento> lote) throws InterruptedException {
+        for (int intento = 0;; intento++) {
+            try {
+                escribir(lote);
+                return true;
+            } catch (RuntimeException e) {
+                // Cerrando o agotados los reintentos: no hay diario del que recuperar el lote
+                if (!activo || intento >= maxReintentos) {
+                    fallar(e);
+                    return false;
+                }
+                reintentos.increment();
+                Thread.sleep(ESPERA_REINTENTO_MS);
+            }
+        }
+    }
+
+    private void fallar(RuntimeException causa) {
+        lockPersistido.lock();
+        try {
+            fallo = causa;
+            persistidos.signalAll();
+        } finally {
+            lockPersistido.unlock();
+        }
+    }
+
+    private void escribir(List<Movimiento> lote) {
+        // Un UPDATE por cuenta con el cambio neto del lote, en orden de ID
+        Map<Long, BigDecimal> cambios = new TreeMap<>();
+        for (Movimiento movimiento : lote) {
+            movimiento.cambiosDeSaldo((cuenta, cambio) -> cambios.merge(cuenta, cambio,
+                    BigDecimal::add));
+        }
+
+        Integer sinCuenta = transactionTemplate.execute(estado -> {
+            List<Long> cuentas = new ArrayList<>(cambios.keySet());
+            int[][] filas = jdbcTemplate.batchUpdate(SQL_ACTUALIZAR_SALDO, cuentas,
+                    cuentas.size(), (ps, cuenta) -> {
+                        ps.setBigDecimal(1, cambios.get(cuenta));
+                        ps.setLong(2, cuenta);
+                    });
+
+            Set<Long> eliminadas = new HashSet<>();
+            for (int i = 0; i < cuentas.size(); i++) {
+                if (filas[0][i] == 0) {
+                    eliminadas.add(cuentas.get(i));
+                }
+            }
+            List<Movimiento> insertables = lote.stream()
+                    .filter(m -> !eliminadas.contains(m.cuentaId())
+                            && !eliminadas.contains(m.cuentaDestinoId()))
+                    .toList();
+
+            if (!insertables.isEmpty()) {
+                jdbcTemplate.batchUpdate(SQL_INSERTAR_TRANSACCION, insertables,
+                        insertables.size(), (ps, movimiento) -> {
+                            ps.setLong(1, movimiento.transaccionId());
+                            ps.setBigDecimal(2, movimiento.monto());
+                            ps.setString(3, movimiento.tipo().name());
+                            ps.setObject(4, movimiento.fecha());
+                            ps.setLong(5, movimiento.cuentaId());
+                            if (movimiento.cuentaDestinoId() != 0) {
+                                ps.setLong(6, movimiento.cuentaDestinoId());
+                            } else {
+                                ps.setNull(6, Types.BIGINT);
+                            }
+                        });
+            }
+
+            cuentas.removeAll(eliminadas);
+            if (!cuentas.isEmpty()) {
+                saldoCache.actualizarTrasCommit(cuentas.toArray(Long[]::new));
+            }
+            return lote.size() - insertables.size();
+        });
+        descartados.increment(sinCuenta);
+
+        long ultimo = lote.get(lote.size() - 1).ticket();
+        for (Long cuenta : cambios.keySet()) {
+            ultimoTicketPorCuenta.computeIfPresent(cuenta,
+                    (c, ticket) -> ticket <= ultimo ? null : ticket);
+        }
+        lockPersistido.lock();
+        try {
+            persistidoHasta = ultimo;
+            persistidos.signalAll();
+        } finally {
+            lockPersistido.unlock();
+        }
+    }
+}
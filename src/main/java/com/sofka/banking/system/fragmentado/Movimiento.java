@@ -0,0 +1,32 @@
+package com.sofka.banking.system.fragmentado;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.BiConsumer;
+import com.sofka.banking.system.enums.TipoTransaccion;
+
+/**
+ * Transacción ya aplicada en memoria, pendiente de escribirse en la base de datos.
+ *
+ * @param ticket orden de persistencia, consecutivo entre todos los fragmentos
+ * @param cuentaDestinoId cuenta destino de una transferencia; 0 si no hay
+ */
+record Movimiento(long ticket, long transaccionId, TipoTransaccion tipo, long cuentaId,
+        long cuentaDestinoId, BigDecimal monto, LocalDateTime fecha) {
+
+    /**
+     * Entrega el cambio de saldo que produce el movimiento en cada cuenta involucrada.
+     */
+    void cambiosDeSaldo(BiConsumer<Long, BigDecimal> cambio) {
+        switch (tipo) {
+            case DEPOSITO -> cambio.accept(cuentaId, monto);
+            case RETIRO -> cambio.accept(cuentaId, monto.negate());
+            case TRANSFERENCIA -> {
+                cambio.accept(cuentaId, monto.negate());
+                if (cuentaDestinoId != 0) {
+                    cambio.accept(cuentaDestinoId, monto);
+                }
+            }
+        }
+    }
+}
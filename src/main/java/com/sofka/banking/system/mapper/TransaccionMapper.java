@@ -10,6 +10,7 @@ import com.sofka.banking.system.entity.Transaccion;
 public interface TransaccionMapper {
     @Mapping(target = "cuentaBancariaId", source = "cuentaBancaria.id")
     @Mapping(target = "cuentaDestinoId", source = "cuentaDestino.id")
+    @Mapping(target = "direccion", ignore = true)
     TransaccionDTO toDTO(Transaccion transaccion);
 
     List<TransaccionDTO> toDTOList(List<Transaccion> transacciones);
@@ -0,0 +1,35 @@
+package com.sofka.banking.system.repository;
+
+import java.time.LocalDateTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import com.sofka.banking.system.entity.ClaveIdempotencia;
+
+public interface ClaveIdempotenciaRepository extends JpaRepository<ClaveIdempotencia, String> {
+
+    /**
+     * Inserta la clave dentro de la transacción de la operación. Si otra solicitud con la misma
+     * clave está en curso, el INSERT espera a que termine y falla por clave duplicada.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO claves_idempotencia "
+            + "(clave, operacion, huella, creada_en, expira_en) VALUES (:clave, :operacion, :huella, :creadaEn, :expiraEn)", nativeQuery = true)
+    int reservar(@Param("clave") String clave, @Param("operacion") String operacion,
+            @Param("huella") String huella, @Param("creadaEn") LocalDateTime creadaEn,
+            @Param("expiraEn") LocalDateTime expiraEn);
+
+    @Modifying
+    @Query("UPDATE ClaveIdempotencia c SET c.respuesta = :respuesta WHERE c.clave = :clave")
+    int completar(@Param("clave") String clave, @Param("respuesta") String respuesta);
+
+    // Una clave vencida que el barrido aún no eliminó no debe impedir reutilizarla
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.clave = :clave AND c.expiraEn <= :ahora")
+    int eliminarSiExpirada(@Param("clave") String clave, @Param("ahora") LocalDateTime ahora);
+
+    @Modifying
+    @Query("DELETE FROM ClaveIdempotencia c WHERE c.expiraEn <= :ahora")
+    int eliminarExpiradas(@Param("ahora") LocalDateTime ahora);
+}
@@ -0,0 +1,19 @@
+package com.sofka.banking.system.repository;
+
+import java.util.Optional;
+import com.sofka.banking.system.entity.CuentaBancaria;
+
+/**
+ * Búsqueda de cuentas por su identificador natural (el número de cuenta), resuelta desde la caché
+ * de segundo nivel antes de ir a la base de datos.
+ */
+public interface CuentaBancariaIdNaturalRepository {
+
+    Optional<CuentaBancaria> findByNumeroCuenta(String numeroCuenta);
+
+    /**
+     * Resuelve sólo el ID de la cuenta, sin cargarla: el número se traduce en la caché de IDs
+     * naturales (o con un SELECT del ID) y la entidad no llega a hidratarse.
+     */
+    Optional<Long> findIdByNumeroCuenta(String numeroCuenta);
+}
@@ -0,0 +1,32 @@
+package com.sofka.banking.system.repository;
+
+import java.util.Optional;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+
+@AllArgsConstructor
+class CuentaBancariaIdNaturalRepositoryImpl implements CuentaBancariaIdNaturalRepository {
+
+    private final EntityManager entityManager;
+
+    // Una consulta derivada (WHERE numero_cuenta = ?) no pasa por la caché de IDs naturales
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<CuentaBancaria> findByNumeroCuenta(String numeroCuenta) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(CuentaBancaria.class)
+                .loadOptional(numeroCuenta);
+    }
+
+    // getReference devuelve un proxy sin inicializar (o null si el número no existe); leer su
+    // ID no lo inicializa
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findIdByNumeroCuenta(String numeroCuenta) {
+        return Optional.ofNullable(entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(CuentaBancaria.class).getReference(numeroCuenta))
+                .map(CuentaBancaria::getId);
+    }
+}
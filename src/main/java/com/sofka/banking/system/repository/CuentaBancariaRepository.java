@@ -1,14 +1,86 @@
 package com.sofka.banking.system.repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import com.sofka.banking.system.dto.response.CuentaBancariaDTO;
 import com.sofka.banking.system.entity.CuentaBancaria;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
-public interface CuentaBancariaRepository extends JpaRepository<CuentaBancaria, Long> {
-    List<CuentaBancaria> findByUsuarioId(Long usuarioId);
+public interface CuentaBancariaRepository
+        extends JpaRepository<CuentaBancaria, Long>, CuentaBancariaIdNaturalRepository {
+
+    String ESPACIO_SALDOS = "saldos";
 
     boolean existsByNumeroCuenta(String numeroCuenta);
-    Optional<CuentaBancaria> findByNumeroCuenta(String numeroCuenta);
+
+    long countByUsuarioId(Long usuarioId);
+
+    // IDs por bloques para eliminar las cuentas de un usuario una a una
+    @Query("SELECT c.id FROM CuentaBancaria c WHERE c.usuario.id = :usuarioId ORDER BY c.id")
+    List<Long> findIdsByUsuarioId(@Param("usuarioId") Long usuarioId, Limit limite);
+
+    // Recorrido por lotes para cargar el filtro de unicidad (FiltrosUnicidad)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT c.numeroCuenta FROM CuentaBancaria c")
+    Stream<String> streamNumerosCuenta();
+
+    // SELECT ... FOR UPDATE en orden de ID: bloquea en BD todas las cuentas de un lote
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM CuentaBancaria c WHERE c.id IN :ids ORDER BY c.id")
+    List<CuentaBancaria> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    // Proyección directa al DTO: evita el JOIN al usuario y no pasa por el contexto de persistencia
+    @Query("SELECT new com.sofka.banking.system.dto.response.CuentaBancariaDTO("
+            + "c.id, c.numeroCuenta, c.saldoActual) FROM CuentaBancaria c WHERE c.id = :id")
+    Optional<CuentaBancariaDTO> findResumenById(@Param("id") Long id);
+
+    // Igual para las cuentas de un usuario: la entidad cargaría además al titular (EAGER)
+    @Query("SELECT new com.sofka.banking.system.dto.response.CuentaBancariaDTO("
+            + "c.id, c.numeroCuenta, c.saldoActual) FROM CuentaBancaria c "
+            + "WHERE c.usuario.id = :usuarioId ORDER BY c.id")
+    List<CuentaBancariaDTO> findResumenesByUsuarioId(@Param("usuarioId") Long usuarioId);
+
+    @Query("SELECT c.saldoActual FROM CuentaBancaria c WHERE c.id = :id")
+    Optional<BigDecimal> findSaldoActualById(@Param("id") Long id);
+
+    /**
+     * Suma el monto al saldo en un único UPDATE atómico.
+     *
+     * Las actualizaciones de saldo son SQL nativo con un espacio de consulta propio
+     * ({@value #ESPACIO_SALDOS}): un UPDATE en JPQL vaciaría toda la región de cuentas de la caché
+     * de segundo nivel. {@link com.sofka.banking.system.cache.SaldoCache} desaloja sólo las
+     * cuentas modificadas al terminar la transacción.
+     *
+     * @return filas afectadas (0 si la cuenta no existe)
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ESPACIO_SALDOS))
+    @Query(value = "UPDATE cuentas_bancarias SET saldo_actual = saldo_actual + :monto "
+            + "WHERE id = :id", nativeQuery = true)
+    int acreditarSaldo(@Param("id") Long id, @Param("monto") BigDecimal monto);
+
+    /**
+     * Resta el monto del saldo sólo si éste alcanza, en un único UPDATE atómico.
+     *
+     * @return filas afectadas (0 si la cuenta no existe o el saldo es insuficiente)
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ESPACIO_SALDOS))
+    @Query(value = "UPDATE cuentas_bancarias SET saldo_actual = saldo_actual - :monto "
+            + "WHERE id = :id AND saldo_actual >= :monto", nativeQuery = true)
+    int debitarSaldo(@Param("id") Long id, @Param("monto") BigDecimal monto);
 }
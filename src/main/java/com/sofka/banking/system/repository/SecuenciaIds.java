@@ -0,0 +1,50 @@
+package com.sofka.banking.system.repository;
+
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+
+/**
+ * Reserva bloques de IDs de una secuencia igual que Hibernate (optimizador pooled-lo): cada valor
+ * de la secuencia es el primer ID de un bloque tan grande como su {@code INCREMENT BY}.
+ *
+ * El tamaño del bloque se lee de la secuencia al crear la instancia y no de la configuración:
+ * la migración sólo aplica {@code id_allocation_size} al crear la secuencia, y un bloque mayor
+ * que el incremento se solaparía con el que reciba después Hibernate u otro asignador.
+ */
+public class SecuenciaIds {
+
+    private static final String SQL_INCREMENTO = "SELECT increment "
+            + "FROM INFORMATION_SCHEMA.SEQUENCES "
+            + "WHERE sequence_schema = CURRENT_SCHEMA AND sequence_name = UPPER(?)";
+
+    private final DataFieldMaxValueIncrementer secuencia;
+    private final int tamanoBloque;
+
+    public SecuenciaIds(DataSource dataSource, String nombre) {
+        Long incremento = new JdbcTemplate(dataSource).queryForList(SQL_INCREMENTO, Long.class,
+                nombre).stream().findFirst()
+                .orElseThrow(() -> new IllegalStateException("No existe la secuencia " + nombre));
+        if (incremento < 1 || incremento > Integer.MAX_VALUE) {
+            throw new IllegalStateException(
+                    "Incremento no válido en la secuencia " + nombre + ": " + incremento);
+        }
+        this.secuencia = new H2SequenceMaxValueIncrementer(dataSource, nombre);
+        this.tamanoBloque = incremento.intValue();
+    }
+
+    /**
+     * Reserva un bloque nuevo en la base de datos.
+     *
+     * @return el primer ID del bloque, que termina antes de ese valor más
+     *         {@link #tamanoBloque()}
+     */
+    public long reservarBloque() {
+        return secuencia.nextLongValue();
+    }
+
+    public int tamanoBloque() {
+        return tamanoBloque;
+    }
+}
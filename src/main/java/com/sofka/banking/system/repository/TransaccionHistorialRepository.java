@@ -0,0 +1,27 @@
+package com.sofka.banking.system.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+
+/**
+ * Historial de una cuenta en ambos sentidos (enviadas y recibidas), ordenado de la más reciente
+ * a la más antigua y paginado por cursor (fecha, id).
+ *
+ * Las filas se proyectan directamente a {@link TransaccionDTO}: el historial es de sólo lectura
+ * y no necesita entidades gestionadas ni su paso por el contexto de persistencia.
+ */
+public interface TransaccionHistorialRepository {
+
+    List<TransaccionDTO> findPrimeraPagina(Long cuentaId, int limite);
+
+    List<TransaccionDTO> findPaginaSiguiente(Long cuentaId, LocalDateTime fecha, Long id,
+            int limite);
+
+    /**
+     * Historial completo, en el mismo orden, leído con un cursor JDBC para exportaciones. Debe
+     * consumirse dentro de una transacción y cerrarse.
+     */
+    Stream<TransaccionDTO> streamHistorial(Long cuentaId);
+}
@@ -0,0 +1,89 @@
+package com.sofka.banking.system.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.transaction.annotation.Transactional;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.entity.Transaccion;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+
+@AllArgsConstructor
+class TransaccionHistorialRepositoryImpl implements TransaccionHistorialRepository {
+
+    // Cada rama recorre su índice (V7 y V11) en el orden de la página y se detiene en :limite
+    // filas; la unión sólo ordena esas 2 * :limite filas
+    private static final String COLUMNAS =
+            "id, monto, tipo, fecha, cuenta_bancaria_id, cuenta_destino_id";
+    private static final String ORDEN = " ORDER BY fecha DESC, id DESC LIMIT :limite";
+    // fecha <= :fecha acota el recorrido del índice; el OR desempata por id
+    private static final String DESPUES_DE_CURSOR =
+            " AND fecha <= :fecha AND (fecha < :fecha OR id < :id)";
+
+    private static final String PRIMERA_PAGINA = "(SELECT " + COLUMNAS + " FROM transacciones "
+            + "WHERE cuenta_bancaria_id = :cuentaId" + ORDEN + ") UNION ALL "
+            + "(SELECT " + COLUMNAS + " FROM transacciones "
+            + "WHERE cuenta_destino_id = :cuentaId" + ORDEN + ")" + ORDEN;
+
+    private static final String PAGINA_SIGUIENTE = "(SELECT " + COLUMNAS + " FROM transacciones "
+            + "WHERE cuenta_bancaria_id = :cuentaId" + DESPUES_DE_CURSOR + ORDEN + ") UNION ALL "
+            + "(SELECT " + COLUMNAS + " FROM transacciones "
+            + "WHERE cuenta_destino_id = :cuentaId" + DESPUES_DE_CURSOR + ORDEN + ")" + ORDEN;
+
+    // Sin LIMIT cada rama devuelve todas sus filas; H2 pasa a disco las ordenaciones grandes
+    private static final String HISTORIAL_COMPLETO = "(SELECT " + COLUMNAS
+            + " FROM transacciones WHERE cuenta_bancaria_id = :cuentaId) UNION ALL "
+            + "(SELECT " + COLUMNAS + " FROM transacciones WHERE cuenta_destino_id = :cuentaId)"
+            + " ORDER BY fecha DESC, id DESC";
+    private static final int FILAS_POR_LECTURA = 500;
+
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransaccionDTO> findPrimeraPagina(Long cuentaId, int limite) {
+        return historial(PRIMERA_PAGINA).setParameter("cuentaId", cuentaId)
+                .setParameter("limite", limite).getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransaccionDTO> findPaginaSiguiente(Long cuentaId, LocalDateTime fecha, Long id,
+            int limite) {
+        return historial(PAGINA_SIGUIENTE).setParameter("cuentaId", cuentaId)
+                .setParameter("fecha", fecha).setParameter("id", id)
+                .setParameter("limite", limite).getResultList();
+    }
+
+    // Sin @Transactional: el cursor vive en la transacción de quien lo consume
+    @Override
+    public Stream<TransaccionDTO> streamHistorial(Long cuentaId) {
+        return historial(HISTORIAL_COMPLETO).setParameter("cuentaId", cuentaId)
+                .setFetchSize(FILAS_POR_LECTURA).getResultStream();
+    }
+
+    // Columnas escalares con su tipo, armadas en el DTO fila a fila: sin entidades, sin
+    // snapshots para dirty checking y sin proxies de las cuentas
+    private NativeQuery<TransaccionDTO> historial(String sql) {
+        return entityManager.unwrap(Session.class).createNativeQuery(sql, Object[].class)
+                // Sólo vacía cambios pendientes sobre transacciones, no todo el contexto
+                .addSynchronizedEntityClass(Transaccion.class)
+                .addScalar("id", StandardBasicTypes.LONG)
+                .addScalar("monto", StandardBasicTypes.BIG_DECIMAL)
+                .addScalar("tipo", StandardBasicTypes.STRING)
+                .addScalar("fecha", StandardBasicTypes.LOCAL_DATE_TIME)
+                .addScalar("cuenta_bancaria_id", StandardBasicTypes.LONG)
+                .addScalar("cuenta_destino_id", StandardBasicTypes.LONG)
+                .setTupleTransformer((fila, alias) -> TransaccionDTO.builder()
+                        .id((Long) fila[0]).monto((BigDecimal) fila[1])
+                        .tipo(TipoTransaccion.valueOf((String) fila[2]))
+                        .fecha((LocalDateTime) fila[3]).cuentaBancariaId((Long) fila[4])
+                        .cuentaDestinoId((Long) fila[5]).build());
+    }
+}
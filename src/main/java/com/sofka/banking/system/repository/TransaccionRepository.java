@@ -1,9 +1,19 @@
 package com.sofka.banking.system.repository;
 
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.sofka.banking.system.entity.Transaccion;
 
-public interface TransaccionRepository extends JpaRepository<Transaccion, Long> {
-    List<Transaccion> findByCuentaBancariaId(Long cuentaBancariaId);
+public interface TransaccionRepository
+        extends JpaRepository<Transaccion, Long>, TransaccionHistorialRepository {
+
+    // IDs por bloques para el borrado en cascada: se eliminan con deleteAllByIdInBatch
+    @Query("SELECT t.id FROM Transaccion t WHERE t.cuentaBancaria.id = :cuentaId")
+    List<Long> findIdsByCuentaBancariaId(@Param("cuentaId") Long cuentaId, Limit limite);
+
+    @Query("SELECT t.id FROM Transaccion t WHERE t.cuentaDestino.id = :cuentaId")
+    List<Long> findIdsByCuentaDestinoId(@Param("cuentaId") Long cuentaId, Limit limite);
 }
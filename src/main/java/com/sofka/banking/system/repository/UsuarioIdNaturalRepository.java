@@ -0,0 +1,13 @@
+package com.sofka.banking.system.repository;
+
+import java.util.Optional;
+import com.sofka.banking.system.entity.Usuario;
+
+/**
+ * Búsqueda de usuarios por su identificador natural (la cédula), resuelta desde la caché de
+ * segundo nivel antes de ir a la base de datos.
+ */
+public interface UsuarioIdNaturalRepository {
+
+    Optional<Usuario> findByCedula(String cedula);
+}
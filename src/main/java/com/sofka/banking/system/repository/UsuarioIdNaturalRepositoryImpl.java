@@ -0,0 +1,22 @@
+package com.sofka.banking.system.repository;
+
+import java.util.Optional;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+import com.sofka.banking.system.entity.Usuario;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+
+@AllArgsConstructor
+class UsuarioIdNaturalRepositoryImpl implements UsuarioIdNaturalRepository {
+
+    private final EntityManager entityManager;
+
+    // Una consulta derivada (WHERE cedula = ?) no pasa por la caché de IDs naturales
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Usuario> findByCedula(String cedula) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Usuario.class)
+                .loadOptional(cedula);
+    }
+}
@@ -1,15 +1,67 @@
 package com.sofka.banking.system.repository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import com.sofka.banking.system.entity.Usuario;
+import jakarta.persistence.QueryHint;
 
-public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
+public interface UsuarioRepository
+        extends JpaRepository<Usuario, Long>, UsuarioIdNaturalRepository {
 
     boolean existsByCedula(String cedula);
 
     boolean existsByEmail(String email);
 
-    // Nuevo método para login
-    Optional<Usuario> findByCedula(String cedula);
+    // Usuarios con sus cuentas en una sola consulta (LEFT JOIN), sin N+1
+    @EntityGraph(attributePaths = "cuentasBancarias")
+    @Query("SELECT u FROM Usuario u ORDER BY u.id")
+    List<Usuario> findAllConCuentas();
+
+    // Paginar sobre los IDs evita aplicar LIMIT/OFFSET en memoria al traer colecciones
+    @Query(value = "SELECT u.id FROM Usuario u", countQuery = "SELECT COUNT(u) FROM Usuario u")
+    Page<Long> findPaginaIds(Pageable pageable);
+
+    @EntityGraph(attributePaths = "cuentasBancarias")
+    @Query("SELECT u FROM Usuario u WHERE u.id IN :ids")
+    List<Usuario> findAllConCuentasByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Sólo la columna del hash, por lotes: el recuento de hashes obsoletos no carga entidades
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT u.password FROM Usuario u")
+    Stream<String> streamPasswords();
+
+    // Recorridos por lotes para cargar los filtros de unicidad (FiltrosUnicidad)
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT u.cedula FROM Usuario u")
+    Stream<String> streamCedulas();
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT u.email FROM Usuario u")
+    Stream<String> streamEmails();
+
+    /**
+     * Reemplaza el hash sólo si sigue siendo el que se verificó, para no pisar un cambio de
+     * contraseña concurrente.
+     *
+     * @return filas afectadas (0 si el hash cambió entretanto)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Usuario u SET u.password = :nuevo WHERE u.id = :id AND u.password = :anterior")
+    int actualizarHash(@Param("id") Long id, @Param("anterior") String anterior,
+            @Param("nuevo") String nuevo);
 }
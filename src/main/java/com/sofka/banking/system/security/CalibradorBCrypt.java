@@ -0,0 +1,54 @@
+package com.sofka.banking.system.security;
+
+import java.time.Duration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Elige la fuerza (log2 de rondas) de BCrypt según el hardware en el que corre la aplicación.
+ *
+ * Mide la verificación con la fuerza mínima y, como cada punto de fuerza duplica el coste, sube
+ * la fuerza mientras la estimación siga dentro de la latencia objetivo. Nunca baja de
+ * {@link #FUERZA_MINIMA} (el valor por defecto de Spring), de modo que un nodo lento no debilita
+ * los hashes.
+ */
+public final class CalibradorBCrypt {
+
+    public static final int FUERZA_MINIMA = 10;
+    public static final int FUERZA_MAXIMA = 16;
+
+    private static final int MEDICIONES = 3;
+    private static final String MUESTRA = "calibracion-bcrypt";
+
+    private CalibradorBCrypt() {}
+
+    /**
+     * Mide BCrypt en este nodo y devuelve la mayor fuerza cuya verificación estimada no supera la
+     * latencia objetivo.
+     *
+     * @param latenciaObjetivo tiempo máximo deseado para una verificación
+     * @return fuerza entre {@link #FUERZA_MINIMA} y {@link #FUERZA_MAXIMA}
+     */
+    public static int calibrar(Duration latenciaObjetivo) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(FUERZA_MINIMA);
+        String hash = encoder.encode(MUESTRA); // también sirve de calentamiento
+
+        // El mínimo de varias mediciones descarta las pausas ajenas a BCrypt (GC, otros hilos)
+        long mejorNanos = Long.MAX_VALUE;
+        for (int i = 0; i < MEDICIONES; i++) {
+            long inicio = System.nanoTime();
+            encoder.matches(MUESTRA, hash);
+            mejorNanos = Math.min(mejorNanos, System.nanoTime() - inicio);
+        }
+        return elegirFuerza(Duration.ofNanos(mejorNanos), latenciaObjetivo);
+    }
+
+    static int elegirFuerza(Duration costeFuerzaMinima, Duration latenciaObjetivo) {
+        int fuerza = FUERZA_MINIMA;
+        long estimadoNanos = costeFuerzaMinima.toNanos();
+        while (fuerza < FUERZA_MAXIMA && estimadoNanos * 2 <= latenciaObjetivo.toNanos()) {
+            estimadoNanos *= 2;
+            fuerza++;
+        }
+        return fuerza;
+    }
+}
@@ -0,0 +1,57 @@
+package com.sofka.banking.system.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import com.sofka.banking.system.repository.UsuarioRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Publica cuántos usuarios conservan un hash con parámetros antiguos (sin prefijo de algoritmo,
+ * como los sembrados por V5, o con menos fuerza que la calibrada) y cuántos se han actualizado al
+ * iniciar sesión.
+ *
+ * El recuento recorre los hashes al terminar el arranque y después periódicamente; entre
+ * recuentos, cada rehash lo decrementa.
+ */
+@Component
+public class MonitorHashesObsoletos {
+
+    private final UsuarioRepository usuarioRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final AtomicLong obsoletos = new AtomicLong();
+    private final Counter rehashes;
+
+    public MonitorHashesObsoletos(UsuarioRepository usuarioRepository,
+            PasswordEncoder passwordEncoder, MeterRegistry meterRegistry) {
+        this.usuarioRepository = usuarioRepository;
+        this.passwordEncoder = passwordEncoder;
+        Gauge.builder("banking.password.hashes.obsoletos", obsoletos, AtomicLong::get)
+                .description("Usuarios con hash de parámetros antiguos").register(meterRegistry);
+        this.rehashes = Counter.builder("banking.password.rehash")
+                .description("Hashes actualizados al iniciar sesión").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${banking.password.recuento-obsoletos:PT5M}",
+            fixedDelayString = "${banking.password.recuento-obsoletos:PT5M}")
+    @Transactional(readOnly = true)
+    public void recontar() {
+        // upgradeEncoding sólo inspecciona el prefijo del hash: recorrer la tabla no cuesta CPU
+        try (Stream<String> hashes = usuarioRepository.streamPasswords()) {
+            obsoletos.set(hashes.filter(passwordEncoder::upgradeEncoding).count());
+        }
+    }
+
+    public void registrarRehash() {
+        rehashes.increment();
+        obsoletos.updateAndGet(actual -> Math.max(0, actual - 1));
+    }
+}
@@ -3,6 +3,7 @@ package com.sofka.banking.system.service;
 import java.util.List;
 import com.sofka.banking.system.dto.request.CreateCuentaBancariaDTO;
 import com.sofka.banking.system.dto.response.CuentaBancariaDTO;
+import com.sofka.banking.system.dto.response.EstadisticasCacheDTO;
 
 public interface CuentaBancariaService {
     CuentaBancariaDTO crearCuenta(CreateCuentaBancariaDTO dto);
@@ -14,4 +15,6 @@ public interface CuentaBancariaService {
     String eliminarCuenta(Long cuentaId);
 
     CuentaBancariaDTO buscarPorNumeroCuenta(String numeroCuenta);
+
+    EstadisticasCacheDTO obtenerEstadisticasCacheSaldos();
 }
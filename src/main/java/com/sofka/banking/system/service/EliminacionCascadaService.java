@@ -0,0 +1,13 @@
+package com.sofka.banking.system.service;
+
+import com.sofka.banking.system.dto.response.TareaEliminacionDTO;
+
+public interface EliminacionCascadaService {
+    void eliminarUsuario(Long usuarioId);
+
+    void eliminarCuenta(Long cuentaId);
+
+    TareaEliminacionDTO iniciarEliminacionUsuario(Long usuarioId);
+
+    TareaEliminacionDTO consultarTarea(String tareaId);
+}
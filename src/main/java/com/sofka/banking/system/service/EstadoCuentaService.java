@@ -0,0 +1,9 @@
+package com.sofka.banking.system.service;
+
+import java.time.LocalDate;
+import com.sofka.banking.system.dto.response.EstadoCuentaDTO;
+
+public interface EstadoCuentaService {
+    EstadoCuentaDTO obtenerEstado(Long cuentaId, LocalDate desde, LocalDate hasta,
+            String granularidad);
+}
@@ -0,0 +1,12 @@
+package com.sofka.banking.system.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import com.sofka.banking.system.enums.FormatoExportacion;
+
+public interface ExportacionTransaccionesService {
+    void validarCuenta(Long cuentaBancariaId);
+
+    void exportar(Long cuentaBancariaId, FormatoExportacion formato, OutputStream salida)
+            throws IOException;
+}
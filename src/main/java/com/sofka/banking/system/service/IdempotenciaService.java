@@ -0,0 +1,25 @@
+package com.sofka.banking.system.service;
+
+import java.util.function.Supplier;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+
+public interface IdempotenciaService {
+
+    /**
+     * Ejecuta la operación una sola vez por clave. Un reintento con la misma clave y la misma
+     * solicitud devuelve la respuesta original sin volver a ejecutarla.
+     *
+     * @param clave valor del encabezado Idempotency-Key
+     * @param operacion nombre de la operación (una clave no puede reutilizarse entre operaciones)
+     * @param solicitud cuerpo de la solicitud, para detectar reutilizaciones con otro contenido
+     * @param accion operación a ejecutar si la clave es nueva
+     * @return la transacción y si se trata de una repetición
+     */
+    ResultadoIdempotente ejecutar(String clave, String operacion, Object solicitud,
+            Supplier<TransaccionDTO> accion);
+
+    int eliminarClavesExpiradas();
+
+    record ResultadoIdempotente(TransaccionDTO transaccion, boolean repetida) {
+    }
+}
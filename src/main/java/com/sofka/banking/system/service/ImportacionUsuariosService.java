@@ -0,0 +1,11 @@
+package com.sofka.banking.system.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import com.sofka.banking.system.dto.response.ResultadoImportacionDTO;
+import com.sofka.banking.system.enums.FormatoImportacion;
+
+public interface ImportacionUsuariosService {
+    ResultadoImportacionDTO importar(InputStream entrada, FormatoImportacion formato)
+            throws IOException;
+}
@@ -3,6 +3,7 @@ package com.sofka.banking.system.service;
 import java.util.List;
 import com.sofka.banking.system.dto.request.CreateTransaccionDTO;
 import com.sofka.banking.system.dto.request.CreateTransferenciaDTO;
+import com.sofka.banking.system.dto.response.PaginaTransaccionesDTO;
 import com.sofka.banking.system.dto.response.TransaccionDTO;
 
 public interface TransaccionService {
@@ -11,4 +12,7 @@ public interface TransaccionService {
     TransaccionDTO realizarTransferencia(CreateTransferenciaDTO dto);
 
     List<TransaccionDTO> obtenerTransaccionesPorCuenta(Long cuentaBancariaId);
+
+    PaginaTransaccionesDTO obtenerPaginaTransacciones(Long cuentaBancariaId, String cursor,
+            int limite);
 }
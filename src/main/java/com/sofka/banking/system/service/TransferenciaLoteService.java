@@ -0,0 +1,9 @@
+package com.sofka.banking.system.service;
+
+import java.util.List;
+import com.sofka.banking.system.dto.request.CreateTransferenciaDTO;
+import com.sofka.banking.system.dto.response.ResultadoLoteTransferenciasDTO;
+
+public interface TransferenciaLoteService {
+    ResultadoLoteTransferenciasDTO realizarTransferencias(List<CreateTransferenciaDTO> transferencias);
+}
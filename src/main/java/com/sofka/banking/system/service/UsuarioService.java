@@ -3,11 +3,14 @@ package com.sofka.banking.system.service;
 import java.util.List;
 import com.sofka.banking.system.dto.request.CreateUsuarioDTO;
 import com.sofka.banking.system.dto.request.UpdateUsuarioDTO;
+import com.sofka.banking.system.dto.response.PaginaUsuariosDTO;
 import com.sofka.banking.system.dto.response.UsuarioDTO;
 
 public interface UsuarioService {
     List<UsuarioDTO> obtenerTodosLosUsuarios();
 
+    PaginaUsuariosDTO obtenerPaginaUsuarios(int pagina, int tamano, String orden);
+
     UsuarioDTO crearUsuario(CreateUsuarioDTO crearUsuarioDTO);
 
     UsuarioDTO obtenerUsuarioPorId(Long id);
@@ -1,11 +1,20 @@
 package com.sofka.banking.system.service.impl;
 
 import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sofka.banking.system.cache.FiltrosUnicidad;
+import com.sofka.banking.system.cache.SaldoCache;
+import com.sofka.banking.system.concurrency.SaldosPendientes;
 import com.sofka.banking.system.dto.request.CreateCuentaBancariaDTO;
 import com.sofka.banking.system.dto.response.CuentaBancariaDTO;
+import com.sofka.banking.system.dto.response.EstadisticasCacheDTO;
 import com.sofka.banking.system.entity.CuentaBancaria;
 import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.CampoUnico;
 import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
 import com.sofka.banking.system.exception.cuentaBancaria.NumeroCuentaAlreadyExistsException;
 import com.sofka.banking.system.exception.usuario.UsuarioNotFoundException;
@@ -13,18 +22,27 @@ import com.sofka.banking.system.mapper.CuentaBancariaMapper;
 import com.sofka.banking.system.repository.CuentaBancariaRepository;
 import com.sofka.banking.system.repository.UsuarioRepository;
 import com.sofka.banking.system.service.CuentaBancariaService;
+import com.sofka.banking.system.service.EliminacionCascadaService;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 
 @Service
 @AllArgsConstructor
+@Timed(value = "banking.servicio", histogram = true, extraTags = {"servicio", "cuentas"})
 public class CuentaBancariaServiceImpl implements CuentaBancariaService {
     private final CuentaBancariaRepository cuentaBancariaRepository;
     private final UsuarioRepository usuarioRepository;
     private final CuentaBancariaMapper cuentaBancariaMapper;
+    private final SaldoCache saldoCache;
+    // Sólo existe con un motor de transacciones que aplica saldos después de confirmarlos
+    private final ObjectProvider<SaldosPendientes> saldosPendientes;
+    private final FiltrosUnicidad filtrosUnicidad;
+    private final EliminacionCascadaService eliminacionCascadaService;
 
     @Override
     public CuentaBancariaDTO crearCuenta(CreateCuentaBancariaDTO dto) {
-        if (cuentaBancariaRepository.existsByNumeroCuenta(dto.getNumeroCuenta())) {
+        if (filtrosUnicidad.existe(CampoUnico.NUMERO_CUENTA, dto.getNumeroCuenta(),
+                cuentaBancariaRepository::existsByNumeroCuenta)) {
             throw new NumeroCuentaAlreadyExistsException(dto.getNumeroCuenta());
         }
 
@@ -38,33 +56,46 @@ public class CuentaBancariaServiceImpl implements CuentaBancariaService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CuentaBancariaDTO> obtenerCuentasPorUsuario(Long usuarioId) {
-        List<CuentaBancaria> cuentas = cuentaBancariaRepository.findByUsuarioId(usuarioId);
-        return cuentaBancariaMapper.toDTOList(cuentas);
+        // Los saldos incluyen lo ya confirmado por el motor de transacciones, como en
+        // consultarSaldo
+        saldosPendientes.ifAvailable(pendientes -> pendientes.esperarAplicados(
+                cuentaBancariaRepository.findIdsByUsuarioId(usuarioId, Limit.unlimited())
+                        .toArray(Long[]::new)));
+        // Sólo las columnas del DTO: ni entidades gestionadas ni el titular de cada cuenta
+        return cuentaBancariaRepository.findResumenesByUsuarioId(usuarioId);
     }
 
     @Override
     public CuentaBancariaDTO consultarSaldo(Long cuentaId) {
-        CuentaBancaria cuenta = cuentaBancariaRepository.findById(cuentaId)
-                .orElseThrow(() -> new CuentaBancariaNotFoundException(cuentaId));
-        return cuentaBancariaMapper.toDTO(cuenta);
+        saldosPendientes.ifAvailable(pendientes -> pendientes.esperarAplicados(cuentaId));
+        return saldoCache.obtener(cuentaId);
     }
 
     @Override
     public String eliminarCuenta(Long cuentaId) {
-        if (!cuentaBancariaRepository.existsById(cuentaId)) {
-            throw new CuentaBancariaNotFoundException(cuentaId);
-        }
-
-        cuentaBancariaRepository.deleteById(cuentaId);
+        // El historial se borra por bloques, sin cargarlo (ver EliminacionCascadaServiceImpl)
+        eliminacionCascadaService.eliminarCuenta(cuentaId);
         return "Cuenta eliminada exitosamente";
     }
 
     @Override
     public CuentaBancariaDTO buscarPorNumeroCuenta(String numeroCuenta) {
-        CuentaBancaria cuenta = cuentaBancariaRepository.findByNumeroCuenta(numeroCuenta)
+        // El número se resuelve a su ID en la caché de IDs naturales, sin cargar la cuenta; el
+        // saldo, igual que en consultarSaldo (fuera de una transacción: puede esperar al motor)
+        Long cuentaId = cuentaBancariaRepository.findIdByNumeroCuenta(numeroCuenta)
                 .orElseThrow(() -> new CuentaBancariaNotFoundException(
                         "Cuenta bancaria con número " + numeroCuenta + " no encontrada"));
-        return cuentaBancariaMapper.toDTO(cuenta);
+        return consultarSaldo(cuentaId);
+    }
+
+    @Override
+    public EstadisticasCacheDTO obtenerEstadisticasCacheSaldos() {
+        CacheStats estadisticas = saldoCache.estadisticas();
+        return EstadisticasCacheDTO.builder().entradas(saldoCache.tamano())
+                .aciertos(estadisticas.hitCount()).fallos(estadisticas.missCount())
+                .tasaAciertos(estadisticas.hitRate()).desalojos(estadisticas.evictionCount())
+                .build();
     }
 }
@@ -0,0 +1,37 @@
+package com.sofka.banking.system.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import com.sofka.banking.system.exception.transaccion.CursorInvalidoException;
+
+/**
+ * Cursor opaco para la paginación keyset del historial: codifica en Base64 (URL-safe) la
+ * posición (fecha, id) de la última transacción entregada.
+ */
+record CursorTransacciones(LocalDateTime fecha, Long id) {
+
+    private static final char SEPARADOR = '|';
+
+    String codificar() {
+        String valor = fecha.toString() + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static CursorTransacciones decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor),
+                    StandardCharsets.UTF_8);
+            int separador = valor.indexOf(SEPARADOR);
+            if (separador < 0) {
+                throw new CursorInvalidoException(cursor);
+            }
+            return new CursorTransacciones(LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.valueOf(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new CursorInvalidoException(cursor);
+        }
+    }
+}
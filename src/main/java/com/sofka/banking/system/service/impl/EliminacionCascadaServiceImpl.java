@@ -0,0 +1,246 @@
+package com.sofka.banking.system.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sofka.banking.system.cache.SaldoCache;
+import com.sofka.banking.system.concurrency.CuentaLockManager;
+import com.sofka.banking.system.concurrency.SaldosPendientes;
+import com.sofka.banking.system.dto.response.TareaEliminacionDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.EstadoTareaEliminacion;
+import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
+import com.sofka.banking.system.exception.usuario.TareaEliminacionNotFoundException;
+import com.sofka.banking.system.exception.usuario.UsuarioNotFoundException;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.TransaccionRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+import com.sofka.banking.system.service.EliminacionCascadaService;
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Elimina usuarios y cuentas con su historial mediante DELETE por bloques de IDs, en lugar de
+ * cargar cuentas y transacciones en el contexto de persistencia para borrarlas fila a fila.
+ *
+ * Por cuenta: primero se borran sus transacciones (como origen y como destino) en bloques de
+ * {@code tamanoBloque}, cada uno en su propia transacción y sin bloquear la cuenta. Después, con
+ * la cuenta bloqueada como en cualquier cambio de saldo, se borra lo que llegó entretanto y la
+ * cuenta misma por JPA (así se desalojan la caché de segundo nivel y el filtro de unicidad).
+ * Un usuario se elimina cuenta por cuenta y al final la fila del usuario; si algo falla a mitad
+ * queda eliminado sólo en parte y puede volver a intentarse.
+ *
+ * Para usuarios con mucho historial la eliminación puede correr en segundo plano
+ * ({@link #iniciarEliminacionUsuario(Long)}) y consultarse su avance.
+ */
+@Service
+@Timed(value = "banking.servicio", histogram = true, extraTags = {"servicio", "eliminacion"})
+public class EliminacionCascadaServiceImpl implements EliminacionCascadaService, AutoCloseable {
+    private final UsuarioRepository usuarioRepository;
+    private final CuentaBancariaRepository cuentaBancariaRepository;
+    private final TransaccionRepository transaccionRepository;
+    private final SaldoCache saldoCache;
+    private final CuentaLockManager cuentaLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<SaldosPendientes> saldosPendientes;
+    private final ExecutorService executor;
+    private final Cache<String, Progreso> tareas;
+    // Una sola tarea por usuario: pedirla de nuevo devuelve la que está en curso
+    private final ConcurrentMap<Long, Progreso> enCurso = new ConcurrentHashMap<>();
+    private final int tamanoBloque;
+
+    public EliminacionCascadaServiceImpl(UsuarioRepository usuarioRepository,
+            CuentaBancariaRepository cuentaBancariaRepository,
+            TransaccionRepository transaccionRepository, SaldoCache saldoCache,
+            CuentaLockManager cuentaLockManager, TransactionTemplate transactionTemplate,
+            ObjectProvider<SaldosPendientes> saldosPendientes,
+            @Value("${banking.eliminacion.tamano-bloque:1000}") int tamanoBloque,
+            @Value("${banking.eliminacion.hilos:1}") int hilos,
+            @Value("${banking.eliminacion.retencion-tareas:1h}") Duration retencionTareas) {
+        this.usuarioRepository = usuarioRepository;
+        this.cuentaBancariaRepository = cuentaBancariaRepository;
+        this.transaccionRepository = transaccionRepository;
+        this.saldoCache = saldoCache;
+        this.cuentaLockManager = cuentaLockManager;
+        this.transactionTemplate = transactionTemplate;
+        this.saldosPendientes = saldosPendientes;
+        this.tamanoBloque = tamanoBloque;
+        this.executor = Executors.newFixedThreadPool(hilos, fabricaDeHilos());
+        this.tareas = Caffeine.newBuilder().expireAfterWrite(retencionTareas).build();
+    }
+
+    @Override
+    public void eliminarUsuario(Long usuarioId) {
+        if (!usuarioRepository.existsById(usuarioId)) {
+            throw new UsuarioNotFoundException(usuarioId);
+        }
+        eliminarUsuario(usuarioId, new Progreso(usuarioId, 0));
+    }
+
+    @Override
+    public void eliminarCuenta(Long cuentaId) {
+        if (!cuentaBancariaRepository.existsById(cuentaId)) {
+            throw new CuentaBancariaNotFoundException(cuentaId);
+        }
+        eliminarCuenta(cuentaId, new Progreso(null, 1));
+    }
+
+    @Override
+    public TareaEliminacionDTO iniciarEliminacionUsuario(Long usuarioId) {
+        if (!usuarioRepository.existsById(usuarioId)) {
+            throw new UsuarioNotFoundException(usuarioId);
+        }
+
+        Progreso nueva =
+                new Progreso(usuarioId, cuentaBancariaRepository.countByUsuarioId(usuarioId));
+        Progreso existente = enCurso.putIfAbsent(usuarioId, nueva);
+        if (existente != null) {
+            return existente.toDTO();
+        }
+        tareas.put(nueva.id, nueva);
+        executor.execute(() -> ejecutar(nueva));
+        return nueva.toDTO();
+    }
+
+    @Override
+    public TareaEliminacionDTO consultarTarea(String tareaId) {
+        Progreso tarea = tareas.getIfPresent(tareaId);
+        if (tarea == null) {
+            throw new TareaEliminacionNotFoundException(tareaId);
+        }
+        return tarea.toDTO();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void ejecutar(Progreso tarea) {
+        try {
+            eliminarUsuario(tarea.usuarioId, tarea);
+            tarea.terminar(EstadoTareaEliminacion.COMPLETADA, null);
+        } catch (RuntimeException e) {
+            tarea.terminar(EstadoTareaEliminacion.FALLIDA, e.getMessage());
+        } finally {
+            enCurso.remove(tarea.usuarioId);
+            // La retención cuenta desde que termina
+            tareas.put(tarea.id, tarea);
+        }
+    }
+
+    private void eliminarUsuario(Long usuarioId, Progreso progreso) {
+        List<Long> cuentaIds;
+        while (!(cuentaIds = cuentaBancariaRepository.findIdsByUsuarioId(usuarioId,
+                Limit.of(tamanoBloque))).isEmpty()) {
+            for (Long cuentaId : cuentaIds) {
+                eliminarCuenta(cuentaId, progreso);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Usuario usuario = usuarioRepository.findById(usuarioId)
+                    .orElseThrow(() -> new UsuarioNotFoundException(usuarioId));
+            // Sin cuentas: la cascada de JPA sólo carga una colección vacía
+            usuarioRepository.delete(usuario);
+        });
+    }
+
+    private void eliminarCuenta(Long cuentaId, Progreso progreso) {
+        boolean quedan;
+        do {
+            quedan = transactionTemplate.execute(status -> eliminarBloque(cuentaId, progreso));
+        } while (quedan);
+
+        transactionTemplate.executeWithoutResult(status -> cuentaLockManager
+                .ejecutarConBloqueo(() -> eliminarFilaCuenta(cuentaId, progreso), cuentaId));
+    }
+
+    // Con la cuenta bloqueada y dentro de la transacción, como cualquier cambio de saldo
+    private boolean eliminarFilaCuenta(Long cuentaId, Progreso progreso) {
+        saldosPendientes.ifAvailable(pendientes -> pendientes.esperarAplicados(cuentaId));
+        // Eliminada por otra petición mientras se borraba el historial
+        CuentaBancaria cuenta = cuentaBancariaRepository.findById(cuentaId).orElse(null);
+        if (cuenta == null) {
+            return false;
+        }
+        // Transacciones registradas mientras se borraba el historial
+        boolean quedan;
+        do {
+            quedan = eliminarBloque(cuentaId, progreso);
+        } while (quedan);
+        cuentaBancariaRepository.delete(cuenta);
+        saldoCache.invalidarTrasCommit(cuentaId);
+        progreso.cuentasEliminadas.increment();
+        return true;
+    }
+
+    // Un bloque de transacciones de la cuenta, primero como origen y luego como destino
+    private boolean eliminarBloque(Long cuentaId, Progreso progreso) {
+        List<Long> ids =
+                transaccionRepository.findIdsByCuentaBancariaId(cuentaId, Limit.of(tamanoBloque));
+        if (ids.isEmpty()) {
+            ids = transaccionRepository.findIdsByCuentaDestinoId(cuentaId, Limit.of(tamanoBloque));
+        }
+        if (ids.isEmpty()) {
+            return false;
+        }
+        transaccionRepository.deleteAllByIdInBatch(ids);
+        progreso.transaccionesEliminadas.add(ids.size());
+        return true;
+    }
+
+    private static ThreadFactory fabricaDeHilos() {
+        AtomicInteger contador = new AtomicInteger();
+        return tarea -> {
+            Thread hilo = new Thread(tarea, "eliminacion-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        };
+    }
+
+    private static final class Progreso {
+        private final String id = UUID.randomUUID().toString();
+        private final Long usuarioId;
+        private final long cuentasTotales;
+        private final LocalDateTime inicio = LocalDateTime.now();
+        private final LongAdder cuentasEliminadas = new LongAdder();
+        private final LongAdder transaccionesEliminadas = new LongAdder();
+        private volatile EstadoTareaEliminacion estado = EstadoTareaEliminacion.EN_CURSO;
+        private volatile LocalDateTime fin;
+        private volatile String error;
+
+        private Progreso(Long usuarioId, long cuentasTotales) {
+            this.usuarioId = usuarioId;
+            this.cuentasTotales = cuentasTotales;
+        }
+
+        private void terminar(EstadoTareaEliminacion estadoFinal, String mensajeError) {
+            error = mensajeError;
+            fin = LocalDateTime.now();
+            estado = estadoFinal;
+        }
+
+        private TareaEliminacionDTO toDTO() {
+            return TareaEliminacionDTO.builder().id(id).usuarioId(usuarioId).estado(estado)
+                    .cuentasTotales(cuentasTotales).cuentasEliminadas(cuentasEliminadas.sum())
+                    .transaccionesEliminadas(transaccionesEliminadas.sum()).inicio(inicio)
+                    .fin(fin).error(error).build();
+        }
+    }
+}
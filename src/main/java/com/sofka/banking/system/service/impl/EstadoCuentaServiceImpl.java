@@ -0,0 +1,126 @@
+package com.sofka.banking.system.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import com.sofka.banking.system.concurrency.SaldosPendientes;
+import com.sofka.banking.system.dto.response.EstadoCuentaDTO;
+import com.sofka.banking.system.dto.response.PeriodoEstadoDTO;
+import com.sofka.banking.system.enums.GranularidadEstado;
+import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
+import com.sofka.banking.system.exception.cuentaBancaria.PeriodoInvalidoException;
+import com.sofka.banking.system.service.EstadoCuentaService;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+
+/**
+ * Estado de cuenta calculado por la base de datos: sólo viajan a la JVM el saldo actual, cuatro
+ * sumas y una fila por periodo con movimientos, nunca las transacciones.
+ *
+ * Los saldos inicial y final se obtienen del saldo actual restando lo movido desde el inicio y
+ * desde el fin del periodo, en la misma sentencia para que ambos partan del mismo estado. Las
+ * sumas recorren los índices (cuenta_bancaria_id, fecha) y (cuenta_destino_id, fecha).
+ */
+@Service
+@AllArgsConstructor
+@Timed(value = "banking.servicio", histogram = true, extraTags = {"servicio", "estado-cuenta"})
+public class EstadoCuentaServiceImpl implements EstadoCuentaService {
+    // Lo que cada fila hace al saldo de la cuenta que la origina
+    private static final String CAMBIO_ORIGEN =
+            "CASE WHEN tipo = 'DEPOSITO' THEN monto ELSE -monto END";
+
+    private static final String SQL_SALDOS = "SELECT c.saldo_actual, s.salida_inicio, "
+            + "s.salida_fin, e.entrada_inicio, e.entrada_fin FROM cuentas_bancarias c "
+            + "CROSS JOIN (SELECT COALESCE(SUM(" + CAMBIO_ORIGEN + "), 0) AS salida_inicio, "
+            + "COALESCE(SUM(CASE WHEN fecha >= ? THEN " + CAMBIO_ORIGEN + " END), 0) "
+            + "AS salida_fin FROM transacciones "
+            + "WHERE cuenta_bancaria_id = ? AND fecha >= ?) s "
+            + "CROSS JOIN (SELECT COALESCE(SUM(monto), 0) AS entrada_inicio, "
+            + "COALESCE(SUM(CASE WHEN fecha >= ? THEN monto END), 0) AS entrada_fin "
+            + "FROM transacciones WHERE cuenta_destino_id = ? AND fecha >= ?) e "
+            + "WHERE c.id = ?";
+
+    // %1$s es el campo de DATE_TRUNC; viene de GranularidadEstado, nunca de la petición
+    private static final String SQL_PERIODOS = "SELECT periodo, SUM(depositos) AS depositos, "
+            + "SUM(retiros) AS retiros, SUM(enviadas) AS enviadas, "
+            + "SUM(recibidas) AS recibidas, SUM(cantidad) AS cantidad FROM ("
+            + "SELECT DATE_TRUNC(%1$s, fecha) AS periodo, "
+            + "SUM(CASE WHEN tipo = 'DEPOSITO' THEN monto ELSE 0 END) AS depositos, "
+            + "SUM(CASE WHEN tipo = 'RETIRO' THEN monto ELSE 0 END) AS retiros, "
+            + "SUM(CASE WHEN tipo = 'TRANSFERENCIA' THEN monto ELSE 0 END) AS enviadas, "
+            + "0 AS recibidas, COUNT(*) AS cantidad FROM transacciones "
+            + "WHERE cuenta_bancaria_id = ? AND fecha >= ? AND fecha < ? "
+            + "GROUP BY DATE_TRUNC(%1$s, fecha) "
+            + "UNION ALL "
+            + "SELECT DATE_TRUNC(%1$s, fecha), 0, 0, 0, SUM(monto), COUNT(*) FROM transacciones "
+            + "WHERE cuenta_destino_id = ? AND fecha >= ? AND fecha < ? "
+            + "GROUP BY DATE_TRUNC(%1$s, fecha)) movimientos "
+            + "GROUP BY periodo ORDER BY periodo";
+
+    private final JdbcTemplate jdbcTemplate;
+    // Sólo existe con un motor de transacciones que aplica saldos después de confirmarlos
+    private final ObjectProvider<SaldosPendientes> saldosPendientes;
+
+    @Override
+    public EstadoCuentaDTO obtenerEstado(Long cuentaId, LocalDate desde, LocalDate hasta,
+            String granularidad) {
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = desde != null ? desde : fin.withDayOfMonth(1);
+        if (inicio.isAfter(fin)) {
+            throw new PeriodoInvalidoException(
+                    "Periodo inválido: desde (" + inicio + ") es posterior a hasta (" + fin + ")");
+        }
+        GranularidadEstado tamanoPeriodo = granularidad(granularidad);
+
+        saldosPendientes.ifAvailable(pendientes -> pendientes.esperarAplicados(cuentaId));
+
+        // Rango semiabierto [inicio, día siguiente a fin)
+        LocalDateTime desdeInicio = inicio.atStartOfDay();
+        LocalDateTime desdeFin = fin.plusDays(1).atStartOfDay();
+
+        Saldos saldos = jdbcTemplate.query(SQL_SALDOS,
+                (rs, fila) -> new Saldos(rs.getBigDecimal(1),
+                        rs.getBigDecimal(2).add(rs.getBigDecimal(4)),
+                        rs.getBigDecimal(3).add(rs.getBigDecimal(5))),
+                desdeFin, cuentaId, desdeInicio, desdeFin, cuentaId, desdeInicio, cuentaId)
+                .stream().findFirst()
+                .orElseThrow(() -> new CuentaBancariaNotFoundException(cuentaId));
+
+        String campo = tamanoPeriodo == GranularidadEstado.MES ? "MONTH" : "DAY";
+        List<PeriodoEstadoDTO> periodos = jdbcTemplate.query(SQL_PERIODOS.formatted(campo),
+                (rs, fila) -> PeriodoEstadoDTO.builder()
+                        .inicio(rs.getObject("periodo", LocalDateTime.class).toLocalDate())
+                        .depositos(rs.getBigDecimal("depositos"))
+                        .retiros(rs.getBigDecimal("retiros"))
+                        .transferenciasEnviadas(rs.getBigDecimal("enviadas"))
+                        .transferenciasRecibidas(rs.getBigDecimal("recibidas"))
+                        .cantidadTransacciones(rs.getLong("cantidad")).build(),
+                cuentaId, desdeInicio, desdeFin, cuentaId, desdeInicio, desdeFin);
+
+        return EstadoCuentaDTO.builder().cuentaId(cuentaId).desde(inicio).hasta(fin)
+                .granularidad(tamanoPeriodo)
+                .saldoInicial(saldos.actual().subtract(saldos.movidoDesdeInicio()))
+                .saldoFinal(saldos.actual().subtract(saldos.movidoDesdeFin()))
+                .periodos(periodos).build();
+    }
+
+    private GranularidadEstado granularidad(String valor) {
+        if (valor == null) {
+            return GranularidadEstado.DIA;
+        }
+        return Arrays.stream(GranularidadEstado.values())
+                .filter(g -> g.name().equalsIgnoreCase(valor)).findFirst()
+                .orElseThrow(() -> new PeriodoInvalidoException(
+                        "Granularidad inválida: " + valor + " (use dia o mes)"));
+    }
+
+    // Cambio neto de saldo desde el inicio y desde el fin del periodo hasta hoy
+    private record Saldos(BigDecimal actual, BigDecimal movidoDesdeInicio,
+            BigDecimal movidoDesdeFin) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.sofka.banking.system.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sofka.banking.system.concurrency.SaldosPendientes;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.enums.DireccionTransaccion;
+import com.sofka.banking.system.enums.FormatoExportacion;
+import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.TransaccionRepository;
+import com.sofka.banking.system.service.ExportacionTransaccionesService;
+import lombok.AllArgsConstructor;
+
+/**
+ * Exporta el historial de una cuenta, enviadas y recibidas, fila a fila desde un cursor JDBC.
+ *
+ * Las filas se proyectan directamente a DTO con la misma consulta que el historial paginado, sin
+ * pasar por el contexto de persistencia, por lo que la memoria usada no depende del tamaño del
+ * historial.
+ */
+@Service
+@AllArgsConstructor
+public class ExportacionTransaccionesServiceImpl implements ExportacionTransaccionesService {
+    private static final String CABECERA_CSV =
+            "id,monto,tipo,fecha,cuentaBancariaId,cuentaDestinoId,direccion";
+    private static final int FILAS_POR_FLUSH = 1000;
+
+    private final TransaccionRepository transaccionRepository;
+    private final CuentaBancariaRepository cuentaBancariaRepository;
+    private final ObjectMapper objectMapper;
+    // Sólo existe con un motor de transacciones que aplica saldos después de confirmarlos
+    private final ObjectProvider<SaldosPendientes> saldosPendientes;
+
+    @Override
+    public void validarCuenta(Long cuentaBancariaId) {
+        if (!cuentaBancariaRepository.existsById(cuentaBancariaId)) {
+            throw new CuentaBancariaNotFoundException(cuentaBancariaId);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportar(Long cuentaBancariaId, FormatoExportacion formato, OutputStream salida)
+            throws IOException {
+        // El historial incluye lo ya confirmado por el motor de transacciones
+        saldosPendientes.ifAvailable(pendientes -> pendientes.esperarAplicados(cuentaBancariaId));
+
+        Writer escritor =
+                new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        ObjectWriter escritorJson = objectMapper.writerFor(TransaccionDTO.class);
+
+        if (formato == FormatoExportacion.CSV) {
+            escritor.write(CABECERA_CSV);
+            escritor.write('\n');
+        }
+
+        try (Stream<TransaccionDTO> transacciones =
+                transaccionRepository.streamHistorial(cuentaBancariaId)) {
+            Iterator<TransaccionDTO> iterador = transacciones.iterator();
+            long filas = 0;
+            while (iterador.hasNext()) {
+                TransaccionDTO dto = iterador.next();
+                dto.setDireccion(DireccionTransaccion.respectoA(cuentaBancariaId, dto));
+
+                escritor.write(formato == FormatoExportacion.CSV ? aCsv(dto)
+                        : aJson(escritorJson, dto));
+                escritor.write('\n');
+
+                if (++filas % FILAS_POR_FLUSH == 0) {
+                    escritor.flush();
+                }
+            }
+        }
+        escritor.flush();
+    }
+
+    private String aJson(ObjectWriter escritorJson, TransaccionDTO dto) {
+        try {
+            return escritorJson.writeValueAsString(dto);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String aCsv(TransaccionDTO dto) {
+        // Todos los campos son numéricos, enums o fechas ISO: no requieren comillas
+        return dto.getId() + "," + dto.getMonto().toPlainString() + "," + dto.getTipo() + ","
+                + dto.getFecha() + "," + dto.getCuentaBancariaId() + ","
+                + (dto.getCuentaDestinoId() != null ? dto.getCuentaDestinoId() : "") + ","
+                + dto.getDireccion();
+    }
+}
@@ -0,0 +1,203 @@
+package com.sofka.banking.system.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.sofka.banking.system.concurrency.MotorTransacciones;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.entity.ClaveIdempotencia;
+import com.sofka.banking.system.exception.transaccion.ClaveIdempotenciaEnUsoException;
+import com.sofka.banking.system.exception.transaccion.ClaveIdempotenciaInvalidaException;
+import com.sofka.banking.system.exception.transaccion.IdempotenciaNoDisponibleException;
+import com.sofka.banking.system.repository.ClaveIdempotenciaRepository;
+import com.sofka.banking.system.service.IdempotenciaService;
+
+/**
+ * Claves de idempotencia persistidas en {@code claves_idempotencia}, con una caché en memoria
+ * acotada delante.
+ *
+ * La clave se inserta en la misma transacción que la operación: si la operación falla, la clave
+ * desaparece con ella y el cliente puede reintentar; si dos solicitudes con la misma clave llegan
+ * a la vez, la segunda espera en el índice de la clave primaria y, al fallar por duplicado,
+ * entrega la respuesta de la primera. Un reintento cuesta como mucho una lectura por clave
+ * primaria, y ninguna si la clave está en la caché.
+ *
+ * Con un {@link MotorTransacciones} activo las claves se rechazan: el motor confirma la operación
+ * en su diario o en memoria, fuera de esta transacción, y si después fallara el guardado de la
+ * clave el reintento aplicaría la operación dos veces.
+ */
+@Service
+public class IdempotenciaServiceImpl implements IdempotenciaService {
+    static final int LONGITUD_MAXIMA_CLAVE = 100;
+
+    private final ClaveIdempotenciaRepository claveIdempotenciaRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<MotorTransacciones> motorTransacciones;
+    private final Duration vigencia;
+    private final Cache<String, RespuestaGuardada> cache;
+
+    public IdempotenciaServiceImpl(ClaveIdempotenciaRepository claveIdempotenciaRepository,
+            ObjectMapper objectMapper, TransactionTemplate transactionTemplate,
+            ObjectProvider<MotorTransacciones> motorTransacciones,
+            @Value("${banking.idempotencia.vigencia:24h}") Duration vigencia,
+            @Value("${banking.idempotencia.cache.tamano-maximo:10000}") long tamanoMaximo) {
+        this.claveIdempotenciaRepository = claveIdempotenciaRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.motorTransacciones = motorTransacciones;
+        this.vigencia = vigencia;
+        this.cache = Caffeine.newBuilder().maximumSize(tamanoMaximo)
+                .expireAfter(new VencimientoDeClave()).build();
+    }
+
+    @Override
+    public ResultadoIdempotente ejecutar(String clave, String operacion, Object solicitud,
+            Supplier<TransaccionDTO> accion) {
+        if (clave.isBlank() || clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new ClaveIdempotenciaInvalidaException(LONGITUD_MAXIMA_CLAVE);
+        }
+        if (motorTransacciones.getIfAvailable() != null) {
+            throw new IdempotenciaNoDisponibleException();
+        }
+        String huella = calcularHuella(operacion, solicitud);
+
+        RespuestaGuardada enCache = cache.getIfPresent(clave);
+        if (enCache != null) {
+            return repetir(clave, huella, enCache);
+        }
+
+        LocalDateTime ahora = LocalDateTime.now();
+        Optional<ClaveIdempotencia> existente = claveIdempotenciaRepository.findById(clave);
+        boolean vencida = existente.map(c -> !c.getExpiraEn().isAfter(ahora)).orElse(false);
+        if (existente.isPresent() && !vencida) {
+            return repetir(clave, huella, guardarEnCache(existente.get()));
+        }
+
+        LocalDateTime expiraEn = ahora.plus(vigencia);
+        try {
+            TransaccionDTO transaccion = transactionTemplate.execute(estado -> {
+                if (vencida) {
+                    claveIdempotenciaRepository.eliminarSiExpirada(clave, ahora);
+                }
+                reservar(clave, operacion, huella, ahora, expiraEn);
+                TransaccionDTO resultado = accion.get();
+                claveIdempotenciaRepository.completar(clave, serializar(resultado));
+                return resultado;
+            });
+            cache.put(clave, new RespuestaGuardada(huella, transaccion, expiraEn));
+            return new ResultadoIdempotente(transaccion, false);
+        } catch (ClaveIdempotenciaEnUsoException ex) {
+            // Otra solicitud con la misma clave se confirmó primero: se entrega su respuesta
+            ClaveIdempotencia ganadora = claveIdempotenciaRepository.findById(clave)
+                    .filter(c -> c.getRespuesta() != null).orElseThrow(() -> ex);
+            return repetir(clave, huella, guardarEnCache(ganadora));
+        }
+    }
+
+    // La caché vence sus entradas por su cuenta, con el mismo plazo que la tabla
+    @Override
+    @Transactional
+    @Scheduled(initialDelayString = "${banking.idempotencia.barrido:PT10M}",
+            fixedDelayString = "${banking.idempotencia.barrido:PT10M}")
+    public int eliminarClavesExpiradas() {
+        return claveIdempotenciaRepository.eliminarExpiradas(LocalDateTime.now());
+    }
+
+    private void reservar(String clave, String operacion, String huella, LocalDateTime ahora,
+            LocalDateTime expiraEn) {
+        try {
+            claveIdempotenciaRepository.reservar(clave, operacion, huella, ahora, expiraEn);
+        } catch (DataIntegrityViolationException | ConcurrencyFailureException ex) {
+            throw new ClaveIdempotenciaEnUsoException(clave);
+        }
+    }
+
+    private ResultadoIdempotente repetir(String clave, String huella,
+            RespuestaGuardada guardada) {
+        if (!guardada.huella().equals(huella)) {
+            throw new ClaveIdempotenciaEnUsoException(clave);
+        }
+        return new ResultadoIdempotente(guardada.transaccion(), true);
+    }
+
+    private RespuestaGuardada guardarEnCache(ClaveIdempotencia fila) {
+        if (fila.getRespuesta() == null) {
+            throw new ClaveIdempotenciaEnUsoException(fila.getClave());
+        }
+        RespuestaGuardada guardada = new RespuestaGuardada(fila.getHuella(),
+                deserializar(fila.getRespuesta()), fila.getExpiraEn());
+        cache.put(fila.getClave(), guardada);
+        return guardada;
+    }
+
+    String calcularHuella(String operacion, Object solicitud) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(operacion.getBytes(StandardCharsets.UTF_8));
+            sha256.update(objectMapper.writeValueAsBytes(solicitud));
+            return HexFormat.of().formatHex(sha256.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la solicitud", e);
+        }
+    }
+
+    private String serializar(TransaccionDTO transaccion) {
+        try {
+            return objectMapper.writeValueAsString(transaccion);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo guardar la respuesta idempotente", e);
+        }
+    }
+
+    private TransaccionDTO deserializar(String respuesta) {
+        try {
+            return objectMapper.readValue(respuesta, TransaccionDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta idempotente ilegible", e);
+        }
+    }
+
+    private record RespuestaGuardada(String huella, TransaccionDTO transaccion,
+            LocalDateTime expiraEn) {
+    }
+
+    // Cada entrada vence cuando vence su fila, no un TTL fijo desde que se cargó
+    private static class VencimientoDeClave implements Expiry<String, RespuestaGuardada> {
+        @Override
+        public long expireAfterCreate(String clave, RespuestaGuardada guardada, long ahora) {
+            return Math.max(0, Duration.between(LocalDateTime.now(), guardada.expiraEn())
+                    .toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String clave, RespuestaGuardada guardada, long ahora,
+                long restante) {
+            return expireAfterCreate(clave, guardada, ahora);
+        }
+
+        @Override
+        public long expireAfterRead(String clave, RespuestaGuardada guardada, long ahora,
+                long restante) {
+            return restante;
+        }
+    }
+}
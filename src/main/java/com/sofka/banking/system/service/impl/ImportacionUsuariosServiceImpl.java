@@ -0,0 +1,370 @@
+package com.sofka.banking.system.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sofka.banking.system.cache.FiltrosUnicidad;
+import com.sofka.banking.system.concurrency.PasswordEncoderAcotado;
+import com.sofka.banking.system.dto.request.CreateUsuarioDTO;
+import com.sofka.banking.system.dto.response.ErrorImportacionDTO;
+import com.sofka.banking.system.dto.response.ResultadoImportacionDTO;
+import com.sofka.banking.system.enums.CampoUnico;
+import com.sofka.banking.system.enums.FormatoImportacion;
+import com.sofka.banking.system.exception.usuario.ArchivoImportacionInvalidoException;
+import com.sofka.banking.system.repository.SecuenciaIds;
+import com.sofka.banking.system.service.ImportacionUsuariosService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Importa usuarios desde un archivo CSV o NDJSON leído como flujo, en bloques de
+ * {@code tamanoBloque} registros.
+ *
+ * Por bloque: valida cada registro, rechaza las cédulas y emails repetidos dentro del bloque y
+ * los ya registrados (una consulta IN por campo, sólo con los valores que
+ * {@link FiltrosUnicidad} no descarta), calcula los hashes en paralelo en un ForkJoinPool propio
+ * y los inserta en un lote JDBC dentro de su propia transacción. Un repetido entre bloques se
+ * detecta como ya registrado, porque el bloque anterior ya se confirmó. En memoria sólo hay un
+ * bloque y el reporte de errores, acotado a {@code maxErrores}.
+ */
+@Service
+@Timed(value = "banking.servicio", histogram = true, extraTags = {"servicio", "importacion"})
+public class ImportacionUsuariosServiceImpl implements ImportacionUsuariosService, AutoCloseable {
+    private static final List<String> COLUMNAS =
+            List.of("cedula", "nombre", "apellido", "email", "telefono", "password");
+    private static final String SQL_INSERTAR = "INSERT INTO usuarios "
+            + "(id, cedula, nombre, apellido, email, telefono, password) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_CEDULAS_REGISTRADAS =
+            "SELECT cedula FROM usuarios WHERE cedula IN (:valores)";
+    private static final String SQL_EMAILS_REGISTRADOS =
+            "SELECT email FROM usuarios WHERE email IN (:valores)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FiltrosUnicidad filtrosUnicidad;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final PasswordEncoder passwordEncoder;
+    private final ForkJoinPool poolHash;
+    private final SecuenciaIds secuenciaUsuarios;
+    private final int tamanoBloque;
+    private final int maxErrores;
+
+    public ImportacionUsuariosServiceImpl(NamedParameterJdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate, FiltrosUnicidad filtrosUnicidad,
+            Validator validator, ObjectMapper objectMapper, PasswordEncoder passwordEncoder,
+            DataSource dataSource,
+            @Value("${banking.importacion.hilos:0}") int hilos,
+            @Value("${banking.importacion.tamano-bloque:1000}") int tamanoBloque,
+            @Value("${banking.importacion.max-errores:1000}") int maxErrores) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.filtrosUnicidad = filtrosUnicidad;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        // El pool acotado del login rechazaría miles de hashes seguidos: aquí el paralelismo lo
+        // limita poolHash, que por defecto deja la otra mitad de los núcleos al login
+        this.passwordEncoder = passwordEncoder instanceof PasswordEncoderAcotado acotado
+                ? acotado.delegado() : passwordEncoder;
+        this.poolHash = new ForkJoinPool(
+                hilos > 0 ? hilos : Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        // Mismos bloques que reserva Hibernate (pooled-lo): los IDs no chocan con los de JPA
+        this.secuenciaUsuarios = new SecuenciaIds(dataSource, "usuarios_seq");
+        this.tamanoBloque = tamanoBloque;
+        this.maxErrores = maxErrores;
+    }
+
+    @Override
+    public ResultadoImportacionDTO importar(InputStream entrada, FormatoImportacion formato)
+            throws IOException {
+        BufferedReader lector =
+                new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        LectorRegistros registros =
+                formato == FormatoImportacion.CSV ? lectorCsv(lector) : lectorNdjson(lector);
+        Reporte reporte = new Reporte();
+        IdsReservados ids = new IdsReservados();
+
+        List<Registro> bloque = new ArrayList<>(tamanoBloque);
+        Registro registro;
+        while ((registro = registros.siguiente()) != null) {
+            bloque.add(registro);
+            if (bloque.size() == tamanoBloque) {
+                procesarBloque(bloque, reporte, ids);
+                bloque.clear();
+            }
+        }
+        if (!bloque.isEmpty()) {
+            procesarBloque(bloque, reporte, ids);
+        }
+        return reporte.resultado();
+    }
+
+    @Override
+    public void close() {
+        poolHash.shutdownNow();
+    }
+
+    private void procesarBloque(List<Registro> bloque, Reporte reporte, IdsReservados ids) {
+        reporte.total += bloque.size();
+
+        List<Registro> candidatos = new ArrayList<>(bloque.size());
+        Set<String> cedulas = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (Registro registro : bloque) {
+            String error = registro.error() != null ? registro.error() : validar(registro.dto());
+            if (error == null && !cedulas.add(registro.dto().getCedula())) {
+                error = "Cédula repetida en el archivo";
+            }
+            if (error == null && !emails.add(registro.dto().getEmail())) {
+                error = "Email repetido en el archivo";
+            }
+            if (error != null) {
+                reporte.rechazar(registro, error);
+            } else {
+                candidatos.add(registro);
+            }
+        }
+
+        Set<String> cedulasRegistradas = registrados(SQL_CEDULAS_REGISTRADAS, CampoUnico.CEDULA,
+                candidatos, CreateUsuarioDTO::getCedula);
+        Set<String> emailsRegistrados = registrados(SQL_EMAILS_REGISTRADOS, CampoUnico.EMAIL,
+                candidatos, CreateUsuarioDTO::getEmail);
+        List<Registro> nuevos = new ArrayList<>(candidatos.size());
+        for (Registro registro : candidatos) {
+            if (cedulasRegistradas.contains(registro.dto().getCedula())) {
+                reporte.rechazar(registro, "La cédula ya está registrada");
+            } else if (emailsRegistrados.contains(registro.dto().getEmail())) {
+                reporte.rechazar(registro, "El email ya está registrado");
+            } else {
+                nuevos.add(registro);
+            }
+        }
+        if (nuevos.isEmpty()) {
+            return;
+        }
+
+        // Fuera de la transacción: el hash es lo más lento y no necesita la conexión
+        List<String> hashes = poolHash.submit(() -> nuevos.parallelStream()
+                .map(registro -> passwordEncoder.encode(registro.dto().getPassword()))
+                .toList()).join();
+        List<Object[]> filas = new ArrayList<>(nuevos.size());
+        for (int i = 0; i < nuevos.size(); i++) {
+            CreateUsuarioDTO dto = nuevos.get(i).dto();
+            filas.add(new Object[] {ids.siguiente(), dto.getCedula(), dto.getNombre(),
+                    dto.getApellido(), dto.getEmail(), dto.getTelefono(), hashes.get(i)});
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // El INSERT por JDBC no pasa por FiltrosUnicidadListener
+                nuevos.forEach(registro -> registrarEnFiltros(registro.dto()));
+                jdbcTemplate.getJdbcTemplate().batchUpdate(SQL_INSERTAR, filas);
+            });
+            reporte.importados += nuevos.size();
+        } catch (DuplicateKeyException e) {
+            // Un alta concurrente ocupó alguna cédula o email después de la consulta: fila a fila
+            for (int i = 0; i < nuevos.size(); i++) {
+                Object[] fila = filas.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(
+                            status -> jdbcTemplate.getJdbcTemplate().update(SQL_INSERTAR, fila));
+                    reporte.importados++;
+                } catch (DuplicateKeyException duplicado) {
+                    reporte.rechazar(nuevos.get(i), "La cédula o el email ya están registrados");
+                }
+            }
+        }
+    }
+
+    private String validar(CreateUsuarioDTO dto) {
+        Set<ConstraintViolation<CreateUsuarioDTO>> violaciones = validator.validate(dto);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream().map(ConstraintViolation::getMessage).sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    // Sólo consulta los valores que el filtro no puede descartar
+    private Set<String> registrados(String sql, CampoUnico campo, List<Registro> candidatos,
+            Function<CreateUsuarioDTO, String> valor) {
+        List<String> posibles = candidatos.stream().map(registro -> valor.apply(registro.dto()))
+                .filter(v -> filtrosUnicidad.puedeExistir(campo, v)).toList();
+        if (posibles.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(
+                jdbcTemplate.queryForList(sql, Map.of("valores", posibles), String.class));
+    }
+
+    private void registrarEnFiltros(CreateUsuarioDTO dto) {
+        filtrosUnicidad.registrar(CampoUnico.CEDULA, dto.getCedula());
+        filtrosUnicidad.registrar(CampoUnico.EMAIL, dto.getEmail());
+    }
+
+    private LectorRegistros lectorCsv(BufferedReader lector) throws IOException {
+        String cabecera = lector.readLine();
+        if (cabecera == null) {
+            return () -> null;
+        }
+        List<String> nombres = dividirCsv(cabecera.strip());
+        Map<String, Integer> posiciones = new HashMap<>();
+        for (int i = 0; i < nombres.size(); i++) {
+            posiciones.put(nombres.get(i).strip(), i);
+        }
+        List<String> faltantes = COLUMNAS.stream().filter(c -> !posiciones.containsKey(c)).toList();
+        if (!faltantes.isEmpty()) {
+            throw new ArchivoImportacionInvalidoException(
+                    "Faltan columnas en la cabecera CSV: " + String.join(", ", faltantes));
+        }
+
+        long[] fila = {0};
+        return () -> {
+            String linea = siguienteLineaConDatos(lector);
+            if (linea == null) {
+                return null;
+            }
+            fila[0]++;
+            List<String> campos = dividirCsv(linea);
+            if (campos.size() != nombres.size()) {
+                return new Registro(fila[0], null, "Se esperaban " + nombres.size()
+                        + " columnas y hay " + campos.size());
+            }
+            CreateUsuarioDTO dto = CreateUsuarioDTO.builder()
+                    .cedula(campos.get(posiciones.get("cedula")))
+                    .nombre(campos.get(posiciones.get("nombre")))
+                    .apellido(campos.get(posiciones.get("apellido")))
+                    .email(campos.get(posiciones.get("email")))
+                    .telefono(campos.get(posiciones.get("telefono")))
+                    .password(campos.get(posiciones.get("password"))).build();
+            return new Registro(fila[0], dto, null);
+        };
+    }
+
+    private LectorRegistros lectorNdjson(BufferedReader lector) {
+        long[] fila = {0};
+        return () -> {
+            String linea = siguienteLineaConDatos(lector);
+            if (linea == null) {
+                return null;
+            }
+            fila[0]++;
+            try {
+                return new Registro(fila[0], objectMapper.readValue(linea, CreateUsuarioDTO.class),
+                        null);
+            } catch (JsonProcessingException e) {
+                return new Registro(fila[0], null, "JSON inválido: " + e.getOriginalMessage());
+            }
+        };
+    }
+
+    private static String siguienteLineaConDatos(BufferedReader lector) throws IOException {
+        String linea;
+        do {
+            linea = lector.readLine();
+        } while (linea != null && linea.isBlank());
+        return linea;
+    }
+
+    // Campos separados por comas; entre comillas pueden contener comas y "" representa una comilla
+    static List<String> dividirCsv(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    @FunctionalInterface
+    private interface LectorRegistros {
+        /**
+         * @return el siguiente registro, o null al terminar el archivo
+         */
+        Registro siguiente() throws IOException;
+    }
+
+    /**
+     * Registro leído del archivo: el DTO, o el motivo por el que no se pudo leer.
+     */
+    private record Registro(long fila, CreateUsuarioDTO dto, String error) {
+    }
+
+    // IDs tomados de usuarios_seq en bloques, como el optimizador pooled-lo de Hibernate
+    private final class IdsReservados {
+        private long siguiente;
+        private long finBloque;
+
+        long siguiente() {
+            if (siguiente == finBloque) {
+                siguiente = secuenciaUsuarios.reservarBloque();
+                finBloque = siguiente + secuenciaUsuarios.tamanoBloque();
+            }
+            return siguiente++;
+        }
+    }
+
+    private final class Reporte {
+        private final List<ErrorImportacionDTO> errores = new ArrayList<>();
+        private long total;
+        private long importados;
+        private long omitidos;
+
+        void rechazar(Registro registro, String mensaje) {
+            if (errores.size() < maxErrores) {
+                errores.add(ErrorImportacionDTO.builder().fila(registro.fila())
+                        .cedula(registro.dto() != null ? registro.dto().getCedula() : null)
+                        .mensaje(mensaje).build());
+            } else {
+                omitidos++;
+            }
+        }
+
+        ResultadoImportacionDTO resultado() {
+            return ResultadoImportacionDTO.builder().total(total).importados(importados)
+                    .rechazados(total - importados).errores(errores).erroresOmitidos(omitidos)
+                    .build();
+        }
+    }
+}
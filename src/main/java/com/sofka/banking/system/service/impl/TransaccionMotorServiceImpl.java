@@ -0,0 +1,65 @@
+package com.sofka.banking.system.service.impl;
+
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import com.sofka.banking.system.concurrency.MotorTransacciones;
+import com.sofka.banking.system.dto.request.CreateTransaccionDTO;
+import com.sofka.banking.system.dto.request.CreateTransferenciaDTO;
+import com.sofka.banking.system.dto.response.PaginaTransaccionesDTO;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.exception.transaccion.MontoInvalidoException;
+import com.sofka.banking.system.service.TransaccionService;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+
+/**
+ * {@link TransaccionService} sobre el {@link MotorTransacciones} activo con
+ * {@code banking.transacciones.motor=diario} ({@code MotorDiario}) o {@code fragmentado}
+ * ({@code MotorFragmentado}).
+ *
+ * Las escrituras responden en cuanto el motor las confirma; las lecturas esperan a que lo ya
+ * respondido sobre la cuenta esté en la base de datos y luego consultan igual que el motor JPA.
+ */
+@Service
+@Primary
+@AllArgsConstructor
+@ConditionalOnExpression("'${banking.transacciones.motor:jpa}' matches 'diario|fragmentado'")
+@Timed(value = "banking.servicio", histogram = true,
+        extraTags = {"servicio", "transacciones-motor"})
+public class TransaccionMotorServiceImpl implements TransaccionService {
+    private final MotorTransacciones motorTransacciones;
+    private final TransaccionServiceImpl transaccionServiceImpl;
+
+    @Override
+    public TransaccionDTO registrarTransaccion(CreateTransaccionDTO dto) {
+        return motorTransacciones.registrar(dto.getTipo(), dto.getCuentaBancariaId(), null,
+                dto.getMonto());
+    }
+
+    @Override
+    public TransaccionDTO realizarTransferencia(CreateTransferenciaDTO dto) {
+        if (dto.getCuentaOrigenId().equals(dto.getCuentaDestinoId())) {
+            throw new MontoInvalidoException("No se puede transferir a la misma cuenta");
+        }
+
+        return motorTransacciones.registrar(TipoTransaccion.TRANSFERENCIA,
+                dto.getCuentaOrigenId(), dto.getCuentaDestinoId(), dto.getMonto());
+    }
+
+    @Override
+    public List<TransaccionDTO> obtenerTransaccionesPorCuenta(Long cuentaBancariaId) {
+        motorTransacciones.esperarAplicados(cuentaBancariaId);
+        return transaccionServiceImpl.obtenerTransaccionesPorCuenta(cuentaBancariaId);
+    }
+
+    @Override
+    public PaginaTransaccionesDTO obtenerPaginaTransacciones(Long cuentaBancariaId,
+            String cursor, int limite) {
+        motorTransacciones.esperarAplicados(cuentaBancariaId);
+        return transaccionServiceImpl.obtenerPaginaTransacciones(cuentaBancariaId, cursor,
+                limite);
+    }
+}
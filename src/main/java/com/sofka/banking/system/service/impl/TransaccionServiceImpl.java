@@ -5,11 +5,14 @@ import java.time.LocalDateTime;
 import java.util.List;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.sofka.banking.system.cache.SaldoCache;
+import com.sofka.banking.system.concurrency.CuentaLockManager;
 import com.sofka.banking.system.dto.request.CreateTransaccionDTO;
 import com.sofka.banking.system.dto.request.CreateTransferenciaDTO;
+import com.sofka.banking.system.dto.response.PaginaTransaccionesDTO;
 import com.sofka.banking.system.dto.response.TransaccionDTO;
-import com.sofka.banking.system.entity.CuentaBancaria;
 import com.sofka.banking.system.entity.Transaccion;
+import com.sofka.banking.system.enums.DireccionTransaccion;
 import com.sofka.banking.system.enums.TipoTransaccion;
 import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
 import com.sofka.banking.system.exception.transaccion.MontoInvalidoException;
@@ -18,40 +21,44 @@ import com.sofka.banking.system.mapper.TransaccionMapper;
 import com.sofka.banking.system.repository.CuentaBancariaRepository;
 import com.sofka.banking.system.repository.TransaccionRepository;
 import com.sofka.banking.system.service.TransaccionService;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 
 @Service
 @AllArgsConstructor
+@Timed(value = "banking.servicio", histogram = true, extraTags = {"servicio", "transacciones"})
 public class TransaccionServiceImpl implements TransaccionService {
+    private static final int MAX_TRANSACCIONES_HISTORIAL = 1000;
+    private static final int MAX_TAMANO_PAGINA = 500;
+
     private final TransaccionRepository transaccionRepository;
     private final CuentaBancariaRepository cuentaBancariaRepository;
     private final TransaccionMapper transaccionMapper;
+    private final CuentaLockManager cuentaLockManager;
+    private final SaldoCache saldoCache;
 
     @Override
     @Transactional
     public TransaccionDTO registrarTransaccion(CreateTransaccionDTO dto) {
-        // buscar cuenta
-        CuentaBancaria cuenta = cuentaBancariaRepository.findById(dto.getCuentaBancariaId())
-                .orElseThrow(() -> new CuentaBancariaNotFoundException(dto.getCuentaBancariaId()));
+        return cuentaLockManager.ejecutarConBloqueo(() -> aplicarTransaccion(dto),
+                dto.getCuentaBancariaId());
+    }
 
+    private TransaccionDTO aplicarTransaccion(CreateTransaccionDTO dto) {
+        Long cuentaId = dto.getCuentaBancariaId();
         BigDecimal monto = dto.getMonto();
         TipoTransaccion tipo = dto.getTipo();
 
-        // validar saldo suficiente para retiros
-        if (tipo == TipoTransaccion.RETIRO && cuenta.getSaldoActual().compareTo(monto) < 0) {
-            throw new SaldoInsuficienteException(cuenta.getSaldoActual(), monto);
+        // actualizar saldo con un único UPDATE condicional (el retiro valida el saldo en BD)
+        if (tipo == TipoTransaccion.DEPOSITO) {
+            acreditar(cuentaId, monto);
+        } else {
+            debitar(cuentaId, monto);
         }
 
-        // actualizar saldo
-        BigDecimal nuevoSaldo =
-                tipo == TipoTransaccion.DEPOSITO ? cuenta.getSaldoActual().add(monto)
-                        : cuenta.getSaldoActual().subtract(monto);
-
-        cuenta.setSaldoActual(nuevoSaldo);
-        cuentaBancariaRepository.save(cuenta);
-
         // registrar transacción
-        Transaccion transaccion = Transaccion.builder().cuentaBancaria(cuenta).monto(monto)
+        Transaccion transaccion = Transaccion.builder()
+                .cuentaBancaria(cuentaBancariaRepository.getReferenceById(cuentaId)).monto(monto)
                 .tipo(tipo).fecha(LocalDateTime.now()).build();
 
         Transaccion guardada = transaccionRepository.save(transaccion);
@@ -67,44 +74,96 @@ public class TransaccionServiceImpl implements TransaccionService {
             throw new MontoInvalidoException("No se puede transferir a la misma cuenta");
         }
 
-        // Obtener cuenta origen
-        CuentaBancaria cuentaOrigen = cuentaBancariaRepository.findById(dto.getCuentaOrigenId())
-                .orElseThrow(() -> new CuentaBancariaNotFoundException(dto.getCuentaOrigenId()));
-
-        // Obtener cuenta destino
-        CuentaBancaria cuentaDestino = cuentaBancariaRepository.findById(dto.getCuentaDestinoId())
-                .orElseThrow(() -> new CuentaBancariaNotFoundException(dto.getCuentaDestinoId()));
+        return cuentaLockManager.ejecutarConBloqueo(() -> aplicarTransferencia(dto),
+                dto.getCuentaOrigenId(), dto.getCuentaDestinoId());
+    }
 
+    private TransaccionDTO aplicarTransferencia(CreateTransferenciaDTO dto) {
+        Long origenId = dto.getCuentaOrigenId();
+        Long destinoId = dto.getCuentaDestinoId();
         BigDecimal monto = dto.getMonto();
 
-        // Validar saldo suficiente en cuenta origen
-        if (cuentaOrigen.getSaldoActual().compareTo(monto) < 0) {
-            throw new SaldoInsuficienteException(cuentaOrigen.getSaldoActual(), monto);
+        // Las filas se actualizan siempre en orden ascendente de ID, así dos transferencias
+        // cruzadas entre nodos no pueden caer en deadlock. Si el débito falla después del
+        // crédito, la excepción revierte ambos cambios.
+        if (origenId < destinoId) {
+            debitar(origenId, monto);
+            acreditar(destinoId, monto);
+        } else {
+            acreditar(destinoId, monto);
+            debitar(origenId, monto);
         }
 
-        // Realizar la transferencia
-        // 1. Restar de cuenta origen
-        cuentaOrigen.setSaldoActual(cuentaOrigen.getSaldoActual().subtract(monto));
-        cuentaBancariaRepository.save(cuentaOrigen);
-
-        // 2. Sumar a cuenta destino
-        cuentaDestino.setSaldoActual(cuentaDestino.getSaldoActual().add(monto));
-        cuentaBancariaRepository.save(cuentaDestino);
-
-        // 3. Registrar transacción de transferencia
-        Transaccion transaccion = Transaccion.builder().cuentaBancaria(cuentaOrigen)
-                .cuentaDestino(cuentaDestino).monto(monto).tipo(TipoTransaccion.TRANSFERENCIA)
-                .fecha(LocalDateTime.now()).build();
+        // Registrar transacción de transferencia
+        Transaccion transaccion = Transaccion.builder()
+                .cuentaBancaria(cuentaBancariaRepository.getReferenceById(origenId))
+                .cuentaDestino(cuentaBancariaRepository.getReferenceById(destinoId)).monto(monto)
+                .tipo(TipoTransaccion.TRANSFERENCIA).fecha(LocalDateTime.now()).build();
 
         Transaccion guardada = transaccionRepository.save(transaccion);
 
         return transaccionMapper.toDTO(guardada);
     }
 
+    private void acreditar(Long cuentaId, BigDecimal monto) {
+        if (cuentaBancariaRepository.acreditarSaldo(cuentaId, monto) == 0) {
+            throw new CuentaBancariaNotFoundException(cuentaId);
+        }
+        saldoCache.actualizarTrasCommit(cuentaId);
+    }
+
+    private void debitar(Long cuentaId, BigDecimal monto) {
+        if (cuentaBancariaRepository.debitarSaldo(cuentaId, monto) == 0) {
+            // Sólo en el camino de error se consulta el saldo para distinguir la causa
+            BigDecimal saldoActual = cuentaBancariaRepository.findSaldoActualById(cuentaId)
+                    .orElseThrow(() -> new CuentaBancariaNotFoundException(cuentaId));
+            throw new SaldoInsuficienteException(saldoActual, monto);
+        }
+        saldoCache.actualizarTrasCommit(cuentaId);
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public List<TransaccionDTO> obtenerTransaccionesPorCuenta(Long cuentaBancariaId) {
-        List<Transaccion> transacciones =
-                transaccionRepository.findByCuentaBancariaId(cuentaBancariaId);
-        return transaccionMapper.toDTOList(transacciones);
+        // Acotado a las más recientes; para recorrer todo el historial usar la paginación
+        List<TransaccionDTO> transacciones = transaccionRepository.findPrimeraPagina(
+                cuentaBancariaId, MAX_TRANSACCIONES_HISTORIAL);
+        return conDireccion(transacciones, cuentaBancariaId);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaTransaccionesDTO obtenerPaginaTransacciones(Long cuentaBancariaId,
+            String cursor, int limite) {
+        int tamano = Math.max(1, Math.min(limite, MAX_TAMANO_PAGINA));
+        // Se pide un elemento extra para saber si existe una página siguiente
+        int filas = tamano + 1;
+
+        List<TransaccionDTO> transacciones;
+        if (cursor == null || cursor.isBlank()) {
+            transacciones = transaccionRepository.findPrimeraPagina(cuentaBancariaId, filas);
+        } else {
+            CursorTransacciones posicion = CursorTransacciones.decodificar(cursor);
+            transacciones = transaccionRepository.findPaginaSiguiente(cuentaBancariaId,
+                    posicion.fecha(), posicion.id(), filas);
+        }
+
+        String nextCursor = null;
+        if (transacciones.size() > tamano) {
+            transacciones = transacciones.subList(0, tamano);
+            TransaccionDTO ultima = transacciones.get(tamano - 1);
+            nextCursor = new CursorTransacciones(ultima.getFecha(), ultima.getId()).codificar();
+        }
+
+        return PaginaTransaccionesDTO.builder()
+                .transacciones(conDireccion(transacciones, cuentaBancariaId))
+                .nextCursor(nextCursor).build();
+    }
+
+    private List<TransaccionDTO> conDireccion(List<TransaccionDTO> transacciones, Long cuentaId) {
+        for (TransaccionDTO transaccion : transacciones) {
+            transaccion.setDireccion(DireccionTransaccion.respectoA(cuentaId, transaccion));
+        }
+        return transacciones;
     }
 }
@@ -0,0 +1,178 @@
+package com.sofka.banking.system.service.impl;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.sofka.banking.system.cache.SaldoCache;
+import com.sofka.banking.system.concurrency.CuentaLockManager;
+import com.sofka.banking.system.concurrency.SaldosPendientes;
+import com.sofka.banking.system.dto.request.CreateTransferenciaDTO;
+import com.sofka.banking.system.dto.response.ResultadoLoteTransferenciasDTO;
+import com.sofka.banking.system.dto.response.ResultadoTransferenciaDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Transaccion;
+import com.sofka.banking.system.enums.EstadoTransferencia;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
+import com.sofka.banking.system.exception.transaccion.SaldoInsuficienteException;
+import com.sofka.banking.system.mapper.TransaccionMapper;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.TransaccionRepository;
+import com.sofka.banking.system.service.TransferenciaLoteService;
+
+/**
+ * Aplica lotes de transferencias en bloques (chunks), cada uno en su propia transacción.
+ *
+ * Por bloque: una única consulta carga y bloquea todas las cuentas involucradas, los saldos se
+ * actualizan en memoria y al hacer commit Hibernate envía los UPDATE y los INSERT de
+ * transacciones en lotes JDBC. Una transferencia rechazada no afecta al resto del lote.
+ */
+@Service
+public class TransferenciaLoteServiceImpl implements TransferenciaLoteService {
+    private final CuentaBancariaRepository cuentaBancariaRepository;
+    private final TransaccionRepository transaccionRepository;
+    private final TransaccionMapper transaccionMapper;
+    private final CuentaLockManager cuentaLockManager;
+    private final SaldoCache saldoCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<SaldosPendientes> saldosPendientes;
+    private final int tamanoBloque;
+
+    public TransferenciaLoteServiceImpl(CuentaBancariaRepository cuentaBancariaRepository,
+            TransaccionRepository transaccionRepository, TransaccionMapper transaccionMapper,
+            CuentaLockManager cuentaLockManager, SaldoCache saldoCache,
+            TransactionTemplate transactionTemplate,
+            ObjectProvider<SaldosPendientes> saldosPendientes,
+            @Value("${banking.transferencias.lote.tamano-bloque:500}") int tamanoBloque) {
+        // Con 0 el bucle no avanzaría nunca y con un valor negativo fallaría en subList
+        if (tamanoBloque <= 0) {
+            throw new IllegalArgumentException(
+                    "El tamaño de bloque debe ser positivo: " + tamanoBloque);
+        }
+        this.cuentaBancariaRepository = cuentaBancariaRepository;
+        this.transaccionRepository = transaccionRepository;
+        this.transaccionMapper = transaccionMapper;
+        this.cuentaLockManager = cuentaLockManager;
+        this.saldoCache = saldoCache;
+        this.transactionTemplate = transactionTemplate;
+        this.saldosPendientes = saldosPendientes;
+        this.tamanoBloque = tamanoBloque;
+    }
+
+    @Override
+    public ResultadoLoteTransferenciasDTO realizarTransferencias(
+            List<CreateTransferenciaDTO> transferencias) {
+        List<ResultadoTransferenciaDTO> resultados = new ArrayList<>(transferencias.size());
+
+        for (int inicio = 0; inicio < transferencias.size(); inicio += tamanoBloque) {
+            List<CreateTransferenciaDTO> bloque = transferencias.subList(inicio,
+                    Math.min(transferencias.size(), inicio + tamanoBloque));
+            int desplazamiento = inicio;
+            resultados.addAll(
+                    transactionTemplate.execute(status -> procesarBloque(bloque, desplazamiento)));
+        }
+
+        int exitosas = (int) resultados.stream()
+                .filter(r -> r.getEstado() == EstadoTransferencia.EXITOSA).count();
+        return ResultadoLoteTransferenciasDTO.builder().total(resultados.size()).exitosas(exitosas)
+                .rechazadas(resultados.size() - exitosas).resultados(resultados).build();
+    }
+
+    private List<ResultadoTransferenciaDTO> procesarBloque(List<CreateTransferenciaDTO> bloque,
+            int desplazamiento) {
+        Set<Long> cuentaIds = new TreeSet<>();
+        for (CreateTransferenciaDTO dto : bloque) {
+            cuentaIds.add(dto.getCuentaOrigenId());
+            cuentaIds.add(dto.getCuentaDestinoId());
+        }
+
+        return cuentaLockManager.ejecutarConBloqueo(
+                () -> aplicarBloque(bloque, desplazamiento, cuentaIds),
+                cuentaIds.toArray(Long[]::new));
+    }
+
+    private List<ResultadoTransferenciaDTO> aplicarBloque(List<CreateTransferenciaDTO> bloque,
+            int desplazamiento, Set<Long> cuentaIds) {
+        // Con el motor de diario, los saldos leídos deben incluir todo lo ya confirmado
+        saldosPendientes.ifAvailable(
+                pendientes -> pendientes.esperarAplicados(cuentaIds.toArray(Long[]::new)));
+        Map<Long, CuentaBancaria> cuentas = cuentaBancariaRepository
+                .findAllByIdForUpdate(cuentaIds).stream()
+                .collect(Collectors.toMap(CuentaBancaria::getId, Function.identity()));
+
+        ResultadoTransferenciaDTO[] resultados = new ResultadoTransferenciaDTO[bloque.size()];
+        List<Transaccion> transacciones = new ArrayList<>();
+        List<Integer> posiciones = new ArrayList<>();
+        Set<Long> modificadas = new TreeSet<>();
+        LocalDateTime fecha = LocalDateTime.now();
+
+        for (int i = 0; i < bloque.size(); i++) {
+            CreateTransferenciaDTO dto = bloque.get(i);
+            String motivoRechazo = validar(dto, cuentas);
+            if (motivoRechazo != null) {
+                resultados[i] = ResultadoTransferenciaDTO.builder().indice(desplazamiento + i)
+                        .estado(EstadoTransferencia.RECHAZADA).mensaje(motivoRechazo).build();
+                continue;
+            }
+
+            CuentaBancaria cuentaOrigen = cuentas.get(dto.getCuentaOrigenId());
+            CuentaBancaria cuentaDestino = cuentas.get(dto.getCuentaDestinoId());
+            BigDecimal monto = dto.getMonto();
+            cuentaOrigen.setSaldoActual(cuentaOrigen.getSaldoActual().subtract(monto));
+            cuentaDestino.setSaldoActual(cuentaDestino.getSaldoActual().add(monto));
+            modificadas.add(cuentaOrigen.getId());
+            modificadas.add(cuentaDestino.getId());
+
+            transacciones.add(Transaccion.builder().cuentaBancaria(cuentaOrigen)
+                    .cuentaDestino(cuentaDestino).monto(monto).tipo(TipoTransaccion.TRANSFERENCIA)
+                    .fecha(fecha).build());
+            posiciones.add(i);
+        }
+
+        // Los INSERT se envían en lotes JDBC (IDs por secuencia, ver V6__add_id_sequences.sql)
+        List<Transaccion> guardadas = transaccionRepository.saveAll(transacciones);
+        if (!modificadas.isEmpty()) {
+            saldoCache.actualizarTrasCommit(modificadas.toArray(Long[]::new));
+        }
+        for (int j = 0; j < guardadas.size(); j++) {
+            int i = posiciones.get(j);
+            resultados[i] = ResultadoTransferenciaDTO.builder().indice(desplazamiento + i)
+                    .estado(EstadoTransferencia.EXITOSA)
+                    .transaccion(transaccionMapper.toDTO(guardadas.get(j))).build();
+        }
+
+        return List.of(resultados);
+    }
+
+    private String validar(CreateTransferenciaDTO dto, Map<Long, CuentaBancaria> cuentas) {
+        if (dto.getCuentaOrigenId().equals(dto.getCuentaDestinoId())) {
+            return "No se puede transferir a la misma cuenta";
+        }
+
+        CuentaBancaria cuentaOrigen = cuentas.get(dto.getCuentaOrigenId());
+        if (cuentaOrigen == null) {
+            return new CuentaBancariaNotFoundException(dto.getCuentaOrigenId()).getMessage();
+        }
+
+        if (!cuentas.containsKey(dto.getCuentaDestinoId())) {
+            return new CuentaBancariaNotFoundException(dto.getCuentaDestinoId()).getMessage();
+        }
+
+        if (cuentaOrigen.getSaldoActual().compareTo(dto.getMonto()) < 0) {
+            return new SaldoInsuficienteException(cuentaOrigen.getSaldoActual(), dto.getMonto())
+                    .getMessage();
+        }
+
+        return null;
+    }
+}
@@ -1,42 +1,106 @@
 package com.sofka.banking.system.service.impl;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.sofka.banking.system.cache.FiltrosUnicidad;
 import com.sofka.banking.system.dto.request.CreateUsuarioDTO;
 import com.sofka.banking.system.dto.request.UpdateUsuarioDTO;
+import com.sofka.banking.system.dto.response.PaginaUsuariosDTO;
 import com.sofka.banking.system.dto.response.UsuarioDTO;
 import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.CampoUnico;
 import com.sofka.banking.system.exception.usuario.CedulaAlreadyExistsException;
 import com.sofka.banking.system.exception.usuario.EmailAlreadyExistsException;
+import com.sofka.banking.system.exception.usuario.OrdenamientoInvalidoException;
 import com.sofka.banking.system.exception.usuario.UsuarioNotFoundException;
 import com.sofka.banking.system.mapper.UsuarioMapper;
 import com.sofka.banking.system.repository.UsuarioRepository;
+import com.sofka.banking.system.service.EliminacionCascadaService;
 import com.sofka.banking.system.service.UsuarioService;
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 
 @Service
 @AllArgsConstructor
+@Timed(value = "banking.servicio", histogram = true, extraTags = {"servicio", "usuarios"})
 public class UsuarioServiceImpl implements UsuarioService {
+    private static final int MAX_TAMANO_PAGINA = 100;
+    private static final Set<String> CAMPOS_ORDENABLES =
+            Set.of("id", "cedula", "nombre", "apellido", "email");
+
     private final UsuarioRepository usuarioRepository;
     private final UsuarioMapper usuarioMapper;
     private final PasswordEncoder passwordEncoder;
+    private final FiltrosUnicidad filtrosUnicidad;
+    private final EliminacionCascadaService eliminacionCascadaService;
 
     @Override
+    @Transactional(readOnly = true)
     public List<UsuarioDTO> obtenerTodosLosUsuarios() {
-        List<Usuario> usuarios = usuarioRepository.findAll();
+        List<Usuario> usuarios = usuarioRepository.findAllConCuentas();
         return usuarioMapper.toDTOList(usuarios);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaUsuariosDTO obtenerPaginaUsuarios(int pagina, int tamano, String orden) {
+        PageRequest pageRequest = PageRequest.of(Math.max(pagina, 0),
+                Math.min(Math.max(tamano, 1), MAX_TAMANO_PAGINA), ordenar(orden));
+
+        // 1) IDs de la página (+ COUNT), 2) esos usuarios con sus cuentas en un solo JOIN
+        Page<Long> ids = usuarioRepository.findPaginaIds(pageRequest);
+        List<Usuario> usuarios = List.of();
+        if (ids.hasContent()) {
+            Map<Long, Usuario> porId = usuarioRepository.findAllConCuentasByIdIn(ids.getContent())
+                    .stream().collect(Collectors.toMap(Usuario::getId, Function.identity()));
+            usuarios = ids.getContent().stream().map(porId::get).filter(Objects::nonNull)
+                    .toList();
+        }
+
+        return PaginaUsuariosDTO.builder().usuarios(usuarioMapper.toDTOList(usuarios))
+                .pagina(ids.getNumber()).tamano(ids.getSize())
+                .totalElementos(ids.getTotalElements()).totalPaginas(ids.getTotalPages())
+                .build();
+    }
+
+    // "campo" o "campo,asc|desc"; el ID se añade como desempate para que el orden sea estable
+    private Sort ordenar(String orden) {
+        String[] partes = orden.split(",");
+        String campo = partes[0].trim();
+        if (!CAMPOS_ORDENABLES.contains(campo) || partes.length > 2) {
+            throw new OrdenamientoInvalidoException(orden);
+        }
+
+        Sort.Direction direccion = Sort.Direction.ASC;
+        if (partes.length == 2) {
+            direccion = Sort.Direction.fromOptionalString(partes[1].trim())
+                    .orElseThrow(() -> new OrdenamientoInvalidoException(orden));
+        }
+
+        Sort sort = Sort.by(direccion, campo);
+        return campo.equals("id") ? sort : sort.and(Sort.by("id"));
+    }
+
     @Override
     public UsuarioDTO crearUsuario(CreateUsuarioDTO crearUsuarioDTO) {
 
-        if (usuarioRepository.existsByCedula(crearUsuarioDTO.getCedula())) {
+        if (filtrosUnicidad.existe(CampoUnico.CEDULA, crearUsuarioDTO.getCedula(),
+                usuarioRepository::existsByCedula)) {
             throw new CedulaAlreadyExistsException(crearUsuarioDTO.getCedula());
         }
 
-        if (usuarioRepository.existsByEmail(crearUsuarioDTO.getEmail())) {
+        if (filtrosUnicidad.existe(CampoUnico.EMAIL, crearUsuarioDTO.getEmail(),
+                usuarioRepository::existsByEmail)) {
             throw new EmailAlreadyExistsException(crearUsuarioDTO.getEmail());
         }
 
@@ -53,6 +117,7 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UsuarioDTO obtenerUsuarioPorId(Long id) {
         Usuario usuario =
                 usuarioRepository.findById(id).orElseThrow(() -> new UsuarioNotFoundException(id));
@@ -60,12 +125,20 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
 
     @Override
+    @Transactional
     public UsuarioDTO actualizarUsuario(Long id, UpdateUsuarioDTO datosActualizados) {
 
         Usuario usuario =
                 usuarioRepository.findById(id).orElseThrow(() -> new UsuarioNotFoundException(id));
 
+        String emailAnterior = usuario.getEmail();
         usuarioMapper.updateEntityFromDTO(usuario, datosActualizados);
+        // El email nuevo entra al filtro antes de guardarse; el anterior sale tras confirmarse
+        // (si el UPDATE falla, por ejemplo por un email repetido, el anterior sigue en el filtro)
+        if (!Objects.equals(emailAnterior, usuario.getEmail())) {
+            filtrosUnicidad.registrar(CampoUnico.EMAIL, usuario.getEmail());
+            filtrosUnicidad.eliminarTrasCommit(CampoUnico.EMAIL, emailAnterior);
+        }
 
         Usuario usuarioActualizado = usuarioRepository.save(usuario);
 
@@ -73,17 +146,9 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
 
     @Override
-    @Transactional
     public String eliminarUsuario(Long id) {
-        // Verificar que el usuario existe y obtenerlo con sus relaciones
-        Usuario usuario =
-                usuarioRepository.findById(id).orElseThrow(() -> new UsuarioNotFoundException(id));
-
-        // Debido a la configuración de cascada (CascadeType.ALL) en las relaciones,
-        // al eliminar el usuario, automáticamente se eliminarán:
-        // 1. Sus cuentas bancarias (OneToMany con cascade = ALL)
-        // 2. Las transacciones de esas cuentas (OneToMany en CuentaBancaria con cascade = ALL)
-        usuarioRepository.delete(usuario);
+        // Cuentas y transacciones se borran por bloques, sin cargarlas en memoria
+        eliminacionCascadaService.eliminarUsuario(id);
 
         return "Usuario eliminado exitosamente";
     }
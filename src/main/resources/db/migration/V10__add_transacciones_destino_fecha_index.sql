@@ -0,0 +1,8 @@
+-- Migración para consultar las transferencias recibidas por rango de fechas
+-- V10__add_transacciones_destino_fecha_index.sql
+
+-- El estado de cuenta agrega por periodo tanto lo que sale de la cuenta (índice de V7) como las
+-- transferencias que llegan a ella. Sin este índice las recibidas se buscan con el índice de la
+-- llave foránea y cada fila se filtra por fecha.
+CREATE INDEX IF NOT EXISTS idx_transacciones_destino_fecha
+    ON transacciones (cuenta_destino_id, fecha);
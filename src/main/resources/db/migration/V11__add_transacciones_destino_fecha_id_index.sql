@@ -0,0 +1,11 @@
+-- Migración para incluir las transferencias recibidas en el historial paginado
+-- V11__add_transacciones_destino_fecha_id_index.sql
+
+-- El historial une las transacciones que salen de la cuenta (índice de V7) con las
+-- transferencias que llegan a ella, ambas en orden (fecha DESC, id DESC) y desde el último
+-- (fecha, id) entregado. Este índice recorre las recibidas en ese mismo orden y reemplaza al de
+-- V10, cuyos rangos por fecha también cubre.
+CREATE INDEX IF NOT EXISTS idx_transacciones_destino_fecha_id
+    ON transacciones (cuenta_destino_id, fecha DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_transacciones_destino_fecha;
@@ -0,0 +1,23 @@
+-- Migración para generar los IDs con secuencias en lugar de IDENTITY
+-- V6__add_id_sequences.sql
+
+-- Con IDENTITY Hibernate necesita ejecutar cada INSERT por separado para conocer el ID
+-- generado, lo que desactiva el batching JDBC. Con secuencias reserva bloques de IDs
+-- (optimizador pooled-lo) y agrupa los INSERT en lotes.
+
+-- Cada secuencia arranca después del mayor ID existente para no colisionar con los datos
+-- previos. El incremento es el tamaño de bloque que reserva Hibernate en cada llamada y se
+-- configura con spring.flyway.placeholders.id_allocation_size.
+-- Las columnas siguen siendo AUTO_INCREMENT (GENERATED BY DEFAULT) y admiten IDs explícitos.
+
+CREATE SEQUENCE IF NOT EXISTS usuarios_seq
+    START WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM usuarios)
+    INCREMENT BY ${id_allocation_size};
+
+CREATE SEQUENCE IF NOT EXISTS cuentas_bancarias_seq
+    START WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM cuentas_bancarias)
+    INCREMENT BY ${id_allocation_size};
+
+CREATE SEQUENCE IF NOT EXISTS transacciones_seq
+    START WITH (SELECT COALESCE(MAX(id), 0) + 1 FROM transacciones)
+    INCREMENT BY ${id_allocation_size};
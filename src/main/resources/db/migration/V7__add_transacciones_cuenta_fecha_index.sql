@@ -0,0 +1,8 @@
+-- Migración para paginar el historial de transacciones por cursor (keyset)
+-- V7__add_transacciones_cuenta_fecha_index.sql
+
+-- El historial se recorre de la transacción más reciente a la más antigua filtrando por
+-- cuenta y continuando desde el último (fecha, id) entregado. Con este índice cada página
+-- es un recorrido acotado del índice, sin importar qué tan profunda sea.
+CREATE INDEX IF NOT EXISTS idx_transacciones_cuenta_fecha_id
+    ON transacciones (cuenta_bancaria_id, fecha DESC, id DESC);
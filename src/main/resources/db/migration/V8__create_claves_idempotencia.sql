@@ -0,0 +1,17 @@
+-- Migración para reintentos idempotentes de transacciones y transferencias
+-- V8__create_claves_idempotencia.sql
+
+-- Cada fila guarda la respuesta entregada para una clave Idempotency-Key. Un reintento se
+-- resuelve con una lectura por clave primaria, sin volver a ejecutar la operación.
+CREATE TABLE IF NOT EXISTS claves_idempotencia (
+    clave VARCHAR(100) PRIMARY KEY,
+    operacion VARCHAR(30) NOT NULL,
+    huella VARCHAR(64) NOT NULL,
+    respuesta VARCHAR(1000),
+    creada_en TIMESTAMP NOT NULL,
+    expira_en TIMESTAMP NOT NULL
+);
+
+-- El barrido de claves vencidas recorre este índice en lugar de toda la tabla
+CREATE INDEX IF NOT EXISTS idx_claves_idempotencia_expira_en
+    ON claves_idempotencia (expira_en);
@@ -0,0 +1,11 @@
+-- Migración para el motor de transacciones con diario (banking.transacciones.motor=diario)
+-- V9__create_diario_aplicado.sql
+
+-- Última secuencia del diario aplicada a cuentas_bancarias y transacciones. Se actualiza en la
+-- misma transacción que los saldos, así al arrancar se sabe qué registros del diario faltan.
+CREATE TABLE IF NOT EXISTS diario_aplicado (
+    id INT PRIMARY KEY,
+    secuencia BIGINT NOT NULL
+);
+
+INSERT INTO diario_aplicado (id, secuencia) VALUES (1, 0);
@@ -0,0 +1,64 @@
+package com.sofka.banking.system;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import com.sofka.banking.system.service.UsuarioService;
+
+/**
+ * Verifica que /actuator/prometheus publica los timers de servicio, los contadores de rechazos,
+ * las métricas de cada pool de conexiones y de Hibernate (incluida su caché de segundo nivel).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:metricas;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricasPrometheusTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Test
+    void prometheus_DeberiaExponerLasMetricasDeLosCaminosCriticos() throws Exception {
+        usuarioService.obtenerTodosLosUsuarios();
+        mockMvc.perform(post("/transacciones/transferencia").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"cuentaOrigenId\":1,\"cuentaDestinoId\":1,\"monto\":10.00}"))
+                .andExpect(status().isBadRequest());
+
+        String metricas = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+
+        assertAll("Métricas publicadas",
+                () -> assertTrue(metricas.contains("banking_servicio_seconds_bucket{"),
+                        "Timer con histograma de los servicios"),
+                () -> assertTrue(metricas.contains("servicio=\"usuarios\""),
+                        "Etiqueta del servicio instrumentado"),
+                () -> assertTrue(metricas.contains(
+                        "banking_transacciones_rechazadas_total{motivo=\"monto_invalido\"}"),
+                        "Contador de rechazos por monto inválido"),
+                () -> assertTrue(metricas.contains("hikaricp_connections_active"),
+                        "Métricas del pool de conexiones"),
+                () -> assertTrue(metricas.contains(
+                        "banking_datasource_conexiones_total{ruta=\"lectura\"}"),
+                        "Conexiones por ruta: la consulta de usuarios es de sólo lectura"),
+                () -> assertTrue(metricas.contains("pool=\"lectura\""),
+                        "Métricas propias del pool de lectura"),
+                () -> assertTrue(metricas.contains("hibernate_"),
+                        "Estadísticas de Hibernate"),
+                () -> assertTrue(metricas.contains("hibernate_cache_natural_id_requests"),
+                        "Aciertos y fallos de la caché de IDs naturales"));
+    }
+}
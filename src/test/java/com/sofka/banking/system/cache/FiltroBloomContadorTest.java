@@ -0,0 +1,77 @@
+package com.sofka.banking.system.cache;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class FiltroBloomContadorTest {
+
+    private static final int ELEMENTOS = 10_000;
+
+    @Test
+    void puedeContener_ConLosValoresAgregados_NuncaDeberiaDarFalsosNegativos() {
+        FiltroBloomContador filtro = FiltroBloomContador.dimensionar(ELEMENTOS, 0.01, 1 << 20);
+
+        IntStream.range(0, ELEMENTOS).forEach(i -> filtro.agregar("cedula-" + i));
+
+        assertTrue(IntStream.range(0, ELEMENTOS)
+                .allMatch(i -> filtro.puedeContener("cedula-" + i)));
+    }
+
+    @Test
+    void puedeContener_ConValoresNuevos_DeberiaRespetarLaTasaDeFalsosPositivos() {
+        FiltroBloomContador filtro = FiltroBloomContador.dimensionar(ELEMENTOS, 0.01, 1 << 20);
+        IntStream.range(0, ELEMENTOS).forEach(i -> filtro.agregar("cedula-" + i));
+
+        long falsosPositivos = IntStream.range(0, 100_000)
+                .filter(i -> filtro.puedeContener("nueva-" + i)).count();
+
+        assertAll("Tasa de falsos positivos",
+                () -> assertTrue(falsosPositivos < 2_000, "Falsos positivos: " + falsosPositivos),
+                () -> assertTrue(filtro.tasaFalsosPositivosEstimada() < 0.02),
+                () -> assertTrue(filtro.tasaFalsosPositivosDiseno(ELEMENTOS) < 0.02));
+    }
+
+    @Test
+    void eliminar_DeberiaQuitarElValorSinAfectarALosDemas() {
+        FiltroBloomContador filtro = FiltroBloomContador.dimensionar(ELEMENTOS, 0.01, 1 << 20);
+        IntStream.range(0, ELEMENTOS).forEach(i -> filtro.agregar("cuenta-" + i));
+
+        IntStream.range(0, ELEMENTOS / 2).forEach(i -> filtro.eliminar("cuenta-" + i));
+
+        long eliminadosPresentes = IntStream.range(0, ELEMENTOS / 2)
+                .filter(i -> filtro.puedeContener("cuenta-" + i)).count();
+        assertAll("Eliminación",
+                () -> assertTrue(IntStream.range(ELEMENTOS / 2, ELEMENTOS)
+                        .allMatch(i -> filtro.puedeContener("cuenta-" + i))),
+                () -> assertTrue(eliminadosPresentes < 200,
+                        "Eliminados que siguen apareciendo: " + eliminadosPresentes));
+    }
+
+    @Test
+    void eliminar_ConContadorSaturado_DeberiaConservarElValor() {
+        FiltroBloomContador filtro = new FiltroBloomContador(16, 1);
+        for (int i = 0; i < 20; i++) {
+            filtro.agregar("repetido");
+        }
+
+        for (int i = 0; i < 20; i++) {
+            filtro.eliminar("repetido");
+        }
+
+        assertTrue(filtro.puedeContener("repetido"));
+    }
+
+    @Test
+    void dimensionar_ConMemoriaInsuficiente_DeberiaLimitarseALaMemoriaMaxima() {
+        FiltroBloomContador filtro = FiltroBloomContador.dimensionar(1_000_000, 0.001, 64 * 1024);
+
+        assertAll("Tamaño acotado",
+                () -> assertEquals(64 * 1024, filtro.memoriaBytes()),
+                () -> assertEquals(128 * 1024, filtro.contadores()),
+                () -> assertFalse(filtro.tasaFalsosPositivosDiseno(1_000_000) < 0.001));
+    }
+}
@@ -0,0 +1,106 @@
+package com.sofka.banking.system.cache;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import com.sofka.banking.system.enums.CampoUnico;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FiltrosUnicidadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger consultas = new AtomicInteger();
+
+    private FiltrosUnicidad filtrosUnicidad;
+
+    @BeforeEach
+    void setUp() {
+        filtrosUnicidad = new FiltrosUnicidad(1_000, 0.01, DataSize.ofKilobytes(4), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void existe_SinCargar_DeberiaConsultarSiempreLaBaseDeDatos() {
+        assertFalse(filtrosUnicidad.existe(CampoUnico.CEDULA, "12345678", this::noExiste));
+
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    void existe_ConValorDescartado_NoDeberiaConsultarLaBaseDeDatos() {
+        filtrosUnicidad.cargar(CampoUnico.CEDULA, Stream.of("11111111", "22222222"));
+
+        boolean existente = filtrosUnicidad.existe(CampoUnico.CEDULA, "11111111", valor -> {
+            consultas.incrementAndGet();
+            return true;
+        });
+        boolean nueva = filtrosUnicidad.existe(CampoUnico.CEDULA, "33333333", this::noExiste);
+
+        assertAll("Sólo los posibles duplicados llegan a la base de datos",
+                () -> assertTrue(existente),
+                () -> assertFalse(nueva),
+                () -> assertEquals(1, consultas.get()),
+                () -> assertEquals(1, contador("cedula", "descartada")),
+                () -> assertEquals(1, contador("cedula", "existente")));
+    }
+
+    @Test
+    void eliminarTrasCommit_DeberiaQuitarElValorSoloAlConfirmarse() {
+        filtrosUnicidad.cargar(CampoUnico.NUMERO_CUENTA, Stream.empty());
+        filtrosUnicidad.registrar(CampoUnico.NUMERO_CUENTA, "0000000001");
+
+        TransactionSynchronizationManager.initSynchronization();
+        filtrosUnicidad.eliminarTrasCommit(CampoUnico.NUMERO_CUENTA, "0000000001");
+
+        // Antes del commit el valor sigue contando como posible duplicado
+        filtrosUnicidad.existe(CampoUnico.NUMERO_CUENTA, "0000000001", this::noExiste);
+        assertEquals(1, consultas.get());
+
+        List<TransactionSynchronization> sincronizaciones =
+                TransactionSynchronizationManager.getSynchronizations();
+        sincronizaciones.forEach(TransactionSynchronization::afterCommit);
+
+        filtrosUnicidad.existe(CampoUnico.NUMERO_CUENTA, "0000000001", this::noExiste);
+        assertEquals(1, consultas.get());
+    }
+
+    @Test
+    void eliminarTrasCommit_AntesDeCargar_DeberiaIgnorarse() {
+        filtrosUnicidad.registrar(CampoUnico.EMAIL, "juan@email.com");
+        filtrosUnicidad.eliminarTrasCommit(CampoUnico.EMAIL, "juan@email.com");
+
+        // La carga vuelve a leer el valor: no puede quedar por debajo de lo que hay en la tabla
+        filtrosUnicidad.cargar(CampoUnico.EMAIL, Stream.of("juan@email.com"));
+
+        filtrosUnicidad.existe(CampoUnico.EMAIL, "juan@email.com", this::noExiste);
+        assertAll("Sin falsos negativos",
+                () -> assertEquals(1, consultas.get()),
+                () -> assertEquals(1, contador("email", "falso_positivo")));
+    }
+
+    private boolean noExiste(String valor) {
+        consultas.incrementAndGet();
+        return false;
+    }
+
+    private double contador(String campo, String resultado) {
+        return meterRegistry.get("banking.unicidad.consultas").tag("campo", campo)
+                .tag("resultado", resultado).counter().count();
+    }
+}
@@ -0,0 +1,151 @@
+package com.sofka.banking.system.cache;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sofka.banking.system.dto.response.CuentaBancariaDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+@ExtendWith(MockitoExtension.class)
+class SaldoCacheTest {
+
+    @Mock
+    private CuentaBancariaRepository cuentaBancariaRepository;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private Cache segundoNivel;
+
+    private SaldoCache saldoCache;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.getCache()).thenReturn(segundoNivel);
+        saldoCache = new SaldoCache(cuentaBancariaRepository, entityManagerFactory, 100,
+                Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void obtener_DosVeces_DeberiaConsultarLaBaseDeDatosUnaSolaVez() {
+        when(cuentaBancariaRepository.findResumenById(1L))
+                .thenReturn(Optional.of(cuenta("1000.00")));
+
+        saldoCache.obtener(1L);
+        CuentaBancariaDTO resultado = saldoCache.obtener(1L);
+
+        CacheStats estadisticas = saldoCache.estadisticas();
+        assertAll("Lectura desde la caché",
+                () -> assertEquals(new BigDecimal("1000.00"), resultado.getSaldoActual()),
+                () -> assertEquals(1, estadisticas.hitCount()),
+                () -> assertEquals(1, estadisticas.missCount()));
+        verify(cuentaBancariaRepository, times(1)).findResumenById(1L);
+    }
+
+    @Test
+    void obtener_ConCuentaInexistente_DeberiaLanzarExcepcionSinCachear() {
+        when(cuentaBancariaRepository.findResumenById(999L)).thenReturn(Optional.empty());
+
+        assertThrows(CuentaBancariaNotFoundException.class, () -> saldoCache.obtener(999L));
+        assertThrows(CuentaBancariaNotFoundException.class, () -> saldoCache.obtener(999L));
+
+        assertEquals(0, saldoCache.tamano());
+        verify(cuentaBancariaRepository, times(2)).findResumenById(999L);
+    }
+
+    @Test
+    void actualizarTrasCommit_ConCuentaEnCache_DeberiaPublicarElNuevoSaldoAlConfirmar() {
+        when(cuentaBancariaRepository.findResumenById(1L))
+                .thenReturn(Optional.of(cuenta("1000.00")));
+        saldoCache.obtener(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        saldoCache.actualizarTrasCommit(1L);
+        TransactionSynchronization sincronizacion = unicaSincronizacion();
+
+        // Antes del commit la caché sigue sirviendo el último valor confirmado
+        assertEquals(new BigDecimal("1000.00"), saldoCache.obtener(1L).getSaldoActual());
+
+        when(cuentaBancariaRepository.findResumenById(1L))
+                .thenReturn(Optional.of(cuenta("700.00")));
+        sincronizacion.beforeCommit(false);
+
+        // Con la escritura en curso las lecturas van a la base de datos
+        assertEquals(new BigDecimal("700.00"), saldoCache.obtener(1L).getSaldoActual());
+
+        sincronizacion.afterCommit();
+        sincronizacion.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(new BigDecimal("700.00"), saldoCache.obtener(1L).getSaldoActual());
+        verify(segundoNivel).evict(CuentaBancaria.class, 1L);
+        // carga inicial + relectura antes del commit + lectura con escritura en curso
+        verify(cuentaBancariaRepository, times(3)).findResumenById(1L);
+    }
+
+    @Test
+    void actualizarTrasCommit_ConRollback_DeberiaDejarLaCuentaFueraDeLaCache() {
+        when(cuentaBancariaRepository.findResumenById(1L))
+                .thenReturn(Optional.of(cuenta("1000.00")));
+        saldoCache.obtener(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        saldoCache.actualizarTrasCommit(1L);
+        TransactionSynchronization sincronizacion = unicaSincronizacion();
+        sincronizacion.beforeCommit(false);
+        sincronizacion.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals(0, saldoCache.tamano());
+    }
+
+    @Test
+    void invalidarTrasCommit_SinTransaccion_DeberiaInvalidarInmediatamente() {
+        when(cuentaBancariaRepository.findResumenById(1L))
+                .thenReturn(Optional.of(cuenta("1000.00")));
+        saldoCache.obtener(1L);
+
+        saldoCache.invalidarTrasCommit(1L);
+
+        assertEquals(0, saldoCache.tamano());
+        verify(segundoNivel).evict(CuentaBancaria.class, 1L);
+    }
+
+    private TransactionSynchronization unicaSincronizacion() {
+        List<TransactionSynchronization> sincronizaciones =
+                TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, sincronizaciones.size());
+        return sincronizaciones.get(0);
+    }
+
+    private CuentaBancariaDTO cuenta(String saldo) {
+        return CuentaBancariaDTO.builder().id(1L).numeroCuenta("1234567890")
+                .saldoActual(new BigDecimal(saldo)).build();
+    }
+}
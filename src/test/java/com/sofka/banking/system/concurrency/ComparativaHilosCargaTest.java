@@ -0,0 +1,176 @@
+package com.sofka.banking.system.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import com.sofka.banking.system.Application;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+
+/**
+ * Escenario de carga que compara el modo por defecto (pool de 200 hilos de plataforma de
+ * Tomcat) con el perfil {@code virtual-threads}.
+ *
+ * Levanta la aplicación completa en un puerto aleatorio para cada modo, lanza muchos clientes
+ * concurrentes contra {@code POST /transacciones} y {@code GET /cuentas/{id}/saldo} (con la caché
+ * de saldos desactivada para que cada lectura llegue a H2) e imprime peticiones/s y p99. Se
+ * ejecuta con {@code ./gradlew pruebaCarga}.
+ */
+@Tag("carga")
+class ComparativaHilosCargaTest {
+
+    private static final int CLIENTES = 1_000;
+    private static final int PETICIONES_POR_CLIENTE = 20;
+    private static final int NUMERO_CUENTAS = 64;
+
+    @Test
+    void compararHilosDePlataformaYVirtuales() throws Exception {
+        List<Resultado> resultados = new ArrayList<>();
+        resultados.addAll(ejecutarModo("plataforma", false));
+        resultados.addAll(ejecutarModo("virtual", true));
+
+        resultados.forEach(r -> System.out.printf(
+                "[carga] modo=%s endpoint=%s peticiones/s=%.0f p50=%.1fms p99=%.1fms errores=%d%n",
+                r.modo(), r.endpoint(), r.porSegundo(), r.p50Ms(), r.p99Ms(), r.errores()));
+
+        assertAll("Todas las peticiones deben responder correctamente",
+                resultados.stream().<Executable>map(r -> () -> assertEquals(0, r.errores(),
+                        r.modo() + " " + r.endpoint() + ": " + r.primerError())));
+    }
+
+    private List<Resultado> ejecutarModo(String modo, boolean hilosVirtuales) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Application.class)
+                .properties("spring.datasource.url=jdbc:h2:mem:carga-" + modo
+                        + ";DB_CLOSE_DELAY=-1", "spring.jpa.show-sql=false", "server.port=0",
+                        "banking.cache.saldos.tamano-maximo=0", "logging.level.root=WARN");
+        if (hilosVirtuales) {
+            builder.profiles("virtual-threads");
+        }
+
+        try (ConfigurableApplicationContext contexto = builder.run()) {
+            int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+            List<Long> cuentaIds = crearCuentas(contexto);
+            String base = "http://localhost:" + puerto;
+
+            return List.of(
+                    medir(modo, "POST /transacciones", i -> HttpRequest
+                            .newBuilder(URI.create(base + "/transacciones"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(String.format(
+                                    "{\"cuentaBancariaId\":%d,\"monto\":1.00,\"tipo\":\"DEPOSITO\"}",
+                                    cuentaIds.get(i % NUMERO_CUENTAS))))
+                            .build()),
+                    medir(modo, "GET /cuentas/{id}/saldo", i -> HttpRequest
+                            .newBuilder(URI.create(base + "/cuentas/"
+                                    + cuentaIds.get(i % NUMERO_CUENTAS) + "/saldo"))
+                            .GET().build()));
+        }
+    }
+
+    private List<Long> crearCuentas(ConfigurableApplicationContext contexto) {
+        UsuarioRepository usuarioRepository = contexto.getBean(UsuarioRepository.class);
+        CuentaBancariaRepository cuentaBancariaRepository =
+                contexto.getBean(CuentaBancariaRepository.class);
+
+        Usuario usuario = usuarioRepository.save(Usuario.builder().cedula("20000000")
+                .nombre("Carga").apellido("Hilos").email("hilos@email.com")
+                .telefono("3000000000").password("sin-uso").build());
+
+        List<Long> cuentaIds = new ArrayList<>();
+        for (int i = 0; i < NUMERO_CUENTAS; i++) {
+            cuentaIds.add(cuentaBancariaRepository.save(CuentaBancaria.builder()
+                    .numeroCuenta(String.format("%010d", i)).saldoActual(BigDecimal.ZERO)
+                    .usuario(usuario).build()).getId());
+        }
+        return cuentaIds;
+    }
+
+    private Resultado medir(String modo, String endpoint, IntFunction<HttpRequest> peticion)
+            throws InterruptedException {
+        long[] latencias = new long[CLIENTES * PETICIONES_POR_CLIENTE];
+        AtomicLong siguiente = new AtomicLong();
+        AtomicLong errores = new AtomicLong();
+        ConcurrentLinkedQueue<String> mensajes = new ConcurrentLinkedQueue<>();
+        CountDownLatch inicio = new CountDownLatch(1);
+
+        // Los clientes usan hilos virtuales para que el cuello de botella sea siempre el servidor
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor();
+                HttpClient http = HttpClient.newBuilder().executor(clientes)
+                        .connectTimeout(Duration.ofSeconds(10)).build()) {
+            for (int c = 0; c < CLIENTES; c++) {
+                clientes.execute(() -> {
+                    try {
+                        inicio.await();
+                        for (int i = 0; i < PETICIONES_POR_CLIENTE; i++) {
+                            int n = (int) siguiente.getAndIncrement();
+                            HttpRequest request = peticion
+                                    .apply(ThreadLocalRandom.current().nextInt(NUMERO_CUENTAS));
+                            long t0 = System.nanoTime();
+                            HttpResponse<Void> respuesta =
+                                    http.send(request, HttpResponse.BodyHandlers.discarding());
+                            latencias[n] = System.nanoTime() - t0;
+                            if (respuesta.statusCode() >= 400) {
+                                errores.incrementAndGet();
+                                mensajes.add("HTTP " + respuesta.statusCode());
+                            }
+                        }
+                    } catch (Exception e) {
+                        errores.incrementAndGet();
+                        mensajes.add(e.toString());
+                    }
+                });
+            }
+
+            long inicioNanos = System.nanoTime();
+            inicio.countDown();
+            clientes.shutdown();
+            assertTrue(clientes.awaitTermination(10, TimeUnit.MINUTES),
+                    "El escenario no terminó a tiempo");
+            double segundos = (System.nanoTime() - inicioNanos) / 1e9;
+
+            long[] medidas = Arrays.copyOf(latencias, (int) Math.min(siguiente.get(),
+                    latencias.length));
+            Arrays.sort(medidas);
+            return new Resultado(modo, endpoint, medidas.length / segundos,
+                    percentilMs(medidas, 0.50), percentilMs(medidas, 0.99), errores.get(),
+                    mensajes.peek());
+        }
+    }
+
+    private static double percentilMs(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1e6;
+    }
+
+    private record Resultado(String modo, String endpoint, double porSegundo, double p50Ms,
+            double p99Ms, long errores, String primerError) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.sofka.banking.system.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class CuentaLockManagerTest {
+
+    private final CuentaLockManager cuentaLockManager = new CuentaLockManager(16);
+
+    @Test
+    void constructor_DeberiaRedondearFranjasAPotenciaDeDos() {
+        assertEquals(16, cuentaLockManager.getNumeroFranjas());
+        assertEquals(128, new CuentaLockManager(100).getNumeroFranjas());
+    }
+
+    @Test
+    void ejecutarConBloqueo_ConIdsRepetidos_DeberiaEjecutarSinBloquearse() {
+        String resultado = assertTimeoutPreemptively(Duration.ofSeconds(2),
+                () -> {
+                    return cuentaLockManager.ejecutarConBloqueo(() -> "ok", 1L, 1L, 17L);
+                });
+
+        assertEquals("ok", resultado);
+    }
+
+    @Test
+    void ejecutarConBloqueo_ConExcepcion_DeberiaLiberarLosBloqueos() throws Exception {
+        assertThrows(IllegalStateException.class,
+                () -> cuentaLockManager.ejecutarConBloqueo(() -> {
+                    throw new IllegalStateException("fallo");
+                }, 1L, 2L));
+
+        // Otro hilo debe poder adquirir las mismas cuentas
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> futuro = executor
+                    .submit(() -> cuentaLockManager.ejecutarConBloqueo(() -> "ok", 2L, 1L));
+            assertEquals("ok", futuro.get(2, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void ejecutarConBloqueo_TransferenciasCruzadas_NoDeberianProducirDeadlock() {
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            int iteraciones = 10_000;
+            CountDownLatch inicio = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(2);
+            try {
+                Future<?> aHaciaB = executor.submit(() -> transferirEnBucle(inicio, iteraciones,
+                        3L, 7L));
+                Future<?> bHaciaA = executor.submit(() -> transferirEnBucle(inicio, iteraciones,
+                        7L, 3L));
+                inicio.countDown();
+                aHaciaB.get();
+                bHaciaA.get();
+            } finally {
+                executor.shutdownNow();
+            }
+        });
+    }
+
+    private Void transferirEnBucle(CountDownLatch inicio, int iteraciones, Long origen,
+            Long destino) throws InterruptedException {
+        inicio.await();
+        for (int i = 0; i < iteraciones; i++) {
+            cuentaLockManager.ejecutarConBloqueo(() -> null, origen, destino);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+package com.sofka.banking.system.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import com.sofka.banking.system.exception.autenticacion.AutenticacionSaturadaException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordEncoderAcotadoTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch liberar = new CountDownLatch(1);
+    private final CountDownLatch ocupado = new CountDownLatch(1);
+    private final ExecutorService clientes = Executors.newCachedThreadPool();
+
+    private PasswordEncoderAcotado passwordEncoder;
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        clientes.shutdownNow();
+        passwordEncoder.close();
+    }
+
+    @Test
+    void matches_DeberiaDelegarEnElEncoderConfigurado() {
+        passwordEncoder = new PasswordEncoderAcotado(new EncoderPrueba(), 1, 1,
+                Duration.ofSeconds(2), meterRegistry);
+
+        assertEquals("{prueba}secreta", passwordEncoder.encode("secreta"));
+        assertTrue(passwordEncoder.matches("secreta", "{prueba}secreta"));
+        assertFalse(passwordEncoder.matches("otra", "{prueba}secreta"));
+        assertEquals(3, meterRegistry.get("banking.password.espera").timer().count());
+    }
+
+    @Test
+    void matches_ConColaLlena_DeberiaRechazarSinEsperar() throws Exception {
+        passwordEncoder = new PasswordEncoderAcotado(new EncoderBloqueante(), 1, 1,
+                Duration.ofSeconds(30), meterRegistry);
+
+        // Un hilo ocupado y un lugar de la cola ocupado
+        clientes.submit(() -> passwordEncoder.matches("a", "a"));
+        assertTrue(ocupado.await(2, TimeUnit.SECONDS));
+        clientes.submit(() -> passwordEncoder.matches("b", "b"));
+        esperarCola(1);
+
+        long inicio = System.nanoTime();
+        AutenticacionSaturadaException exception = assertThrows(
+                AutenticacionSaturadaException.class, () -> passwordEncoder.matches("c", "c"));
+
+        assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(1),
+                "El rechazo debe ser inmediato");
+        assertEquals(30, exception.getReintentarEnSegundos());
+        assertEquals(1, meterRegistry.get("banking.password.rechazos").counter().count());
+    }
+
+    @Test
+    void matches_ConEsperaExcedida_DeberiaRechazarYLiberarLaCola() throws Exception {
+        passwordEncoder = new PasswordEncoderAcotado(new EncoderBloqueante(), 1, 1,
+                Duration.ofMillis(200), meterRegistry);
+
+        clientes.submit(() -> passwordEncoder.matches("a", "a"));
+        assertTrue(ocupado.await(2, TimeUnit.SECONDS));
+
+        assertThrows(AutenticacionSaturadaException.class,
+                () -> passwordEncoder.matches("b", "b"));
+        assertEquals(0.0, meterRegistry.get("banking.password.cola").gauge().value());
+    }
+
+    private void esperarCola(int tamano) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (meterRegistry.get("banking.password.cola").gauge().value() < tamano
+                && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static class EncoderPrueba implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "{prueba}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    private class EncoderBloqueante extends EncoderPrueba {
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            ocupado.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+    }
+}
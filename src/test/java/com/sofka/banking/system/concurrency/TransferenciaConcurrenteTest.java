@@ -0,0 +1,167 @@
+package com.sofka.banking.system.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.sofka.banking.system.dto.request.CreateTransferenciaDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.exception.transaccion.SaldoInsuficienteException;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.TransaccionRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+import com.sofka.banking.system.service.TransaccionService;
+
+/**
+ * Prueba de carga multihilo sobre {@link TransaccionService#realizarTransferencia}.
+ *
+ * Ejecuta rondas con 1, 2, 4... hilos (hasta el número de núcleos), imprime transferencias/s
+ * de cada ronda y comprueba que el dinero total se conserva y que ningún saldo queda negativo.
+ * Se ejecuta con {@code ./gradlew pruebaCarga}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transferencias-concurrentes;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=32", "spring.jpa.show-sql=false"})
+@Tag("carga")
+class TransferenciaConcurrenteTest {
+
+    private static final int NUMERO_CUENTAS = 64;
+    private static final int TRANSFERENCIAS_POR_RONDA = 2_000;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("10000.00");
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private CuentaBancariaRepository cuentaBancariaRepository;
+
+    @Autowired
+    private TransaccionRepository transaccionRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    private List<Long> cuentaIds;
+
+    @BeforeEach
+    void setUp() {
+        transaccionRepository.deleteAllInBatch();
+        cuentaBancariaRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+
+        Usuario usuario = usuarioRepository.save(Usuario.builder().cedula("12345678")
+                .nombre("Carga").apellido("Concurrente").email("carga@email.com")
+                .telefono("3001234567").password("sin-uso").build());
+
+        cuentaIds = new ArrayList<>();
+        for (int i = 0; i < NUMERO_CUENTAS; i++) {
+            CuentaBancaria cuenta = cuentaBancariaRepository
+                    .save(CuentaBancaria.builder().numeroCuenta(String.format("%010d", i))
+                            .saldoActual(SALDO_INICIAL).usuario(usuario).build());
+            cuentaIds.add(cuenta.getId());
+        }
+    }
+
+    @Test
+    void realizarTransferencia_ConcurrenteEnVariosHilos_DeberiaConservarElSaldoTotal()
+            throws Exception {
+        BigDecimal saldoTotalInicial = saldoTotal();
+        int maxHilos = Math.max(2, Runtime.getRuntime().availableProcessors());
+        long exitosasTotales = 0;
+        List<Throwable> errores = new ArrayList<>();
+
+        for (int hilos = 1; hilos <= maxHilos; hilos *= 2) {
+            ResultadoRonda resultado = ejecutarRonda(hilos);
+            exitosasTotales += resultado.exitosas();
+            errores.addAll(resultado.errores());
+
+            System.out.printf("[transferencias] hilos=%d transferencias/s=%.0f exitosas=%d "
+                    + "rechazadas=%d%n", hilos, resultado.porSegundo(), resultado.exitosas(),
+                    resultado.rechazadas());
+        }
+
+        long transaccionesRegistradas = transaccionRepository.count();
+        BigDecimal saldoTotalFinal = saldoTotal();
+        boolean sinSaldosNegativos = cuentaBancariaRepository.findAll().stream()
+                .allMatch(c -> c.getSaldoActual().signum() >= 0);
+        long exitosas = exitosasTotales;
+
+        assertAll("Conservación del saldo bajo concurrencia",
+                () -> assertTrue(errores.isEmpty(), "Errores inesperados: " + errores),
+                () -> assertEquals(0, saldoTotalInicial.compareTo(saldoTotalFinal),
+                        "El saldo total debe conservarse"),
+                () -> assertEquals(exitosas, transaccionesRegistradas,
+                        "Cada transferencia exitosa debe quedar registrada"),
+                () -> assertTrue(sinSaldosNegativos, "Ningún saldo puede quedar negativo"));
+    }
+
+    private ResultadoRonda ejecutarRonda(int hilos) throws InterruptedException {
+        AtomicLong exitosas = new AtomicLong();
+        AtomicLong rechazadas = new AtomicLong();
+        ConcurrentLinkedQueue<Throwable> errores = new ConcurrentLinkedQueue<>();
+        CountDownLatch inicio = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+
+        for (int h = 0; h < hilos; h++) {
+            int cuota = TRANSFERENCIAS_POR_RONDA / hilos;
+            executor.execute(() -> {
+                try {
+                    inicio.await();
+                    for (int i = 0; i < cuota; i++) {
+                        try {
+                            transaccionService.realizarTransferencia(transferenciaAleatoria());
+                            exitosas.incrementAndGet();
+                        } catch (SaldoInsuficienteException e) {
+                            rechazadas.incrementAndGet();
+                        }
+                    }
+                } catch (Throwable t) {
+                    errores.add(t);
+                }
+            });
+        }
+
+        long inicioNanos = System.nanoTime();
+        inicio.countDown();
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.MINUTES);
+        double segundos = (System.nanoTime() - inicioNanos) / 1e9;
+
+        long total = exitosas.get() + rechazadas.get();
+        return new ResultadoRonda(exitosas.get(), rechazadas.get(), total / segundos,
+                new ArrayList<>(errores));
+    }
+
+    private CreateTransferenciaDTO transferenciaAleatoria() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int origen = random.nextInt(NUMERO_CUENTAS);
+        int destino = (origen + 1 + random.nextInt(NUMERO_CUENTAS - 1)) % NUMERO_CUENTAS;
+        return CreateTransferenciaDTO.builder().cuentaOrigenId(cuentaIds.get(origen))
+                .cuentaDestinoId(cuentaIds.get(destino))
+                .monto(BigDecimal.valueOf(random.nextInt(1, 50_000), 2)).build();
+    }
+
+    private BigDecimal saldoTotal() {
+        return cuentaBancariaRepository.findAll().stream().map(CuentaBancaria::getSaldoActual)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private record ResultadoRonda(long exitosas, long rechazadas, double porSegundo,
+            List<Throwable> errores) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.sofka.banking.system.controller;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sofka.banking.system.cache.FiltrosUnicidad;
+import com.sofka.banking.system.config.SecurityConfig;
+import com.sofka.banking.system.dto.request.LoginRequestDTO;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.exception.GlobalExceptionHandler;
+import com.sofka.banking.system.exception.autenticacion.AutenticacionSaturadaException;
+import com.sofka.banking.system.repository.UsuarioRepository;
+import com.sofka.banking.system.security.MonitorHashesObsoletos;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class AuthControllerTest {
+
+    private static final String PASSWORD = "Password123!";
+
+    // Fuerza baja para que las pruebas no paguen el coste real de BCrypt
+    private final PasswordEncoder passwordEncoder = SecurityConfig.encoderDelegante(5);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private MonitorHashesObsoletos monitorHashesObsoletos;
+
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        usuario = Usuario.builder().id(1L).cedula("12345678").nombre("Juan").apellido("Pérez")
+                .email("juan.perez@email.com").telefono("+573001234567").build();
+        when(usuarioRepository.findByCedula("12345678")).thenReturn(Optional.of(usuario));
+    }
+
+    @Test
+    void login_ConHashLegadoSinPrefijo_DeberiaRehashearConLosParametrosActuales()
+            throws Exception {
+        String hashLegado = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        usuario.setPassword(hashLegado);
+        when(usuarioRepository.actualizarHash(eq(1L), eq(hashLegado),
+                startsWith("{bcrypt}$2a$05$"))).thenReturn(1);
+
+        login(passwordEncoder, PASSWORD).andExpect(status().isOk())
+                .andExpect(jsonPath("$.cedula").value("12345678"));
+
+        verify(monitorHashesObsoletos).registrarRehash();
+    }
+
+    @Test
+    void login_ConHashDeMenorFuerza_DeberiaRehashear() throws Exception {
+        String hashDebil = SecurityConfig.encoderDelegante(4).encode(PASSWORD);
+        usuario.setPassword(hashDebil);
+        when(usuarioRepository.actualizarHash(eq(1L), eq(hashDebil),
+                startsWith("{bcrypt}$2a$05$"))).thenReturn(1);
+
+        login(passwordEncoder, PASSWORD).andExpect(status().isOk());
+
+        verify(monitorHashesObsoletos).registrarRehash();
+    }
+
+    @Test
+    void login_ConHashActual_NoDeberiaRehashear() throws Exception {
+        usuario.setPassword(passwordEncoder.encode(PASSWORD));
+
+        login(passwordEncoder, PASSWORD).andExpect(status().isOk());
+
+        verify(usuarioRepository, never()).actualizarHash(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void login_ConPasswordIncorrecta_DeberiaRetornar401SinRehashear() throws Exception {
+        usuario.setPassword(new BCryptPasswordEncoder(4).encode(PASSWORD));
+
+        login(passwordEncoder, "Incorrecta123!").andExpect(status().isUnauthorized());
+
+        verify(usuarioRepository, never()).actualizarHash(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void login_ConPoolSaturadoAlRehashear_DeberiaCompletarElLogin() throws Exception {
+        PasswordEncoder saturado = mock(PasswordEncoder.class);
+        usuario.setPassword("hash-legado");
+        when(saturado.matches(PASSWORD, "hash-legado")).thenReturn(true);
+        when(saturado.upgradeEncoding("hash-legado")).thenReturn(true);
+        when(saturado.encode(PASSWORD)).thenThrow(new AutenticacionSaturadaException(1));
+
+        login(saturado, PASSWORD).andExpect(status().isOk());
+
+        verify(usuarioRepository, never()).actualizarHash(anyLong(), anyString(), anyString());
+        verify(monitorHashesObsoletos, never()).registrarRehash();
+    }
+
+    private ResultActions login(PasswordEncoder encoder, String password) throws Exception {
+        AuthController authController = new AuthController(usuarioRepository, encoder,
+                new SimpleMeterRegistry(), monitorHashesObsoletos, mock(FiltrosUnicidad.class));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(authController)
+                .setControllerAdvice(new GlobalExceptionHandler(new SimpleMeterRegistry()))
+                .build();
+
+        LoginRequestDTO request =
+                LoginRequestDTO.builder().cedula("12345678").password(password).build();
+        return mockMvc.perform(post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+    }
+}
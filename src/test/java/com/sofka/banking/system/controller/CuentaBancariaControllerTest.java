@@ -9,6 +9,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -21,9 +23,16 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sofka.banking.system.dto.request.CreateCuentaBancariaDTO;
 import com.sofka.banking.system.dto.response.CuentaBancariaDTO;
+import com.sofka.banking.system.dto.response.EstadisticasCacheDTO;
+import com.sofka.banking.system.dto.response.EstadoCuentaDTO;
+import com.sofka.banking.system.dto.response.PeriodoEstadoDTO;
+import com.sofka.banking.system.enums.GranularidadEstado;
 import com.sofka.banking.system.exception.GlobalExceptionHandler;
 import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
+import com.sofka.banking.system.exception.cuentaBancaria.PeriodoInvalidoException;
 import com.sofka.banking.system.service.CuentaBancariaService;
+import com.sofka.banking.system.service.EstadoCuentaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class CuentaBancariaControllerTest {
@@ -33,6 +42,9 @@ class CuentaBancariaControllerTest {
         @Mock
         private CuentaBancariaService cuentaBancariaService;
 
+        @Mock
+        private EstadoCuentaService estadoCuentaService;
+
         @InjectMocks
         private CuentaBancariaController cuentaBancariaController;
 
@@ -45,7 +57,9 @@ class CuentaBancariaControllerTest {
         void setUp() {
                 objectMapper = new ObjectMapper();
                 mockMvc = MockMvcBuilders.standaloneSetup(cuentaBancariaController)
-                                .setControllerAdvice(new GlobalExceptionHandler()).build();
+                                .setControllerAdvice(new GlobalExceptionHandler(
+                                                new SimpleMeterRegistry()))
+                                .build();
 
                 createCuentaBancariaDTO = CreateCuentaBancariaDTO.builder()
                                 .numeroCuenta("1234567890123456")
@@ -97,4 +111,66 @@ class CuentaBancariaControllerTest {
                 verify(cuentaBancariaService).consultarSaldo(cuentaIdInexistente);
         }
 
+        @Test
+        void obtenerEstadisticasCacheSaldos_DeberiaRetornar200YEstadisticas() throws Exception {
+                // Given
+                when(cuentaBancariaService.obtenerEstadisticasCacheSaldos())
+                                .thenReturn(EstadisticasCacheDTO.builder().entradas(5).aciertos(3)
+                                                .fallos(1).tasaAciertos(0.75).desalojos(2)
+                                                .build());
+
+                // When & Then
+                mockMvc.perform(get("/cuentas/cache/saldos"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.aciertos").value(3))
+                                .andExpect(jsonPath("$.fallos").value(1))
+                                .andExpect(jsonPath("$.tasaAciertos").value(0.75))
+                                .andExpect(jsonPath("$.desalojos").value(2));
+
+                verify(cuentaBancariaService).obtenerEstadisticasCacheSaldos();
+        }
+
+        @Test
+        void obtenerEstado_ConPeriodo_DeberiaRetornar200YTotales() throws Exception {
+                // Given
+                LocalDate desde = LocalDate.of(2026, 1, 1);
+                LocalDate hasta = LocalDate.of(2026, 3, 31);
+                when(estadoCuentaService.obtenerEstado(1L, desde, hasta, "mes"))
+                                .thenReturn(EstadoCuentaDTO.builder().cuentaId(1L)
+                                                .granularidad(GranularidadEstado.MES)
+                                                .saldoInicial(new BigDecimal("100.00"))
+                                                .saldoFinal(new BigDecimal("150.00"))
+                                                .periodos(List.of(PeriodoEstadoDTO.builder()
+                                                                .depositos(new BigDecimal("50.00"))
+                                                                .cantidadTransacciones(1).build()))
+                                                .build());
+
+                // When & Then
+                mockMvc.perform(get("/cuentas/{cuentaId}/estado", 1L).param("desde", "2026-01-01")
+                                .param("hasta", "2026-03-31").param("granularidad", "mes"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.granularidad").value("MES"))
+                                .andExpect(jsonPath("$.saldoInicial").value(100.00))
+                                .andExpect(jsonPath("$.saldoFinal").value(150.00))
+                                .andExpect(jsonPath("$.periodos[0].depositos").value(50.00))
+                                .andExpect(jsonPath("$.periodos[0].cantidadTransacciones")
+                                                .value(1));
+
+                verify(estadoCuentaService).obtenerEstado(1L, desde, hasta, "mes");
+        }
+
+        @Test
+        void obtenerEstado_ConPeriodoInvalido_DeberiaRetornar400() throws Exception {
+                // Given
+                when(estadoCuentaService.obtenerEstado(1L, null, null, "semana")).thenThrow(
+                                new PeriodoInvalidoException("Granularidad inválida: semana"));
+
+                // When & Then
+                mockMvc.perform(get("/cuentas/{cuentaId}/estado", 1L).param("granularidad",
+                                "semana"))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.message")
+                                                .value("Granularidad inválida: semana"));
+        }
+
 }
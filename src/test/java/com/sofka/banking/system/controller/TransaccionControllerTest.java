@@ -1,15 +1,26 @@
 package com.sofka.banking.system.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -21,24 +32,51 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sofka.banking.system.dto.request.CreateTransaccionDTO;
+import com.sofka.banking.system.dto.request.CreateTransferenciaDTO;
+import com.sofka.banking.system.dto.request.CreateTransferenciaLoteDTO;
+import com.sofka.banking.system.dto.response.PaginaTransaccionesDTO;
+import com.sofka.banking.system.dto.response.ResultadoLoteTransferenciasDTO;
+import com.sofka.banking.system.dto.response.ResultadoTransferenciaDTO;
 import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.enums.EstadoTransferencia;
+import com.sofka.banking.system.enums.FormatoExportacion;
 import com.sofka.banking.system.enums.TipoTransaccion;
 import com.sofka.banking.system.exception.GlobalExceptionHandler;
+import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
+import com.sofka.banking.system.exception.transaccion.ClaveIdempotenciaEnUsoException;
+import com.sofka.banking.system.exception.transaccion.CursorInvalidoException;
 import com.sofka.banking.system.exception.transaccion.SaldoInsuficienteException;
+import com.sofka.banking.system.service.ExportacionTransaccionesService;
+import com.sofka.banking.system.service.IdempotenciaService;
+import com.sofka.banking.system.service.IdempotenciaService.ResultadoIdempotente;
 import com.sofka.banking.system.service.TransaccionService;
+import com.sofka.banking.system.service.TransferenciaLoteService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class TransaccionControllerTest {
 
     private MockMvc mockMvc;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @Mock
     private TransaccionService transaccionService;
 
+    @Mock
+    private TransferenciaLoteService transferenciaLoteService;
+
+    @Mock
+    private ExportacionTransaccionesService exportacionTransaccionesService;
+
+    @Mock
+    private IdempotenciaService idempotenciaService;
+
     @InjectMocks
     private TransaccionController transaccionController;
 
@@ -50,8 +88,9 @@ class TransaccionControllerTest {
     @BeforeEach
     void setUp() {
         objectMapper = new ObjectMapper();
+        meterRegistry = new SimpleMeterRegistry();
         mockMvc = MockMvcBuilders.standaloneSetup(transaccionController)
-                .setControllerAdvice(new GlobalExceptionHandler())
+                .setControllerAdvice(new GlobalExceptionHandler(meterRegistry))
                 .build();
 
         createTransaccionDTO = CreateTransaccionDTO.builder()
@@ -111,8 +150,182 @@ class TransaccionControllerTest {
                 .andExpect(jsonPath("$.status").value(400))
                 .andExpect(jsonPath("$.error").value("Bad Request"))
                 .andExpect(jsonPath("$.message").value("Saldo insuficiente. Saldo actual: 100.00, Monto requerido: 1000.00"));
+        assertEquals(1, meterRegistry.get("banking.transacciones.rechazadas")
+                .tag("motivo", "saldo_insuficiente").counter().count());
 
         // Verify - Verificar que el servicio fue llamado con los datos correctos
         verify(transaccionService).registrarTransaccion(any(CreateTransaccionDTO.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void registrarTransaccion_ConIdempotencyKeyRepetida_DeberiaRetornarLaTransaccionOriginal() throws Exception {
+        // Given
+        when(idempotenciaService.ejecutar(eq("clave-1"), eq("transaccion"),
+                any(CreateTransaccionDTO.class), any()))
+                .thenReturn(new ResultadoIdempotente(transaccionDTO, true));
+
+        // When & Then
+        mockMvc.perform(post("/transacciones")
+                .header("Idempotency-Key", "clave-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(createTransaccionDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(1L));
+
+        verifyNoInteractions(transaccionService);
+    }
+
+    @Test
+    void realizarTransferencia_ConIdempotencyKeyEnUso_DeberiaRetornar409() throws Exception {
+        // Given
+        CreateTransferenciaDTO transferenciaDTO = CreateTransferenciaDTO.builder()
+                .cuentaOrigenId(1L)
+                .cuentaDestinoId(2L)
+                .monto(new BigDecimal("100.00"))
+                .build();
+
+        when(idempotenciaService.ejecutar(eq("clave-1"), eq("transferencia"),
+                any(CreateTransferenciaDTO.class), any()))
+                .thenThrow(new ClaveIdempotenciaEnUsoException("clave-1"));
+
+        // When & Then
+        mockMvc.perform(post("/transacciones/transferencia")
+                .header("Idempotency-Key", "clave-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transferenciaDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409));
+
+        verifyNoInteractions(transaccionService);
+    }
+
+    @Test
+    void realizarTransferenciasEnLote_ConDatosValidos_DeberiaRetornar200YResultadoPorItem() throws Exception {
+        // Given
+        CreateTransferenciaLoteDTO loteDTO = CreateTransferenciaLoteDTO.builder()
+                .transferencias(List.of(CreateTransferenciaDTO.builder()
+                        .cuentaOrigenId(1L)
+                        .cuentaDestinoId(2L)
+                        .monto(new BigDecimal("100.00"))
+                        .build()))
+                .build();
+
+        ResultadoLoteTransferenciasDTO resultado = ResultadoLoteTransferenciasDTO.builder()
+                .total(1)
+                .exitosas(0)
+                .rechazadas(1)
+                .resultados(List.of(ResultadoTransferenciaDTO.builder()
+                        .indice(0)
+                        .estado(EstadoTransferencia.RECHAZADA)
+                        .mensaje("Cuenta bancaria con ID 2 no encontrada")
+                        .build()))
+                .build();
+
+        when(transferenciaLoteService.realizarTransferencias(any())).thenReturn(resultado);
+
+        // When & Then
+        mockMvc.perform(post("/transacciones/transferencias/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loteDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.rechazadas").value(1))
+                .andExpect(jsonPath("$.resultados[0].estado").value("RECHAZADA"))
+                .andExpect(jsonPath("$.resultados[0].mensaje")
+                        .value("Cuenta bancaria con ID 2 no encontrada"));
+
+        verify(transferenciaLoteService).realizarTransferencias(loteDTO.getTransferencias());
+    }
+
+    @Test
+    void realizarTransferenciasEnLote_ConLoteVacio_DeberiaRetornar400() throws Exception {
+        // Given
+        CreateTransferenciaLoteDTO loteVacio = CreateTransferenciaLoteDTO.builder()
+                .transferencias(List.of())
+                .build();
+
+        // When & Then
+        mockMvc.perform(post("/transacciones/transferencias/lote")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loteVacio)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.transferencias")
+                        .value("El lote debe contener al menos una transferencia"));
+
+        verifyNoInteractions(transferenciaLoteService);
+    }
+
+    @Test
+    void obtenerPaginaTransacciones_ConCursor_DeberiaRetornar200YNextCursor() throws Exception {
+        // Given
+        PaginaTransaccionesDTO pagina = PaginaTransaccionesDTO.builder()
+                .transacciones(List.of(transaccionDTO))
+                .nextCursor("siguiente")
+                .build();
+
+        when(transaccionService.obtenerPaginaTransacciones(1L, "actual", 20)).thenReturn(pagina);
+
+        // When & Then
+        mockMvc.perform(get("/transacciones/cuenta/1/pagina")
+                .param("cursor", "actual")
+                .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transacciones[0].id").value(1L))
+                .andExpect(jsonPath("$.nextCursor").value("siguiente"));
+
+        verify(transaccionService).obtenerPaginaTransacciones(1L, "actual", 20);
+    }
+
+    @Test
+    void obtenerPaginaTransacciones_ConCursorInvalido_DeberiaRetornar400() throws Exception {
+        // Given
+        when(transaccionService.obtenerPaginaTransacciones(1L, "roto", 50))
+                .thenThrow(new CursorInvalidoException("roto"));
+
+        // When & Then
+        mockMvc.perform(get("/transacciones/cuenta/1/pagina").param("cursor", "roto"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Cursor de paginación inválido: roto"));
+    }
+
+    @Test
+    void exportarTransacciones_EnCsv_DeberiaTransmitirElArchivoComoAdjunto() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            OutputStream salida = invocation.getArgument(2);
+            salida.write("id,monto\n1,500.00\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportacionTransaccionesService).exportar(eq(1L), eq(FormatoExportacion.CSV),
+                any(OutputStream.class));
+
+        // When
+        MvcResult resultado = mockMvc.perform(get("/transacciones/cuenta/1/exportar")
+                .param("formato", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"transacciones-1.csv\""))
+                .andExpect(content().string("id,monto\n1,500.00\n"));
+
+        verify(exportacionTransaccionesService).validarCuenta(1L);
+    }
+
+    @Test
+    void exportarTransacciones_ConCuentaInexistente_DeberiaRetornar404() throws Exception {
+        // Given
+        doThrow(new CuentaBancariaNotFoundException(999L))
+                .when(exportacionTransaccionesService).validarCuenta(999L);
+
+        // When & Then
+        mockMvc.perform(get("/transacciones/cuenta/999/exportar"))
+                .andExpect(status().isNotFound());
+
+        verify(exportacionTransaccionesService).validarCuenta(999L);
+        verifyNoMoreInteractions(exportacionTransaccionesService);
+    }
+}
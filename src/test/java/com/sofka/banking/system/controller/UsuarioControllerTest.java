@@ -1,13 +1,17 @@
 package com.sofka.banking.system.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.io.InputStream;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,10 +23,23 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sofka.banking.system.dto.request.CreateUsuarioDTO;
+import com.sofka.banking.system.dto.response.ErrorImportacionDTO;
+import com.sofka.banking.system.dto.response.PaginaUsuariosDTO;
+import com.sofka.banking.system.dto.response.ResultadoImportacionDTO;
+import com.sofka.banking.system.dto.response.TareaEliminacionDTO;
 import com.sofka.banking.system.dto.response.UsuarioDTO;
+import com.sofka.banking.system.enums.EstadoTareaEliminacion;
+import com.sofka.banking.system.enums.FormatoImportacion;
 import com.sofka.banking.system.exception.GlobalExceptionHandler;
+import com.sofka.banking.system.exception.autenticacion.AutenticacionSaturadaException;
+import com.sofka.banking.system.exception.usuario.ArchivoImportacionInvalidoException;
+import com.sofka.banking.system.exception.usuario.OrdenamientoInvalidoException;
+import com.sofka.banking.system.exception.usuario.TareaEliminacionNotFoundException;
 import com.sofka.banking.system.exception.usuario.UsuarioNotFoundException;
+import com.sofka.banking.system.service.EliminacionCascadaService;
+import com.sofka.banking.system.service.ImportacionUsuariosService;
 import com.sofka.banking.system.service.UsuarioService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class) // ← MANTENER solo esta
 // ← ELIMINADO @WebMvcTest
@@ -33,6 +50,12 @@ class UsuarioControllerTest {
         @Mock
         private UsuarioService usuarioService;
 
+        @Mock
+        private ImportacionUsuariosService importacionUsuariosService;
+
+        @Mock
+        private EliminacionCascadaService eliminacionCascadaService;
+
         @InjectMocks
         private UsuarioController usuarioController;
 
@@ -45,7 +68,8 @@ class UsuarioControllerTest {
         void setUp() {
                 objectMapper = new ObjectMapper(); // ← AGREGADO: inicialización manual
                 mockMvc = MockMvcBuilders.standaloneSetup(usuarioController) // ← AGREGADO
-                                .setControllerAdvice(new GlobalExceptionHandler()) // ← AGREGADO
+                                .setControllerAdvice(new GlobalExceptionHandler(
+                                                new SimpleMeterRegistry())) // ← AGREGADO
                                 .build();
 
                 createUsuarioDTO = CreateUsuarioDTO.builder().cedula("12345678")
@@ -98,4 +122,123 @@ class UsuarioControllerTest {
 
                 verify(usuarioService).obtenerUsuarioPorId(idInexistente);
         }
+
+        @Test
+        void obtenerPaginaUsuarios_ConOrden_DeberiaRetornar200YMetadatosDePagina()
+                        throws Exception {
+                // Given
+                PaginaUsuariosDTO pagina = PaginaUsuariosDTO.builder().usuarios(List.of(usuarioDTO))
+                                .pagina(1).tamano(10).totalElementos(11).totalPaginas(2).build();
+                when(usuarioService.obtenerPaginaUsuarios(1, 10, "apellido,desc"))
+                                .thenReturn(pagina);
+
+                // When & Then
+                mockMvc.perform(get("/usuarios/pagina").param("page", "1").param("size", "10")
+                                .param("sort", "apellido,desc"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.usuarios[0].id").value(1L))
+                                .andExpect(jsonPath("$.pagina").value(1))
+                                .andExpect(jsonPath("$.totalElementos").value(11))
+                                .andExpect(jsonPath("$.totalPaginas").value(2));
+
+                verify(usuarioService).obtenerPaginaUsuarios(1, 10, "apellido,desc");
+        }
+
+        @Test
+        void obtenerPaginaUsuarios_ConOrdenInvalido_DeberiaRetornar400() throws Exception {
+                // Given
+                when(usuarioService.obtenerPaginaUsuarios(0, 20, "password"))
+                                .thenThrow(new OrdenamientoInvalidoException("password"));
+
+                // When & Then
+                mockMvc.perform(get("/usuarios/pagina").param("sort", "password"))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.message")
+                                                .value("Criterio de ordenamiento inválido: password"));
+        }
+
+        @Test
+        void crearUsuario_ConHashDeContrasenasSaturado_DeberiaRetornar503YRetryAfter()
+                        throws Exception {
+                // Given
+                when(usuarioService.crearUsuario(any(CreateUsuarioDTO.class)))
+                                .thenThrow(new AutenticacionSaturadaException(2));
+
+                // When & Then
+                mockMvc.perform(post("/usuarios").contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(createUsuarioDTO)))
+                                .andExpect(status().isServiceUnavailable())
+                                .andExpect(header().string("Retry-After", "2"))
+                                .andExpect(jsonPath("$.status").value(503));
+        }
+
+        @Test
+        void importarUsuarios_ConArchivoCsv_DeberiaRetornar200YReportePorFila() throws Exception {
+                // Given
+                ResultadoImportacionDTO resultado = ResultadoImportacionDTO.builder().total(2)
+                                .importados(1).rechazados(1)
+                                .errores(List.of(ErrorImportacionDTO.builder().fila(2)
+                                                .cedula("12345678")
+                                                .mensaje("La cédula ya está registrada").build()))
+                                .build();
+                when(importacionUsuariosService.importar(any(InputStream.class),
+                                eq(FormatoImportacion.CSV))).thenReturn(resultado);
+
+                // When & Then
+                mockMvc.perform(post("/usuarios/importacion").param("formato", "CSV")
+                                .contentType("text/csv")
+                                .content("cedula,nombre,apellido,email,telefono,password\n"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.importados").value(1))
+                                .andExpect(jsonPath("$.rechazados").value(1))
+                                .andExpect(jsonPath("$.errores[0].fila").value(2))
+                                .andExpect(jsonPath("$.errores[0].mensaje")
+                                                .value("La cédula ya está registrada"));
+        }
+
+        @Test
+        void importarUsuarios_ConCabeceraIncompleta_DeberiaRetornar400() throws Exception {
+                // Given
+                when(importacionUsuariosService.importar(any(InputStream.class),
+                                eq(FormatoImportacion.CSV)))
+                                .thenThrow(new ArchivoImportacionInvalidoException(
+                                                "Faltan columnas en la cabecera CSV: password"));
+
+                // When & Then
+                mockMvc.perform(post("/usuarios/importacion").param("formato", "CSV")
+                                .contentType("text/csv").content("cedula,nombre\n"))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.message").value(
+                                                "Faltan columnas en la cabecera CSV: password"));
+        }
+
+        @Test
+        void iniciarEliminacionUsuario_DeberiaRetornar202YUbicacionDeLaTarea() throws Exception {
+                // Given
+                TareaEliminacionDTO tarea = TareaEliminacionDTO.builder().id("tarea-1")
+                                .usuarioId(1L).estado(EstadoTareaEliminacion.EN_CURSO)
+                                .cuentasTotales(3).build();
+                when(eliminacionCascadaService.iniciarEliminacionUsuario(1L)).thenReturn(tarea);
+
+                // When & Then
+                mockMvc.perform(post("/usuarios/1/eliminacion"))
+                                .andExpect(status().isAccepted())
+                                .andExpect(header().string("Location",
+                                                "/usuarios/eliminaciones/tarea-1"))
+                                .andExpect(jsonPath("$.estado").value("EN_CURSO"))
+                                .andExpect(jsonPath("$.cuentasTotales").value(3));
+        }
+
+        @Test
+        void consultarEliminacionUsuario_TareaInexistente_DeberiaRetornar404() throws Exception {
+                // Given
+                when(eliminacionCascadaService.consultarTarea("desconocida"))
+                                .thenThrow(new TareaEliminacionNotFoundException("desconocida"));
+
+                // When & Then
+                mockMvc.perform(get("/usuarios/eliminaciones/desconocida"))
+                                .andExpect(status().isNotFound())
+                                .andExpect(jsonPath("$.message").value(
+                                                "Tarea de eliminación desconocida no encontrada"));
+        }
 }
@@ -0,0 +1,139 @@
+package com.sofka.banking.system.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.sofka.banking.system.enums.RutaDatos;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Ruta de cada transacción según sea de sólo lectura y según la sesión haya escrito. Sin réplica
+ * configurada ambos pools apuntan a la misma base en memoria; la ruta se observa en el contador
+ * de conexiones entregadas.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:enrutamiento-datos;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "banking.datasource.lectura.tamano-pool=2",
+        "spring.datasource.hikari.maximum-pool-size=7",
+        "banking.datasource.lectura.hikari.connection-timeout=5000"})
+class DataSourceEnrutadoTest {
+
+    private static final String CONSULTA = "SELECT COUNT(*) FROM usuarios";
+    private static final String ESCRITURA = "UPDATE usuarios SET nombre = nombre WHERE 1 = 0";
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    @Qualifier("escrituraDataSource")
+    private HikariDataSource escritura;
+
+    @Autowired
+    @Qualifier("lecturaDataSource")
+    private HikariDataSource lectura;
+
+    @AfterEach
+    void tearDown() {
+        LecturaTrasEscritura.terminar();
+    }
+
+    @Test
+    void pools_DeberianTomarLaConfiguracionDeHikariDeCadaUno() {
+        assertAll("Propiedades de Hikari por pool",
+                () -> assertEquals(7, escritura.getMaximumPoolSize()),
+                () -> assertEquals(2, lectura.getMaximumPoolSize()),
+                () -> assertEquals(5000, lectura.getConnectionTimeout()),
+                () -> assertTrue(lectura.isReadOnly()));
+    }
+
+    @Test
+    void transaccionDeSoloLectura_DeberiaIrAlPoolDeLectura() {
+        double antes = conexiones(RutaDatos.LECTURA);
+
+        leer();
+
+        assertTrue(conexiones(RutaDatos.LECTURA) > antes);
+    }
+
+    @Test
+    void transaccionDeEscritura_DeberiaIrAlPoolDeEscritura() {
+        double antes = conexiones(RutaDatos.ESCRITURA);
+
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> jdbcTemplate.update(ESCRITURA));
+
+        assertTrue(conexiones(RutaDatos.ESCRITURA) > antes);
+    }
+
+    @Test
+    void enPrimaria_DeberiaLeerDelPoolDeEscritura() {
+        double antes = conexiones(RutaDatos.LECTURA);
+
+        LecturaTrasEscritura.enPrimaria(this::leer);
+
+        assertEquals(antes, conexiones(RutaDatos.LECTURA));
+    }
+
+    @Test
+    void sesionQueEscribio_DeberiaLeerDeLaPrimariaTrasElCommit() {
+        AtomicInteger avisos = new AtomicInteger();
+        LecturaTrasEscritura.iniciar(false, avisos::incrementAndGet);
+        TransactionTemplate escritura = new TransactionTemplate(transactionManager);
+
+        boolean antesDeEscribir = LecturaTrasEscritura.requierePrimaria();
+        escritura.executeWithoutResult(status -> jdbcTemplate.update(ESCRITURA));
+        escritura.executeWithoutResult(status -> jdbcTemplate.update(ESCRITURA));
+        double antes = conexiones(RutaDatos.LECTURA);
+        leer();
+
+        assertAll("Lectura de las propias escrituras",
+                () -> assertFalse(antesDeEscribir),
+                () -> assertTrue(LecturaTrasEscritura.requierePrimaria()),
+                () -> assertEquals(1, avisos.get(), "Un solo aviso por sesión"),
+                () -> assertEquals(antes, conexiones(RutaDatos.LECTURA)));
+    }
+
+    @Test
+    void escrituraRevertida_NoDeberiaCambiarLaRutaDeLaSesion() {
+        AtomicInteger avisos = new AtomicInteger();
+        LecturaTrasEscritura.iniciar(false, avisos::incrementAndGet);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update(ESCRITURA);
+            status.setRollbackOnly();
+        });
+
+        assertAll("Sin commit no hay escritura que leer",
+                () -> assertEquals(0, avisos.get()),
+                () -> assertFalse(LecturaTrasEscritura.requierePrimaria()));
+    }
+
+    private void leer() {
+        TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+        lectura.executeWithoutResult(status -> jdbcTemplate.queryForObject(CONSULTA, Long.class));
+    }
+
+    private double conexiones(RutaDatos ruta) {
+        return meterRegistry.get("banking.datasource.conexiones")
+                .tag("ruta", ruta.name().toLowerCase()).counter().count();
+    }
+}
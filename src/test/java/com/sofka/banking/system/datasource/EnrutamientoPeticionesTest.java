@@ -0,0 +1,107 @@
+package com.sofka.banking.system.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.RutaDatos;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+
+/**
+ * Ruta de las transacciones dentro de una petición real: cada una elige su pool aunque otra de
+ * la misma petición ya haya usado el otro (sin open-in-view no se conserva la conexión).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:enrutamiento-peticiones;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"})
+@AutoConfigureMockMvc
+class EnrutamientoPeticionesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CuentaBancariaRepository cuentaBancariaRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Usuario usuario;
+    private CuentaBancaria cuenta;
+
+    @BeforeEach
+    void setUp() {
+        long sufijo = System.nanoTime() % 100_000_000;
+        usuario = usuarioRepository.save(Usuario.builder().cedula(String.format("%08d", sufijo))
+                .nombre("Ruta").apellido("Datos").email("ruta" + sufijo + "@email.com")
+                .telefono("3000000000").password("sin-uso").build());
+        cuenta = cuentaBancariaRepository.save(CuentaBancaria.builder()
+                .numeroCuenta(String.format("%010d", sufijo))
+                .saldoActual(new BigDecimal("1000.00")).usuario(usuario).build());
+    }
+
+    @Test
+    void escrituraIdempotente_DeberiaConfirmarseEnLaPrimariaYMarcarLaSesion() throws Exception {
+        // La búsqueda de la clave es de sólo lectura y va antes de la escritura en la petición
+        double escriturasAntes = conexiones(RutaDatos.ESCRITURA);
+
+        Cookie cookie = mockMvc.perform(post("/transacciones")
+                .header("Idempotency-Key", "enrutamiento-" + cuenta.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"cuentaBancariaId\":" + cuenta.getId()
+                        + ",\"monto\":500.00,\"tipo\":\"DEPOSITO\"}"))
+                .andExpect(status().isCreated()).andReturn().getResponse()
+                .getCookie(LecturaTrasEscrituraFilter.COOKIE);
+        double escriturasTrasEscribir = conexiones(RutaDatos.ESCRITURA);
+        double lecturasTrasEscribir = conexiones(RutaDatos.LECTURA);
+
+        mockMvc.perform(get("/usuarios/{id}", usuario.getId()).cookie(cookie))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cuentasBancarias[0].numeroCuenta")
+                        .value(cuenta.getNumeroCuenta()));
+
+        assertAll("Escritura en la primaria y lectura de las propias escrituras",
+                () -> assertTrue(escriturasTrasEscribir > escriturasAntes),
+                () -> assertNotNull(cookie, "El commit de la escritura marca la sesión"),
+                () -> assertEquals(lecturasTrasEscribir, conexiones(RutaDatos.LECTURA),
+                        "Con la cookie la lectura va a la primaria"));
+    }
+
+    @Test
+    void lecturaSinEscrituraReciente_DeberiaIrAlPoolDeLectura() throws Exception {
+        double lecturasAntes = conexiones(RutaDatos.LECTURA);
+
+        // Las cuentas del usuario se cargan de forma perezosa dentro de la transacción
+        mockMvc.perform(get("/usuarios/{id}", usuario.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cuentasBancarias[0].numeroCuenta")
+                        .value(cuenta.getNumeroCuenta()));
+
+        assertTrue(conexiones(RutaDatos.LECTURA) > lecturasAntes);
+    }
+
+    private double conexiones(RutaDatos ruta) {
+        return meterRegistry.get("banking.datasource.conexiones")
+                .tag("ruta", ruta.name().toLowerCase()).counter().count();
+    }
+}
@@ -0,0 +1,70 @@
+package com.sofka.banking.system.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import jakarta.servlet.http.Cookie;
+
+class LecturaTrasEscrituraFilterTest {
+
+    private final LecturaTrasEscrituraFilter filtro =
+            new LecturaTrasEscrituraFilter(Duration.ofSeconds(5));
+
+    @Test
+    void peticionQueEscribe_DeberiaDejarLaCookieYLeerDeLaPrimaria() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicBoolean primariaTrasEscribir = new AtomicBoolean();
+
+        filtro.doFilter(new MockHttpServletRequest(), response, (req, res) -> {
+            LecturaTrasEscritura.registrarEscritura();
+            primariaTrasEscribir.set(LecturaTrasEscritura.requierePrimaria());
+        });
+
+        Cookie cookie = response.getCookie(LecturaTrasEscrituraFilter.COOKIE);
+        assertAll("Escritura registrada",
+                () -> assertTrue(primariaTrasEscribir.get()),
+                () -> assertNotNull(cookie),
+                () -> assertEquals(5, cookie.getMaxAge()),
+                () -> assertFalse(LecturaTrasEscritura.requierePrimaria(),
+                        "La sesión termina con la petición"));
+    }
+
+    @Test
+    void cookieVigente_DeberiaLeerDeLaPrimaria() throws Exception {
+        assertTrue(rutaConCookie(Long.toString(System.currentTimeMillis() - 1_000)));
+    }
+
+    @Test
+    void cookieVencidaOInvalida_DeberiaLeerDeLaReplica() throws Exception {
+        assertAll("Sin escritura reciente",
+                () -> assertFalse(rutaConCookie(Long.toString(System.currentTimeMillis() - 6_000))),
+                () -> assertFalse(rutaConCookie("no-es-un-instante")));
+    }
+
+    @Test
+    void peticionSinEscrituras_NoDeberiaDejarCookie() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro.doFilter(new MockHttpServletRequest(), response, (req, res) -> { });
+
+        assertNull(response.getCookie(LecturaTrasEscrituraFilter.COOKIE));
+    }
+
+    private boolean rutaConCookie(String valor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(LecturaTrasEscrituraFilter.COOKIE, valor));
+        AtomicBoolean primaria = new AtomicBoolean();
+
+        filtro.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> primaria.set(LecturaTrasEscritura.requierePrimaria()));
+        return primaria.get();
+    }
+}
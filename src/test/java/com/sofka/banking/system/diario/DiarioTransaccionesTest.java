@@ -0,0 +1,151 @@
+package com.sofka.banking.system.diario;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DiarioTransaccionesTest {
+
+    @TempDir
+    private Path directorio;
+
+    @Test
+    void agregar_DeberiaConfirmarLosRegistrosEnOrden() throws IOException {
+        List<RegistroDiario> confirmados = new CopyOnWriteArrayList<>();
+        try (DiarioTransacciones diario = abrir(16, confirmados::addAll)) {
+            diario.recuperar(0);
+            diario.iniciar();
+
+            RegistroDiario primero = diario.agregar(deposito(1, "10.00"), r -> { });
+            RegistroDiario segundo = diario.agregar(deposito(2, "20.00"), r -> { });
+            diario.esperarConfirmacion(segundo.secuencia());
+
+            assertAll("Confirmación agrupada",
+                    () -> assertEquals(primero.secuencia() + 1, segundo.secuencia()),
+                    () -> assertEquals(List.of(primero, segundo), confirmados));
+        }
+    }
+
+    @Test
+    void recuperar_TrasReabrir_DeberiaDevolverSoloLoNoAplicado() throws IOException {
+        List<RegistroDiario> escritos = escribir(16, 3);
+
+        try (DiarioTransacciones diario = abrir(16, lote -> { })) {
+            List<RegistroDiario> recuperados = diario.recuperar(escritos.get(0).secuencia());
+
+            assertEquals(escritos.subList(1, 3), recuperados);
+        }
+    }
+
+    @Test
+    void recuperar_ConUnRegistroCorrupto_DeberiaDetenerseAntesDeEl() throws IOException {
+        List<RegistroDiario> escritos = escribir(16, 3);
+        try (FileChannel canal = FileChannel.open(ruta(), StandardOpenOption.WRITE)) {
+            // Simula una escritura a medias del tercer registro
+            canal.write(ByteBuffer.wrap(new byte[] {0x7f}), 2L * RegistroDiario.TAMANO + 20);
+        }
+
+        try (DiarioTransacciones diario = abrir(16, lote -> { })) {
+            assertEquals(escritos.subList(0, 2), diario.recuperar(0));
+        }
+    }
+
+    @Test
+    void agregar_ConElArchivoLleno_DeberiaVolverAlPrincipioTrasAplicar() throws IOException {
+        AtomicReference<DiarioTransacciones> referencia = new AtomicReference<>();
+        List<RegistroDiario> confirmados = new CopyOnWriteArrayList<>();
+        Consumer<List<RegistroDiario>> aplicar = lote -> {
+            confirmados.addAll(lote);
+            referencia.get().marcarAplicado(lote.get(lote.size() - 1).secuencia());
+        };
+
+        RegistroDiario ultimo;
+        try (DiarioTransacciones diario = abrir(2, aplicar)) {
+            referencia.set(diario);
+            diario.recuperar(0);
+            diario.iniciar();
+            ultimo = null;
+            for (int i = 1; i <= 5; i++) {
+                ultimo = diario.agregar(deposito(i, "1.00"), r -> { });
+                diario.esperarConfirmacion(ultimo.secuencia());
+            }
+        }
+
+        try (DiarioTransacciones diario = abrir(2, lote -> { })) {
+            List<RegistroDiario> recuperados = diario.recuperar(ultimo.secuencia() - 1);
+
+            assertAll("Escritura circular",
+                    () -> assertEquals(5, confirmados.size()),
+                    () -> assertEquals(List.of(ultimo), recuperados));
+        }
+    }
+
+    @Test
+    void recuperar_TrasReiniciar_NoDeberiaContinuarLaCadenaConRestosAnteriores()
+            throws IOException {
+        List<RegistroDiario> anteriores = escribir(16, 3);
+        long aplicada = anteriores.get(2).secuencia();
+
+        // Nuevo arranque: un registro escrito al principio no enlaza con los restos de la vuelta
+        // anterior que siguen en las posiciones 1 y 2
+        RegistroDiario nuevo;
+        try (DiarioTransacciones diario = abrir(16, lote -> { })) {
+            diario.recuperar(aplicada);
+            diario.iniciar();
+            nuevo = diario.agregar(deposito(9, "1.00"), r -> { });
+            diario.esperarConfirmacion(nuevo.secuencia());
+        }
+
+        try (DiarioTransacciones diario = abrir(16, lote -> { })) {
+            List<RegistroDiario> recuperados = diario.recuperar(aplicada);
+
+            assertAll("Secuencias tras reiniciar",
+                    () -> assertTrue(nuevo.secuencia() > aplicada + 16),
+                    () -> assertEquals(List.of(nuevo), recuperados));
+        }
+    }
+
+    private List<RegistroDiario> escribir(int capacidad, int cantidad) throws IOException {
+        List<RegistroDiario> escritos = new CopyOnWriteArrayList<>();
+        try (DiarioTransacciones diario = abrir(capacidad, lote -> { })) {
+            diario.recuperar(0);
+            diario.iniciar();
+            for (int i = 1; i <= cantidad; i++) {
+                escritos.add(diario.agregar(deposito(i, "5.00"), r -> { }));
+            }
+            diario.esperarConfirmacion(escritos.get(cantidad - 1).secuencia());
+        }
+        return escritos;
+    }
+
+    private DiarioTransacciones abrir(int capacidad, Consumer<List<RegistroDiario>> alConfirmar)
+            throws IOException {
+        return new DiarioTransacciones(ruta(), capacidad, Duration.ZERO, alConfirmar,
+                new SimpleMeterRegistry());
+    }
+
+    private Path ruta() {
+        return directorio.resolve("diario.log");
+    }
+
+    private static RegistroDiario deposito(long transaccionId, String monto) {
+        return new RegistroDiario(0, transaccionId, TipoTransaccion.DEPOSITO, 1L, null,
+                new BigDecimal(monto), LocalDateTime.of(2025, 1, 1, 12, 0, 0, 123_000_000));
+    }
+}
@@ -0,0 +1,77 @@
+package com.sofka.banking.system.diario;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+
+/**
+ * Un lote que nunca puede aplicarse deja el motor fallido tras los reintentos, en lugar de
+ * reintentarlo para siempre mientras acepta transacciones y deja esperando a las lecturas.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:motor-diario-fallo;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false", "banking.transacciones.motor=diario",
+        "banking.diario.capacidad-registros=1024", "banking.diario.max-reintentos=1",
+        "banking.diario.espera-aplicados=20s"})
+@DirtiesContext
+class MotorDiarioFalloTest {
+
+    @Autowired
+    private MotorDiario motorDiario;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CuentaBancariaRepository cuentaBancariaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void diario(DynamicPropertyRegistry registro) throws IOException {
+        String ruta = Files.createTempDirectory("diario").resolve("transacciones.log").toString();
+        registro.add("banking.diario.ruta", () -> ruta);
+    }
+
+    @Test
+    void registrar_LoteQueNoPuedeAplicarse_DeberiaDejarElMotorFallido() {
+        Usuario usuario = usuarioRepository.save(Usuario.builder().cedula("12345678")
+                .nombre("Fallo").apellido("Diario").email("fallo@email.com")
+                .telefono("3001234567").password("sin-uso").build());
+        Long cuentaId = cuentaBancariaRepository.save(CuentaBancaria.builder()
+                .numeroCuenta("0000000001").saldoActual(new BigDecimal("100.00"))
+                .usuario(usuario).build()).getId();
+        // Una fila que la base de datos rechazará en cada intento
+        jdbcTemplate.execute("ALTER TABLE transacciones ADD CONSTRAINT monto_maximo_prueba "
+                + "CHECK (monto < 1000)");
+
+        motorDiario.registrar(TipoTransaccion.DEPOSITO, cuentaId, null, new BigDecimal("5000"));
+
+        long inicio = System.nanoTime();
+        assertThrows(IllegalStateException.class, () -> motorDiario.esperarAplicados(cuentaId));
+        long esperaMs = (System.nanoTime() - inicio) / 1_000_000;
+        assertAll("Motor fallido",
+                () -> assertTrue(esperaMs < 10_000, "Espera de " + esperaMs + " ms"),
+                () -> assertThrows(IllegalStateException.class,
+                        () -> motorDiario.registrar(TipoTransaccion.DEPOSITO, cuentaId, null,
+                                BigDecimal.ONE)),
+                () -> assertThrows(IllegalStateException.class,
+                        () -> motorDiario.esperarAplicados(cuentaId)));
+    }
+}
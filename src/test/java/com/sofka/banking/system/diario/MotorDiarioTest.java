@@ -0,0 +1,33 @@
+package com.sofka.banking.system.diario;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import com.sofka.banking.system.service.ContratoTransaccionServiceTest;
+import com.sofka.banking.system.service.impl.TransaccionMotorServiceImpl;
+
+/**
+ * El motor de diario debe cumplir las mismas garantías que el motor JPA: saldos que nunca quedan
+ * negativos, dinero total conservado y lecturas que ven las escrituras ya respondidas.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:motor-diario;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=32", "spring.jpa.show-sql=false",
+        "banking.transacciones.motor=diario", "banking.diario.capacidad-registros=4096"})
+class MotorDiarioTest extends ContratoTransaccionServiceTest {
+
+    @DynamicPropertySource
+    static void diario(DynamicPropertyRegistry registro) throws IOException {
+        String ruta = Files.createTempDirectory("diario").resolve("transacciones.log").toString();
+        registro.add("banking.diario.ruta", () -> ruta);
+    }
+
+    @Test
+    void transaccionService_ConMotorDiario_DeberiaUsarElDiario() {
+        assertInstanceOf(TransaccionMotorServiceImpl.class, transaccionService);
+    }
+}
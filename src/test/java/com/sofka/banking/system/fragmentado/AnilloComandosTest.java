@@ -0,0 +1,94 @@
+package com.sofka.banking.system.fragmentado;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AnilloComandosTest {
+
+    @Test
+    void ofrecer_ConElAnilloLleno_DeberiaRechazarHastaQueSeTome() {
+        AnilloComandos<Integer> anillo = new AnilloComandos<>(3);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(anillo.ofrecer(i), "La capacidad se redondea a potencia de dos");
+        }
+
+        assertFalse(anillo.ofrecer(4));
+        assertEquals(0, anillo.tomar());
+        assertTrue(anillo.ofrecer(4));
+    }
+
+    @Test
+    void tomar_ConElAnilloVacio_DeberiaDevolverNull() {
+        AnilloComandos<Integer> anillo = new AnilloComandos<>(8);
+
+        assertAll("Anillo vacío",
+                () -> assertTrue(anillo.estaVacio()),
+                () -> assertNull(anillo.tomar()));
+    }
+
+    @Test
+    void ofrecer_DesdeVariosProductores_DeberiaEntregarTodoEnOrdenPorProductor()
+            throws Exception {
+        int productores = 4;
+        int porProductor = 50_000;
+        AnilloComandos<long[]> anillo = new AnilloComandos<>(256);
+        CountDownLatch inicio = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(productores);
+
+        for (int p = 0; p < productores; p++) {
+            long productor = p;
+            executor.execute(() -> {
+                try {
+                    inicio.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long n = 0; n < porProductor; n++) {
+                    long[] elemento = {productor, n};
+                    while (!anillo.ofrecer(elemento)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+        inicio.countDown();
+
+        long[] siguientePorProductor = new long[productores];
+        List<String> errores = new ArrayList<>();
+        long recibidos = 0;
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (recibidos < (long) productores * porProductor && System.nanoTime() < limite) {
+            long[] elemento = anillo.tomar();
+            if (elemento == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int productor = (int) elemento[0];
+            if (elemento[1] != siguientePorProductor[productor]) {
+                errores.add("Productor " + productor + ": llegó " + elemento[1] + " en lugar de "
+                        + siguientePorProductor[productor]);
+            }
+            siguientePorProductor[productor] = elemento[1] + 1;
+            recibidos++;
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        long totalRecibidos = recibidos;
+        assertAll("Entrega sin pérdidas ni desorden",
+                () -> assertEquals((long) productores * porProductor, totalRecibidos),
+                () -> assertTrue(errores.isEmpty(), errores.toString()),
+                () -> assertTrue(anillo.estaVacio()));
+    }
+}
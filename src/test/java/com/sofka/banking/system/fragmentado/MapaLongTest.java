@@ -0,0 +1,78 @@
+package com.sofka.banking.system.fragmentado;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class MapaLongTest {
+
+    @Test
+    void poner_ClaveExistente_DeberiaReemplazarElValor() {
+        MapaLong mapa = new MapaLong(4);
+
+        mapa.poner(7, 100);
+        mapa.poner(7, 250);
+
+        assertAll("Reemplazo",
+                () -> assertEquals(250, mapa.obtener(7)),
+                () -> assertEquals(1, mapa.tamano()),
+                () -> assertEquals(MapaLong.AUSENTE, mapa.obtener(8)));
+    }
+
+    @Test
+    void poner_ClaveNoPositiva_DeberiaLanzarExcepcion() {
+        MapaLong mapa = new MapaLong(4);
+
+        assertThrows(IllegalArgumentException.class, () -> mapa.poner(0, 1));
+    }
+
+    @Test
+    void quitar_EnMedioDeUnaCadenaDeColisiones_DeberiaConservarLasDemas() {
+        MapaLong mapa = new MapaLong(2);
+        for (long clave = 1; clave <= 64; clave++) {
+            mapa.poner(clave, clave * 10);
+        }
+
+        for (long clave = 2; clave <= 64; clave += 2) {
+            mapa.quitar(clave);
+        }
+
+        for (long clave = 1; clave <= 64; clave++) {
+            if (clave % 2 == 0) {
+                assertFalse(mapa.contiene(clave), "Clave " + clave);
+            } else {
+                assertEquals(clave * 10, mapa.obtener(clave), "Clave " + clave);
+            }
+        }
+        assertEquals(32, mapa.tamano());
+    }
+
+    @Test
+    void operacionesAleatorias_DeberianCoincidirConHashMap() {
+        Random random = new Random(42);
+        MapaLong mapa = new MapaLong(8);
+        Map<Long, Long> referencia = new HashMap<>();
+
+        for (int i = 0; i < 100_000; i++) {
+            long clave = 1 + random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                mapa.quitar(clave);
+                referencia.remove(clave);
+            } else {
+                long valor = random.nextLong();
+                mapa.poner(clave, valor);
+                referencia.put(clave, valor);
+            }
+        }
+
+        assertEquals(referencia.size(), mapa.tamano());
+        for (long clave = 1; clave <= 2_000; clave++) {
+            assertEquals(referencia.getOrDefault(clave, MapaLong.AUSENTE), mapa.obtener(clave));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.sofka.banking.system.fragmentado;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+
+/**
+ * Un lote que nunca puede escribirse deja el motor fallido tras los reintentos, en lugar de
+ * reintentarlo para siempre mientras los fragmentos siguen respondiendo transferencias.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:motor-fragmentado-fallo;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false", "banking.transacciones.motor=fragmentado",
+        "banking.fragmentado.fragmentos=2", "banking.fragmentado.capacidad-anillo=64",
+        "banking.fragmentado.max-reintentos=1", "banking.fragmentado.espera-aplicados=20s"})
+@DirtiesContext
+class MotorFragmentadoFalloTest {
+
+    @Autowired
+    private MotorFragmentado motorFragmentado;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CuentaBancariaRepository cuentaBancariaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void registrar_LoteQueNoPuedeEscribirse_DeberiaDejarElMotorFallido() {
+        Usuario usuario = usuarioRepository.save(Usuario.builder().cedula("12345678")
+                .nombre("Fallo").apellido("Fragmentado").email("fallo@email.com")
+                .telefono("3001234567").password("sin-uso").build());
+        Long cuentaId = cuentaBancariaRepository.save(CuentaBancaria.builder()
+                .numeroCuenta("0000000001").saldoActual(new BigDecimal("100.00"))
+                .usuario(usuario).build()).getId();
+        // Una fila que la base de datos rechazará en cada intento
+        jdbcTemplate.execute("ALTER TABLE transacciones ADD CONSTRAINT monto_maximo_prueba "
+                + "CHECK (monto < 1000)");
+
+        motorFragmentado.registrar(TipoTransaccion.DEPOSITO, cuentaId, null,
+                new BigDecimal("5000"));
+
+        long inicio = System.nanoTime();
+        assertThrows(IllegalStateException.class,
+                () -> motorFragmentado.esperarAplicados(cuentaId));
+        long esperaMs = (System.nanoTime() - inicio) / 1_000_000;
+        assertAll("Motor fallido",
+                () -> assertTrue(esperaMs < 10_000, "Espera de " + esperaMs + " ms"),
+                () -> assertThrows(IllegalStateException.class,
+                        () -> motorFragmentado.registrar(TipoTransaccion.DEPOSITO, cuentaId,
+                                null, BigDecimal.ONE)),
+                () -> assertThrows(IllegalStateException.class,
+                        () -> motorFragmentado.esperarAplicados(cuentaId)));
+    }
+}
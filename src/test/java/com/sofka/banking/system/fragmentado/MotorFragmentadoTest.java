@@ -0,0 +1,24 @@
+package com.sofka.banking.system.fragmentado;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.sofka.banking.system.service.ContratoTransaccionServiceTest;
+import com.sofka.banking.system.service.impl.TransaccionMotorServiceImpl;
+
+/**
+ * El motor fragmentado debe cumplir las mismas garantías que el motor JPA, también cuando origen
+ * y destino de una transferencia caen en fragmentos distintos.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:motor-fragmentado;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=32", "spring.jpa.show-sql=false",
+        "banking.transacciones.motor=fragmentado", "banking.fragmentado.fragmentos=4",
+        "banking.fragmentado.capacidad-anillo=1024"})
+class MotorFragmentadoTest extends ContratoTransaccionServiceTest {
+
+    @Test
+    void transaccionService_ConMotorFragmentado_DeberiaUsarLosFragmentos() {
+        assertInstanceOf(TransaccionMotorServiceImpl.class, transaccionService);
+    }
+}
@@ -0,0 +1,110 @@
+package com.sofka.banking.system.repository;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.math.BigDecimal;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.sofka.banking.system.dto.request.CreateTransaccionDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.service.CuentaBancariaService;
+import com.sofka.banking.system.service.TransaccionService;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Búsquedas por cédula y número de cuenta servidas desde la caché de segundo nivel, y su
+ * invalidación cuando cambia el saldo o se elimina la cuenta.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cache-id-natural;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"})
+class CacheIdNaturalTest {
+
+    private static final String CEDULA = "12345678";
+    private static final String NUMERO_CUENTA = "0000000001";
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CuentaBancariaRepository cuentaBancariaRepository;
+
+    @Autowired
+    private TransaccionRepository transaccionRepository;
+
+    @Autowired
+    private CuentaBancariaService cuentaBancariaService;
+
+    @Autowired
+    private TransaccionService transaccionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+    private Long cuentaId;
+
+    @BeforeEach
+    void setUp() {
+        transaccionRepository.deleteAllInBatch();
+        cuentaBancariaRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+
+        Usuario usuario = usuarioRepository.save(Usuario.builder().cedula(CEDULA)
+                .nombre("Cache").apellido("Natural").email("cache@email.com")
+                .telefono("3001234567").password("sin-uso").build());
+        cuentaId = cuentaBancariaRepository.save(CuentaBancaria.builder()
+                .numeroCuenta(NUMERO_CUENTA).saldoActual(new BigDecimal("1000.00"))
+                .usuario(usuario).build()).getId();
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findByCedula_SegundaBusqueda_NoDeberiaConsultarLaBaseDeDatos() {
+        usuarioRepository.findByCedula(CEDULA);
+        estadisticas.clear();
+
+        Usuario usuario = usuarioRepository.findByCedula(CEDULA).orElseThrow();
+
+        assertAll("Búsqueda servida desde memoria",
+                () -> assertEquals(CEDULA, usuario.getCedula()),
+                () -> assertEquals(1, estadisticas.getNaturalIdCacheHitCount()),
+                () -> assertEquals(0, estadisticas.getNaturalIdQueryExecutionCount()),
+                () -> assertEquals(0, estadisticas.getPrepareStatementCount()));
+    }
+
+    @Test
+    void findByNumeroCuenta_TrasUnDeposito_DeberiaResolverDesdeLaCacheConElSaldoNuevo() {
+        cuentaBancariaRepository.findByNumeroCuenta(NUMERO_CUENTA);
+        transaccionService.registrarTransaccion(CreateTransaccionDTO.builder()
+                .cuentaBancariaId(cuentaId).monto(new BigDecimal("100.00"))
+                .tipo(TipoTransaccion.DEPOSITO).build());
+        estadisticas.clear();
+
+        CuentaBancaria cuenta = cuentaBancariaRepository.findByNumeroCuenta(NUMERO_CUENTA)
+                .orElseThrow();
+
+        assertAll("Sólo se desaloja la cuenta modificada",
+                () -> assertEquals(0, new BigDecimal("1100.00").compareTo(cuenta.getSaldoActual())),
+                () -> assertEquals(1, estadisticas.getNaturalIdCacheHitCount()),
+                () -> assertEquals(0, new BigDecimal("1100.00").compareTo(cuentaBancariaService
+                        .buscarPorNumeroCuenta(NUMERO_CUENTA).getSaldoActual())));
+    }
+
+    @Test
+    void findByNumeroCuenta_CuentaEliminada_NoDeberiaEncontrarla() {
+        cuentaBancariaRepository.findByNumeroCuenta(NUMERO_CUENTA);
+
+        cuentaBancariaService.eliminarCuenta(cuentaId);
+
+        assertTrue(cuentaBancariaRepository.findByNumeroCuenta(NUMERO_CUENTA).isEmpty());
+    }
+}
@@ -0,0 +1,35 @@
+package com.sofka.banking.system.repository;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class SecuenciaIdsTest {
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:secuencia-ids;DB_CLOSE_DELAY=-1");
+
+    @Test
+    void tamanoBloque_DeberiaSerElIncrementoRealDeLaSecuencia() {
+        // Distinto del id_allocation_size configurado: manda lo que tiene la base de datos
+        new JdbcTemplate(dataSource).execute(
+                "CREATE SEQUENCE IF NOT EXISTS prueba_seq START WITH 1 INCREMENT BY 20");
+
+        SecuenciaIds secuencia = new SecuenciaIds(dataSource, "prueba_seq");
+        long primero = secuencia.reservarBloque();
+        long segundo = secuencia.reservarBloque();
+
+        assertAll("Bloques sin solaparse",
+                () -> assertEquals(20, secuencia.tamanoBloque()),
+                () -> assertEquals(primero + secuencia.tamanoBloque(), segundo));
+    }
+
+    @Test
+    void constructor_ConSecuenciaInexistente_DeberiaFallar() {
+        assertThrows(IllegalStateException.class,
+                () -> new SecuenciaIds(dataSource, "inexistente_seq"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.sofka.banking.system.repository;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Transaccion;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Verifica que los IDs por secuencia (pooled-lo) permiten a Hibernate agrupar los INSERT en
+ * lotes JDBC: N inserciones deben costar del orden de N / batch_size sentencias.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transacciones-batch;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+class TransaccionRepositoryBatchTest {
+
+    private static final int NUMERO_TRANSACCIONES = 1_000;
+    private static final int TAMANO_LOTE = 50;
+
+    @Autowired
+    private TransaccionRepository transaccionRepository;
+
+    @Autowired
+    private CuentaBancariaRepository cuentaBancariaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long cuentaId;
+
+    @BeforeEach
+    void setUp() {
+        transaccionRepository.deleteAllInBatch();
+        cuentaBancariaRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+
+        Usuario usuario = usuarioRepository.save(Usuario.builder().cedula("87654321")
+                .nombre("Lote").apellido("Batch").email("lote@email.com")
+                .telefono("3009876543").password("sin-uso").build());
+        cuentaId = cuentaBancariaRepository.save(CuentaBancaria.builder()
+                .numeroCuenta("5555555555").saldoActual(BigDecimal.ZERO).usuario(usuario).build())
+                .getId();
+    }
+
+    @Test
+    void saveAll_ConSecuenciasPooledLo_DeberiaAgruparLosInsertsEnLotes() {
+        Statistics estadisticas =
+                entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            CuentaBancaria cuenta = cuentaBancariaRepository.getReferenceById(cuentaId);
+            List<Transaccion> transacciones = new ArrayList<>();
+            for (int i = 0; i < NUMERO_TRANSACCIONES; i++) {
+                transacciones.add(Transaccion.builder().cuentaBancaria(cuenta)
+                        .monto(new BigDecimal("10.00")).tipo(TipoTransaccion.DEPOSITO)
+                        .fecha(LocalDateTime.now()).build());
+            }
+            transaccionRepository.saveAll(transacciones);
+        });
+
+        long sentencias = estadisticas.getPrepareStatementCount();
+        // Un INSERT por lote más una llamada a la secuencia por cada bloque de IDs
+        long maximoEsperado = 2L * NUMERO_TRANSACCIONES / TAMANO_LOTE + 5;
+
+        assertAll("Inserciones agrupadas en lotes JDBC",
+                () -> assertEquals(NUMERO_TRANSACCIONES, estadisticas.getEntityInsertCount(),
+                        "Deben insertarse todas las transacciones"),
+                () -> assertEquals(NUMERO_TRANSACCIONES, transaccionRepository.count(),
+                        "Las transacciones deben persistirse"),
+                () -> assertTrue(sentencias <= maximoEsperado, "Se prepararon " + sentencias
+                        + " sentencias, se esperaban como máximo " + maximoEsperado));
+    }
+}
@@ -0,0 +1,150 @@
+package com.sofka.banking.system.repository;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Transaccion;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * El historial une las transacciones enviadas y recibidas de una cuenta en un único orden
+ * (fecha DESC, id DESC), y la paginación por cursor no repite ni omite filas de ninguna rama.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transacciones-historial;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"})
+class TransaccionRepositoryHistorialTest {
+
+    private static final LocalDateTime INICIO = LocalDateTime.of(2026, 1, 1, 8, 0);
+
+    @Autowired
+    private TransaccionRepository transaccionRepository;
+
+    @Autowired
+    private CuentaBancariaRepository cuentaBancariaRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private CuentaBancaria cuenta;
+    private List<Long> esperados;
+
+    @BeforeEach
+    void setUp() {
+        transaccionRepository.deleteAllInBatch();
+        cuentaBancariaRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+
+        Usuario usuario = usuarioRepository.save(Usuario.builder().cedula("11223344")
+                .nombre("Historial").apellido("Unido").email("historial@email.com")
+                .telefono("3001234567").password("sin-uso").build());
+        cuenta = cuentaBancariaRepository.save(CuentaBancaria.builder().numeroCuenta("0000000001")
+                .saldoActual(BigDecimal.TEN).usuario(usuario).build());
+        CuentaBancaria otra = cuentaBancariaRepository.save(CuentaBancaria.builder()
+                .numeroCuenta("0000000002").saldoActual(BigDecimal.TEN).usuario(usuario).build());
+
+        // Enviadas, recibidas y ajenas intercaladas; varias comparten fecha para forzar el
+        // desempate por id
+        List<Transaccion> transacciones = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            LocalDateTime fecha = INICIO.plusMinutes(i / 3);
+            transacciones.add(switch (i % 3) {
+                case 0 -> transaccion(TipoTransaccion.DEPOSITO, fecha, cuenta, null);
+                case 1 -> transaccion(TipoTransaccion.TRANSFERENCIA, fecha, otra, cuenta);
+                default -> transaccion(TipoTransaccion.RETIRO, fecha, otra, null);
+            });
+        }
+        transacciones = transaccionRepository.saveAll(transacciones);
+
+        esperados = transacciones.stream()
+                .filter(t -> t.getCuentaBancaria().getId().equals(cuenta.getId())
+                        || (t.getCuentaDestino() != null
+                                && t.getCuentaDestino().getId().equals(cuenta.getId())))
+                .sorted((a, b) -> a.getFecha().equals(b.getFecha())
+                        ? b.getId().compareTo(a.getId())
+                        : b.getFecha().compareTo(a.getFecha()))
+                .map(Transaccion::getId).toList();
+    }
+
+    @Test
+    void findPrimeraPagina_DeberiaIncluirEnviadasYRecibidasEnOrden() {
+        List<TransaccionDTO> pagina =
+                transaccionRepository.findPrimeraPagina(cuenta.getId(), 100);
+
+        assertEquals(esperados, pagina.stream().map(TransaccionDTO::getId).toList());
+    }
+
+    @Test
+    void findPrimeraPagina_DeberiaProyectarLasColumnasSinCargarEntidades() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        List<TransaccionDTO> pagina = transaccionRepository.findPrimeraPagina(cuenta.getId(), 100);
+
+        // La más reciente es la transferencia recibida del último minuto
+        TransaccionDTO recibida = pagina.get(0);
+        assertAll("Fila proyectada",
+                () -> assertEquals(TipoTransaccion.TRANSFERENCIA, recibida.getTipo()),
+                () -> assertEquals(0, BigDecimal.ONE.compareTo(recibida.getMonto())),
+                () -> assertEquals(INICIO.plusMinutes(9), recibida.getFecha()),
+                () -> assertEquals(cuenta.getId(), recibida.getCuentaDestinoId()),
+                () -> assertNull(pagina.get(1).getCuentaDestinoId()),
+                () -> assertEquals(0, estadisticas.getEntityLoadCount()));
+    }
+
+    @Test
+    void findPaginaSiguiente_RecorriendoPorCursor_DeberiaEntregarCadaFilaUnaVez() {
+        List<Long> recorridos = new ArrayList<>();
+        List<TransaccionDTO> pagina = transaccionRepository.findPrimeraPagina(cuenta.getId(), 4);
+        while (!pagina.isEmpty()) {
+            pagina.forEach(t -> recorridos.add(t.getId()));
+            TransaccionDTO ultima = pagina.get(pagina.size() - 1);
+            pagina = transaccionRepository.findPaginaSiguiente(cuenta.getId(), ultima.getFecha(),
+                    ultima.getId(), 4);
+        }
+
+        assertEquals(esperados, recorridos);
+    }
+
+    @Test
+    void streamHistorial_DeberiaEntregarElHistorialCompletoEnOrden() {
+        // El cursor sólo vive dentro de la transacción que lo consume
+        List<Long> recorridos = new TransactionTemplate(transactionManager).execute(estado -> {
+            try (Stream<TransaccionDTO> historial =
+                    transaccionRepository.streamHistorial(cuenta.getId())) {
+                return historial.map(TransaccionDTO::getId).toList();
+            }
+        });
+
+        assertEquals(esperados, recorridos);
+    }
+
+    private static Transaccion transaccion(TipoTransaccion tipo, LocalDateTime fecha,
+            CuentaBancaria origen, CuentaBancaria destino) {
+        return Transaccion.builder().tipo(tipo).monto(BigDecimal.ONE).fecha(fecha)
+                .cuentaBancaria(origen).cuentaDestino(destino).build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.sofka.banking.system.repository;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.math.BigDecimal;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.sofka.banking.system.dto.response.PaginaUsuariosDTO;
+import com.sofka.banking.system.dto.response.UsuarioDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.service.UsuarioService;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Verifica que listar usuarios con sus cuentas cuesta un número constante de sentencias,
+ * independiente del número de usuarios (sin N+1).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:usuarios-consultas;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"})
+class UsuarioRepositoryConsultasTest {
+
+    private static final int NUMERO_USUARIOS = 60;
+    private static final int CUENTAS_POR_USUARIO = 3;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CuentaBancariaRepository cuentaBancariaRepository;
+
+    @Autowired
+    private TransaccionRepository transaccionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void setUp() {
+        transaccionRepository.deleteAllInBatch();
+        cuentaBancariaRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+
+        for (int i = 0; i < NUMERO_USUARIOS; i++) {
+            Usuario usuario = usuarioRepository.save(Usuario.builder()
+                    .cedula(String.format("%08d", i)).nombre("Nombre" + i)
+                    .apellido(String.format("Apellido%03d", NUMERO_USUARIOS - i))
+                    .email("usuario" + i + "@email.com").telefono("3000000000")
+                    .password("sin-uso").build());
+            for (int j = 0; j < CUENTAS_POR_USUARIO; j++) {
+                cuentaBancariaRepository.save(CuentaBancaria.builder()
+                        .numeroCuenta(String.format("%06d%04d", i, j))
+                        .saldoActual(BigDecimal.TEN).usuario(usuario).build());
+            }
+        }
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @Test
+    void obtenerPaginaUsuarios_DeberiaUsarUnNumeroConstanteDeSentencias() {
+        PaginaUsuariosDTO pagina = usuarioService.obtenerPaginaUsuarios(1, 20, "apellido,desc");
+        long sentencias = estadisticas.getPrepareStatementCount();
+
+        UsuarioDTO primero = pagina.getUsuarios().get(0);
+        assertAll("Página de usuarios sin N+1",
+                () -> assertEquals(20, pagina.getUsuarios().size()),
+                () -> assertEquals(NUMERO_USUARIOS, pagina.getTotalElementos()),
+                () -> assertEquals("Apellido040", primero.getApellido(),
+                        "La segunda página en orden descendente empieza en Apellido040"),
+                () -> assertTrue(pagina.getUsuarios().stream()
+                        .allMatch(u -> u.getCuentasBancarias().size() == CUENTAS_POR_USUARIO),
+                        "Cada usuario debe traer sus cuentas"),
+                // IDs de la página + COUNT + usuarios con sus cuentas
+                () -> assertEquals(3, sentencias, "Se prepararon " + sentencias + " sentencias"));
+    }
+
+    @Test
+    void obtenerTodosLosUsuarios_DeberiaCargarLasCuentasEnUnaSolaConsulta() {
+        int total = usuarioService.obtenerTodosLosUsuarios().size();
+        long sentencias = estadisticas.getPrepareStatementCount();
+
+        assertAll("Listado completo sin N+1",
+                () -> assertEquals(NUMERO_USUARIOS, total),
+                () -> assertEquals(1, sentencias, "Se prepararon " + sentencias + " sentencias"));
+    }
+}
@@ -0,0 +1,58 @@
+package com.sofka.banking.system.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import com.sofka.banking.system.config.SecurityConfig;
+
+class CalibradorBCryptTest {
+
+    @Test
+    void elegirFuerza_DeberiaSubirMientrasLaEstimacionQuepaEnElObjetivo() {
+        // 50 ms a fuerza 10 -> 100 ms a 11, 200 ms a 12, 400 ms a 13
+        assertEquals(12, CalibradorBCrypt.elegirFuerza(Duration.ofMillis(50),
+                Duration.ofMillis(250)));
+        assertEquals(13, CalibradorBCrypt.elegirFuerza(Duration.ofMillis(50),
+                Duration.ofMillis(400)));
+    }
+
+    @Test
+    void elegirFuerza_EnHardwareLento_NoDeberiaBajarDelMinimo() {
+        assertEquals(CalibradorBCrypt.FUERZA_MINIMA, CalibradorBCrypt
+                .elegirFuerza(Duration.ofMillis(500), Duration.ofMillis(250)));
+    }
+
+    @Test
+    void elegirFuerza_ConObjetivoHolgado_NoDeberiaSuperarElMaximo() {
+        assertEquals(CalibradorBCrypt.FUERZA_MAXIMA, CalibradorBCrypt
+                .elegirFuerza(Duration.ofMillis(1), Duration.ofMinutes(10)));
+    }
+
+    @Test
+    void calibrar_DeberiaDevolverUnaFuerzaDentroDelRango() {
+        int fuerza = CalibradorBCrypt.calibrar(Duration.ofMillis(250));
+
+        assertTrue(fuerza >= CalibradorBCrypt.FUERZA_MINIMA);
+        assertTrue(fuerza <= CalibradorBCrypt.FUERZA_MAXIMA);
+    }
+
+    @Test
+    void encoderDelegante_DeberiaMarcarComoObsoletosLosHashesLegadosYLosDebiles() {
+        PasswordEncoder encoder = SecurityConfig.encoderDelegante(5);
+        String legado = new BCryptPasswordEncoder(5).encode("Password123!");
+        String debil = SecurityConfig.encoderDelegante(4).encode("Password123!");
+        String actual = encoder.encode("Password123!");
+        String masFuerte = SecurityConfig.encoderDelegante(6).encode("Password123!");
+
+        assertTrue(actual.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("Password123!", legado));
+        assertTrue(encoder.upgradeEncoding(legado));
+        assertTrue(encoder.upgradeEncoding(debil));
+        assertFalse(encoder.upgradeEncoding(actual));
+        assertFalse(encoder.upgradeEncoding(masFuerte));
+    }
+}
@@ -0,0 +1,272 @@
+package com.sofka.banking.system.service;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import com.sofka.banking.system.concurrency.SaldosPendientes;
+import com.sofka.banking.system.dto.request.CreateTransaccionDTO;
+import com.sofka.banking.system.dto.request.CreateTransferenciaDTO;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.DireccionTransaccion;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
+import com.sofka.banking.system.exception.transaccion.IdempotenciaNoDisponibleException;
+import com.sofka.banking.system.exception.transaccion.MontoInvalidoException;
+import com.sofka.banking.system.exception.transaccion.SaldoInsuficienteException;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.TransaccionRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+
+/**
+ * Comportamiento que todo motor de {@link TransaccionService} debe cumplir, con la aplicación
+ * completa sobre H2. Cada motor lo hereda con su configuración
+ * ({@code banking.transacciones.motor}).
+ */
+public abstract class ContratoTransaccionServiceTest {
+
+    protected static final int NUMERO_CUENTAS = 16;
+    private static final BigDecimal SALDO_INICIAL = new BigDecimal("100.00");
+
+    @Autowired
+    protected TransaccionService transaccionService;
+
+    @Autowired
+    private CuentaBancariaService cuentaBancariaService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private CuentaBancariaRepository cuentaBancariaRepository;
+
+    @Autowired
+    private TransaccionRepository transaccionRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ObjectProvider<SaldosPendientes> saldosPendientes;
+
+    protected List<Long> cuentaIds;
+
+    @BeforeEach
+    void crearCuentas() {
+        transaccionRepository.deleteAllInBatch();
+        cuentaBancariaRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+
+        Usuario usuario = usuarioRepository.save(Usuario.builder().cedula("12345678")
+                .nombre("Contrato").apellido("Motor").email("contrato@email.com")
+                .telefono("3001234567").password("sin-uso").build());
+
+        cuentaIds = new ArrayList<>();
+        for (int i = 0; i < NUMERO_CUENTAS; i++) {
+            cuentaIds.add(cuentaBancariaRepository.save(CuentaBancaria.builder()
+                    .numeroCuenta(String.format("%010d", i)).saldoActual(SALDO_INICIAL)
+                    .usuario(usuario).build()).getId());
+        }
+    }
+
+    @AfterEach
+    void esperarPersistencia() {
+        // Nada pendiente de escribir sobre cuentas que la siguiente prueba va a borrar
+        esperarAplicados();
+    }
+
+    @Test
+    void registrarTransaccion_Deposito_DeberiaVerseEnLaLecturaSiguiente() {
+        Long cuentaId = cuentaIds.get(0);
+
+        TransaccionDTO deposito = transaccionService.registrarTransaccion(CreateTransaccionDTO
+                .builder().cuentaBancariaId(cuentaId).monto(new BigDecimal("25.50"))
+                .tipo(TipoTransaccion.DEPOSITO).build());
+
+        List<TransaccionDTO> historial = transaccionService.obtenerTransaccionesPorCuenta(cuentaId);
+        assertAll("Lectura de la propia escritura",
+                () -> assertEquals(0, new BigDecimal("125.50").compareTo(
+                        cuentaBancariaService.consultarSaldo(cuentaId).getSaldoActual())),
+                () -> assertEquals(1, historial.size()),
+                () -> assertEquals(deposito.getId(), historial.get(0).getId()),
+                () -> assertEquals(TipoTransaccion.DEPOSITO, historial.get(0).getTipo()));
+    }
+
+    @Test
+    void registrarTransaccion_RetiroSinSaldoSuficiente_DeberiaRechazarloSinCambiarElSaldo() {
+        Long cuentaId = cuentaIds.get(0);
+        CreateTransaccionDTO retiro = CreateTransaccionDTO.builder().cuentaBancariaId(cuentaId)
+                .monto(new BigDecimal("60.00")).tipo(TipoTransaccion.RETIRO).build();
+
+        transaccionService.registrarTransaccion(retiro);
+
+        assertThrows(SaldoInsuficienteException.class,
+                () -> transaccionService.registrarTransaccion(retiro));
+        assertEquals(0, new BigDecimal("40.00").compareTo(
+                cuentaBancariaService.consultarSaldo(cuentaId).getSaldoActual()));
+    }
+
+    @Test
+    void registrarTransaccion_CuentaInexistente_DeberiaLanzarExcepcion() {
+        CreateTransaccionDTO deposito = CreateTransaccionDTO.builder().cuentaBancariaId(999_999L)
+                .monto(BigDecimal.TEN).tipo(TipoTransaccion.DEPOSITO).build();
+
+        assertThrows(CuentaBancariaNotFoundException.class,
+                () -> transaccionService.registrarTransaccion(deposito));
+    }
+
+    @Test
+    void registrarTransaccion_CuentaEliminada_DeberiaLanzarExcepcion() {
+        Long cuentaId = cuentaIds.get(0);
+        CreateTransaccionDTO deposito = CreateTransaccionDTO.builder().cuentaBancariaId(cuentaId)
+                .monto(BigDecimal.TEN).tipo(TipoTransaccion.DEPOSITO).build();
+        transaccionService.registrarTransaccion(deposito);
+
+        cuentaBancariaService.eliminarCuenta(cuentaId);
+
+        assertThrows(CuentaBancariaNotFoundException.class,
+                () -> transaccionService.registrarTransaccion(deposito));
+    }
+
+    @Test
+    void ejecutarConClave_SiLaClaveFallaTrasConfirmar_ElReintentoNoDeberiaDuplicarla() {
+        Long cuentaId = cuentaIds.get(0);
+        String clave = "contrato-" + cuentaId;
+        CreateTransaccionDTO deposito = CreateTransaccionDTO.builder().cuentaBancariaId(cuentaId)
+                .monto(BigDecimal.TEN).tipo(TipoTransaccion.DEPOSITO).build();
+
+        // La operación se confirma y después falla el guardado de la respuesta de la clave
+        assertThrows(RuntimeException.class, () -> idempotenciaService.ejecutar(clave,
+                "transaccion", deposito, () -> {
+                    transaccionService.registrarTransaccion(deposito);
+                    throw new IllegalStateException("Fallo al completar la clave");
+                }));
+        int aplicadas;
+        try {
+            idempotenciaService.ejecutar(clave, "transaccion", deposito,
+                    () -> transaccionService.registrarTransaccion(deposito));
+            aplicadas = 1;
+        } catch (IdempotenciaNoDisponibleException e) {
+            // Un motor que confirma fuera de la transacción de la clave rechaza ambos intentos
+            aplicadas = 0;
+        }
+
+        esperarAplicados();
+        assertEquals(0, SALDO_INICIAL.add(BigDecimal.TEN.multiply(BigDecimal.valueOf(aplicadas)))
+                .compareTo(cuentaBancariaService.consultarSaldo(cuentaId).getSaldoActual()),
+                "El depósito se aplica como mucho una vez");
+    }
+
+    @Test
+    void realizarTransferencia_DeberiaMoverElSaldoYRegistrarla() {
+        Long origen = cuentaIds.get(0);
+        Long destino = cuentaIds.get(1);
+
+        TransaccionDTO transferencia = transaccionService.realizarTransferencia(
+                CreateTransferenciaDTO.builder().cuentaOrigenId(origen).cuentaDestinoId(destino)
+                        .monto(new BigDecimal("30.00")).build());
+
+        List<TransaccionDTO> historial = transaccionService.obtenerTransaccionesPorCuenta(origen);
+        List<TransaccionDTO> recibidas = transaccionService.obtenerTransaccionesPorCuenta(destino);
+        assertAll("Transferencia aplicada",
+                () -> assertEquals(TipoTransaccion.TRANSFERENCIA, transferencia.getTipo()),
+                () -> assertEquals(destino, transferencia.getCuentaDestinoId()),
+                () -> assertEquals(0, new BigDecimal("70.00").compareTo(
+                        cuentaBancariaService.consultarSaldo(origen).getSaldoActual())),
+                () -> assertEquals(0, new BigDecimal("130.00").compareTo(
+                        cuentaBancariaService.consultarSaldo(destino).getSaldoActual())),
+                () -> assertEquals(transferencia.getId(), historial.get(0).getId()),
+                () -> assertEquals(destino, historial.get(0).getCuentaDestinoId()),
+                () -> assertEquals(DireccionTransaccion.SALIDA, historial.get(0).getDireccion()),
+                () -> assertEquals(transferencia.getId(), recibidas.get(0).getId()),
+                () -> assertEquals(DireccionTransaccion.ENTRADA, recibidas.get(0).getDireccion()));
+    }
+
+    @Test
+    void realizarTransferencia_DestinoInexistente_NoDeberiaDebitarElOrigen() {
+        Long origen = cuentaIds.get(0);
+        CreateTransferenciaDTO transferencia = CreateTransferenciaDTO.builder()
+                .cuentaOrigenId(origen).cuentaDestinoId(999_999L).monto(BigDecimal.TEN).build();
+
+        assertThrows(CuentaBancariaNotFoundException.class,
+                () -> transaccionService.realizarTransferencia(transferencia));
+        assertEquals(0, SALDO_INICIAL.compareTo(
+                cuentaBancariaService.consultarSaldo(origen).getSaldoActual()));
+    }
+
+    @Test
+    void realizarTransferencia_ALaMismaCuenta_DeberiaLanzarExcepcion() {
+        CreateTransferenciaDTO transferencia = CreateTransferenciaDTO.builder()
+                .cuentaOrigenId(cuentaIds.get(0)).cuentaDestinoId(cuentaIds.get(0))
+                .monto(BigDecimal.TEN).build();
+
+        assertThrows(MontoInvalidoException.class,
+                () -> transaccionService.realizarTransferencia(transferencia));
+    }
+
+    @Test
+    void realizarTransferencia_ConcurrenteEnVariosHilos_DeberiaConservarElSaldoTotal()
+            throws Exception {
+        int hilos = Math.max(4, Runtime.getRuntime().availableProcessors());
+        AtomicLong exitosas = new AtomicLong();
+        ConcurrentLinkedQueue<Throwable> errores = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+
+        for (int i = 0; i < 2_000; i++) {
+            executor.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                int origen = random.nextInt(NUMERO_CUENTAS);
+                int destino = (origen + 1 + random.nextInt(NUMERO_CUENTAS - 1)) % NUMERO_CUENTAS;
+                try {
+                    transaccionService.realizarTransferencia(CreateTransferenciaDTO.builder()
+                            .cuentaOrigenId(cuentaIds.get(origen))
+                            .cuentaDestinoId(cuentaIds.get(destino))
+                            .monto(new BigDecimal(random.nextInt(1, 40))).build());
+                    exitosas.incrementAndGet();
+                } catch (SaldoInsuficienteException e) {
+                    // esperado cuando la cuenta origen se queda sin fondos
+                } catch (Throwable e) {
+                    errores.add(e);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+        esperarAplicados();
+        List<CuentaBancaria> cuentas = cuentaBancariaRepository.findAll();
+        BigDecimal saldoTotal = cuentas.stream().map(CuentaBancaria::getSaldoActual)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        long registradas = transaccionRepository.count();
+
+        assertAll("Conservación del saldo",
+                () -> assertTrue(errores.isEmpty(), "Errores inesperados: " + errores),
+                () -> assertEquals(0, SALDO_INICIAL.multiply(BigDecimal.valueOf(NUMERO_CUENTAS))
+                        .compareTo(saldoTotal), "El saldo total debe conservarse"),
+                () -> assertEquals(exitosas.get(), registradas,
+                        "Cada transferencia exitosa debe quedar registrada"),
+                () -> assertTrue(cuentas.stream().allMatch(c -> c.getSaldoActual().signum() >= 0),
+                        "Ningún saldo puede quedar negativo"));
+    }
+
+    private void esperarAplicados() {
+        saldosPendientes.ifAvailable(
+                pendientes -> pendientes.esperarAplicados(cuentaIds.toArray(Long[]::new)));
+    }
+}
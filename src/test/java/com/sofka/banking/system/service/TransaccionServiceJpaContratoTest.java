@@ -0,0 +1,21 @@
+package com.sofka.banking.system.service;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.sofka.banking.system.service.impl.TransaccionServiceImpl;
+
+/**
+ * Referencia del contrato: el motor JPA, con bloqueos por cuenta y escritura síncrona.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:motor-jpa;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=32", "spring.jpa.show-sql=false",
+        "banking.transacciones.motor=jpa"})
+class TransaccionServiceJpaContratoTest extends ContratoTransaccionServiceTest {
+
+    @Test
+    void transaccionService_ConMotorJpa_DeberiaUsarElServicioJpa() {
+        assertInstanceOf(TransaccionServiceImpl.class, transaccionService);
+    }
+}
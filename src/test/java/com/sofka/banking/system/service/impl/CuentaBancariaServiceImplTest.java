@@ -6,6 +6,10 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -15,14 +19,25 @@ import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.util.unit.DataSize;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sofka.banking.system.cache.FiltrosUnicidad;
+import com.sofka.banking.system.cache.SaldoCache;
+import com.sofka.banking.system.concurrency.SaldosPendientes;
 import com.sofka.banking.system.dto.request.CreateCuentaBancariaDTO;
 import com.sofka.banking.system.dto.response.CuentaBancariaDTO;
+import com.sofka.banking.system.dto.response.EstadisticasCacheDTO;
 import com.sofka.banking.system.entity.CuentaBancaria;
 import com.sofka.banking.system.entity.Usuario;
 import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
@@ -31,6 +46,8 @@ import com.sofka.banking.system.exception.usuario.UsuarioNotFoundException;
 import com.sofka.banking.system.mapper.CuentaBancariaMapper;
 import com.sofka.banking.system.repository.CuentaBancariaRepository;
 import com.sofka.banking.system.repository.UsuarioRepository;
+import com.sofka.banking.system.service.EliminacionCascadaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class CuentaBancariaServiceImplTest {
@@ -44,6 +61,20 @@ class CuentaBancariaServiceImplTest {
         @Mock
         private CuentaBancariaMapper cuentaBancariaMapper;
 
+        @Mock
+        private SaldoCache saldoCache;
+
+        @Mock
+        private ObjectProvider<SaldosPendientes> saldosPendientes;
+
+        // Sin cargar: todas las comprobaciones llegan al repositorio
+        @Spy
+        private FiltrosUnicidad filtrosUnicidad = new FiltrosUnicidad(1_000, 0.01,
+                        DataSize.ofKilobytes(4), new SimpleMeterRegistry());
+
+        @Mock
+        private EliminacionCascadaService eliminacionCascadaService;
+
         @InjectMocks
         private CuentaBancariaServiceImpl cuentaBancariaService;
 
@@ -70,10 +101,9 @@ class CuentaBancariaServiceImplTest {
         }
 
         @Test
-        void consultarSaldo_ConCuentaExistente_DeberiaRetornarSaldo() {
+        void consultarSaldo_ConCuentaExistente_DeberiaRetornarSaldoDesdeLaCache() {
                 // Given
-                when(cuentaBancariaRepository.findById(1L)).thenReturn(Optional.of(cuentaBancaria));
-                when(cuentaBancariaMapper.toDTO(cuentaBancaria)).thenReturn(cuentaBancariaDTO);
+                when(saldoCache.obtener(1L)).thenReturn(cuentaBancariaDTO);
 
                 // When
                 CuentaBancariaDTO resultado = cuentaBancariaService.consultarSaldo(1L);
@@ -82,14 +112,34 @@ class CuentaBancariaServiceImplTest {
                 assertNotNull(resultado);
                 assertEquals(cuentaBancariaDTO.getSaldoActual(), resultado.getSaldoActual());
                 assertEquals(cuentaBancariaDTO.getNumeroCuenta(), resultado.getNumeroCuenta());
-                verify(cuentaBancariaRepository).findById(1L);
-                verify(cuentaBancariaMapper).toDTO(cuentaBancaria);
+                verify(saldoCache).obtener(1L);
+                verifyNoInteractions(cuentaBancariaRepository, cuentaBancariaMapper);
+        }
+
+        @Test
+        void consultarSaldo_ConMotorDiario_DeberiaEsperarLosCambiosPendientes() {
+                // Given
+                SaldosPendientes motor = mock(SaldosPendientes.class);
+                doAnswer(invocation -> {
+                        Consumer<SaldosPendientes> accion = invocation.getArgument(0);
+                        accion.accept(motor);
+                        return null;
+                }).when(saldosPendientes).ifAvailable(any());
+                when(saldoCache.obtener(1L)).thenReturn(cuentaBancariaDTO);
+
+                // When
+                cuentaBancariaService.consultarSaldo(1L);
+
+                // Then
+                InOrder orden = inOrder(motor, saldoCache);
+                orden.verify(motor).esperarAplicados(1L);
+                orden.verify(saldoCache).obtener(1L);
         }
 
         @Test
         void consultarSaldo_ConCuentaInexistente_DeberiaLanzarExcepcion() {
                 // Given
-                when(cuentaBancariaRepository.findById(999L)).thenReturn(Optional.empty());
+                when(saldoCache.obtener(999L)).thenThrow(new CuentaBancariaNotFoundException(999L));
 
                 // When & Then
                 CuentaBancariaNotFoundException exception =
@@ -97,10 +147,30 @@ class CuentaBancariaServiceImplTest {
                                                 () -> cuentaBancariaService.consultarSaldo(999L));
 
                 assertEquals("Cuenta bancaria con ID 999 no encontrada", exception.getMessage());
-                verify(cuentaBancariaRepository).findById(999L);
+                verify(saldoCache).obtener(999L);
                 verify(cuentaBancariaMapper, never()).toDTO(any());
         }
 
+        @Test
+        void obtenerEstadisticasCacheSaldos_DeberiaTraducirLasEstadisticasDeLaCache() {
+                // Given
+                when(saldoCache.estadisticas())
+                                .thenReturn(CacheStats.of(3, 1, 1, 0, 10, 2, 2));
+                when(saldoCache.tamano()).thenReturn(5L);
+
+                // When
+                EstadisticasCacheDTO resultado =
+                                cuentaBancariaService.obtenerEstadisticasCacheSaldos();
+
+                // Then
+                assertAll("Estadísticas de la caché",
+                                () -> assertEquals(5L, resultado.getEntradas()),
+                                () -> assertEquals(3L, resultado.getAciertos()),
+                                () -> assertEquals(1L, resultado.getFallos()),
+                                () -> assertEquals(0.75, resultado.getTasaAciertos()),
+                                () -> assertEquals(2L, resultado.getDesalojos()));
+        }
+
         @Test
         void crearCuenta_ConDatosValidos_DeberiaCrearCuenta() {
                 // Given
@@ -198,18 +268,14 @@ class CuentaBancariaServiceImplTest {
         void obtenerCuentasPorUsuario_ConCuentasExistentes_DeberiaRetornarLista() {
                 // Given
                 Long usuarioId = 1L;
-                CuentaBancaria cuenta2 = CuentaBancaria.builder().id(2L).numeroCuenta("0987654321")
-                                .saldoActual(new BigDecimal("2000.00")).usuario(usuario).build();
-
                 CuentaBancariaDTO cuentaDTO2 =
                                 CuentaBancariaDTO.builder().id(2L).numeroCuenta("0987654321")
                                                 .saldoActual(new BigDecimal("2000.00")).build();
 
-                List<CuentaBancaria> cuentas = Arrays.asList(cuentaBancaria, cuenta2);
                 List<CuentaBancariaDTO> cuentasDTO = Arrays.asList(cuentaBancariaDTO, cuentaDTO2);
 
-                when(cuentaBancariaRepository.findByUsuarioId(usuarioId)).thenReturn(cuentas);
-                when(cuentaBancariaMapper.toDTOList(cuentas)).thenReturn(cuentasDTO);
+                when(cuentaBancariaRepository.findResumenesByUsuarioId(usuarioId))
+                                .thenReturn(cuentasDTO);
 
                 // When
                 List<CuentaBancariaDTO> resultado =
@@ -225,20 +291,19 @@ class CuentaBancariaServiceImplTest {
                                 () -> assertEquals(cuentaDTO2.getId(), resultado.get(1).getId(),
                                                 "La segunda cuenta debe coincidir"));
 
-                verify(cuentaBancariaRepository).findByUsuarioId(usuarioId);
-                verify(cuentaBancariaMapper).toDTOList(cuentas);
-                verifyNoMoreInteractions(cuentaBancariaRepository, cuentaBancariaMapper);
+                // Proyección directa: no se cargan entidades ni se pasa por el mapper
+                verify(cuentaBancariaRepository).findResumenesByUsuarioId(usuarioId);
+                verifyNoMoreInteractions(cuentaBancariaRepository);
+                verifyNoInteractions(cuentaBancariaMapper);
         }
 
         @Test
         void obtenerCuentasPorUsuario_SinCuentas_DeberiaRetornarListaVacia() {
                 // Given
                 Long usuarioId = 999L;
-                List<CuentaBancaria> cuentas = Arrays.asList();
-                List<CuentaBancariaDTO> cuentasDTO = Arrays.asList();
 
-                when(cuentaBancariaRepository.findByUsuarioId(usuarioId)).thenReturn(cuentas);
-                when(cuentaBancariaMapper.toDTOList(cuentas)).thenReturn(cuentasDTO);
+                when(cuentaBancariaRepository.findResumenesByUsuarioId(usuarioId))
+                                .thenReturn(List.of());
 
                 // When
                 List<CuentaBancariaDTO> resultado =
@@ -249,16 +314,72 @@ class CuentaBancariaServiceImplTest {
                                 () -> assertNotNull(resultado, "El resultado no debe ser nulo"),
                                 () -> assertTrue(resultado.isEmpty(), "La lista debe estar vacía"));
 
-                verify(cuentaBancariaRepository).findByUsuarioId(usuarioId);
-                verify(cuentaBancariaMapper).toDTOList(cuentas);
-                verifyNoMoreInteractions(cuentaBancariaRepository, cuentaBancariaMapper);
+                verify(cuentaBancariaRepository).findResumenesByUsuarioId(usuarioId);
+                verifyNoMoreInteractions(cuentaBancariaRepository);
+                verifyNoInteractions(cuentaBancariaMapper);
+        }
+
+        @Test
+        void obtenerCuentasPorUsuario_ConMotorDiario_DeberiaEsperarLosCambiosPendientes() {
+                // Given
+                SaldosPendientes motor = mock(SaldosPendientes.class);
+                doAnswer(invocation -> {
+                        Consumer<SaldosPendientes> accion = invocation.getArgument(0);
+                        accion.accept(motor);
+                        return null;
+                }).when(saldosPendientes).ifAvailable(any());
+                when(cuentaBancariaRepository.findIdsByUsuarioId(1L, Limit.unlimited()))
+                                .thenReturn(List.of(1L, 2L));
+                when(cuentaBancariaRepository.findResumenesByUsuarioId(1L))
+                                .thenReturn(List.of(cuentaBancariaDTO));
+
+                // When
+                cuentaBancariaService.obtenerCuentasPorUsuario(1L);
+
+                // Then
+                InOrder orden = inOrder(motor, cuentaBancariaRepository);
+                orden.verify(motor).esperarAplicados(1L, 2L);
+                orden.verify(cuentaBancariaRepository).findResumenesByUsuarioId(1L);
+        }
+
+        @Test
+        void buscarPorNumeroCuenta_ConCuentaExistente_DeberiaResolverSoloElId() {
+                // Given
+                when(cuentaBancariaRepository.findIdByNumeroCuenta("1234567890"))
+                                .thenReturn(Optional.of(1L));
+                when(saldoCache.obtener(1L)).thenReturn(cuentaBancariaDTO);
+
+                // When
+                CuentaBancariaDTO resultado =
+                                cuentaBancariaService.buscarPorNumeroCuenta("1234567890");
+
+                // Then
+                assertEquals(cuentaBancariaDTO, resultado);
+                verify(cuentaBancariaRepository).findIdByNumeroCuenta("1234567890");
+                verifyNoMoreInteractions(cuentaBancariaRepository);
+        }
+
+        @Test
+        void buscarPorNumeroCuenta_ConNumeroInexistente_DeberiaLanzarExcepcion() {
+                // Given
+                when(cuentaBancariaRepository.findIdByNumeroCuenta("0000000000"))
+                                .thenReturn(Optional.empty());
+
+                // When
+                CuentaBancariaNotFoundException exception = assertThrows(
+                                CuentaBancariaNotFoundException.class,
+                                () -> cuentaBancariaService.buscarPorNumeroCuenta("0000000000"));
+
+                // Then
+                assertEquals("Cuenta bancaria con número 0000000000 no encontrada",
+                                exception.getMessage());
+                verifyNoInteractions(saldoCache);
         }
 
         @Test
         void eliminarCuenta_ConCuentaExistente_DeberiaEliminarCuenta() {
                 // Given
                 Long cuentaId = 1L;
-                when(cuentaBancariaRepository.existsById(cuentaId)).thenReturn(true);
 
                 // When
                 String resultado = cuentaBancariaService.eliminarCuenta(cuentaId);
@@ -269,9 +390,9 @@ class CuentaBancariaServiceImplTest {
                                 () -> assertEquals("Cuenta eliminada exitosamente", resultado,
                                                 "El mensaje debe ser correcto"));
 
-                verify(cuentaBancariaRepository).existsById(cuentaId);
-                verify(cuentaBancariaRepository).deleteById(cuentaId);
-                verifyNoMoreInteractions(cuentaBancariaRepository);
+                // El historial por bloques, sin cargarlo en el contexto de persistencia
+                verify(eliminacionCascadaService).eliminarCuenta(cuentaId);
+                verifyNoInteractions(cuentaBancariaRepository);
                 verifyNoInteractions(cuentaBancariaMapper);
         }
 
@@ -279,7 +400,8 @@ class CuentaBancariaServiceImplTest {
         void eliminarCuenta_ConCuentaInexistente_DeberiaLanzarExcepcion() {
                 // Given
                 Long cuentaId = 999L;
-                when(cuentaBancariaRepository.existsById(cuentaId)).thenReturn(false);
+                doThrow(new CuentaBancariaNotFoundException(cuentaId))
+                                .when(eliminacionCascadaService).eliminarCuenta(cuentaId);
 
                 // When
                 CuentaBancariaNotFoundException exception = assertThrows(
@@ -295,9 +417,8 @@ class CuentaBancariaServiceImplTest {
                                                 exception.getMessage(),
                                                 "El mensaje de error debe ser correcto"));
 
-                verify(cuentaBancariaRepository).existsById(cuentaId);
-                verify(cuentaBancariaRepository, never()).deleteById(any());
-                verifyNoMoreInteractions(cuentaBancariaRepository);
+                verify(eliminacionCascadaService).eliminarCuenta(cuentaId);
+                verifyNoInteractions(saldoCache);
                 verifyNoInteractions(cuentaBancariaMapper);
         }
 }
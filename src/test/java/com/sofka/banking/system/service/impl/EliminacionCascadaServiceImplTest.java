@@ -0,0 +1,159 @@
+package com.sofka.banking.system.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.sofka.banking.system.dto.response.TareaEliminacionDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Transaccion;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.EstadoTareaEliminacion;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.exception.usuario.UsuarioNotFoundException;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.TransaccionRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+import com.sofka.banking.system.service.EliminacionCascadaService;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Eliminación por bloques sobre H2: cuántas sentencias envía y que no carga el historial en el
+ * contexto de persistencia (las entidades cargadas son lo que antes crecía con el historial).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:eliminacion-cascada;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "banking.eliminacion.tamano-bloque=" + EliminacionCascadaServiceImplTest.TAMANO_BLOQUE})
+class EliminacionCascadaServiceImplTest {
+
+    static final int TAMANO_BLOQUE = 250;
+    private static final int TRANSACCIONES_POR_CUENTA = 1_000;
+
+    @Autowired
+    private EliminacionCascadaService eliminacionCascadaService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CuentaBancariaRepository cuentaBancariaRepository;
+
+    @Autowired
+    private TransaccionRepository transaccionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+    private Long usuarioId;
+    private List<Long> cuentaIds;
+    private Long cuentaAjenaId;
+
+    @BeforeEach
+    void setUp() {
+        transaccionRepository.deleteAllInBatch();
+        cuentaBancariaRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+
+        Usuario usuario = usuarioRepository.save(usuario("10000001", "titular@email.com"));
+        Usuario ajeno = usuarioRepository.save(usuario("10000002", "ajeno@email.com"));
+        usuarioId = usuario.getId();
+
+        CuentaBancaria cuentaAjena = cuentaBancariaRepository.save(cuenta("9000000000", ajeno));
+        cuentaAjenaId = cuentaAjena.getId();
+        cuentaIds = new ArrayList<>();
+        List<Transaccion> transacciones = new ArrayList<>();
+        for (int c = 0; c < 2; c++) {
+            CuentaBancaria cuenta =
+                    cuentaBancariaRepository.save(cuenta(String.format("%010d", c), usuario));
+            cuentaIds.add(cuenta.getId());
+            for (int i = 0; i < TRANSACCIONES_POR_CUENTA; i++) {
+                transacciones.add(Transaccion.builder().cuentaBancaria(cuenta)
+                        .monto(BigDecimal.ONE).tipo(TipoTransaccion.DEPOSITO)
+                        .fecha(LocalDateTime.now()).build());
+            }
+            // Transferencia recibida desde la cuenta de otro usuario: se elimina con la cuenta
+            transacciones.add(Transaccion.builder().cuentaBancaria(cuentaAjena)
+                    .cuentaDestino(cuenta).monto(BigDecimal.TEN)
+                    .tipo(TipoTransaccion.TRANSFERENCIA).fecha(LocalDateTime.now()).build());
+        }
+        // Una transacción propia de la cuenta ajena, que debe quedar
+        transacciones.add(Transaccion.builder().cuentaBancaria(cuentaAjena).monto(BigDecimal.ONE)
+                .tipo(TipoTransaccion.DEPOSITO).fecha(LocalDateTime.now()).build());
+        transaccionRepository.saveAll(transacciones);
+
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+    }
+
+    @Test
+    void eliminarUsuario_DeberiaBorrarPorBloquesSinCargarElHistorial() {
+        eliminacionCascadaService.eliminarUsuario(usuarioId);
+
+        // Por cuenta: un SELECT de IDs y un DELETE por bloque, más un bloque vacío por sentido
+        long bloques = 2 * ((TRANSACCIONES_POR_CUENTA + 1) / TAMANO_BLOQUE + 1);
+        long sentencias = estadisticas.getPrepareStatementCount();
+        assertAll("Eliminación por bloques",
+                () -> assertFalse(usuarioRepository.existsById(usuarioId)),
+                () -> assertTrue(
+                        cuentaIds.stream().noneMatch(cuentaBancariaRepository::existsById)),
+                () -> assertEquals(1, transaccionRepository.count(),
+                        "Sólo queda la transacción propia de la cuenta ajena"),
+                () -> assertTrue(cuentaBancariaRepository.existsById(cuentaAjenaId)),
+                // Sólo las cuentas y su titular; antes también las 2.002 transacciones
+                () -> assertTrue(estadisticas.getEntityLoadCount() <= 10,
+                        "Entidades cargadas: " + estadisticas.getEntityLoadCount()),
+                () -> assertTrue(sentencias <= 2 * bloques + 40,
+                        "Sentencias: " + sentencias + " para " + bloques + " bloques"));
+    }
+
+    @Test
+    void iniciarEliminacionUsuario_DeberiaTerminarYReportarElAvance() throws Exception {
+        TareaEliminacionDTO tarea = eliminacionCascadaService.iniciarEliminacionUsuario(usuarioId);
+
+        long limite = System.nanoTime() + 30_000_000_000L;
+        TareaEliminacionDTO estado = eliminacionCascadaService.consultarTarea(tarea.getId());
+        while (estado.getEstado() == EstadoTareaEliminacion.EN_CURSO
+                && System.nanoTime() < limite) {
+            Thread.sleep(20);
+            estado = eliminacionCascadaService.consultarTarea(tarea.getId());
+        }
+
+        TareaEliminacionDTO terminada = estado;
+        assertAll("Tarea en segundo plano",
+                () -> assertEquals(2, tarea.getCuentasTotales()),
+                () -> assertEquals(EstadoTareaEliminacion.COMPLETADA, terminada.getEstado()),
+                () -> assertEquals(2, terminada.getCuentasEliminadas()),
+                () -> assertEquals(2 * (TRANSACCIONES_POR_CUENTA + 1),
+                        terminada.getTransaccionesEliminadas()),
+                () -> assertFalse(usuarioRepository.existsById(usuarioId)));
+    }
+
+    @Test
+    void iniciarEliminacionUsuario_UsuarioInexistente_DeberiaLanzarExcepcion() {
+        assertThrows(UsuarioNotFoundException.class,
+                () -> eliminacionCascadaService.iniciarEliminacionUsuario(999_999L));
+    }
+
+    private static Usuario usuario(String cedula, String email) {
+        return Usuario.builder().cedula(cedula).nombre("Titular").apellido("Prueba").email(email)
+                .telefono("3001234567").password("sin-uso").build();
+    }
+
+    private static CuentaBancaria cuenta(String numero, Usuario usuario) {
+        return CuentaBancaria.builder().numeroCuenta(numero).saldoActual(BigDecimal.ZERO)
+                .usuario(usuario).build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.sofka.banking.system.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import com.sofka.banking.system.dto.response.EstadoCuentaDTO;
+import com.sofka.banking.system.dto.response.PeriodoEstadoDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Transaccion;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.GranularidadEstado;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
+import com.sofka.banking.system.exception.cuentaBancaria.PeriodoInvalidoException;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.TransaccionRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+import com.sofka.banking.system.service.EstadoCuentaService;
+
+/**
+ * Las consultas agregadas corren en H2: con mocks de JDBC no se probaría nada del cálculo.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:estado-cuenta;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"})
+class EstadoCuentaServiceImplTest {
+
+    @Autowired
+    private EstadoCuentaService estadoCuentaService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CuentaBancariaRepository cuentaBancariaRepository;
+
+    @Autowired
+    private TransaccionRepository transaccionRepository;
+
+    private CuentaBancaria cuenta;
+
+    @BeforeEach
+    void setUp() {
+        transaccionRepository.deleteAllInBatch();
+        cuentaBancariaRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+
+        Usuario usuario = usuarioRepository.save(Usuario.builder().cedula("12345678")
+                .nombre("Estado").apellido("Cuenta").email("estado@email.com")
+                .telefono("3001234567").password("sin-uso").build());
+        // Saldos actuales, ya con todo el historial aplicado
+        cuenta = cuentaBancariaRepository.save(CuentaBancaria.builder().numeroCuenta("0000000001")
+                .saldoActual(new BigDecimal("1000.00")).usuario(usuario).build());
+        CuentaBancaria otra = cuentaBancariaRepository.save(CuentaBancaria.builder()
+                .numeroCuenta("0000000002").saldoActual(new BigDecimal("500.00")).usuario(usuario)
+                .build());
+
+        transaccionRepository.saveAll(List.of(
+                transaccion(TipoTransaccion.DEPOSITO, "200.00", "2026-01-10T09:00", cuenta, null),
+                transaccion(TipoTransaccion.RETIRO, "50.00", "2026-01-20T18:30", cuenta, null),
+                transaccion(TipoTransaccion.TRANSFERENCIA, "100.00", "2026-02-05T12:00", cuenta,
+                        otra),
+                transaccion(TipoTransaccion.TRANSFERENCIA, "30.00", "2026-02-28T23:59", otra,
+                        cuenta),
+                transaccion(TipoTransaccion.DEPOSITO, "10.00", "2026-03-01T00:00", cuenta, null),
+                transaccion(TipoTransaccion.DEPOSITO, "999.00", "2026-01-15T10:00", otra, null)));
+    }
+
+    @Test
+    void obtenerEstado_PorMes_DeberiaCalcularSaldosYTotalesPorPeriodo() {
+        EstadoCuentaDTO estado = estadoCuentaService.obtenerEstado(cuenta.getId(),
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 2, 28), "mes");
+
+        List<PeriodoEstadoDTO> periodos = estado.getPeriodos();
+        assertAll("Estado mensual",
+                () -> assertEquals(GranularidadEstado.MES, estado.getGranularidad()),
+                () -> assertEquals(0, new BigDecimal("910.00").compareTo(estado.getSaldoInicial())),
+                () -> assertEquals(0, new BigDecimal("990.00").compareTo(estado.getSaldoFinal())),
+                () -> assertEquals(2, periodos.size()),
+                () -> assertEquals(LocalDate.of(2026, 1, 1), periodos.get(0).getInicio()),
+                () -> assertEquals(0, new BigDecimal("200.00")
+                        .compareTo(periodos.get(0).getDepositos())),
+                () -> assertEquals(0, new BigDecimal("50.00")
+                        .compareTo(periodos.get(0).getRetiros())),
+                () -> assertEquals(2, periodos.get(0).getCantidadTransacciones()),
+                () -> assertEquals(LocalDate.of(2026, 2, 1), periodos.get(1).getInicio()),
+                () -> assertEquals(0, new BigDecimal("100.00")
+                        .compareTo(periodos.get(1).getTransferenciasEnviadas())),
+                () -> assertEquals(0, new BigDecimal("30.00")
+                        .compareTo(periodos.get(1).getTransferenciasRecibidas())),
+                () -> assertEquals(2, periodos.get(1).getCantidadTransacciones()));
+    }
+
+    @Test
+    void obtenerEstado_PorDia_DeberiaAgruparSoloLosDiasConMovimientos() {
+        EstadoCuentaDTO estado = estadoCuentaService.obtenerEstado(cuenta.getId(),
+                LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 20), "DIA");
+
+        assertAll("Estado diario",
+                () -> assertEquals(0, new BigDecimal("910.00").compareTo(estado.getSaldoInicial())),
+                () -> assertEquals(0, new BigDecimal("1060.00").compareTo(estado.getSaldoFinal())),
+                () -> assertEquals(List.of(LocalDate.of(2026, 1, 10), LocalDate.of(2026, 1, 20)),
+                        estado.getPeriodos().stream().map(PeriodoEstadoDTO::getInicio).toList()));
+    }
+
+    @Test
+    void obtenerEstado_SinMovimientosEnElPeriodo_DeberiaTenerSaldosIguales() {
+        EstadoCuentaDTO estado = estadoCuentaService.obtenerEstado(cuenta.getId(),
+                LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30), "mes");
+
+        assertAll("Periodo sin movimientos",
+                () -> assertEquals(0, estado.getSaldoInicial().compareTo(estado.getSaldoFinal())),
+                () -> assertEquals(0, new BigDecimal("910.00").compareTo(estado.getSaldoFinal())),
+                () -> assertEquals(0, estado.getPeriodos().size()));
+    }
+
+    @Test
+    void obtenerEstado_CuentaInexistente_DeberiaLanzarExcepcion() {
+        assertThrows(CuentaBancariaNotFoundException.class, () -> estadoCuentaService
+                .obtenerEstado(999_999L, null, null, "dia"));
+    }
+
+    @Test
+    void obtenerEstado_DesdePosteriorAHasta_DeberiaLanzarExcepcion() {
+        assertThrows(PeriodoInvalidoException.class, () -> estadoCuentaService.obtenerEstado(
+                cuenta.getId(), LocalDate.of(2026, 2, 1), LocalDate.of(2026, 1, 1), "dia"));
+    }
+
+    @Test
+    void obtenerEstado_GranularidadDesconocida_DeberiaLanzarExcepcion() {
+        assertThrows(PeriodoInvalidoException.class, () -> estadoCuentaService
+                .obtenerEstado(cuenta.getId(), null, null, "semana"));
+    }
+
+    private static Transaccion transaccion(TipoTransaccion tipo, String monto, String fecha,
+            CuentaBancaria origen, CuentaBancaria destino) {
+        return Transaccion.builder().tipo(tipo).monto(new BigDecimal(monto))
+                .fecha(LocalDateTime.parse(fecha)).cuentaBancaria(origen).cuentaDestino(destino)
+                .build();
+    }
+}
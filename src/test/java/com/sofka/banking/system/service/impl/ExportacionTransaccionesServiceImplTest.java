@@ -0,0 +1,148 @@
+package com.sofka.banking.system.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sofka.banking.system.concurrency.SaldosPendientes;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.enums.FormatoExportacion;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.TransaccionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ExportacionTransaccionesServiceImplTest {
+
+        @Mock
+        private TransaccionRepository transaccionRepository;
+
+        @Mock
+        private CuentaBancariaRepository cuentaBancariaRepository;
+
+        @Mock
+        private ObjectProvider<SaldosPendientes> saldosPendientes;
+
+        private ExportacionTransaccionesServiceImpl exportacionService;
+
+        @BeforeEach
+        void setUp() {
+                ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+                exportacionService = new ExportacionTransaccionesServiceImpl(transaccionRepository,
+                                cuentaBancariaRepository, objectMapper, saldosPendientes);
+
+                LocalDateTime fecha = LocalDateTime.of(2025, 3, 1, 9, 0);
+                TransaccionDTO deposito = TransaccionDTO.builder().id(1L)
+                                .monto(new BigDecimal("500.00")).tipo(TipoTransaccion.DEPOSITO)
+                                .fecha(fecha).cuentaBancariaId(1L).build();
+                TransaccionDTO transferencia = TransaccionDTO.builder().id(2L)
+                                .monto(new BigDecimal("75.50")).tipo(TipoTransaccion.TRANSFERENCIA)
+                                .fecha(fecha.plusHours(1)).cuentaBancariaId(1L).cuentaDestinoId(2L)
+                                .build();
+                // Transferencia recibida: la cuenta exportada es el destino
+                TransaccionDTO recibida = TransaccionDTO.builder().id(3L)
+                                .monto(new BigDecimal("20.00")).tipo(TipoTransaccion.TRANSFERENCIA)
+                                .fecha(fecha.plusHours(2)).cuentaBancariaId(3L).cuentaDestinoId(1L)
+                                .build();
+
+                lenient().when(transaccionRepository.streamHistorial(1L))
+                                .thenReturn(Stream.of(recibida, transferencia, deposito));
+        }
+
+        @Test
+        void exportar_EnCsv_DeberiaEscribirCabeceraYUnaFilaPorTransaccion() throws Exception {
+                // Given
+                ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+                // When
+                exportacionService.exportar(1L, FormatoExportacion.CSV, salida);
+
+                // Then
+                String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+                assertAll("Exportación CSV",
+                                () -> assertEquals(4, lineas.length),
+                                () -> assertEquals("id,monto,tipo,fecha,cuentaBancariaId,"
+                                                + "cuentaDestinoId,direccion", lineas[0]),
+                                () -> assertEquals("3,20.00,TRANSFERENCIA,2025-03-01T11:00,"
+                                                + "3,1,ENTRADA", lineas[1]),
+                                () -> assertEquals("2,75.50,TRANSFERENCIA,2025-03-01T10:00,"
+                                                + "1,2,SALIDA", lineas[2]),
+                                () -> assertEquals("1,500.00,DEPOSITO,2025-03-01T09:00,1,,ENTRADA",
+                                                lineas[3]));
+        }
+
+        @Test
+        void exportar_EnNdjson_DeberiaEscribirUnObjetoJsonPorLinea() throws Exception {
+                // Given
+                ByteArrayOutputStream salida = new ByteArrayOutputStream();
+
+                // When
+                exportacionService.exportar(1L, FormatoExportacion.NDJSON, salida);
+
+                // Then
+                String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+                assertAll("Exportación NDJSON",
+                                () -> assertEquals(3, lineas.length),
+                                () -> assertTrue(lineas[0].startsWith("{\"id\":3,"),
+                                                "La primera línea debe ser la recibida"),
+                                () -> assertTrue(lineas[0].contains("\"direccion\":\"ENTRADA\"")),
+                                () -> assertTrue(lineas[1].contains("\"cuentaDestinoId\":2")),
+                                () -> assertTrue(lineas[1].contains("\"direccion\":\"SALIDA\"")),
+                                () -> assertTrue(lineas[2].contains("\"tipo\":\"DEPOSITO\"")),
+                                () -> assertTrue(!lineas[2].contains("cuentaDestinoId"),
+                                                "Los depósitos no incluyen cuenta destino"));
+        }
+
+        @Test
+        void exportar_ConMotorDiario_DeberiaEsperarLosCambiosPendientes() throws Exception {
+                // Given
+                SaldosPendientes motor = mock(SaldosPendientes.class);
+                doAnswer(invocation -> {
+                        Consumer<SaldosPendientes> accion = invocation.getArgument(0);
+                        accion.accept(motor);
+                        return null;
+                }).when(saldosPendientes).ifAvailable(any());
+
+                // When
+                exportacionService.exportar(1L, FormatoExportacion.CSV,
+                                new ByteArrayOutputStream());
+
+                // Then
+                InOrder orden = inOrder(motor, transaccionRepository);
+                orden.verify(motor).esperarAplicados(1L);
+                orden.verify(transaccionRepository).streamHistorial(1L);
+        }
+
+        @Test
+        void validarCuenta_ConCuentaInexistente_DeberiaLanzarExcepcion() {
+                // Given
+                when(cuentaBancariaRepository.existsById(999L)).thenReturn(false);
+
+                // When & Then
+                assertThrows(CuentaBancariaNotFoundException.class,
+                                () -> exportacionService.validarCuenta(999L));
+        }
+}
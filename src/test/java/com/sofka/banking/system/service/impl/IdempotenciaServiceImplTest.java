@@ -0,0 +1,196 @@
+package com.sofka.banking.system.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sofka.banking.system.concurrency.MotorTransacciones;
+import com.sofka.banking.system.dto.request.CreateTransaccionDTO;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.entity.ClaveIdempotencia;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.exception.transaccion.ClaveIdempotenciaEnUsoException;
+import com.sofka.banking.system.exception.transaccion.ClaveIdempotenciaInvalidaException;
+import com.sofka.banking.system.exception.transaccion.IdempotenciaNoDisponibleException;
+import com.sofka.banking.system.exception.transaccion.SaldoInsuficienteException;
+import com.sofka.banking.system.repository.ClaveIdempotenciaRepository;
+import com.sofka.banking.system.service.IdempotenciaService.ResultadoIdempotente;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotenciaServiceImplTest {
+
+    @Mock
+    private ClaveIdempotenciaRepository claveIdempotenciaRepository;
+
+    @Mock
+    private ObjectProvider<MotorTransacciones> motorTransacciones;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+
+    private IdempotenciaServiceImpl idempotenciaService;
+    private CreateTransaccionDTO solicitud;
+    private TransaccionDTO transaccionDTO;
+    private Supplier<TransaccionDTO> accion;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(mock(PlatformTransactionManager.class));
+        idempotenciaService = new IdempotenciaServiceImpl(claveIdempotenciaRepository,
+                objectMapper, transactionTemplate, motorTransacciones, Duration.ofHours(24), 100);
+
+        solicitud = CreateTransaccionDTO.builder().cuentaBancariaId(1L)
+                .monto(new BigDecimal("500.00")).tipo(TipoTransaccion.RETIRO).build();
+        transaccionDTO = TransaccionDTO.builder().id(7L).cuentaBancariaId(1L)
+                .monto(new BigDecimal("500.00")).tipo(TipoTransaccion.RETIRO)
+                .fecha(LocalDateTime.of(2024, 1, 1, 10, 0)).build();
+        accion = () -> {
+            ejecuciones.incrementAndGet();
+            return transaccionDTO;
+        };
+    }
+
+    @Test
+    void ejecutar_ConClaveNueva_DeberiaEjecutarUnaVezYRepetirDesdeLaCache() {
+        when(claveIdempotenciaRepository.findById("clave-1")).thenReturn(Optional.empty());
+
+        ResultadoIdempotente primero =
+                idempotenciaService.ejecutar("clave-1", "transaccion", solicitud, accion);
+        ResultadoIdempotente reintento =
+                idempotenciaService.ejecutar("clave-1", "transaccion", solicitud, accion);
+
+        assertFalse(primero.repetida());
+        assertTrue(reintento.repetida());
+        assertEquals(7L, reintento.transaccion().getId());
+        assertEquals(1, ejecuciones.get());
+        verify(claveIdempotenciaRepository).reservar(eq("clave-1"), eq("transaccion"),
+                anyString(), any(), any());
+        verify(claveIdempotenciaRepository).completar(eq("clave-1"), anyString());
+        // El reintento se resuelve en memoria, sin volver a la base de datos
+        verify(claveIdempotenciaRepository, times(1)).findById("clave-1");
+    }
+
+    @Test
+    void ejecutar_ConClaveGuardadaEnBaseDeDatos_DeberiaDevolverLaRespuestaOriginal()
+            throws Exception {
+        when(claveIdempotenciaRepository.findById("clave-1"))
+                .thenReturn(Optional.of(filaGuardada(LocalDateTime.now().plusHours(1))));
+
+        ResultadoIdempotente resultado =
+                idempotenciaService.ejecutar("clave-1", "transaccion", solicitud, accion);
+
+        assertTrue(resultado.repetida());
+        assertEquals(transaccionDTO, resultado.transaccion());
+        assertEquals(0, ejecuciones.get());
+        verify(claveIdempotenciaRepository, never()).reservar(anyString(), anyString(),
+                anyString(), any(), any());
+    }
+
+    @Test
+    void ejecutar_ConClaveReutilizadaConOtraSolicitud_DeberiaLanzarExcepcion()
+            throws Exception {
+        when(claveIdempotenciaRepository.findById("clave-1"))
+                .thenReturn(Optional.of(filaGuardada(LocalDateTime.now().plusHours(1))));
+        solicitud.setMonto(new BigDecimal("900.00"));
+
+        assertThrows(ClaveIdempotenciaEnUsoException.class, () -> idempotenciaService
+                .ejecutar("clave-1", "transaccion", solicitud, accion));
+        assertEquals(0, ejecuciones.get());
+    }
+
+    @Test
+    void ejecutar_ConClaveConfirmadaPorOtraSolicitudConcurrente_DeberiaDevolverSuRespuesta()
+            throws Exception {
+        when(claveIdempotenciaRepository.findById("clave-1")).thenReturn(Optional.empty())
+                .thenReturn(Optional.of(filaGuardada(LocalDateTime.now().plusHours(1))));
+        when(claveIdempotenciaRepository.reservar(eq("clave-1"), anyString(), anyString(), any(),
+                any())).thenThrow(new DataIntegrityViolationException("clave duplicada"));
+
+        ResultadoIdempotente resultado =
+                idempotenciaService.ejecutar("clave-1", "transaccion", solicitud, accion);
+
+        assertTrue(resultado.repetida());
+        assertEquals(0, ejecuciones.get());
+    }
+
+    @Test
+    void ejecutar_CuandoLaOperacionFalla_NoDeberiaGuardarLaClave() {
+        when(claveIdempotenciaRepository.findById("clave-1")).thenReturn(Optional.empty());
+        Supplier<TransaccionDTO> fallida = () -> {
+            throw new SaldoInsuficienteException(BigDecimal.ZERO, new BigDecimal("500.00"));
+        };
+
+        assertThrows(SaldoInsuficienteException.class, () -> idempotenciaService
+                .ejecutar("clave-1", "transaccion", solicitud, fallida));
+        idempotenciaService.ejecutar("clave-1", "transaccion", solicitud, accion);
+
+        // La reserva se revierte con la operación: el reintento vuelve a ejecutarla
+        assertEquals(1, ejecuciones.get());
+        verify(claveIdempotenciaRepository, times(1)).completar(eq("clave-1"), anyString());
+    }
+
+    @Test
+    void ejecutar_ConClaveVencida_DeberiaEliminarlaYEjecutarDeNuevo() throws Exception {
+        when(claveIdempotenciaRepository.findById("clave-1"))
+                .thenReturn(Optional.of(filaGuardada(LocalDateTime.now().minusMinutes(1))));
+
+        ResultadoIdempotente resultado =
+                idempotenciaService.ejecutar("clave-1", "transaccion", solicitud, accion);
+
+        assertFalse(resultado.repetida());
+        assertEquals(1, ejecuciones.get());
+        verify(claveIdempotenciaRepository).eliminarSiExpirada(eq("clave-1"), any());
+    }
+
+    @Test
+    void ejecutar_ConClaveDemasiadoLarga_DeberiaLanzarExcepcion() {
+        String clave = "x".repeat(IdempotenciaServiceImpl.LONGITUD_MAXIMA_CLAVE + 1);
+
+        assertThrows(ClaveIdempotenciaInvalidaException.class,
+                () -> idempotenciaService.ejecutar(clave, "transaccion", solicitud, accion));
+    }
+
+    @Test
+    void ejecutar_ConMotorDeTransacciones_DeberiaRechazarLaClaveSinEjecutar() {
+        // El motor confirma fuera de la transacción de la clave: no podría revertirse con ella
+        when(motorTransacciones.getIfAvailable()).thenReturn(mock(MotorTransacciones.class));
+
+        assertThrows(IdempotenciaNoDisponibleException.class,
+                () -> idempotenciaService.ejecutar("clave-1", "transaccion", solicitud, accion));
+        assertEquals(0, ejecuciones.get());
+        verifyNoInteractions(claveIdempotenciaRepository);
+    }
+
+    private ClaveIdempotencia filaGuardada(LocalDateTime expiraEn) throws Exception {
+        return ClaveIdempotencia.builder().clave("clave-1").operacion("transaccion")
+                .huella(idempotenciaService.calcularHuella("transaccion", solicitud))
+                .respuesta(objectMapper.writeValueAsString(transaccionDTO))
+                .creadaEn(expiraEn.minusHours(24)).expiraEn(expiraEn).build();
+    }
+}
@@ -0,0 +1,158 @@
+package com.sofka.banking.system.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import com.sofka.banking.system.dto.response.ErrorImportacionDTO;
+import com.sofka.banking.system.dto.response.ResultadoImportacionDTO;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.FormatoImportacion;
+import com.sofka.banking.system.exception.usuario.ArchivoImportacionInvalidoException;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.TransaccionRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+import com.sofka.banking.system.service.ImportacionUsuariosService;
+
+/**
+ * Importación sobre H2 con bloques de 3 registros, para cubrir duplicados dentro de un bloque,
+ * entre bloques y contra usuarios ya registrados.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:importacion-usuarios;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "banking.password.bcrypt.fuerza=4",
+        "banking.importacion.tamano-bloque=3",
+        "banking.importacion.max-errores=5"})
+class ImportacionUsuariosServiceImplTest {
+
+    private static final String CABECERA = "cedula,nombre,apellido,email,telefono,password";
+
+    @Autowired
+    private ImportacionUsuariosService importacionUsuariosService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CuentaBancariaRepository cuentaBancariaRepository;
+
+    @Autowired
+    private TransaccionRepository transaccionRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        transaccionRepository.deleteAllInBatch();
+        cuentaBancariaRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+
+        usuarioRepository.save(Usuario.builder().cedula("99999999").nombre("Registrado")
+                .apellido("Previo").email("registrado@email.com").telefono("3009999999")
+                .password("sin-uso").build());
+    }
+
+    @Test
+    void importar_Csv_DeberiaInsertarLosValidosYReportarCadaRechazo() throws IOException {
+        String csv = String.join("\n",
+                // Columnas en otro orden: se ubican por la cabecera
+                "email,cedula,nombre,apellido,telefono,password",
+                "ana@email.com,10000001,\"Ana María\",Gómez,3001000001,Password123!",
+                "luis@email.com,10000002,Luis,Torres,3001000002,Password123!",
+                "correo-invalido,10000003,Eva,Ruiz,3001000003,Password123!",
+                // Segundo bloque: repetida del primero y ya registrada
+                "otra@email.com,10000001,Ana,Gómez,3001000004,Password123!",
+                "nuevo@email.com,99999999,Nuevo,Usuario,3001000005,Password123!",
+                "sofia@email.com,10000006,Sofía,Díaz,3001000006,Password123!",
+                // Tercer bloque: dos filas con la misma cédula en el mismo bloque
+                "pablo@email.com,10000007,Pablo,Rojas,3001000007,Password123!",
+                "pablo2@email.com,10000007,Pablo,Rojas,3001000008,Password123!",
+                "incompleta@email.com,10000009");
+
+        ResultadoImportacionDTO resultado = importar(csv, FormatoImportacion.CSV);
+
+        Usuario ana = usuarioRepository.findByCedula("10000001").orElseThrow();
+        List<Long> filasRechazadas =
+                resultado.getErrores().stream().map(ErrorImportacionDTO::getFila).toList();
+        assertAll("Importación CSV",
+                () -> assertEquals(9, resultado.getTotal()),
+                () -> assertEquals(4, resultado.getImportados()),
+                () -> assertEquals(5, resultado.getRechazados()),
+                () -> assertEquals(List.of(3L, 4L, 5L, 8L, 9L), filasRechazadas),
+                () -> assertEquals("El email debe tener un formato válido",
+                        resultado.getErrores().get(0).getMensaje()),
+                () -> assertEquals("La cédula ya está registrada",
+                        resultado.getErrores().get(1).getMensaje()),
+                () -> assertEquals("Cédula repetida en el archivo",
+                        resultado.getErrores().get(3).getMensaje()),
+                () -> assertEquals(5, usuarioRepository.count()),
+                () -> assertEquals("Ana María", ana.getNombre()),
+                () -> assertTrue(passwordEncoder.matches("Password123!", ana.getPassword())));
+    }
+
+    @Test
+    void importar_Ndjson_DeberiaIgnorarLineasVaciasYReportarJsonInvalido() throws IOException {
+        String ndjson = String.join("\n",
+                "{\"cedula\":\"20000001\",\"nombre\":\"Marta\",\"apellido\":\"Vega\","
+                        + "\"email\":\"marta@email.com\",\"telefono\":\"3002000001\","
+                        + "\"password\":\"Password123!\"}",
+                "",
+                "{\"cedula\":\"20000002\",",
+                "{\"cedula\":\"20000003\",\"nombre\":\"Raúl\",\"apellido\":\"Mora\","
+                        + "\"email\":\"registrado@email.com\",\"telefono\":\"3002000003\","
+                        + "\"password\":\"Password123!\"}");
+
+        ResultadoImportacionDTO resultado = importar(ndjson, FormatoImportacion.NDJSON);
+
+        assertAll("Importación NDJSON",
+                () -> assertEquals(3, resultado.getTotal()),
+                () -> assertEquals(1, resultado.getImportados()),
+                () -> assertEquals(2, resultado.getErrores().get(0).getFila()),
+                () -> assertTrue(resultado.getErrores().get(0).getMensaje()
+                        .startsWith("JSON inválido")),
+                () -> assertEquals("El email ya está registrado",
+                        resultado.getErrores().get(1).getMensaje()),
+                () -> assertTrue(usuarioRepository.findByCedula("20000001").isPresent()));
+    }
+
+    @Test
+    void importar_MasErroresQueElMaximo_DeberiaContarLosOmitidos() throws IOException {
+        String csv = CABECERA + "\n" + IntStream.rangeClosed(1, 8)
+                .mapToObj(i -> "123,Nombre,Apellido,sin-arroba,3003000000,corta")
+                .collect(Collectors.joining("\n"));
+
+        ResultadoImportacionDTO resultado = importar(csv, FormatoImportacion.CSV);
+
+        assertAll("Reporte acotado",
+                () -> assertEquals(8, resultado.getRechazados()),
+                () -> assertEquals(5, resultado.getErrores().size()),
+                () -> assertEquals(3, resultado.getErroresOmitidos()));
+    }
+
+    @Test
+    void importar_CsvSinColumnasObligatorias_DeberiaLanzarExcepcion() {
+        assertThrows(ArchivoImportacionInvalidoException.class,
+                () -> importar("cedula,nombre,email\n10000001,Ana,ana@email.com",
+                        FormatoImportacion.CSV));
+        assertEquals(1, usuarioRepository.count());
+    }
+
+    private ResultadoImportacionDTO importar(String contenido, FormatoImportacion formato)
+            throws IOException {
+        return importacionUsuariosService.importar(
+                new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8)), formato);
+    }
+}
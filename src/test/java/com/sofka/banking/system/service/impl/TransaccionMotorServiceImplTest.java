@@ -0,0 +1,122 @@
+package com.sofka.banking.system.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import com.sofka.banking.system.concurrency.MotorTransacciones;
+import com.sofka.banking.system.dto.request.CreateTransaccionDTO;
+import com.sofka.banking.system.dto.request.CreateTransferenciaDTO;
+import com.sofka.banking.system.dto.response.PaginaTransaccionesDTO;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.enums.TipoTransaccion;
+import com.sofka.banking.system.exception.transaccion.MontoInvalidoException;
+
+@ExtendWith(MockitoExtension.class)
+class TransaccionMotorServiceImplTest {
+
+        private static final BigDecimal MONTO = new BigDecimal("100.00");
+
+        @Mock
+        private MotorTransacciones motorTransacciones;
+
+        @Mock
+        private TransaccionServiceImpl transaccionServiceImpl;
+
+        @InjectMocks
+        private TransaccionMotorServiceImpl transaccionMotorService;
+
+        @Test
+        void registrarTransaccion_DeberiaRegistrarseEnElMotor() {
+                // Given
+                TransaccionDTO esperada = TransaccionDTO.builder().id(1L).monto(MONTO)
+                                .tipo(TipoTransaccion.RETIRO).cuentaBancariaId(1L).build();
+                when(motorTransacciones.registrar(TipoTransaccion.RETIRO, 1L, null, MONTO))
+                                .thenReturn(esperada);
+
+                // When
+                TransaccionDTO resultado = transaccionMotorService.registrarTransaccion(
+                                CreateTransaccionDTO.builder().cuentaBancariaId(1L).monto(MONTO)
+                                                .tipo(TipoTransaccion.RETIRO).build());
+
+                // Then
+                assertSame(esperada, resultado);
+                verifyNoInteractions(transaccionServiceImpl);
+        }
+
+        @Test
+        void realizarTransferencia_DeberiaRegistrarUnaTransferenciaEnElMotor() {
+                // Given
+                TransaccionDTO esperada = TransaccionDTO.builder().id(2L).monto(MONTO)
+                                .tipo(TipoTransaccion.TRANSFERENCIA).cuentaBancariaId(1L)
+                                .cuentaDestinoId(2L).build();
+                when(motorTransacciones.registrar(TipoTransaccion.TRANSFERENCIA, 1L, 2L, MONTO))
+                                .thenReturn(esperada);
+
+                // When
+                TransaccionDTO resultado = transaccionMotorService.realizarTransferencia(
+                                CreateTransferenciaDTO.builder().cuentaOrigenId(1L)
+                                                .cuentaDestinoId(2L).monto(MONTO).build());
+
+                // Then
+                assertSame(esperada, resultado);
+        }
+
+        @Test
+        void realizarTransferencia_ALaMismaCuenta_DeberiaLanzarExcepcion() {
+                CreateTransferenciaDTO dto = CreateTransferenciaDTO.builder().cuentaOrigenId(1L)
+                                .cuentaDestinoId(1L).monto(MONTO).build();
+
+                MontoInvalidoException exception = assertThrows(MontoInvalidoException.class,
+                                () -> transaccionMotorService.realizarTransferencia(dto));
+
+                assertEquals("No se puede transferir a la misma cuenta", exception.getMessage());
+                verifyNoInteractions(motorTransacciones);
+        }
+
+        @Test
+        void obtenerTransaccionesPorCuenta_DeberiaEsperarLoConfirmadoAntesDeConsultar() {
+                // Given
+                List<TransaccionDTO> historial = List.of(TransaccionDTO.builder().id(1L).build());
+                when(transaccionServiceImpl.obtenerTransaccionesPorCuenta(1L))
+                                .thenReturn(historial);
+
+                // When
+                List<TransaccionDTO> resultado =
+                                transaccionMotorService.obtenerTransaccionesPorCuenta(1L);
+
+                // Then
+                assertSame(historial, resultado);
+                InOrder orden = inOrder(motorTransacciones, transaccionServiceImpl);
+                orden.verify(motorTransacciones).esperarAplicados(1L);
+                orden.verify(transaccionServiceImpl).obtenerTransaccionesPorCuenta(1L);
+        }
+
+        @Test
+        void obtenerPaginaTransacciones_DeberiaEsperarLoConfirmadoAntesDeConsultar() {
+                // Given
+                PaginaTransaccionesDTO pagina = PaginaTransaccionesDTO.builder()
+                                .transacciones(List.of()).build();
+                when(transaccionServiceImpl.obtenerPaginaTransacciones(1L, null, 20))
+                                .thenReturn(pagina);
+
+                // When
+                PaginaTransaccionesDTO resultado =
+                                transaccionMotorService.obtenerPaginaTransacciones(1L, null, 20);
+
+                // Then
+                assertSame(pagina, resultado);
+                verify(motorTransacciones).esperarAplicados(1L);
+        }
+}
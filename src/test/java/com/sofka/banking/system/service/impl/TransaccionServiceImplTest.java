@@ -3,9 +3,12 @@ package com.sofka.banking.system.service.impl;
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -19,17 +22,24 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import com.sofka.banking.system.cache.SaldoCache;
+import com.sofka.banking.system.concurrency.CuentaLockManager;
 import com.sofka.banking.system.dto.request.CreateTransaccionDTO;
 import com.sofka.banking.system.dto.request.CreateTransferenciaDTO;
+import com.sofka.banking.system.dto.response.PaginaTransaccionesDTO;
 import com.sofka.banking.system.dto.response.TransaccionDTO;
 import com.sofka.banking.system.entity.CuentaBancaria;
 import com.sofka.banking.system.entity.Transaccion;
 import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.DireccionTransaccion;
 import com.sofka.banking.system.enums.TipoTransaccion;
 import com.sofka.banking.system.exception.cuentaBancaria.CuentaBancariaNotFoundException;
+import com.sofka.banking.system.exception.transaccion.CursorInvalidoException;
 import com.sofka.banking.system.exception.transaccion.MontoInvalidoException;
 import com.sofka.banking.system.exception.transaccion.SaldoInsuficienteException;
 import com.sofka.banking.system.mapper.TransaccionMapper;
@@ -48,6 +58,12 @@ class TransaccionServiceImplTest {
         @Mock
         private TransaccionMapper transaccionMapper;
 
+        @Mock
+        private SaldoCache saldoCache;
+
+        @Spy
+        private CuentaLockManager cuentaLockManager = new CuentaLockManager(16);
+
         @InjectMocks
         private TransaccionServiceImpl transaccionService;
 
@@ -90,9 +106,9 @@ class TransaccionServiceImplTest {
         @Test
         void registrarTransaccion_DepositoValido_DeberiaRegistrarTransaccion() {
                 // Given
-                when(cuentaBancariaRepository.findById(1L)).thenReturn(Optional.of(cuentaBancaria));
-                when(cuentaBancariaRepository.save(any(CuentaBancaria.class)))
-                                .thenReturn(cuentaBancaria);
+                when(cuentaBancariaRepository.acreditarSaldo(1L, new BigDecimal("500.00")))
+                                .thenReturn(1);
+                when(cuentaBancariaRepository.getReferenceById(1L)).thenReturn(cuentaBancaria);
                 when(transaccionRepository.save(any(Transaccion.class))).thenReturn(transaccion);
                 when(transaccionMapper.toDTO(transaccion)).thenReturn(transaccionDTO);
 
@@ -104,15 +120,18 @@ class TransaccionServiceImplTest {
                 assertNotNull(resultado);
                 assertEquals(transaccionDTO.getMonto(), resultado.getMonto());
                 assertEquals(transaccionDTO.getTipo(), resultado.getTipo());
-                verify(cuentaBancariaRepository).findById(1L);
-                verify(cuentaBancariaRepository).save(any(CuentaBancaria.class));
+                verify(cuentaBancariaRepository).acreditarSaldo(1L, new BigDecimal("500.00"));
+                verify(cuentaBancariaRepository, never()).findById(any());
+                verify(cuentaBancariaRepository, never()).save(any());
                 verify(transaccionRepository).save(any(Transaccion.class));
+                verify(saldoCache).actualizarTrasCommit(1L);
         }
 
         @Test
         void registrarTransaccion_ConCuentaInexistente_DeberiaLanzarExcepcion() {
                 // Given
-                when(cuentaBancariaRepository.findById(999L)).thenReturn(Optional.empty());
+                when(cuentaBancariaRepository.acreditarSaldo(999L, new BigDecimal("500.00")))
+                                .thenReturn(0);
 
                 CreateTransaccionDTO dto = CreateTransaccionDTO.builder().cuentaBancariaId(999L)
                                 .monto(new BigDecimal("500.00")).tipo(TipoTransaccion.DEPOSITO)
@@ -124,8 +143,9 @@ class TransaccionServiceImplTest {
                                                 () -> transaccionService.registrarTransaccion(dto));
 
                 assertEquals("Cuenta bancaria con ID 999 no encontrada", exception.getMessage());
-                verify(cuentaBancariaRepository).findById(999L);
+                verify(cuentaBancariaRepository).acreditarSaldo(999L, new BigDecimal("500.00"));
                 verify(transaccionRepository, never()).save(any());
+                verifyNoInteractions(saldoCache);
         }
 
         @Test
@@ -135,17 +155,43 @@ class TransaccionServiceImplTest {
                                 .monto(new BigDecimal("1500.00")) // Más del saldo disponible
                                 .tipo(TipoTransaccion.RETIRO).build();
 
-                when(cuentaBancariaRepository.findById(1L)).thenReturn(Optional.of(cuentaBancaria));
+                when(cuentaBancariaRepository.debitarSaldo(1L, new BigDecimal("1500.00")))
+                                .thenReturn(0);
+                when(cuentaBancariaRepository.findSaldoActualById(1L))
+                                .thenReturn(Optional.of(new BigDecimal("1000.00")));
 
                 // When & Then
                 SaldoInsuficienteException exception = assertThrows(
                                 SaldoInsuficienteException.class,
                                 () -> transaccionService.registrarTransaccion(retiroDTO));
 
-                assertTrue(exception.getMessage().contains("Saldo insuficiente"));
-                verify(cuentaBancariaRepository).findById(1L);
+                assertEquals("Saldo insuficiente. Saldo actual: 1000.00, Monto requerido: 1500.00",
+                                exception.getMessage());
+                verify(cuentaBancariaRepository).debitarSaldo(1L, new BigDecimal("1500.00"));
                 verify(cuentaBancariaRepository, never()).save(any());
                 verify(transaccionRepository, never()).save(any());
+                verifyNoInteractions(saldoCache);
+        }
+
+        @Test
+        void registrarTransaccion_RetiroConCuentaInexistente_DeberiaLanzarExcepcion() {
+                // Given
+                CreateTransaccionDTO retiroDTO = CreateTransaccionDTO.builder()
+                                .cuentaBancariaId(999L).monto(new BigDecimal("100.00"))
+                                .tipo(TipoTransaccion.RETIRO).build();
+
+                when(cuentaBancariaRepository.debitarSaldo(999L, new BigDecimal("100.00")))
+                                .thenReturn(0);
+                when(cuentaBancariaRepository.findSaldoActualById(999L))
+                                .thenReturn(Optional.empty());
+
+                // When & Then
+                CuentaBancariaNotFoundException exception = assertThrows(
+                                CuentaBancariaNotFoundException.class,
+                                () -> transaccionService.registrarTransaccion(retiroDTO));
+
+                assertEquals("Cuenta bancaria con ID 999 no encontrada", exception.getMessage());
+                verify(transaccionRepository, never()).save(any());
         }
 
         @Test
@@ -163,9 +209,9 @@ class TransaccionServiceImplTest {
                                 .monto(new BigDecimal("300.00")).tipo(TipoTransaccion.RETIRO)
                                 .fecha(LocalDateTime.now()).cuentaBancariaId(1L).build();
 
-                when(cuentaBancariaRepository.findById(1L)).thenReturn(Optional.of(cuentaBancaria));
-                when(cuentaBancariaRepository.save(any(CuentaBancaria.class)))
-                                .thenReturn(cuentaBancaria);
+                when(cuentaBancariaRepository.debitarSaldo(1L, new BigDecimal("300.00")))
+                                .thenReturn(1);
+                when(cuentaBancariaRepository.getReferenceById(1L)).thenReturn(cuentaBancaria);
                 when(transaccionRepository.save(any(Transaccion.class)))
                                 .thenReturn(transaccionRetiro);
                 when(transaccionMapper.toDTO(transaccionRetiro)).thenReturn(transaccionRetiroDTO);
@@ -184,8 +230,8 @@ class TransaccionServiceImplTest {
                                                 resultado.getCuentaBancariaId(),
                                                 "La cuenta debe coincidir"));
 
-                verify(cuentaBancariaRepository).findById(1L);
-                verify(cuentaBancariaRepository).save(any(CuentaBancaria.class));
+                verify(cuentaBancariaRepository).debitarSaldo(1L, new BigDecimal("300.00"));
+                verify(cuentaBancariaRepository, never()).findSaldoActualById(any());
                 verify(transaccionRepository).save(any(Transaccion.class));
                 verify(transaccionMapper).toDTO(transaccionRetiro);
         }
@@ -203,10 +249,12 @@ class TransaccionServiceImplTest {
                                 .fecha(LocalDateTime.now()).cuentaBancariaId(1L).cuentaDestinoId(2L)
                                 .build();
 
-                when(cuentaBancariaRepository.findById(1L)).thenReturn(Optional.of(cuentaBancaria));
-                when(cuentaBancariaRepository.findById(2L)).thenReturn(Optional.of(cuentaDestino));
-                when(cuentaBancariaRepository.save(cuentaBancaria)).thenReturn(cuentaBancaria);
-                when(cuentaBancariaRepository.save(cuentaDestino)).thenReturn(cuentaDestino);
+                when(cuentaBancariaRepository.debitarSaldo(1L, new BigDecimal("200.00")))
+                                .thenReturn(1);
+                when(cuentaBancariaRepository.acreditarSaldo(2L, new BigDecimal("200.00")))
+                                .thenReturn(1);
+                when(cuentaBancariaRepository.getReferenceById(1L)).thenReturn(cuentaBancaria);
+                when(cuentaBancariaRepository.getReferenceById(2L)).thenReturn(cuentaDestino);
                 when(transaccionRepository.save(any(Transaccion.class)))
                                 .thenReturn(transferenciaTransaccion);
                 when(transaccionMapper.toDTO(transferenciaTransaccion))
@@ -231,12 +279,15 @@ class TransaccionServiceImplTest {
                                                 resultado.getCuentaDestinoId(),
                                                 "La cuenta destino debe coincidir"));
 
-                verify(cuentaBancariaRepository).findById(1L);
-                verify(cuentaBancariaRepository).findById(2L);
-                verify(cuentaBancariaRepository).save(cuentaBancaria);
-                verify(cuentaBancariaRepository).save(cuentaDestino);
+                // El débito va primero porque la cuenta origen tiene el ID menor
+                InOrder orden = inOrder(cuentaBancariaRepository);
+                orden.verify(cuentaBancariaRepository).debitarSaldo(1L, new BigDecimal("200.00"));
+                orden.verify(cuentaBancariaRepository).acreditarSaldo(2L, new BigDecimal("200.00"));
+                verify(cuentaBancariaRepository, never()).save(any());
                 verify(transaccionRepository).save(any(Transaccion.class));
                 verify(transaccionMapper).toDTO(transferenciaTransaccion);
+                verify(saldoCache).actualizarTrasCommit(1L);
+                verify(saldoCache).actualizarTrasCommit(2L);
         }
 
         @Test
@@ -246,7 +297,14 @@ class TransaccionServiceImplTest {
                                 .cuentaOrigenId(999L).cuentaDestinoId(2L)
                                 .monto(new BigDecimal("200.00")).build();
 
-                when(cuentaBancariaRepository.findById(999L)).thenReturn(Optional.empty());
+                // La cuenta 2 se actualiza primero por tener el ID menor; el débito posterior
+                // falla y la transacción revierte el crédito
+                when(cuentaBancariaRepository.acreditarSaldo(2L, new BigDecimal("200.00")))
+                                .thenReturn(1);
+                when(cuentaBancariaRepository.debitarSaldo(999L, new BigDecimal("200.00")))
+                                .thenReturn(0);
+                when(cuentaBancariaRepository.findSaldoActualById(999L))
+                                .thenReturn(Optional.empty());
 
                 // When
                 CuentaBancariaNotFoundException exception = assertThrows(
@@ -260,9 +318,7 @@ class TransaccionServiceImplTest {
                                                 exception.getMessage(),
                                                 "El mensaje de error debe ser correcto"));
 
-                verify(cuentaBancariaRepository).findById(999L);
-                verify(cuentaBancariaRepository, never()).findById(2L);
-                verify(cuentaBancariaRepository, never()).save(any());
+                verify(cuentaBancariaRepository).debitarSaldo(999L, new BigDecimal("200.00"));
                 verify(transaccionRepository, never()).save(any());
                 verifyNoInteractions(transaccionMapper);
         }
@@ -274,8 +330,10 @@ class TransaccionServiceImplTest {
                                 .cuentaOrigenId(1L).cuentaDestinoId(999L)
                                 .monto(new BigDecimal("200.00")).build();
 
-                when(cuentaBancariaRepository.findById(1L)).thenReturn(Optional.of(cuentaBancaria));
-                when(cuentaBancariaRepository.findById(999L)).thenReturn(Optional.empty());
+                when(cuentaBancariaRepository.debitarSaldo(1L, new BigDecimal("200.00")))
+                                .thenReturn(1);
+                when(cuentaBancariaRepository.acreditarSaldo(999L, new BigDecimal("200.00")))
+                                .thenReturn(0);
 
                 // When
                 CuentaBancariaNotFoundException exception = assertThrows(
@@ -289,9 +347,8 @@ class TransaccionServiceImplTest {
                                                 exception.getMessage(),
                                                 "El mensaje de error debe ser correcto"));
 
-                verify(cuentaBancariaRepository).findById(1L);
-                verify(cuentaBancariaRepository).findById(999L);
-                verify(cuentaBancariaRepository, never()).save(any());
+                verify(cuentaBancariaRepository).debitarSaldo(1L, new BigDecimal("200.00"));
+                verify(cuentaBancariaRepository).acreditarSaldo(999L, new BigDecimal("200.00"));
                 verify(transaccionRepository, never()).save(any());
                 verifyNoInteractions(transaccionMapper);
         }
@@ -304,8 +361,10 @@ class TransaccionServiceImplTest {
                                 .monto(new BigDecimal("1500.00")) // Más del saldo disponible
                                 .build();
 
-                when(cuentaBancariaRepository.findById(1L)).thenReturn(Optional.of(cuentaBancaria));
-                when(cuentaBancariaRepository.findById(2L)).thenReturn(Optional.of(cuentaDestino));
+                when(cuentaBancariaRepository.debitarSaldo(1L, new BigDecimal("1500.00")))
+                                .thenReturn(0);
+                when(cuentaBancariaRepository.findSaldoActualById(1L))
+                                .thenReturn(Optional.of(new BigDecimal("1000.00")));
 
                 // When
                 SaldoInsuficienteException exception = assertThrows(
@@ -320,32 +379,40 @@ class TransaccionServiceImplTest {
                                                                 .contains("Saldo insuficiente"),
                                                 "El mensaje debe indicar saldo insuficiente"));
 
-                verify(cuentaBancariaRepository).findById(1L);
-                verify(cuentaBancariaRepository).findById(2L);
-                verify(cuentaBancariaRepository, never()).save(any());
+                verify(cuentaBancariaRepository).debitarSaldo(1L, new BigDecimal("1500.00"));
+                verify(cuentaBancariaRepository, never()).acreditarSaldo(any(), any());
                 verify(transaccionRepository, never()).save(any());
                 verifyNoInteractions(transaccionMapper);
         }
 
+        @Test
+        void realizarTransferencia_ALaMismaCuenta_DeberiaLanzarExcepcion() {
+                // Given
+                CreateTransferenciaDTO mismaCuenta = CreateTransferenciaDTO.builder()
+                                .cuentaOrigenId(1L).cuentaDestinoId(1L)
+                                .monto(new BigDecimal("100.00")).build();
+
+                // When & Then
+                assertThrows(MontoInvalidoException.class,
+                                () -> transaccionService.realizarTransferencia(mismaCuenta));
+
+                verifyNoInteractions(cuentaBancariaRepository, transaccionRepository,
+                                transaccionMapper);
+        }
+
         @Test
         void obtenerTransaccionesPorCuenta_ConTransaccionesExistentes_DeberiaRetornarLista() {
                 // Given
                 Long cuentaId = 1L;
-                Transaccion transaccion2 = Transaccion.builder().id(2L)
-                                .monto(new BigDecimal("300.00")).tipo(TipoTransaccion.RETIRO)
-                                .fecha(LocalDateTime.now()).cuentaBancaria(cuentaBancaria).build();
-
                 TransaccionDTO transaccionDTO2 = TransaccionDTO.builder().id(2L)
                                 .monto(new BigDecimal("300.00")).tipo(TipoTransaccion.RETIRO)
                                 .fecha(LocalDateTime.now()).cuentaBancariaId(1L).build();
 
-                List<Transaccion> transacciones = Arrays.asList(transaccion, transaccion2);
                 List<TransaccionDTO> transaccionesDTO =
                                 Arrays.asList(transaccionDTO, transaccionDTO2);
 
-                when(transaccionRepository.findByCuentaBancariaId(cuentaId))
-                                .thenReturn(transacciones);
-                when(transaccionMapper.toDTOList(transacciones)).thenReturn(transaccionesDTO);
+                when(transaccionRepository.findPrimeraPagina(cuentaId, 1000))
+                                .thenReturn(transaccionesDTO);
 
                 // When
                 List<TransaccionDTO> resultado =
@@ -360,23 +427,26 @@ class TransaccionServiceImplTest {
                                                 "La primera transacción debe coincidir"),
                                 () -> assertEquals(transaccionDTO2.getId(),
                                                 resultado.get(1).getId(),
-                                                "La segunda transacción debe coincidir"));
-
-                verify(transaccionRepository).findByCuentaBancariaId(cuentaId);
-                verify(transaccionMapper).toDTOList(transacciones);
-                verifyNoMoreInteractions(transaccionRepository, transaccionMapper);
+                                                "La segunda transacción debe coincidir"),
+                                () -> assertEquals(DireccionTransaccion.ENTRADA,
+                                                resultado.get(0).getDireccion(),
+                                                "Un depósito entra a la cuenta"),
+                                () -> assertEquals(DireccionTransaccion.SALIDA,
+                                                resultado.get(1).getDireccion(),
+                                                "Un retiro sale de la cuenta"));
+
+                // El repositorio ya proyecta a DTO: no hay entidades que mapear
+                verify(transaccionRepository).findPrimeraPagina(cuentaId, 1000);
+                verifyNoMoreInteractions(transaccionRepository);
+                verifyNoInteractions(transaccionMapper);
         }
 
         @Test
         void obtenerTransaccionesPorCuenta_SinTransacciones_DeberiaRetornarListaVacia() {
                 // Given
                 Long cuentaId = 999L;
-                List<Transaccion> transacciones = Arrays.asList();
-                List<TransaccionDTO> transaccionesDTO = Arrays.asList();
-
-                when(transaccionRepository.findByCuentaBancariaId(cuentaId))
-                                .thenReturn(transacciones);
-                when(transaccionMapper.toDTOList(transacciones)).thenReturn(transaccionesDTO);
+                when(transaccionRepository.findPrimeraPagina(cuentaId, 1000))
+                                .thenReturn(List.of());
 
                 // When
                 List<TransaccionDTO> resultado =
@@ -387,8 +457,89 @@ class TransaccionServiceImplTest {
                                 () -> assertNotNull(resultado, "El resultado no debe ser nulo"),
                                 () -> assertTrue(resultado.isEmpty(), "La lista debe estar vacía"));
 
-                verify(transaccionRepository).findByCuentaBancariaId(cuentaId);
-                verify(transaccionMapper).toDTOList(transacciones);
-                verifyNoMoreInteractions(transaccionRepository, transaccionMapper);
+                verify(transaccionRepository).findPrimeraPagina(cuentaId, 1000);
+                verifyNoMoreInteractions(transaccionRepository);
+                verifyNoInteractions(transaccionMapper);
+        }
+
+        @Test
+        void obtenerPaginaTransacciones_ConMasResultadosQueElLimite_DeberiaRetornarNextCursor() {
+                // Given
+                Long cuentaId = 1L;
+                LocalDateTime fecha = LocalDateTime.of(2025, 1, 15, 10, 30);
+                TransaccionDTO t3 = TransaccionDTO.builder().id(3L).fecha(fecha)
+                                .tipo(TipoTransaccion.DEPOSITO).build();
+                TransaccionDTO t2 = TransaccionDTO.builder().id(2L).fecha(fecha)
+                                .tipo(TipoTransaccion.DEPOSITO).build();
+                TransaccionDTO t1 = TransaccionDTO.builder().id(1L).fecha(fecha.minusDays(1))
+                                .tipo(TipoTransaccion.DEPOSITO).build();
+
+                // Se piden limite + 1 filas para detectar la página siguiente
+                when(transaccionRepository.findPrimeraPagina(cuentaId, 3))
+                                .thenReturn(Arrays.asList(t3, t2, t1));
+
+                // When
+                PaginaTransaccionesDTO resultado =
+                                transaccionService.obtenerPaginaTransacciones(cuentaId, null, 2);
+
+                // Then
+                assertAll("Primera página con cursor a la siguiente",
+                                () -> assertEquals(List.of(t3, t2), resultado.getTransacciones()),
+                                () -> assertEquals(new CursorTransacciones(fecha, 2L).codificar(),
+                                                resultado.getNextCursor()));
+        }
+
+        @Test
+        void obtenerPaginaTransacciones_ConCursor_DeberiaContinuarDesdeLaUltimaPosicion() {
+                // Given
+                Long cuentaId = 1L;
+                LocalDateTime fecha = LocalDateTime.of(2025, 1, 15, 10, 30);
+                String cursor = new CursorTransacciones(fecha, 2L).codificar();
+                when(transaccionRepository.findPaginaSiguiente(cuentaId, fecha, 2L, 3))
+                                .thenReturn(List.of(transaccionDTO));
+
+                // When
+                PaginaTransaccionesDTO resultado =
+                                transaccionService.obtenerPaginaTransacciones(cuentaId, cursor, 2);
+
+                // Then
+                assertAll("Última página sin cursor siguiente",
+                                () -> assertEquals(1, resultado.getTransacciones().size()),
+                                () -> assertNull(resultado.getNextCursor()));
+                verify(transaccionRepository, never()).findPrimeraPagina(any(), anyInt());
+        }
+
+        @Test
+        void obtenerPaginaTransacciones_ConTransferencias_DeberiaMarcarLaDireccion() {
+                // Given
+                TransaccionDTO enviadaDTO = TransaccionDTO.builder().id(2L)
+                                .tipo(TipoTransaccion.TRANSFERENCIA).cuentaBancariaId(1L)
+                                .cuentaDestinoId(2L).build();
+                TransaccionDTO recibidaDTO = TransaccionDTO.builder().id(3L)
+                                .tipo(TipoTransaccion.TRANSFERENCIA).cuentaBancariaId(2L)
+                                .cuentaDestinoId(1L).build();
+
+                when(transaccionRepository.findPrimeraPagina(1L, 11))
+                                .thenReturn(List.of(enviadaDTO, recibidaDTO));
+
+                // When
+                PaginaTransaccionesDTO resultado =
+                                transaccionService.obtenerPaginaTransacciones(1L, null, 10);
+
+                // Then
+                assertAll("Dirección respecto a la cuenta consultada",
+                                () -> assertEquals(DireccionTransaccion.SALIDA, resultado
+                                                .getTransacciones().get(0).getDireccion()),
+                                () -> assertEquals(DireccionTransaccion.ENTRADA, resultado
+                                                .getTransacciones().get(1).getDireccion()));
+        }
+
+        @Test
+        void obtenerPaginaTransacciones_ConCursorInvalido_DeberiaLanzarExcepcion() {
+                // When & Then
+                assertThrows(CursorInvalidoException.class, () -> transaccionService
+                                .obtenerPaginaTransacciones(1L, "no-es-un-cursor", 10));
+
+                verifyNoInteractions(transaccionRepository);
         }
 }
@@ -0,0 +1,187 @@
+package com.sofka.banking.system.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import com.sofka.banking.system.cache.SaldoCache;
+import com.sofka.banking.system.concurrency.CuentaLockManager;
+import com.sofka.banking.system.concurrency.SaldosPendientes;
+import com.sofka.banking.system.dto.request.CreateTransferenciaDTO;
+import com.sofka.banking.system.dto.response.ResultadoLoteTransferenciasDTO;
+import com.sofka.banking.system.dto.response.TransaccionDTO;
+import com.sofka.banking.system.entity.CuentaBancaria;
+import com.sofka.banking.system.entity.Transaccion;
+import com.sofka.banking.system.enums.EstadoTransferencia;
+import com.sofka.banking.system.mapper.TransaccionMapper;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.TransaccionRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TransferenciaLoteServiceImplTest {
+
+        @Mock
+        private CuentaBancariaRepository cuentaBancariaRepository;
+
+        @Mock
+        private TransaccionRepository transaccionRepository;
+
+        @Mock
+        private TransaccionMapper transaccionMapper;
+
+        @Mock
+        private SaldoCache saldoCache;
+
+        @Mock
+        private ObjectProvider<SaldosPendientes> saldosPendientes;
+
+        private TransferenciaLoteServiceImpl transferenciaLoteService;
+
+        private CuentaBancaria cuenta1;
+        private CuentaBancaria cuenta2;
+
+        @BeforeEach
+        void setUp() {
+                TransactionTemplate transactionTemplate =
+                                new TransactionTemplate(mock(PlatformTransactionManager.class));
+                transferenciaLoteService = new TransferenciaLoteServiceImpl(
+                                cuentaBancariaRepository, transaccionRepository, transaccionMapper,
+                                new CuentaLockManager(16), saldoCache, transactionTemplate,
+                                saldosPendientes, 2);
+
+                cuenta1 = CuentaBancaria.builder().id(1L).numeroCuenta("1234567890")
+                                .saldoActual(new BigDecimal("1000.00")).build();
+                cuenta2 = CuentaBancaria.builder().id(2L).numeroCuenta("0987654321")
+                                .saldoActual(new BigDecimal("500.00")).build();
+
+                lenient().when(transaccionRepository.saveAll(anyList()))
+                                .thenAnswer(invocation -> invocation.getArgument(0));
+                lenient().when(transaccionMapper.toDTO(any(Transaccion.class)))
+                                .thenAnswer(invocation -> {
+                                        Transaccion t = invocation.getArgument(0);
+                                        return TransaccionDTO.builder().monto(t.getMonto())
+                                                        .cuentaBancariaId(t.getCuentaBancaria()
+                                                                        .getId())
+                                                        .cuentaDestinoId(t.getCuentaDestino()
+                                                                        .getId())
+                                                        .build();
+                                });
+        }
+
+        @Test
+        void realizarTransferencias_ConLoteMixto_DeberiaAplicarValidasYRechazarResto() {
+                // Given
+                when(cuentaBancariaRepository.findAllByIdForUpdate(anyCollection()))
+                                .thenReturn(List.of(cuenta1, cuenta2));
+
+                List<CreateTransferenciaDTO> lote = List.of(
+                                transferencia(1L, 2L, "300.00"),
+                                transferencia(2L, 1L, "900.00"), // 500 + 300 = 800 < 900
+                                transferencia(1L, 1L, "10.00"));
+
+                // When
+                ResultadoLoteTransferenciasDTO resultado =
+                                transferenciaLoteService.realizarTransferencias(lote);
+
+                // Then
+                assertAll("Resultado del lote",
+                                () -> assertEquals(3, resultado.getTotal()),
+                                () -> assertEquals(1, resultado.getExitosas()),
+                                () -> assertEquals(2, resultado.getRechazadas()),
+                                () -> assertEquals(EstadoTransferencia.EXITOSA,
+                                                resultado.getResultados().get(0).getEstado()),
+                                () -> assertNull(resultado.getResultados().get(0).getMensaje()),
+                                () -> assertEquals(EstadoTransferencia.RECHAZADA,
+                                                resultado.getResultados().get(1).getEstado()),
+                                () -> assertEquals(
+                                                "Saldo insuficiente. Saldo actual: 800.00, Monto requerido: 900.00",
+                                                resultado.getResultados().get(1).getMensaje()),
+                                () -> assertEquals(2, resultado.getResultados().get(2).getIndice()),
+                                () -> assertEquals("No se puede transferir a la misma cuenta",
+                                                resultado.getResultados().get(2).getMensaje()),
+                                () -> assertEquals(new BigDecimal("700.00"),
+                                                cuenta1.getSaldoActual()),
+                                () -> assertEquals(new BigDecimal("800.00"),
+                                                cuenta2.getSaldoActual()));
+
+                // Dos bloques de tamaño 2: una consulta de cuentas y un saveAll por bloque
+                verify(cuentaBancariaRepository, times(2)).findAllByIdForUpdate(anyCollection());
+                verify(transaccionRepository, times(2)).saveAll(anyList());
+
+                // Sólo el primer bloque modificó saldos
+                verify(saldoCache).actualizarTrasCommit(1L, 2L);
+                verifyNoMoreInteractions(saldoCache);
+        }
+
+        @Test
+        void realizarTransferencias_ConCuentaInexistente_DeberiaRechazarSoloEsaTransferencia() {
+                // Given
+                when(cuentaBancariaRepository.findAllByIdForUpdate(anyCollection()))
+                                .thenReturn(List.of(cuenta1, cuenta2));
+
+                List<CreateTransferenciaDTO> lote = List.of(transferencia(1L, 999L, "100.00"),
+                                transferencia(1L, 2L, "100.00"));
+
+                // When
+                ResultadoLoteTransferenciasDTO resultado =
+                                transferenciaLoteService.realizarTransferencias(lote);
+
+                // Then
+                assertAll("Cuenta inexistente en el lote",
+                                () -> assertEquals(1, resultado.getExitosas()),
+                                () -> assertEquals("Cuenta bancaria con ID 999 no encontrada",
+                                                resultado.getResultados().get(0).getMensaje()),
+                                () -> assertEquals(EstadoTransferencia.EXITOSA,
+                                                resultado.getResultados().get(1).getEstado()),
+                                () -> assertEquals(new BigDecimal("900.00"),
+                                                cuenta1.getSaldoActual()));
+        }
+
+        @Test
+        void constructor_ConTamanoBloqueNoPositivo_DeberiaLanzarExcepcion() {
+                TransactionTemplate transactionTemplate =
+                                new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+                assertAll("Tamaño de bloque inválido",
+                                () -> assertThrows(IllegalArgumentException.class,
+                                                () -> new TransferenciaLoteServiceImpl(
+                                                                cuentaBancariaRepository,
+                                                                transaccionRepository,
+                                                                transaccionMapper,
+                                                                new CuentaLockManager(16),
+                                                                saldoCache, transactionTemplate,
+                                                                saldosPendientes, 0)),
+                                () -> assertThrows(IllegalArgumentException.class,
+                                                () -> new TransferenciaLoteServiceImpl(
+                                                                cuentaBancariaRepository,
+                                                                transaccionRepository,
+                                                                transaccionMapper,
+                                                                new CuentaLockManager(16),
+                                                                saldoCache, transactionTemplate,
+                                                                saldosPendientes, -1)));
+        }
+
+        private CreateTransferenciaDTO transferencia(Long origen, Long destino, String monto) {
+                return CreateTransferenciaDTO.builder().cuentaOrigenId(origen)
+                                .cuentaDestinoId(destino).monto(new BigDecimal(monto)).build();
+        }
+}
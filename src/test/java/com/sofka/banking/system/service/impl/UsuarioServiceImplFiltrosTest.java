@@ -0,0 +1,83 @@
+package com.sofka.banking.system.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import com.sofka.banking.system.cache.FiltrosUnicidad;
+import com.sofka.banking.system.dto.request.CreateUsuarioDTO;
+import com.sofka.banking.system.dto.request.UpdateUsuarioDTO;
+import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.CampoUnico;
+import com.sofka.banking.system.exception.usuario.EmailAlreadyExistsException;
+import com.sofka.banking.system.repository.CuentaBancariaRepository;
+import com.sofka.banking.system.repository.TransaccionRepository;
+import com.sofka.banking.system.repository.UsuarioRepository;
+import com.sofka.banking.system.service.UsuarioService;
+
+/**
+ * Cambio de email contra H2 con los filtros de unicidad cargados: el email anterior sólo sale
+ * del filtro si el UPDATE se confirma.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:usuarios-filtros;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false"})
+class UsuarioServiceImplFiltrosTest {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CuentaBancariaRepository cuentaBancariaRepository;
+
+    @Autowired
+    private TransaccionRepository transaccionRepository;
+
+    @Autowired
+    private FiltrosUnicidad filtrosUnicidad;
+
+    private Long usuarioId;
+
+    @BeforeEach
+    void setUp() {
+        transaccionRepository.deleteAllInBatch();
+        cuentaBancariaRepository.deleteAllInBatch();
+        usuarioRepository.deleteAllInBatch();
+
+        usuarioId = usuarioRepository.save(usuario("10000001", "titular@email.com")).getId();
+        usuarioRepository.save(usuario("10000002", "ocupado@email.com"));
+    }
+
+    @Test
+    void actualizarUsuario_ConEmailRepetido_NoDeberiaQuitarElEmailAnteriorDelFiltro() {
+        UpdateUsuarioDTO cambio = UpdateUsuarioDTO.builder().email("ocupado@email.com").build();
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> usuarioService.actualizarUsuario(usuarioId, cambio));
+
+        CreateUsuarioDTO duplicado = CreateUsuarioDTO.builder().cedula("10000003")
+                .nombre("Otro").apellido("Titular").email("titular@email.com")
+                .telefono("3001234567").password("Password123!").build();
+        assertAll("Sin falsos negativos tras el UPDATE fallido",
+                () -> assertTrue(filtrosUnicidad.cargado(CampoUnico.EMAIL)),
+                () -> assertTrue(
+                        filtrosUnicidad.puedeExistir(CampoUnico.EMAIL, "titular@email.com")),
+                () -> assertEquals("titular@email.com",
+                        usuarioRepository.findById(usuarioId).orElseThrow().getEmail()),
+                () -> assertThrows(EmailAlreadyExistsException.class,
+                        () -> usuarioService.crearUsuario(duplicado)));
+    }
+
+    private static Usuario usuario(String cedula, String email) {
+        return Usuario.builder().cedula(cedula).nombre("Titular").apellido("Prueba").email(email)
+                .telefono("3001234567").password("sin-uso").build();
+    }
+}
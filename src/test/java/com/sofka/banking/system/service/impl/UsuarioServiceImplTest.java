@@ -7,6 +7,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -15,22 +16,34 @@ import static org.mockito.Mockito.when;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.unit.DataSize;
+import com.sofka.banking.system.cache.FiltrosUnicidad;
 import com.sofka.banking.system.dto.request.CreateUsuarioDTO;
 import com.sofka.banking.system.dto.request.UpdateUsuarioDTO;
+import com.sofka.banking.system.dto.response.PaginaUsuariosDTO;
 import com.sofka.banking.system.dto.response.UsuarioDTO;
 import com.sofka.banking.system.entity.Usuario;
+import com.sofka.banking.system.enums.CampoUnico;
 import com.sofka.banking.system.exception.usuario.CedulaAlreadyExistsException;
 import com.sofka.banking.system.exception.usuario.EmailAlreadyExistsException;
+import com.sofka.banking.system.exception.usuario.OrdenamientoInvalidoException;
 import com.sofka.banking.system.exception.usuario.UsuarioNotFoundException;
 import com.sofka.banking.system.mapper.UsuarioMapper;
 import com.sofka.banking.system.repository.UsuarioRepository;
+import com.sofka.banking.system.service.EliminacionCascadaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 class UsuarioServiceImplTest {
@@ -44,6 +57,14 @@ class UsuarioServiceImplTest {
         @Mock
         private PasswordEncoder passwordEncoder;
 
+        @Mock
+        private EliminacionCascadaService eliminacionCascadaService;
+
+        // Sin cargar: todas las comprobaciones llegan al repositorio
+        @Spy
+        private FiltrosUnicidad filtrosUnicidad = new FiltrosUnicidad(1_000, 0.01,
+                        DataSize.ofKilobytes(4), new SimpleMeterRegistry());
+
         @InjectMocks
         private UsuarioServiceImpl usuarioService;
 
@@ -109,6 +130,26 @@ class UsuarioServiceImplTest {
                 verifyNoMoreInteractions(usuarioRepository, usuarioMapper);
         }
 
+        @Test
+        void crearUsuario_ConFiltrosCargados_NoDeberiaConsultarLaUnicidadEnLaBaseDeDatos() {
+                // Given
+                filtrosUnicidad.cargar(CampoUnico.CEDULA, Stream.of("87654321"));
+                filtrosUnicidad.cargar(CampoUnico.EMAIL, Stream.of("otro@email.com"));
+                when(usuarioMapper.toEntity(createUsuarioDTO)).thenReturn(usuario);
+                when(passwordEncoder.encode(createUsuarioDTO.getPassword()))
+                                .thenReturn("$2a$10$hashedPassword");
+                when(usuarioRepository.save(usuario)).thenReturn(usuario);
+                when(usuarioMapper.toDTO(usuario)).thenReturn(usuarioDTO);
+
+                // When
+                usuarioService.crearUsuario(createUsuarioDTO);
+
+                // Then
+                verify(usuarioRepository, never()).existsByCedula(any());
+                verify(usuarioRepository, never()).existsByEmail(any());
+                verify(usuarioRepository).save(usuario);
+        }
+
         @Test
         void crearUsuario_ConCedulaExistente_DeberiaLanzarExcepcion() {
                 // Given
@@ -176,7 +217,7 @@ class UsuarioServiceImplTest {
                 List<Usuario> usuarios = Arrays.asList(usuario, usuario2);
                 List<UsuarioDTO> usuariosDTO = Arrays.asList(usuarioDTO, usuarioDTO2);
 
-                when(usuarioRepository.findAll()).thenReturn(usuarios);
+                when(usuarioRepository.findAllConCuentas()).thenReturn(usuarios);
                 when(usuarioMapper.toDTOList(usuarios)).thenReturn(usuariosDTO);
 
                 // When
@@ -191,7 +232,7 @@ class UsuarioServiceImplTest {
                                 () -> assertEquals(usuarioDTO2.getId(), resultado.get(1).getId(),
                                                 "El segundo usuario debe coincidir"));
 
-                verify(usuarioRepository).findAll();
+                verify(usuarioRepository).findAllConCuentas();
                 verify(usuarioMapper).toDTOList(usuarios);
                 verifyNoMoreInteractions(usuarioRepository, usuarioMapper);
         }
@@ -202,7 +243,7 @@ class UsuarioServiceImplTest {
                 List<Usuario> usuarios = Arrays.asList();
                 List<UsuarioDTO> usuariosDTO = Arrays.asList();
 
-                when(usuarioRepository.findAll()).thenReturn(usuarios);
+                when(usuarioRepository.findAllConCuentas()).thenReturn(usuarios);
                 when(usuarioMapper.toDTOList(usuarios)).thenReturn(usuariosDTO);
 
                 // When
@@ -213,11 +254,74 @@ class UsuarioServiceImplTest {
                                 () -> assertNotNull(resultado, "El resultado no debe ser nulo"),
                                 () -> assertTrue(resultado.isEmpty(), "La lista debe estar vacía"));
 
-                verify(usuarioRepository).findAll();
+                verify(usuarioRepository).findAllConCuentas();
                 verify(usuarioMapper).toDTOList(usuarios);
                 verifyNoMoreInteractions(usuarioRepository, usuarioMapper);
         }
 
+        @Test
+        void obtenerPaginaUsuarios_DeberiaConservarElOrdenDeLaPaginaDeIds() {
+                // Given
+                Usuario usuario2 = Usuario.builder().id(2L).cedula("87654321").nombre("María")
+                                .apellido("García").build();
+                PageRequest pageRequest = PageRequest.of(0, 2,
+                                Sort.by(Sort.Direction.DESC, "apellido").and(Sort.by("id")));
+
+                when(usuarioRepository.findPaginaIds(pageRequest))
+                                .thenReturn(new PageImpl<>(List.of(1L, 2L), pageRequest, 5));
+                // La consulta con JOIN no garantiza el orden de la página
+                when(usuarioRepository.findAllConCuentasByIdIn(List.of(1L, 2L)))
+                                .thenReturn(List.of(usuario2, usuario));
+                when(usuarioMapper.toDTOList(List.of(usuario, usuario2)))
+                                .thenReturn(List.of(usuarioDTO));
+
+                // When
+                PaginaUsuariosDTO resultado =
+                                usuarioService.obtenerPaginaUsuarios(0, 2, "apellido,desc");
+
+                // Then
+                assertAll("Página de usuarios",
+                                () -> assertEquals(1, resultado.getUsuarios().size()),
+                                () -> assertEquals(0, resultado.getPagina()),
+                                () -> assertEquals(2, resultado.getTamano()),
+                                () -> assertEquals(5, resultado.getTotalElementos()),
+                                () -> assertEquals(3, resultado.getTotalPaginas()));
+
+                verify(usuarioRepository).findPaginaIds(pageRequest);
+                verify(usuarioRepository).findAllConCuentasByIdIn(List.of(1L, 2L));
+                verifyNoMoreInteractions(usuarioRepository);
+        }
+
+        @Test
+        void obtenerPaginaUsuarios_SinResultados_NoDeberiaConsultarLasCuentas() {
+                // Given
+                PageRequest pageRequest = PageRequest.of(3, 100, Sort.by("id"));
+                when(usuarioRepository.findPaginaIds(pageRequest))
+                                .thenReturn(new PageImpl<>(List.of(), pageRequest, 0));
+                when(usuarioMapper.toDTOList(List.of())).thenReturn(List.of());
+
+                // When
+                PaginaUsuariosDTO resultado = usuarioService.obtenerPaginaUsuarios(3, 500, "id");
+
+                // Then
+                assertTrue(resultado.getUsuarios().isEmpty());
+                verify(usuarioRepository).findPaginaIds(pageRequest);
+                verifyNoMoreInteractions(usuarioRepository);
+        }
+
+        @Test
+        void obtenerPaginaUsuarios_ConCampoNoOrdenable_DeberiaLanzarExcepcion() {
+                // When
+                OrdenamientoInvalidoException exception = assertThrows(
+                                OrdenamientoInvalidoException.class,
+                                () -> usuarioService.obtenerPaginaUsuarios(0, 20, "password,asc"));
+
+                // Then
+                assertEquals("Criterio de ordenamiento inválido: password,asc",
+                                exception.getMessage());
+                verifyNoInteractions(usuarioRepository, usuarioMapper);
+        }
+
         @Test
         void obtenerUsuarioPorId_ConIdExistente_DeberiaRetornarUsuario() {
                 // Given
@@ -334,10 +438,6 @@ class UsuarioServiceImplTest {
         void eliminarUsuario_ConIdExistente_DeberiaEliminarUsuario() {
                 // Given
                 Long id = 1L;
-                Usuario usuarioAEliminar = Usuario.builder().id(id).cedula("12345678")
-                                .nombre("Juan").apellido("Pérez").email("juan@email.com")
-                                .telefono("+573001234567").build();
-                when(usuarioRepository.findById(id)).thenReturn(Optional.of(usuarioAEliminar));
 
                 // When
                 String resultado = usuarioService.eliminarUsuario(id);
@@ -348,9 +448,9 @@ class UsuarioServiceImplTest {
                                 () -> assertEquals("Usuario eliminado exitosamente", resultado,
                                                 "El mensaje debe ser correcto"));
 
-                verify(usuarioRepository).findById(id);
-                verify(usuarioRepository).delete(usuarioAEliminar);
-                verifyNoMoreInteractions(usuarioRepository);
+                // Cuentas y transacciones por bloques, sin cargar el usuario
+                verify(eliminacionCascadaService).eliminarUsuario(id);
+                verifyNoInteractions(usuarioRepository);
                 verifyNoInteractions(usuarioMapper);
         }
 
@@ -358,7 +458,8 @@ class UsuarioServiceImplTest {
         void eliminarUsuario_ConIdInexistente_DeberiaLanzarExcepcion() {
                 // Given
                 Long id = 999L;
-                when(usuarioRepository.findById(id)).thenReturn(Optional.empty());
+                doThrow(new UsuarioNotFoundException(id)).when(eliminacionCascadaService)
+                                .eliminarUsuario(id);
 
                 // When
                 UsuarioNotFoundException exception = assertThrows(UsuarioNotFoundException.class,
@@ -371,9 +472,7 @@ class UsuarioServiceImplTest {
                                                 exception.getMessage(),
                                                 "El mensaje de error debe ser correcto"));
 
-                verify(usuarioRepository).findById(id);
-                verify(usuarioRepository, never()).delete(any());
-                verifyNoMoreInteractions(usuarioRepository);
+                verify(eliminacionCascadaService).eliminarUsuario(id);
                 verifyNoInteractions(usuarioMapper);
         }
 }